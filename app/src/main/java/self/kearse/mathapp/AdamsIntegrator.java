@@ -0,0 +1,392 @@
+package self.kearse.mathapp;
+
+/**
+ * Integrates a system of ordinary differential equations with a fixed step by the Adams
+ * multistep methods, as a predictor-corrector pair of order <i>k</i>: each step predicts the next
+ * state with the explicit <i>k</i>-step Adams-Bashforth method, evaluates the derivative there,
+ * corrects the state with the implicit Adams-Moulton method of the same order, and evaluates the
+ * derivative of the corrected state for the steps to come (PECE).  Each step costs two
+ * evaluations of the derivative whatever the order, against four for the classical Runge-Kutta
+ * method.
+ * <p>
+ * The methods need the derivatives at the <i>k</i> previous steps, so the first <i>k</i>-1 steps
+ * are taken by the classical fourth order Runge-Kutta method instead, in quarter steps for orders
+ * above four so that the start does not limit the order.  The derivatives are kept in a ring
+ * buffer allocated with the state, so once started, no step allocates anything, and long
+ * integrations of large systems run without garbage collection.
+ * <p>
+ * Real systems are held in one array of components and complex systems in two, of real and
+ * imaginary components; the methods act on each array alike.  Integrators are not thread-safe.
+ */
+public final class AdamsIntegrator {
+    /** The highest order supported. */
+    public static final int MAX_ORDER = 6;
+    /** The number of Runge-Kutta steps per starting step for orders above four */
+    private static final int STARTING_SUBSTEPS = 4;
+    /** The Adams-Bashforth coefficients of each order, for f<sub>n</sub>, f<sub>n-1</sub>, ... */
+    private static final double[][] BASHFORTH = {
+            {1d},
+            {3d / 2d, -1d / 2d},
+            {23d / 12d, -16d / 12d, 5d / 12d},
+            {55d / 24d, -59d / 24d, 37d / 24d, -9d / 24d},
+            {1901d / 720d, -2774d / 720d, 2616d / 720d, -1274d / 720d, 251d / 720d},
+            {4277d / 1440d, -7923d / 1440d, 9982d / 1440d, -7298d / 1440d, 2877d / 1440d, -475d / 1440d}
+    };
+    /** The Adams-Moulton coefficients of each order, for f<sub>n+1</sub>, f<sub>n</sub>, ... */
+    private static final double[][] MOULTON = {
+            {1d},
+            {1d / 2d, 1d / 2d},
+            {5d / 12d, 8d / 12d, -1d / 12d},
+            {9d / 24d, 19d / 24d, -5d / 24d, 1d / 24d},
+            {251d / 720d, 646d / 720d, -264d / 720d, 106d / 720d, -19d / 720d},
+            {475d / 1440d, 1427d / 1440d, -798d / 1440d, 482d / 1440d, -173d / 1440d, 27d / 1440d}
+    };
+
+    /** The real system integrated, or null */
+    private final OdeSystem realSystem;
+    /** The complex system integrated, or null */
+    private final ComplexOdeSystem complexSystem;
+    /** The order of the methods */
+    private final int order;
+    /** The number of variables per array of components */
+    private final int dimension;
+    /** The state, one array per component */
+    private final double[][] state;
+    /** The derivatives at the previous steps, the newest at {@link #newest} */
+    private final double[][][] history;
+    /** The predicted state, also the intermediate state of the Runge-Kutta steps */
+    private final double[][] predicted;
+    /** The derivative at the predicted state, also a stage of the Runge-Kutta steps */
+    private final double[][] derivative;
+    /** The weighted sum of the Runge-Kutta stages */
+    private final double[][] stages;
+    /** The index in the history of the derivative at the current state */
+    private int newest;
+    /** The number of derivatives in the history */
+    private int filled = 0;
+    /** The time at the start */
+    private double startTime;
+    /** The step size */
+    private double stepSize;
+    /** The number of steps taken since the start */
+    private long steps;
+    /** The largest correction of any component in the last step, or 0 */
+    private double lastCorrection;
+
+    /**
+     * Constructs an integrator of a real system.
+     * @param system the system to integrate
+     * @param order the order of the methods, from 1 to {@link #MAX_ORDER}
+     * @throws NullPointerException if system is null
+     * @throws IllegalArgumentException if order is out of range, or the dimension of the system is
+     *         negative
+     */
+    public AdamsIntegrator (OdeSystem system, int order)
+            throws NullPointerException, IllegalArgumentException {
+        this(system, null, (system == null) ? 0 : system.dimension(), 1, order);
+    }
+
+    /**
+     * Constructs an integrator of a complex system.
+     * @param system the system to integrate
+     * @param order the order of the methods, from 1 to {@link #MAX_ORDER}
+     * @throws NullPointerException if system is null
+     * @throws IllegalArgumentException if order is out of range, or the dimension of the system is
+     *         negative
+     */
+    public AdamsIntegrator (ComplexOdeSystem system, int order)
+            throws NullPointerException, IllegalArgumentException {
+        this(null, system, (system == null) ? 0 : system.dimension(), 2, order);
+    }
+
+    private AdamsIntegrator (OdeSystem realSystem, ComplexOdeSystem complexSystem, int dimension,
+                             int components, int order)
+            throws NullPointerException, IllegalArgumentException {
+        if ( (realSystem == null) && (complexSystem == null) ) {
+            throw new NullPointerException("Cannot integrate a null system");
+        } else if ( (order < 1) || (order > MAX_ORDER) ) {
+            throw new IllegalArgumentException(String.format(
+                    "Order must be from 1 to %d, was %d", MAX_ORDER, order));
+        } else if (dimension < 0) {
+            throw new IllegalArgumentException("Dimension cannot be negative");
+        }
+        this.realSystem = realSystem;
+        this.complexSystem = complexSystem;
+        this.order = order;
+        this.dimension = dimension;
+        this.state = new double[components][dimension];
+        this.history = new double[order][components][dimension];
+        this.predicted = new double[components][dimension];
+        this.derivative = new double[components][dimension];
+        this.stages = new double[components][dimension];
+    }
+
+    /** Returns the order of the methods. */
+    public int order () {
+        return order;
+    }
+
+    /** Returns the number of variables of the system. */
+    public int dimension () {
+        return dimension;
+    }
+
+    /** Returns whether the system integrated is complex. */
+    public boolean isComplex () {
+        return complexSystem != null;
+    }
+
+    /**
+     * Starts integrating a real system from an initial state, discarding any previous steps.
+     * @param time the initial time
+     * @param initial the initial state, which is copied
+     * @param stepSize the step size, which may be negative to integrate backwards in time
+     * @throws IllegalArgumentException if the system is complex, initial has the wrong length,
+     *         or stepSize is zero or not finite
+     */
+    public void start (double time, double[] initial, double stepSize) throws IllegalArgumentException {
+        if (isComplex()) {
+            throw new IllegalArgumentException("A complex system needs real and imaginary components");
+        }
+        checkLength(initial);
+        System.arraycopy(initial, 0, state[0], 0, dimension);
+        begin(time, stepSize);
+    }
+
+    /**
+     * Starts integrating a complex system from an initial state, discarding any previous steps.
+     * @param time the initial time
+     * @param re the real components of the initial state, which are copied
+     * @param im the imaginary components of the initial state, which are copied
+     * @param stepSize the step size, which may be negative to integrate backwards in time
+     * @throws IllegalArgumentException if the system is real, either array has the wrong length,
+     *         or stepSize is zero or not finite
+     */
+    public void start (double time, double[] re, double[] im, double stepSize)
+            throws IllegalArgumentException {
+        if (!isComplex()) {
+            throw new IllegalArgumentException("A real system has no imaginary components");
+        }
+        checkLength(re);
+        checkLength(im);
+        System.arraycopy(re, 0, state[0], 0, dimension);
+        System.arraycopy(im, 0, state[1], 0, dimension);
+        begin(time, stepSize);
+    }
+
+    private void checkLength (double[] components) throws IllegalArgumentException {
+        if (components.length != dimension) {
+            throw new IllegalArgumentException(String.format(
+                    "State holds %d values, %d required", components.length, dimension));
+        }
+    }
+
+    /** Resets the history to the derivative at the initial state. */
+    private void begin (double time, double stepSize) throws IllegalArgumentException {
+        if ( (stepSize == 0d) || Double.isNaN(stepSize) || Double.isInfinite(stepSize) ) {
+            throw new IllegalArgumentException("Step size must be finite and non-zero, was " + stepSize);
+        }
+        this.startTime = time;
+        this.stepSize = stepSize;
+        this.steps = 0L;
+        this.lastCorrection = 0d;
+        this.newest = 0;
+        evaluate(time, state, history[0]);
+        this.filled = 1;
+    }
+
+    /** Returns the current time. */
+    public double time () {
+        return startTime + (steps * stepSize);
+    }
+
+    /** Returns the step size. */
+    public double stepSize () {
+        return stepSize;
+    }
+
+    /** Returns the number of steps taken since the start. */
+    public long steps () {
+        return steps;
+    }
+
+    /**
+     * Returns the current state of a real system, or the real components of the state of a
+     * complex system.  The array is the one updated by each step, and must not be modified.
+     * @return the state
+     */
+    public double[] state () {
+        return state[0];
+    }
+
+    /**
+     * Returns the imaginary components of the current state of a complex system.  The array is
+     * the one updated by each step, and must not be modified.
+     * @return the imaginary components, or null for a real system
+     */
+    public double[] imaginary () {
+        return isComplex() ? state[1] : null;
+    }
+
+    /**
+     * Returns the largest difference between the predicted and corrected value of any component
+     * in the last step, which is proportional to the local error, or zero after a starting step.
+     * @return the largest correction
+     */
+    public double lastCorrection () {
+        return lastCorrection;
+    }
+
+    /**
+     * Takes one step.
+     * @throws IllegalStateException if the integration has not been started
+     */
+    public void step () throws IllegalStateException {
+        if (filled == 0) {
+            throw new IllegalStateException("Integration has not been started");
+        }
+        if (filled < order) {
+            startingStep();
+        } else {
+            adamsStep();
+        }
+        if (filled < order) filled++;
+    }
+
+    /**
+     * Takes a number of steps, notifying a listener after each.
+     * @param count the number of steps
+     * @param listener notified after each step, which may stop the integration, or null
+     * @return true if every step was taken
+     * @throws IllegalStateException if the integration has not been started
+     * @throws IllegalArgumentException if count is negative
+     */
+    public boolean integrate (long count, StepListener listener)
+            throws IllegalStateException, IllegalArgumentException {
+        if (count < 0L) {
+            throw new IllegalArgumentException("Number of steps cannot be negative");
+        }
+        for (long k = 0L; k < count; k++) {
+            step();
+            if ( (listener != null) && !listener.stepTaken(this) ) return false;
+        }
+        return true;
+    }
+
+    /** Takes a step by the Adams-Bashforth predictor and Adams-Moulton corrector. */
+    private void adamsStep () {
+        double h = stepSize;
+        double[] bashforth = BASHFORTH[order - 1], moulton = MOULTON[order - 1];
+        int components = state.length;
+        /* Predict, from the derivatives at the current and previous steps */
+        for (int c = 0; c < components; c++) {
+            double[] y = state[c], p = predicted[c];
+            double[] f = history[newest][c];
+            double weight = h * bashforth[0];
+            for (int i = 0; i < dimension; i++) p[i] = y[i] + (weight * f[i]);
+            for (int j = 1; j < order; j++) {
+                f = history[previous(j)][c];
+                weight = h * bashforth[j];
+                for (int i = 0; i < dimension; i++) p[i] += weight * f[i];
+            }
+        }
+        steps++;
+        double t = time();
+        evaluate(t, predicted, derivative);
+        /* Correct, with the derivative at the prediction in place of the unknown one */
+        double correction = 0d;
+        for (int c = 0; c < components; c++) {
+            double[] y = state[c], p = predicted[c], s = stages[c];
+            double[] f = derivative[c];
+            double weight = h * moulton[0];
+            for (int i = 0; i < dimension; i++) s[i] = weight * f[i];
+            for (int j = 1; j < order; j++) {
+                f = history[previous(j - 1)][c];
+                weight = h * moulton[j];
+                for (int i = 0; i < dimension; i++) s[i] += weight * f[i];
+            }
+            for (int i = 0; i < dimension; i++) {
+                double corrected = y[i] + s[i];
+                correction = Math.max(correction, Math.abs(corrected - p[i]));
+                y[i] = corrected;
+            }
+        }
+        lastCorrection = correction;
+        newest = next();
+        evaluate(t, state, history[newest]);
+    }
+
+    /** Takes a step by the classical Runge-Kutta method, to fill the history. */
+    private void startingStep () {
+        int substeps = (order > 4) ? STARTING_SUBSTEPS : 1;
+        double h = stepSize / substeps;
+        double t = time();
+        int target = next();
+        /* The derivative at the current state is already known, as the newest in the history */
+        double[][] k1 = history[newest];
+        for (int s = 0; s < substeps; s++) {
+            if (s > 0) {
+                evaluate(t, state, history[target]);
+                k1 = history[target];
+            }
+            rungeKuttaStage(k1, 0.5d * h, 1d);
+            evaluate(t + (0.5d * h), predicted, derivative);
+            rungeKuttaStage(derivative, 0.5d * h, 2d);
+            evaluate(t + (0.5d * h), predicted, derivative);
+            rungeKuttaStage(derivative, h, 2d);
+            evaluate(t + h, predicted, derivative);
+            for (int c = 0; c < state.length; c++) {
+                double[] y = state[c], sum = stages[c], k4 = derivative[c];
+                for (int i = 0; i < dimension; i++) y[i] += (h / 6d) * (sum[i] + k4[i]);
+            }
+            t += h;
+        }
+        steps++;
+        lastCorrection = 0d;
+        newest = target;
+        evaluate(time(), state, history[newest]);
+    }
+
+    /**
+     * Accumulates a Runge-Kutta stage into the weighted sum, and forms the state for the next
+     * stage.  A weight of 1 starts the sum.
+     */
+    private void rungeKuttaStage (double[][] k, double offset, double weight) {
+        for (int c = 0; c < state.length; c++) {
+            double[] y = state[c], p = predicted[c], sum = stages[c], f = k[c];
+            for (int i = 0; i < dimension; i++) {
+                sum[i] = (weight == 1d) ? f[i] : sum[i] + (weight * f[i]);
+                p[i] = y[i] + (offset * f[i]);
+            }
+        }
+    }
+
+    /** Returns the index in the history of the derivative the given number of steps back. */
+    private int previous (int back) {
+        int index = newest - back;
+        return (index < 0) ? index + order : index;
+    }
+
+    /** Returns the index in the history to hold the derivative of the next step. */
+    private int next () {
+        return (newest + 1 == order) ? 0 : newest + 1;
+    }
+
+    /** Evaluates the derivative of the system. */
+    private void evaluate (double t, double[][] y, double[][] f) {
+        if (complexSystem != null) complexSystem.derivative(t, y[0], y[1], f[0], f[1]);
+        else realSystem.derivative(t, y[0], f[0]);
+    }
+
+    /**
+     * Receives the steps of an integration, as they are taken.
+     */
+    public interface StepListener {
+        /**
+         * Called after each step, with the integrator holding the new time and state.
+         * @param integrator the integrator, whose state must not be modified
+         * @return true to continue, false to stop the integration
+         */
+        boolean stepTaken (AdamsIntegrator integrator);
+    }
+}
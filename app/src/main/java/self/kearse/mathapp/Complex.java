@@ -2,7 +2,6 @@ package self.kearse.mathapp;
 
 import androidx.annotation.NonNull;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -12,7 +11,6 @@ import java.util.List;
  * @author Justin Kearse
  */
 public abstract class Complex <T extends Number> {
-    private static double TARGET_PRECISION = 1E-16;
     /** Returns the principal Argument of this. */
     public abstract T Argument ();
     /** Returns the modulus of this. */
@@ -82,9 +80,7 @@ public abstract class Complex <T extends Number> {
         if (denominator == null) {
             throw new NullPointerException("Cannot divide by a null reference");
         }
-        else if (denominator.modulus().equals(0)) {
-            throw new ArithmeticException("Attempted to divide by zero");
-        }
+        /* multInverse raises the ArithmeticException for a zero denominator */
         else return this.multiply(denominator.multInverse());
     }
 
@@ -128,16 +124,17 @@ public abstract class Complex <T extends Number> {
     }
 
     /**
-     * Raises this to the given exponent.
+     * Raises this to the given exponent, with the method chosen by the kind of exponent, see
+     * {@link ComplexPower}.
      * @param exponent the desired exponent
      * @return a new Complex number representing the exponentiation result
      * @throws NullPointerException if exponent is null
+     * @throws ArithmeticException if this is zero and the real part of exponent is not positive,
+     *         except for the exponent zero
      */
-    public Complex<Double> pow (Complex<? extends Number> exponent) throws NullPointerException {
-        if (exponent == null) {
-            throw new NullPointerException("cannot exponentiate by a null reference");
-        }
-        else return Exp(Log(this).multiply(exponent));
+    public Complex<Double> pow (Complex<? extends Number> exponent)
+            throws NullPointerException, ArithmeticException {
+        return ComplexPower.pow(this, exponent);
     }
 
     /**
@@ -177,39 +174,31 @@ public abstract class Complex <T extends Number> {
      */
     public static Complex<Double> root (Complex<? extends Number> value, int degree)
             throws NullPointerException, IllegalArgumentException {
-        //TODO: method body
-        Double modulus = rootNewton(value.modulus(), degree);
-        Double Argument = value.Argument().doubleValue();
-        if (Argument.equals(0d)) {
+        if (value == null) {
+            throw new NullPointerException("Cannot take the root of null");
+        }
+        double modulus = NthRoot.root(value.modulus().doubleValue(), degree);
+        double Argument = value.Argument().doubleValue();
+        if (Argument == 0d) {
             Argument = (Math.PI / degree) * 2d;
         } else {
             Argument = Argument / degree;
-        };
+        }
         return new ComplexDoublePolar(Argument, modulus);
     }
 
     /**
-     * Determines the principal <i>n</i>-th roots of the given value
+     * Determines the principal <i>n</i>-th roots of the given value.  The roots are computed on
+     * demand from their index, see {@link ComplexRootsView}.
      * @param value the number to find the roots of
      * @param degree the exponent <i>n</i> such that (root)^n=value
-     * @return a new List of Complex numbers representing the <i>n</i> unique roots of value
+     * @return an unmodifiable List of Complex numbers representing the <i>n</i> unique roots of value
      * @throws NullPointerException if value is null
-     * @throws IllegalArgumentException if degree is zero
+     * @throws IllegalArgumentException if degree is not positive
      */
     public static List<Complex<Double>> roots (Complex<? extends Number> value, int degree)
         throws NullPointerException, IllegalArgumentException {
-        //TODO: method body
-        List<Complex<Double>> list = new ArrayList<Complex<Double>>();
-        Complex<Double> principal = root(value, degree);
-        Double modulus = principal.modulus();
-        Double argument = principal.Argument();
-        list.add(principal);
-        double argIncrement = (Math.PI / degree) * 2d;
-        for (int i = 1; i < degree; i++) {
-            argument += argIncrement;
-            list.add(new ComplexDoublePolar(argument, modulus));
-        }
-        return list;
+        return new ComplexRootsView(value, degree);
     }
 
     /**
@@ -226,37 +215,4 @@ public abstract class Complex <T extends Number> {
      */
     public abstract String toLaTeX();
 
-    /**
-     * Computes the n-th root of a Real number.  Utilizes a exponent/logarithm computation to seed
-     * the guess and follows with a Newton algorithm (see
-     * <a href=https://en.wikipedia.org/wiki/Nth_root_algorithm>https://en.wikipedia.org/wiki/Nth_root_algorithm</a>)
-     * @param value a real number
-     * @param degree the degree of the root
-     * @return the real value such that raising it to degree yields value (within approximation)
-     * @throws NullPointerException if value is null
-     */
-    private static Double rootNewton (Number value, int degree) throws NullPointerException {
-        if (value == null) {
-            throw new NullPointerException("Cannot take the root of null");
-        }
-        /* Short-circuit for roots of zero and one*/
-        if (0d == value.doubleValue()) return 0d;
-        else if (1d == value.doubleValue()) return 1d;
-
-        Double decValue = 1d/degree;
-        int oneLess = degree - 1;
-        Double delta = 1d;
-        Double root = Math.exp(decValue*Math.log(value.doubleValue()));
-        while (delta > TARGET_PRECISION) {
-            Double next = decValue * ((oneLess * root) + (value.doubleValue()/Math.pow(root, oneLess)));
-            delta = Math.abs(next - root);
-            root = next;
-        }
-        /* Coerce root to integer when appropriate */
-        int intValue = root.intValue();
-        if (Math.pow(intValue, degree) == value.doubleValue()) root = new Double(intValue);
-        /* End integer coercion */
-        return root;
-    }
-
 }
\ No newline at end of file
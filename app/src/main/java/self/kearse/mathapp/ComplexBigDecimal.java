@@ -0,0 +1,278 @@
+package self.kearse.mathapp;
+
+import androidx.annotation.NonNull;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+/**
+ * A complex number in Cartesian form with arbitrary-precision components, for computations which
+ * outrun double precision, such as the reference orbit of {@link PerturbationRenderer}.  Every
+ * operation rounds its result to the {@link MathContext} of this, so the cost of each operation
+ * stays bounded by the chosen precision.  Sums, products, complements and inverses are computed
+ * to the full precision; the modulus is computed to the full precision by Newton's method, while
+ * the Argument, having no arbitrary-precision arctangent behind it, is only as precise as a
+ * double.
+ */
+public final class ComplexBigDecimal extends Complex<BigDecimal> {
+    /** The precision used when none is given, 34 decimal digits. */
+    public static final MathContext DEFAULT_CONTEXT = MathContext.DECIMAL128;
+
+    private final BigDecimal real;
+    private final BigDecimal imaginary;
+    /** The precision and rounding of the results of operations on this */
+    private final MathContext context;
+
+    /**
+     * Constructs a complex number with the default precision.
+     * @param real the real component
+     * @param imaginary the imaginary component
+     * @throws NullPointerException if either component is null
+     */
+    public ComplexBigDecimal (BigDecimal real, BigDecimal imaginary) throws NullPointerException {
+        this(real, imaginary, DEFAULT_CONTEXT);
+    }
+
+    /**
+     * Constructs a complex number.  The components are kept as given, and only the results of
+     * operations are rounded to the context.
+     * @param real the real component
+     * @param imaginary the imaginary component
+     * @param context the precision and rounding of the results of operations
+     * @throws NullPointerException if any argument is null
+     * @throws IllegalArgumentException if context has unlimited precision
+     */
+    public ComplexBigDecimal (BigDecimal real, BigDecimal imaginary, MathContext context)
+            throws NullPointerException, IllegalArgumentException {
+        if ( (real == null) || (imaginary == null) || (context == null) ) {
+            throw new NullPointerException("Cannot use null values");
+        } else if (context.getPrecision() == 0) {
+            throw new IllegalArgumentException("Precision must be bounded");
+        }
+        this.real = real;
+        this.imaginary = imaginary;
+        this.context = context;
+    }
+
+    /**
+     * Converts any Complex number, exactly, to arbitrary precision.
+     * @param value the number to convert
+     * @param context the precision and rounding of the results of operations
+     * @return value itself if it already has the given context, otherwise a new number
+     * @throws NullPointerException if value or context is null
+     * @throws IllegalArgumentException if context has unlimited precision
+     * @throws NumberFormatException if a component of value is infinite or NaN
+     */
+    public static ComplexBigDecimal valueOf (Complex<? extends Number> value, MathContext context)
+            throws NullPointerException, IllegalArgumentException, NumberFormatException {
+        if (value == null) {
+            throw new NullPointerException("Cannot convert a null reference");
+        } else if ( (value instanceof ComplexBigDecimal)
+                && ((ComplexBigDecimal) value).context.equals(context) ) {
+            return (ComplexBigDecimal) value;
+        }
+        return new ComplexBigDecimal(toBigDecimal(value.real()), toBigDecimal(value.imaginary()),
+                context);
+    }
+
+    /** Returns the precision and rounding of the results of operations on this. */
+    public MathContext context () {
+        return context;
+    }
+
+    /**
+     * Computes the principal Argument to double precision.
+     * @return the principal Argument of this, where -pi < theta <= pi
+     */
+    @Override
+    public BigDecimal Argument () {
+        double argument = Math.atan2(imaginary.doubleValue(), real.doubleValue());
+        return new BigDecimal((argument == -Math.PI) ? Math.PI : argument);
+    }
+
+    /**
+     * Computes the modulus to the precision of this.
+     * @return the modulus of this
+     */
+    @Override
+    public BigDecimal modulus () {
+        return sqrt(abs2());
+    }
+
+    @Override
+    public BigDecimal real () {
+        return real;
+    }
+
+    @Override
+    public BigDecimal imaginary () {
+        return imaginary;
+    }
+
+    /**
+     * Computes the square of the modulus, which needs no square root.
+     * @return re<sup>2</sup>+im<sup>2</sup>, to the precision of this
+     */
+    public BigDecimal abs2 () {
+        return real.multiply(real, context).add(imaginary.multiply(imaginary, context), context);
+    }
+
+    @Override
+    public ComplexBigDecimal addInverse () {
+        return new ComplexBigDecimal(real.negate(), imaginary.negate(), context);
+    }
+
+    @Override
+    public ComplexBigDecimal multInverse () throws ArithmeticException {
+        BigDecimal abs2 = abs2();
+        if (abs2.signum() == 0) {
+            throw new ArithmeticException("No multiplicative inverse of zero");
+        }
+        return new ComplexBigDecimal(real.divide(abs2, context),
+                imaginary.negate().divide(abs2, context), context);
+    }
+
+    @Override
+    public ComplexBigDecimal complement () {
+        return new ComplexBigDecimal(real, imaginary.negate(), context);
+    }
+
+    @Override
+    public ComplexBigDecimal add (Complex<? extends Number> other) throws NullPointerException {
+        if (other == null) {
+            throw new NullPointerException("Cannot add a null reference");
+        }
+        return new ComplexBigDecimal(real.add(toBigDecimal(other.real()), context),
+                imaginary.add(toBigDecimal(other.imaginary()), context), context);
+    }
+
+    @Override
+    public ComplexBigDecimal multiply (Complex<? extends Number> other) throws NullPointerException {
+        if (other == null) {
+            throw new NullPointerException("Cannot multiply by a null reference");
+        }
+        BigDecimal oReal = toBigDecimal(other.real()), oImaginary = toBigDecimal(other.imaginary());
+        return new ComplexBigDecimal(
+                real.multiply(oReal, context).subtract(imaginary.multiply(oImaginary, context), context),
+                real.multiply(oImaginary, context).add(imaginary.multiply(oReal, context), context),
+                context);
+    }
+
+    /**
+     * Computes z<sup>2</sup>+c, the step of the Mandelbrot iteration, with three real
+     * multiplications.
+     * @param c the number to add to the square
+     * @return a new number with the result, to the precision of this
+     * @throws NullPointerException if c is null
+     */
+    public ComplexBigDecimal squareAdd (ComplexBigDecimal c) throws NullPointerException {
+        BigDecimal re2 = real.multiply(real, context);
+        BigDecimal im2 = imaginary.multiply(imaginary, context);
+        BigDecimal reIm = real.multiply(imaginary, context);
+        return new ComplexBigDecimal(re2.subtract(im2, context).add(c.real, context),
+                reIm.add(reIm, context).add(c.imaginary, context), context);
+    }
+
+    @Override
+    @NonNull
+    public String toString () {
+        String re = real.toString(), im = imaginary.toString();
+        return new StringBuilder(re.length() + im.length() + 2).append(re).append('+')
+                .append(im).append('i').toString();
+    }
+
+    /**
+     * Formats this number for LaTeX, to the full precision of the components.
+     * @return "&lt;a&gt;+&lt;b&gt;\,i", such as "1.5-2.0\,i" or "1.5\times10^{-12}+2\,i"
+     */
+    @Override
+    public String toLaTeX () {
+        StringBuilder out = new StringBuilder(32);
+        appendLaTeX(out, real);
+        if (imaginary.signum() >= 0) out.append('+');
+        appendLaTeX(out, imaginary);
+        return out.append("\\,i").toString();
+    }
+
+    /**
+     * Writes a component for LaTeX, turning any exponent of its scientific notation into a
+     * power of ten.
+     * @param out the builder to write to
+     * @param value the component
+     */
+    private static void appendLaTeX (StringBuilder out, BigDecimal value) {
+        String text = value.toString();
+        int exponent = text.indexOf('E');
+        if (exponent < 0) {
+            out.append(text);
+        } else {
+            int digits = exponent + ((text.charAt(exponent + 1) == '+') ? 2 : 1);
+            out.append(text, 0, exponent).append("\\times10^{")
+                    .append(text, digits, text.length()).append('}');
+        }
+    }
+
+    @Override
+    public boolean equals (Object other) {
+        /* Use Complex parent class equality checks */
+        if (!super.equals(other)) return false;
+        if (!(other instanceof Complex)) return true;
+        Complex<?> o = (Complex<?>) other;
+        if (!isFinite(o.real()) || !isFinite(o.imaginary())) return false;
+        /* Component-wise equality check, by value rather than scale */
+        return (real.compareTo(toBigDecimal(o.real())) == 0)
+                && (imaginary.compareTo(toBigDecimal(o.imaginary())) == 0);
+    }
+
+    @Override
+    public int hashCode () {
+        return (31 * hash(real)) + hash(imaginary);
+    }
+
+    /** Hashes a BigDecimal consistently with compareTo, ignoring its scale. */
+    private static int hash (BigDecimal value) {
+        return (value.signum() == 0) ? 0 : value.stripTrailingZeros().hashCode();
+    }
+
+    /** Checks whether a Number has a finite value, which every BigDecimal has. */
+    private static boolean isFinite (Number value) {
+        if (value instanceof BigDecimal) return true;
+        double d = value.doubleValue();
+        return !(Double.isNaN(d) || Double.isInfinite(d));
+    }
+
+    /**
+     * Converts a Number exactly to a BigDecimal.
+     * @param value the number
+     * @return value itself if it is a BigDecimal, otherwise its exact value
+     * @throws NumberFormatException if value is infinite or NaN
+     */
+    private static BigDecimal toBigDecimal (Number value) throws NumberFormatException {
+        if (value instanceof BigDecimal) return (BigDecimal) value;
+        else if ( (value instanceof Integer) || (value instanceof Long)
+                || (value instanceof Short) || (value instanceof Byte) ) {
+            return BigDecimal.valueOf(value.longValue());
+        } else return new BigDecimal(value.doubleValue());
+    }
+
+    /**
+     * Computes a square root by Newton's method, seeded from double precision, which roughly
+     * doubles the number of correct digits per step.
+     * @param value a non-negative number
+     * @return the square root of value, to the precision of this
+     */
+    private BigDecimal sqrt (BigDecimal value) {
+        if (value.signum() == 0) return BigDecimal.ZERO;
+        MathContext working = new MathContext(context.getPrecision() + 2, context.getRoundingMode());
+        /* Seed from the unscaled value, which stays within the range of a double at any scale */
+        int shift = value.precision() - value.scale();
+        if ((shift & 1) != 0) shift++;
+        BigDecimal scaled = value.movePointLeft(shift);
+        BigDecimal root = new BigDecimal(Math.sqrt(scaled.doubleValue())).movePointRight(shift / 2);
+        BigDecimal two = BigDecimal.valueOf(2L);
+        for (int digits = 15; digits < working.getPrecision() * 2; digits *= 2) {
+            root = root.add(value.divide(root, working), working).divide(two, working);
+        }
+        return root.round(context);
+    }
+}
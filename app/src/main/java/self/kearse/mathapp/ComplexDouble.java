@@ -0,0 +1,301 @@
+package self.kearse.mathapp;
+
+import androidx.annotation.NonNull;
+
+/**
+ * An immutable complex number backed by two primitive double fields.  Intended for inner loops,
+ * where the boxed Double fields of {@link ComplexDoubleCartesian} and {@link ComplexDoublePolar}
+ * would allocate on every operation.  The primitive accessors {@link #re()}, {@link #im()},
+ * {@link #abs()} and {@link #arg()} and the primitive-operand arithmetic never box, while the
+ * inherited {@link Complex} methods remain available for interoperating with the other
+ * implementations.
+ */
+public final class ComplexDouble extends Complex<Double> {
+    /** The additive identity, 0+0i. */
+    public static final ComplexDouble ZERO = new ComplexDouble(0d, 0d);
+    /** The multiplicative identity, 1+0i. */
+    public static final ComplexDouble ONE = new ComplexDouble(1d, 0d);
+    /** The imaginary unit, 0+1i. */
+    public static final ComplexDouble I = new ComplexDouble(0d, 1d);
+
+    /** The real component of the Cartesian representation <i>z=a+bi</i> */
+    private final double re;
+    /** The imaginary component of the Cartesian representation <i>z=a+bi</i> */
+    private final double im;
+
+    /**
+     * Constructs a new complex number from its Cartesian components.
+     * @param re the real component
+     * @param im the imaginary component
+     */
+    public ComplexDouble (double re, double im) {
+        this.re = re;
+        this.im = im;
+    }
+
+    /**
+     * Constructs a new complex number from its polar components.
+     * @param argument the argument of the number, in radians
+     * @param modulus the modulus of the number
+     * @return a new ComplexDouble with value modulus*e^(i*argument)
+     */
+    public static ComplexDouble polar (double argument, double modulus) {
+        return new ComplexDouble(modulus * Math.cos(argument), modulus * Math.sin(argument));
+    }
+
+    /**
+     * Converts any Complex number to a ComplexDouble.
+     * @param value another Complex number
+     * @return value itself if already a ComplexDouble, otherwise a new ComplexDouble of equal value
+     * @throws NullPointerException if value is null
+     */
+    public static ComplexDouble valueOf (Complex<? extends Number> value) throws NullPointerException {
+        if (value == null) {
+            throw new NullPointerException("Cannot convert a null reference");
+        } else if (value instanceof ComplexDouble) {
+            return (ComplexDouble) value;
+        } else {
+            return new ComplexDouble(value.real().doubleValue(), value.imaginary().doubleValue());
+        }
+    }
+
+    /** Returns the real component of this, without boxing. */
+    public double re () {
+        return this.re;
+    }
+
+    /** Returns the imaginary component of this, without boxing. */
+    public double im () {
+        return this.im;
+    }
+
+    /** Returns the modulus of this, without boxing. */
+    public double abs () {
+        double abs2 = (this.re * this.re) + (this.im * this.im);
+        /* The square root of the square saves Math.hypot, unless the square over- or underflows */
+        return ( (abs2 >= Double.MIN_NORMAL) && (abs2 < Double.POSITIVE_INFINITY) )
+                ? Math.sqrt(abs2) : Math.hypot(this.re, this.im);
+    }
+
+    /** Returns the square of the modulus of this, avoiding the square root. */
+    public double abs2 () {
+        return (this.re * this.re) + (this.im * this.im);
+    }
+
+    /**
+     * Returns the principal Argument of this, without boxing.
+     * @return the principal Argument of this, where -pi < theta <= pi
+     */
+    public double arg () {
+        double arg = Math.atan2(this.im, this.re);
+        /* atan2 yields -pi for a negative zero imaginary part, outside the principal range */
+        return (arg == -Math.PI) ? Math.PI : arg;
+    }
+
+    @Override
+    public Double Argument () {
+        return arg();
+    }
+
+    @Override
+    public Double modulus () {
+        return abs();
+    }
+
+    @Override
+    public Double real () {
+        return this.re;
+    }
+
+    @Override
+    public Double imaginary () {
+        return this.im;
+    }
+
+    @Override
+    public ComplexDouble addInverse () {
+        return new ComplexDouble(-this.re, -this.im);
+    }
+
+    @Override
+    public ComplexDouble multInverse () throws ArithmeticException {
+        if ( (this.re == 0d) && (this.im == 0d) ) {
+            throw new ArithmeticException("No multiplicative inverse of zero");
+        }
+        return quotient(1d, 0d, this.re, this.im);
+    }
+
+    @Override
+    public ComplexDouble complement () {
+        return new ComplexDouble(this.re, -this.im);
+    }
+
+    /**
+     * Adds the given Cartesian components to this.
+     * @param re the real component to add
+     * @param im the imaginary component to add
+     * @return a new ComplexDouble representing the sum
+     */
+    public ComplexDouble add (double re, double im) {
+        return new ComplexDouble(this.re + re, this.im + im);
+    }
+
+    @Override
+    public ComplexDouble add (Complex<? extends Number> other) throws NullPointerException {
+        if (other == null) {
+            throw new NullPointerException("Cannot add a null reference");
+        } else if (other instanceof ComplexDouble) {
+            ComplexDouble o = (ComplexDouble) other;
+            return add(o.re, o.im);
+        } else {
+            return add(other.real().doubleValue(), other.imaginary().doubleValue());
+        }
+    }
+
+    /**
+     * Subtracts the given Cartesian components from this.
+     * @param re the real component to subtract
+     * @param im the imaginary component to subtract
+     * @return a new ComplexDouble representing the difference
+     */
+    public ComplexDouble subtract (double re, double im) {
+        return new ComplexDouble(this.re - re, this.im - im);
+    }
+
+    @Override
+    public ComplexDouble subtract (Complex<? extends Number> other) throws NullPointerException {
+        if (other == null) {
+            throw new NullPointerException("Cannot subtract a null reference");
+        } else if (other instanceof ComplexDouble) {
+            ComplexDouble o = (ComplexDouble) other;
+            return subtract(o.re, o.im);
+        } else {
+            return subtract(other.real().doubleValue(), other.imaginary().doubleValue());
+        }
+    }
+
+    /**
+     * Multiplies this by the given Cartesian components.
+     * @param re the real component of the multiplier
+     * @param im the imaginary component of the multiplier
+     * @return a new ComplexDouble representing the product
+     */
+    public ComplexDouble multiply (double re, double im) {
+        return new ComplexDouble((this.re * re) - (this.im * im), (this.re * im) + (this.im * re));
+    }
+
+    @Override
+    public ComplexDouble multiply (Complex<? extends Number> other) throws NullPointerException {
+        if (other == null) {
+            throw new NullPointerException("Cannot multiply a null reference");
+        } else if (other instanceof ComplexDouble) {
+            ComplexDouble o = (ComplexDouble) other;
+            return multiply(o.re, o.im);
+        } else {
+            return multiply(other.real().doubleValue(), other.imaginary().doubleValue());
+        }
+    }
+
+    /**
+     * Divides this by the given Cartesian components.
+     * @param re the real component of the denominator
+     * @param im the imaginary component of the denominator
+     * @return a new ComplexDouble representing the quotient
+     * @throws ArithmeticException if the denominator is zero
+     */
+    public ComplexDouble divide (double re, double im) throws ArithmeticException {
+        if ( (re == 0d) && (im == 0d) ) {
+            throw new ArithmeticException("Attempted to divide by zero");
+        }
+        return quotient(this.re, this.im, re, im);
+    }
+
+    /**
+     * Divides two complex numbers, the second non-zero.  Dividing by |b|<sup>2</sup> is exact
+     * for such quotients as (5+5i)/(3-i), so it is used while the square and the quotient are in
+     * range, and Smith's algorithm, which squares nothing, otherwise.
+     */
+    private static ComplexDouble quotient (double aRe, double aIm, double bRe, double bIm) {
+        double abs2 = (bRe * bRe) + (bIm * bIm);
+        if ( (abs2 >= Double.MIN_NORMAL) && (abs2 < Double.POSITIVE_INFINITY) ) {
+            double re = ((aRe * bRe) + (aIm * bIm)) / abs2;
+            double im = ((aIm * bRe) - (aRe * bIm)) / abs2;
+            if ( !Double.isNaN(re + im) && !Double.isInfinite(re + im) ) return new ComplexDouble(re, im);
+        }
+        double[] quotient = new double[2];
+        ComplexMatrix.divide(aRe, aIm, bRe, bIm, quotient);
+        return new ComplexDouble(quotient[0], quotient[1]);
+    }
+
+    @Override
+    public ComplexDouble divide (Complex<? extends Number> denominator)
+            throws ArithmeticException, NullPointerException {
+        if (denominator == null) {
+            throw new NullPointerException("Cannot divide by a null reference");
+        } else if (denominator instanceof ComplexDouble) {
+            ComplexDouble o = (ComplexDouble) denominator;
+            return divide(o.re, o.im);
+        } else {
+            return divide(denominator.real().doubleValue(), denominator.imaginary().doubleValue());
+        }
+    }
+
+    /**
+     * Multiplies this by a real scalar.
+     * @param factor the real scaling factor
+     * @return a new ComplexDouble with both components scaled by factor
+     */
+    public ComplexDouble scale (double factor) {
+        return new ComplexDouble(this.re * factor, this.im * factor);
+    }
+
+    /**
+     * Formats this number for String output.
+     * @return "&lt;a&gt;+&lt;b&gt;i", such as "3.0+1.5i"
+     */
+    @Override
+    @NonNull
+    public String toString () {
+        return new StringBuilder(32).append(re).append('+').append(im).append('i').toString();
+    }
+
+    /**
+     * Formats this number for LaTeX.
+     * @return "&lt;a&gt;+&lt;b&gt;\,i", such as "1.5-2.0\,i"
+     */
+    @Override
+    public String toLaTeX () {
+        return ComplexFormatter.CARTESIAN_LATEX.format(re, im);
+    }
+
+    /**
+     * Checks for equality with another Object.
+     * @param other the object to compare to
+     * @return true if other is an equivalent numerical value, false otherwise.
+     */
+    @Override
+    public boolean equals (Object other) {
+        /* Use Complex parent class equality checks */
+        if (!super.equals(other)) return false;
+        if (!(other instanceof Complex)) return true;
+        double oRe, oIm;
+        if (other instanceof ComplexDouble) {
+            oRe = ((ComplexDouble) other).re;
+            oIm = ((ComplexDouble) other).im;
+        } else {
+            @SuppressWarnings("unchecked")
+            Complex<Number> o = (Complex<Number>) other;
+            oRe = o.real().doubleValue();
+            oIm = o.imaginary().doubleValue();
+        }
+        /* Component-wise equality check, with the semantics of Double.equals */
+        return (Double.doubleToLongBits(this.re) == Double.doubleToLongBits(oRe))
+                && (Double.doubleToLongBits(this.im) == Double.doubleToLongBits(oIm));
+    }
+
+    @Override
+    public int hashCode () {
+        long bits = Double.doubleToLongBits(this.re) * 31L + Double.doubleToLongBits(this.im);
+        return (int) (bits ^ (bits >>> 32));
+    }
+}
@@ -0,0 +1,349 @@
+package self.kearse.mathapp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A fixed-length buffer of complex numbers held as parallel primitive arrays of real and
+ * imaginary components (structure-of-arrays), rather than one {@link Complex} object per element.
+ * The bulk kernels operate in place on this buffer element-wise and return this, so that they may
+ * be chained.  Division follows IEEE double arithmetic, so elements divided by zero become
+ * infinite or NaN rather than raising an exception part way through a buffer.
+ */
+public final class ComplexDoubleArray {
+    /** The real components of the elements */
+    private final double[] re;
+    /** The imaginary components of the elements */
+    private final double[] im;
+
+    /**
+     * Constructs a new buffer of the given length, with every element zero.
+     * @param length the number of elements
+     * @throws NegativeArraySizeException if length is negative
+     */
+    public ComplexDoubleArray (int length) throws NegativeArraySizeException {
+        this.re = new double[length];
+        this.im = new double[length];
+    }
+
+    /**
+     * Constructs a new buffer backed by the given component arrays, without copying them.
+     * @param re the real components
+     * @param im the imaginary components
+     * @throws NullPointerException if either array is null
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    public ComplexDoubleArray (double[] re, double[] im)
+            throws NullPointerException, IllegalArgumentException {
+        if ( (re == null) || (im == null) ) {
+            throw new NullPointerException("Cannot use null component arrays");
+        } else if (re.length != im.length) {
+            throw new IllegalArgumentException("Component arrays must have equal length");
+        }
+        this.re = re;
+        this.im = im;
+    }
+
+    /**
+     * Constructs a new buffer holding the values of a List of Complex numbers.
+     * @param values the Complex numbers to copy
+     * @return a new ComplexDoubleArray with the same values, in order
+     * @throws NullPointerException if values or any of its elements are null
+     */
+    public static ComplexDoubleArray fromList (List<? extends Complex<? extends Number>> values)
+            throws NullPointerException {
+        ComplexDoubleArray array = new ComplexDoubleArray(values.size());
+        int i = 0;
+        for (Complex<? extends Number> value : values) {
+            array.set(i++, value);
+        }
+        return array;
+    }
+
+    /**
+     * Copies the elements of this buffer into a new List of Complex numbers.
+     * @return a new List of ComplexDouble values, in order
+     */
+    public List<Complex<Double>> toList () {
+        List<Complex<Double>> list = new ArrayList<Complex<Double>>(re.length);
+        for (int i = 0; i < re.length; i++) {
+            list.add(new ComplexDouble(re[i], im[i]));
+        }
+        return list;
+    }
+
+    /** Returns the number of elements in this buffer. */
+    public int length () {
+        return re.length;
+    }
+
+    /** Returns the backing array of real components; changes to it are reflected in this. */
+    public double[] re () {
+        return re;
+    }
+
+    /** Returns the backing array of imaginary components; changes to it are reflected in this. */
+    public double[] im () {
+        return im;
+    }
+
+    /**
+     * Returns the element at the given index.
+     * @param index the index of the element
+     * @return a new ComplexDouble with the value of the element
+     * @throws ArrayIndexOutOfBoundsException if index is out of range
+     */
+    public ComplexDouble get (int index) throws ArrayIndexOutOfBoundsException {
+        return new ComplexDouble(re[index], im[index]);
+    }
+
+    /**
+     * Replaces the element at the given index.
+     * @param index the index of the element
+     * @param re the new real component
+     * @param im the new imaginary component
+     * @throws ArrayIndexOutOfBoundsException if index is out of range
+     */
+    public void set (int index, double re, double im) throws ArrayIndexOutOfBoundsException {
+        this.re[index] = re;
+        this.im[index] = im;
+    }
+
+    /**
+     * Replaces the element at the given index.
+     * @param index the index of the element
+     * @param value the new value
+     * @throws ArrayIndexOutOfBoundsException if index is out of range
+     * @throws NullPointerException if value is null
+     */
+    public void set (int index, Complex<? extends Number> value)
+            throws ArrayIndexOutOfBoundsException, NullPointerException {
+        if (value == null) {
+            throw new NullPointerException("Cannot store a null reference");
+        } else if (value instanceof ComplexDouble) {
+            set(index, ((ComplexDouble) value).re(), ((ComplexDouble) value).im());
+        } else {
+            set(index, value.real().doubleValue(), value.imaginary().doubleValue());
+        }
+    }
+
+    /** Returns a new buffer with a copy of the elements of this. */
+    public ComplexDoubleArray copy () {
+        return new ComplexDoubleArray(re.clone(), im.clone());
+    }
+
+    /**
+     * Adds the elements of another buffer to the elements of this.
+     * @param other a buffer of equal length
+     * @return this
+     * @throws IllegalArgumentException if other differs in length
+     */
+    public ComplexDoubleArray add (ComplexDoubleArray other) throws IllegalArgumentException {
+        checkLength(other);
+        final double[] oRe = other.re, oIm = other.im;
+        for (int i = 0; i < re.length; i++) {
+            re[i] += oRe[i];
+            im[i] += oIm[i];
+        }
+        return this;
+    }
+
+    /**
+     * Subtracts the elements of another buffer from the elements of this.
+     * @param other a buffer of equal length
+     * @return this
+     * @throws IllegalArgumentException if other differs in length
+     */
+    public ComplexDoubleArray subtract (ComplexDoubleArray other) throws IllegalArgumentException {
+        checkLength(other);
+        final double[] oRe = other.re, oIm = other.im;
+        for (int i = 0; i < re.length; i++) {
+            re[i] -= oRe[i];
+            im[i] -= oIm[i];
+        }
+        return this;
+    }
+
+    /**
+     * Multiplies the elements of this by the elements of another buffer.
+     * @param other a buffer of equal length
+     * @return this
+     * @throws IllegalArgumentException if other differs in length
+     */
+    public ComplexDoubleArray multiply (ComplexDoubleArray other) throws IllegalArgumentException {
+        checkLength(other);
+        final double[] oRe = other.re, oIm = other.im;
+        for (int i = 0; i < re.length; i++) {
+            double a = re[i], b = im[i], c = oRe[i], d = oIm[i];
+            re[i] = (a * c) - (b * d);
+            im[i] = (a * d) + (b * c);
+        }
+        return this;
+    }
+
+    /**
+     * Divides the elements of this by the elements of another buffer.
+     * @param other a buffer of equal length
+     * @return this
+     * @throws IllegalArgumentException if other differs in length
+     */
+    public ComplexDoubleArray divide (ComplexDoubleArray other) throws IllegalArgumentException {
+        checkLength(other);
+        final double[] oRe = other.re, oIm = other.im;
+        for (int i = 0; i < re.length; i++) {
+            double a = re[i], b = im[i], c = oRe[i], d = oIm[i];
+            double abs2 = (c * c) + (d * d);
+            re[i] = ((a * c) + (b * d)) / abs2;
+            im[i] = ((b * c) - (a * d)) / abs2;
+        }
+        return this;
+    }
+
+    /**
+     * Multiplies every element of this by a real scalar.
+     * @param factor the real scaling factor
+     * @return this
+     */
+    public ComplexDoubleArray scale (double factor) {
+        for (int i = 0; i < re.length; i++) {
+            re[i] *= factor;
+            im[i] *= factor;
+        }
+        return this;
+    }
+
+    /**
+     * Replaces every element of this with its complement, as {@link Complex#complement()}.
+     * @return this
+     */
+    public ComplexDoubleArray conjugate () {
+        for (int i = 0; i < im.length; i++) {
+            im[i] = -im[i];
+        }
+        return this;
+    }
+
+    /** Returns a new array with the modulus of each element of this. */
+    public double[] modulus () {
+        return modulus(new double[re.length]);
+    }
+
+    /**
+     * Computes the modulus of each element of this.
+     * @param destination an array at least as long as this buffer
+     * @return destination, holding the moduli
+     * @throws IllegalArgumentException if destination is too short
+     */
+    public double[] modulus (double[] destination) throws IllegalArgumentException {
+        checkDestination(destination);
+        for (int i = 0; i < re.length; i++) {
+            destination[i] = Math.sqrt((re[i] * re[i]) + (im[i] * im[i]));
+        }
+        return destination;
+    }
+
+    /** Returns a new array with the principal Argument of each element of this. */
+    public double[] argument () {
+        return argument(new double[re.length]);
+    }
+
+    /**
+     * Computes the principal Argument of each element of this, where -pi < theta <= pi.
+     * @param destination an array at least as long as this buffer
+     * @return destination, holding the Arguments
+     * @throws IllegalArgumentException if destination is too short
+     */
+    public double[] argument (double[] destination) throws IllegalArgumentException {
+        return argument(destination, Transcendental.STRICT);
+    }
+
+    /**
+     * Computes the principal Argument of each element of this with the given backend.
+     * @param destination an array at least as long as this buffer
+     * @param backend the transcendental backend
+     * @return destination, holding the Arguments
+     * @throws IllegalArgumentException if destination is too short
+     */
+    public double[] argument (double[] destination, Transcendental backend)
+            throws IllegalArgumentException {
+        checkDestination(destination);
+        return backend.argument(re, im, destination);
+    }
+
+    /**
+     * Replaces every element of this with its exponential, as {@link Complex#Exp}.
+     * @param backend the transcendental backend
+     * @return this
+     */
+    public ComplexDoubleArray exp (Transcendental backend) {
+        MutableComplexDouble unit = new MutableComplexDouble();
+        for (int i = 0; i < re.length; i++) {
+            double modulus = backend.exp(re[i]);
+            backend.sincos(im[i], unit);
+            re[i] = modulus * unit.re();
+            im[i] = modulus * unit.im();
+        }
+        return this;
+    }
+
+    /**
+     * Replaces every element of this with its principal Logarithm, as {@link Complex#Log}.
+     * Zero elements become negative infinity rather than throwing.
+     * @param backend the transcendental backend
+     * @return this
+     */
+    public ComplexDoubleArray log (Transcendental backend) {
+        for (int i = 0; i < re.length; i++) {
+            double a = re[i], b = im[i];
+            double abs2 = (a * a) + (b * b);
+            /* log|z| = log(|z|^2)/2 saves the square root, unless the square over- or underflows */
+            re[i] = ( (abs2 >= Double.MIN_NORMAL) && (abs2 < Double.POSITIVE_INFINITY) )
+                    ? 0.5d * backend.log(abs2) : backend.log(Math.hypot(a, b));
+            im[i] = backend.argument(a, b);
+        }
+        return this;
+    }
+
+    /**
+     * Checks for equality with another Object.
+     * @param other the object to compare to
+     * @return true if other is a ComplexDoubleArray with identical elements, false otherwise
+     */
+    @Override
+    public boolean equals (Object other) {
+        if (this == other) return true;
+        if (!(other instanceof ComplexDoubleArray)) return false;
+        ComplexDoubleArray o = (ComplexDoubleArray) other;
+        return Arrays.equals(re, o.re) && Arrays.equals(im, o.im);
+    }
+
+    @Override
+    public int hashCode () {
+        return (31 * Arrays.hashCode(re)) + Arrays.hashCode(im);
+    }
+
+    /**
+     * Ensures another buffer is compatible for element-wise operations with this.
+     * @param other another buffer
+     * @throws IllegalArgumentException if other differs in length
+     */
+    private void checkLength (ComplexDoubleArray other) throws IllegalArgumentException {
+        if (other.re.length != re.length) {
+            throw new IllegalArgumentException(String.format(
+                    "Buffer lengths differ: %d and %d", re.length, other.re.length));
+        }
+    }
+
+    /**
+     * Ensures a destination array can hold one value per element of this.
+     * @param destination the destination array
+     * @throws IllegalArgumentException if destination is too short
+     */
+    private void checkDestination (double[] destination) throws IllegalArgumentException {
+        if (destination.length < re.length) {
+            throw new IllegalArgumentException(String.format(
+                    "Destination holds %d values, %d required", destination.length, re.length));
+        }
+    }
+}
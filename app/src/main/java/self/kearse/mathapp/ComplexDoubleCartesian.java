@@ -5,6 +5,11 @@ import androidx.annotation.NonNull;
 public class ComplexDoubleCartesian extends Complex<Double> {
     private final Double real;
     private final Double imaginary;
+    /** The principal Argument, computed on first use.  Double is immutable, so a racing
+     * thread sees either null or the complete value, and at worst computes it again. */
+    private Double argument;
+    /** The modulus, computed on first use, with the same publication as argument. */
+    private Double modulus;
 
     public ComplexDoubleCartesian (Double real, Double imaginary) {
         this.real = real;
@@ -18,29 +23,36 @@ public class ComplexDoubleCartesian extends Complex<Double> {
      */
     @Override
     public Double Argument() {
-        double Argument;
-        if (real == 0d) {
-            if (imaginary == 0d) {
-                Argument = 0d;
-            } else {
-                Argument = Math.PI/2d;
-            }
-        } else if (imaginary == 0d) {
-            if (real > 0) Argument = 0d;
-            else Argument = Math.PI;
-        } else {
-            Argument = Math.atan(imaginary / real);
-            if (real < 0d) {
-                if (Argument < 0d) Argument += Math.PI;
-                else Argument -= Math.PI;
-            }
+        Double cached = this.argument;
+        if (cached == null) {
+            cached = computeArgument();
+            this.argument = cached;
         }
-        return Argument;
+        return cached;
+    }
+
+    /**
+     * Computes the principal Argument of the complex number from its components, with atan2,
+     * so that every quadrant and both halves of the imaginary axis are handled alike.
+     * @return the principal Argument of this, or 0 for zero
+     */
+    private double computeArgument() {
+        return Transcendental.STRICT.argument(real, imaginary);
     }
 
+    /**
+     * Returns the modulus of the complex number, computed once and then cached.
+     * @return the modulus of this
+     */
     @Override
     public Double modulus() {
-        return Math.sqrt( (this.real * this.real) + (this.imaginary * this.imaginary) );
+        Double cached = this.modulus;
+        if (cached == null) {
+            double real = this.real, imaginary = this.imaginary;
+            cached = Math.sqrt( (real * real) + (imaginary * imaginary) );
+            this.modulus = cached;
+        }
+        return cached;
     }
 
     @Override
@@ -60,13 +72,15 @@ public class ComplexDoubleCartesian extends Complex<Double> {
 
     @Override
     public Complex<Double> multInverse() throws ArithmeticException {
-        if (this.real.equals(0d) && this.imaginary.equals(0d)) {
+        double real = this.real, imaginary = this.imaginary;
+        /* Compared as primitives, so that -0.0 is zero too */
+        if ( (real == 0d) && (imaginary == 0d) ) {
             throw new ArithmeticException("No multiplicative inverse of zero");
         } else {
-            Complex<Double> complement = this.complement();
-            Double modulus = this.modulus();
-            return new ComplexDoubleCartesian(complement.real() / modulus,
-                    complement.imaginary() / modulus);
+            /* Smith's algorithm needs no square root, and squares nothing to over- or underflow */
+            MutableComplexDouble inverse = new MutableComplexDouble();
+            ComplexPower.reciprocal(real, imaginary, inverse);
+            return new ComplexDoubleCartesian(inverse.re(), inverse.im());
         }
     }
 
@@ -93,12 +107,17 @@ public class ComplexDoubleCartesian extends Complex<Double> {
     @Override
     @NonNull
     public String toString() {
-        return String.format("%s+%si", this.real.toString(), this.imaginary.toString());
+        return new StringBuilder(32).append(this.real.doubleValue()).append('+')
+                .append(this.imaginary.doubleValue()).append('i').toString();
     }
 
+    /**
+     * Formats this number for LaTeX.
+     * @return "&lt;a&gt;+&lt;b&gt;\,i", such as "1.5-2.0\,i"
+     */
     @Override
     public String toLaTeX() {
-        return toString();
+        return ComplexFormatter.CARTESIAN_LATEX.format(this.real, this.imaginary);
     }
 
     @Override
@@ -2,13 +2,26 @@ package self.kearse.mathapp;
 
 import androidx.annotation.NonNull;
 
+/**
+ * A complex number in polar form.  The argument and modulus are normalized once, at construction,
+ * to the principal Argument and a non-negative modulus, so instances are immutable in value and
+ * may be shared freely between threads.
+ */
 public class ComplexDoublePolar extends Complex<Double> {
-    /** The argument, theta, of the polar representation <i>z=r*e^{i*theta)</i> */
-    private Double argument;
-    /** The modulus, r, of the polar representation <i>z=r*e^{i*theta)</i> */
-    private Double modulus;
-
-    /** Constructs a new complex number in radial notation.
+    /** The principal argument, theta, of the polar representation <i>z=r*e^{i*theta)</i> */
+    private final Double argument;
+    /** The non-negative modulus, r, of the polar representation <i>z=r*e^{i*theta)</i> */
+    private final Double modulus;
+    /** The real component of the Cartesian expression, computed on first use together with
+     * imaginary.  Double is immutable, so a racing thread sees either null or the complete value,
+     * and at worst computes it again. */
+    private Double real;
+    /** The imaginary component of the Cartesian expression, computed together with real. */
+    private Double imaginary;
+
+    /** Constructs a new complex number in radial notation.  A negative modulus is normalized
+     * to its absolute value by turning the argument through pi, and the argument is normalized
+     * to the principal Argument.
      * @param argument the argument of the number, in radians
      * @param modulus the modulus of the number
      * @throws NullPointerException if argument or modulus are null
@@ -16,25 +29,40 @@ public class ComplexDoublePolar extends Complex<Double> {
     public ComplexDoublePolar (Double argument, Double modulus) throws NullPointerException {
         if ( (argument == null) || (modulus == null) ) {
             throw new NullPointerException("Cannot use null values");
+        } else if (modulus < 0d) {
+            this.argument = principalArgument(argument + Math.PI);
+            this.modulus = -modulus;
         } else {
-            this.argument = argument;
+            double principal = principalArgument(argument);
+            /* Keep the given instance when already normalized, saving a boxing */
+            this.argument = (principal == argument) ? argument : principal;
             this.modulus = modulus;
         }
     }
 
     /**
-     * Returns the principal Argument of this.  Calling this method updates the argument field to
-     * the principal Argument.
+     * Constructs a new complex number in radial notation whose Cartesian components are already
+     * known, such as a root rotated by a looked-up root of unity, so they need not be computed
+     * again from the argument.  The components are trusted to agree with the polar form.
+     * @param argument the argument of the number, in radians
+     * @param modulus the modulus of the number
+     * @param real the real component of the Cartesian expression
+     * @param imaginary the imaginary component of the Cartesian expression
+     * @throws NullPointerException if argument or modulus are null
+     */
+    ComplexDoublePolar (Double argument, Double modulus, double real, double imaginary)
+            throws NullPointerException {
+        this(argument, modulus);
+        this.real = real;
+        this.imaginary = imaginary;
+    }
+
+    /**
+     * Returns the principal Argument of this.
      * @return the principal Argument of this, where -pi < theta <= pi
      */
     @Override
     public Double Argument() {
-        if(this.modulus < 0) {
-            this.argument = principalArgument(this.argument + Math.PI);
-            this.modulus = -this.modulus;
-        } else {
-            this.argument = principalArgument(this.argument);
-        }
         return this.argument;
     }
 
@@ -50,22 +78,49 @@ public class ComplexDoublePolar extends Complex<Double> {
     /** Returns the real-value component of the Cartesian expression of this. */
     @Override
     public Double real() {
-        return this.modulus * Math.cos(this.argument);
+        Double cached = this.real;
+        return (cached != null) ? cached : cacheCartesian(false);
     }
 
     /** Returns the imaginary-value component of the Cartesian expression of this. */
     @Override
     public Double imaginary() {
-        return this.modulus * Math.sin(this.argument);
+        Double cached = this.imaginary;
+        return (cached != null) ? cached : cacheCartesian(true);
     }
 
     /**
-     * Generate the additive inverse of the complex number.
-     * @return the additive inverse, with simply the negative modulus and same argument
+     * Converts this to Cartesian form, reusing the cached components.
+     * @return a new Cartesian number with the value of this
+     */
+    public ComplexDoubleCartesian toCartesian() {
+        return new ComplexDoubleCartesian(real(), imaginary());
+    }
+
+    /**
+     * Computes and caches both components of the Cartesian expression of this, with a single
+     * cosine and sine of the argument.
+     * @param imaginary true to return the imaginary component, false for the real component
+     * @return the requested component
+     */
+    private Double cacheCartesian(boolean imaginary) {
+        double modulus = this.modulus, argument = this.argument;
+        Double re = modulus * Math.cos(argument);
+        Double im = modulus * Math.sin(argument);
+        this.real = re;
+        this.imaginary = im;
+        return imaginary ? im : re;
+    }
+
+    /**
+     * Generate the additive inverse of the complex number.  Negation is exact in Cartesian form,
+     * while the sine and cosine of the argument turned through pi are not, so the inverse is
+     * returned in Cartesian form, and z + (-z) is exactly zero.
+     * @return the additive inverse, in Cartesian form
      */
     @Override
     public Complex<Double> addInverse() {
-        return new ComplexDoublePolar(argument, -modulus);
+        return new ComplexDoubleCartesian(-real(), -imaginary());
     }
 
     /**
@@ -133,16 +188,16 @@ public class ComplexDoublePolar extends Complex<Double> {
     @Override
     @NonNull
     public String toString() {
-        return String.format("%s*e^(i*%s)", this.modulus.toString(), this.argument.toString());
+        return ComplexFormatter.POLAR.format(this);
     }
 
     /**
      * Formats this number for LaTeX.
-     * @return "&lt;m&gt;\,e^{&lt;a&gt;i}", such as "3\,e^{1.57i}"
+     * @return "&lt;m&gt;\,e^{&lt;a&gt;\,i}", such as "3.0\,e^{1.57\,i}"
      */
     @Override
     public String toLaTeX() {
-        return String.format("%s\\,e^{%s\\,i}", this.modulus.toString(), this.argument.toString());
+        return ComplexFormatter.POLAR_LATEX.format(this);
     }
 
     /**
@@ -181,15 +236,10 @@ public class ComplexDoublePolar extends Complex<Double> {
 
     /**
      * Computes the principal Argument of a given argument.
-     * @param argument a value in radians
+     * @param arg a value in radians
      * @return The radian value in the range -&pi;&nbsp;&lt;&nbsp;arg&nbsp;&leq;&nbsp;&pi;
-     * @throws IllegalArgumentException if argument is null
      */
-    private Double principalArgument(Number argument) throws IllegalArgumentException {
-        if (argument == null) {
-            throw new IllegalArgumentException("Cannot take the argument of null");
-        }
-        Double arg = argument.doubleValue();
+    static double principalArgument(double arg) {
         if ( (arg > Math.PI) || (arg <= -Math.PI) ) {
             arg = arg % (2 * Math.PI);
             if (arg > Math.PI) {
@@ -0,0 +1,404 @@
+package self.kearse.mathapp;
+
+import java.util.List;
+
+/**
+ * Finds the eigenvalues of square complex matrices, which need not be Hermitian.  The matrix is
+ * first balanced, scaling its rows and columns by powers of two to even out their norms without
+ * rounding error, then reduced to upper Hessenberg form by Householder reflections, which
+ * preserve its eigenvalues.  Shifted QR iterations then drive the subdiagonal of the Hessenberg
+ * matrix to zero, using Givens rotations and the Wilkinson shift from the trailing 2 x 2 block,
+ * and each eigenvalue is deflated from the bottom of the active block once its subdiagonal
+ * element is negligible.  Every stage works in place on the component arrays of the matrix, with
+ * O(n) workspace.
+ * <p>
+ * The roots of a polynomial are the eigenvalues of its companion matrix, which is already in
+ * Hessenberg form, so {@link #polynomialRoots(ComplexDoubleArray)} is a direct alternative to the
+ * iterative {@link PolynomialRootFinder}, with coefficients given in the same ascending order of
+ * power, so index <i>k</i> holds the coefficient of <i>z<sup>k</sup></i>.
+ */
+public final class ComplexEigenSolver {
+    /** The default limit on the number of QR iterations spent finding each eigenvalue. */
+    public static final int DEFAULT_MAX_ITERATIONS = 30;
+    /** The iterations between exceptional shifts, which break cycles of the Wilkinson shift */
+    private static final int EXCEPTIONAL_SHIFT_INTERVAL = 10;
+    /** The relative precision of a double */
+    private static final double EPSILON = Math.ulp(1d);
+
+    /** The limit on the number of QR iterations per eigenvalue */
+    private final int maxIterations;
+
+    /** Constructs a solver with the default iteration limit. */
+    public ComplexEigenSolver () {
+        this(DEFAULT_MAX_ITERATIONS);
+    }
+
+    /**
+     * Constructs a solver with the given iteration limit.
+     * @param maxIterations the limit on the number of QR iterations spent finding each eigenvalue
+     * @throws IllegalArgumentException if maxIterations is not positive
+     */
+    public ComplexEigenSolver (int maxIterations) throws IllegalArgumentException {
+        if (maxIterations < 1) {
+            throw new IllegalArgumentException("Iteration limit must be positive");
+        }
+        this.maxIterations = maxIterations;
+    }
+
+    /**
+     * Finds the eigenvalues of a matrix, leaving it unchanged.
+     * @param matrix a square matrix
+     * @return a new buffer with the eigenvalues, repeated by multiplicity, in no particular order
+     * @throws IllegalArgumentException if matrix is not square
+     * @throws ArithmeticException if the iterations do not converge within the limit
+     */
+    public ComplexDoubleArray eigenvalues (ComplexMatrix matrix)
+            throws IllegalArgumentException, ArithmeticException {
+        return eigenvaluesInPlace(matrix.copy());
+    }
+
+    /**
+     * Finds the eigenvalues of a matrix, overwriting its elements with the intermediate Hessenberg
+     * form, so that no copy is made.
+     * @param matrix a square matrix, which is destroyed
+     * @return a new buffer with the eigenvalues, repeated by multiplicity, in no particular order
+     * @throws IllegalArgumentException if matrix is not square
+     * @throws ArithmeticException if the iterations do not converge within the limit
+     */
+    public ComplexDoubleArray eigenvaluesInPlace (ComplexMatrix matrix)
+            throws IllegalArgumentException, ArithmeticException {
+        int n = matrix.rows();
+        if (matrix.columns() != n) {
+            throw new IllegalArgumentException(String.format(
+                    "Cannot find eigenvalues of a %d x %d matrix", n, matrix.columns()));
+        }
+        double[] re = matrix.re(), im = matrix.im();
+        balance(n, re, im);
+        reduceToHessenberg(n, re, im);
+        ComplexDoubleArray eigenvalues = new ComplexDoubleArray(n);
+        hessenbergEigenvalues(n, re, im, eigenvalues.re(), eigenvalues.im(), 0);
+        return eigenvalues;
+    }
+
+    /**
+     * Finds the roots of the polynomial with the given coefficients.
+     * @param coefficients the coefficients, in ascending order of power
+     * @return a new List with one root per degree of the polynomial, repeated by multiplicity
+     * @throws NullPointerException if coefficients or any of its elements are null
+     * @throws IllegalArgumentException if every coefficient is zero
+     * @throws ArithmeticException if the iterations do not converge within the limit
+     */
+    public List<Complex<Double>> polynomialRoots (List<? extends Complex<? extends Number>> coefficients)
+            throws NullPointerException, IllegalArgumentException, ArithmeticException {
+        return polynomialRoots(ComplexDoubleArray.fromList(coefficients)).toList();
+    }
+
+    /**
+     * Finds the roots of the polynomial with the given coefficients, as the eigenvalues of its
+     * companion matrix.  Roots at zero, from vanishing low-order coefficients, are returned
+     * exactly and kept out of the matrix.
+     * @param coefficients the coefficients, in ascending order of power
+     * @return a new buffer with one root per degree of the polynomial, repeated by multiplicity
+     * @throws IllegalArgumentException if every coefficient is zero
+     * @throws ArithmeticException if the iterations do not converge within the limit
+     */
+    public ComplexDoubleArray polynomialRoots (ComplexDoubleArray coefficients)
+            throws IllegalArgumentException, ArithmeticException {
+        double[] cRe = coefficients.re(), cIm = coefficients.im();
+        int degree = coefficients.length() - 1;
+        while ( (degree >= 0) && (cRe[degree] == 0d) && (cIm[degree] == 0d) ) {
+            degree--;
+        }
+        if (degree < 0) {
+            throw new IllegalArgumentException("Every coefficient is zero");
+        }
+        int zeros = 0;
+        while ( (cRe[zeros] == 0d) && (cIm[zeros] == 0d) ) {
+            zeros++;
+        }
+        ComplexDoubleArray roots = new ComplexDoubleArray(degree);
+        int n = degree - zeros;
+        if (n == 0) return roots;
+        /* The companion matrix of the monic polynomial, with its coefficients along the first row */
+        double leadAbs2 = (cRe[degree] * cRe[degree]) + (cIm[degree] * cIm[degree]);
+        double[] re = new double[n * n], im = new double[n * n];
+        for (int j = 0; j < n; j++) {
+            int k = degree - 1 - j;
+            re[j] = -((cRe[k] * cRe[degree]) + (cIm[k] * cIm[degree])) / leadAbs2;
+            im[j] = -((cIm[k] * cRe[degree]) - (cRe[k] * cIm[degree])) / leadAbs2;
+        }
+        for (int i = 1; i < n; i++) re[(i * n) + i - 1] = 1d;
+        balance(n, re, im);
+        hessenbergEigenvalues(n, re, im, roots.re(), roots.im(), zeros);
+        return roots;
+    }
+
+    /**
+     * Balances a matrix in place by a diagonal similarity of powers of two, so that each row and
+     * the corresponding column have similar norms, which reduces the rounding error of the later
+     * stages.  The scaling is exact and preserves a Hessenberg form.
+     */
+    private static void balance (int n, double[] re, double[] im) {
+        final double radix = 2d, radix2 = radix * radix;
+        boolean converged = false;
+        while (!converged) {
+            converged = true;
+            for (int i = 0; i < n; i++) {
+                double column = 0d, row = 0d;
+                for (int j = 0; j < n; j++) {
+                    if (j == i) continue;
+                    column += Math.abs(re[(j * n) + i]) + Math.abs(im[(j * n) + i]);
+                    row += Math.abs(re[(i * n) + j]) + Math.abs(im[(i * n) + j]);
+                }
+                /* Zero norms need no scaling, and non-finite ones cannot be scaled */
+                if ( !(column > 0d) || !(row > 0d) || Double.isInfinite(column + row) ) continue;
+                double sum = column + row, f = 1d;
+                double g = row / radix;
+                while (column < g) {
+                    f *= radix;
+                    column *= radix2;
+                }
+                g = row * radix;
+                while (column >= g) {
+                    f /= radix;
+                    column /= radix2;
+                }
+                if ((column + row) / f < 0.95d * sum) {
+                    converged = false;
+                    for (int j = 0; j < n; j++) {
+                        re[(i * n) + j] /= f;
+                        im[(i * n) + j] /= f;
+                        re[(j * n) + i] *= f;
+                        im[(j * n) + i] *= f;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Reduces a matrix in place to upper Hessenberg form by Householder reflections
+     * H = I - &tau;vv<sup>*</sup>, one for each column, applied on both sides.
+     */
+    private static void reduceToHessenberg (int n, double[] re, double[] im) {
+        double[] vRe = new double[n], vIm = new double[n];
+        double[] wRe = new double[n], wIm = new double[n];
+        for (int k = 0; k < n - 2; k++) {
+            int first = k + 1;
+            double tail = 0d;
+            for (int i = first + 1; i < n; i++) {
+                tail += (re[(i * n) + k] * re[(i * n) + k]) + (im[(i * n) + k] * im[(i * n) + k]);
+            }
+            if (tail == 0d) continue;
+            double x0Re = re[(first * n) + k], x0Im = im[(first * n) + k];
+            double x0Abs = Math.hypot(x0Re, x0Im);
+            double norm = Math.sqrt((x0Abs * x0Abs) + tail);
+            /* alpha = -e^(i arg x0) |x|, so that v0 = x0 - alpha does not cancel */
+            double phaseRe = (x0Abs == 0d) ? 1d : (x0Re / x0Abs), phaseIm = (x0Abs == 0d) ? 0d : (x0Im / x0Abs);
+            vRe[first] = phaseRe * (x0Abs + norm);
+            vIm[first] = phaseIm * (x0Abs + norm);
+            for (int i = first + 1; i < n; i++) {
+                vRe[i] = re[(i * n) + k];
+                vIm[i] = im[(i * n) + k];
+            }
+            double tau = 1d / (norm * (norm + x0Abs));
+            /* From the left, A -= tau v (v* A), over the columns right of k */
+            for (int j = first; j < n; j++) {
+                wRe[j] = 0d;
+                wIm[j] = 0d;
+            }
+            for (int i = first; i < n; i++) {
+                double a = vRe[i], b = -vIm[i];
+                int row = i * n;
+                for (int j = first; j < n; j++) {
+                    wRe[j] += (a * re[row + j]) - (b * im[row + j]);
+                    wIm[j] += (a * im[row + j]) + (b * re[row + j]);
+                }
+            }
+            for (int i = first; i < n; i++) {
+                double a = tau * vRe[i], b = tau * vIm[i];
+                int row = i * n;
+                for (int j = first; j < n; j++) {
+                    re[row + j] -= (a * wRe[j]) - (b * wIm[j]);
+                    im[row + j] -= (a * wIm[j]) + (b * wRe[j]);
+                }
+            }
+            re[(first * n) + k] = -phaseRe * norm;
+            im[(first * n) + k] = -phaseIm * norm;
+            for (int i = first + 1; i < n; i++) {
+                re[(i * n) + k] = 0d;
+                im[(i * n) + k] = 0d;
+            }
+            /* From the right, A -= tau (A v) v*, over every row */
+            for (int i = 0; i < n; i++) {
+                int row = i * n;
+                double sRe = 0d, sIm = 0d;
+                for (int j = first; j < n; j++) {
+                    sRe += (re[row + j] * vRe[j]) - (im[row + j] * vIm[j]);
+                    sIm += (re[row + j] * vIm[j]) + (im[row + j] * vRe[j]);
+                }
+                sRe *= tau;
+                sIm *= tau;
+                for (int j = first; j < n; j++) {
+                    re[row + j] -= (sRe * vRe[j]) + (sIm * vIm[j]);
+                    im[row + j] -= (sIm * vRe[j]) - (sRe * vIm[j]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the eigenvalues of an upper Hessenberg matrix by shifted QR iterations, working in
+     * place on the active diagonal block, which shrinks from below as eigenvalues deflate and
+     * from above as the subdiagonal splits.
+     * @param offset the index at which to store the first eigenvalue
+     */
+    private void hessenbergEigenvalues (int n, double[] re, double[] im, double[] eRe, double[] eIm, int offset)
+            throws ArithmeticException {
+        double[] cosines = new double[n], sRe = new double[n], sIm = new double[n];
+        double[] shift = new double[2];
+        int hi = n - 1, iterations = 0;
+        while (hi >= 0) {
+            int lo = hi;
+            while ( (lo > 0) && !negligible(n, re, im, lo) ) lo--;
+            if (lo == hi) {
+                eRe[offset + hi] = re[(hi * n) + hi];
+                eIm[offset + hi] = im[(hi * n) + hi];
+                hi--;
+                iterations = 0;
+                continue;
+            }
+            if (++iterations > maxIterations) {
+                throw new ArithmeticException(String.format(
+                        "QR iteration did not converge within %d iterations", maxIterations));
+            }
+            if (iterations % EXCEPTIONAL_SHIFT_INTERVAL == 0) {
+                /* Step off a possible cycle by a shift of the size of the last subdiagonal */
+                double sub = Math.abs(re[(hi * n) + hi - 1]) + Math.abs(im[(hi * n) + hi - 1]);
+                shift[0] = re[(hi * n) + hi] + (0.75d * sub);
+                shift[1] = im[(hi * n) + hi];
+            } else {
+                wilkinsonShift(n, re, im, hi, shift);
+            }
+            qrStep(n, re, im, lo, hi, shift[0], shift[1], cosines, sRe, sIm);
+        }
+    }
+
+    /**
+     * Tests whether the subdiagonal element at row k is negligible beside its diagonal
+     * neighbours, and if so sets it to zero, splitting the matrix.
+     */
+    private static boolean negligible (int n, double[] re, double[] im, int k) {
+        int index = (k * n) + k - 1;
+        double sub = Math.abs(re[index]) + Math.abs(im[index]);
+        double diagonal = Math.abs(re[index - n]) + Math.abs(im[index - n])
+                + Math.abs(re[index + 1]) + Math.abs(im[index + 1]);
+        if ( (sub > EPSILON * diagonal) && (sub > Double.MIN_NORMAL) ) return false;
+        re[index] = 0d;
+        im[index] = 0d;
+        return true;
+    }
+
+    /**
+     * Finds the eigenvalue of the trailing 2 x 2 block [[a, b], [c, d]] nearer to d,
+     * d - q + sqrt(q<sup>2</sup> + bc) with q = (d - a) / 2 and the root taken in the direction
+     * of q, computed as d + bc / (q + sqrt(q<sup>2</sup> + bc)) so that nothing cancels.
+     */
+    private static void wilkinsonShift (int n, double[] re, double[] im, int hi, double[] shift) {
+        int d = (hi * n) + hi, a = d - n - 1, b = d - n, c = d - 1;
+        double qRe = (re[d] - re[a]) / 2d, qIm = (im[d] - im[a]) / 2d;
+        double bcRe = (re[b] * re[c]) - (im[b] * im[c]), bcIm = (re[b] * im[c]) + (im[b] * re[c]);
+        double xRe = (qRe * qRe) - (qIm * qIm) + bcRe, xIm = (2d * qRe * qIm) + bcIm;
+        /* The principal square root of x */
+        double r = Math.hypot(xRe, xIm), rootRe = 0d, rootIm = 0d;
+        if (r > 0d) {
+            double t = Math.sqrt((r + Math.abs(xRe)) / 2d);
+            if (xRe >= 0d) {
+                rootRe = t;
+                rootIm = xIm / (2d * t);
+            } else {
+                rootRe = Math.abs(xIm) / (2d * t);
+                rootIm = Math.copySign(t, xIm);
+            }
+        }
+        /* Let the root point the way of q, so that q + root does not cancel */
+        if ((qRe * rootRe) + (qIm * rootIm) < 0d) {
+            rootRe = -rootRe;
+            rootIm = -rootIm;
+        }
+        double denominatorRe = qRe + rootRe, denominatorIm = qIm + rootIm;
+        double denominator2 = (denominatorRe * denominatorRe) + (denominatorIm * denominatorIm);
+        if (denominator2 == 0d) {
+            shift[0] = re[d];
+            shift[1] = im[d];
+            return;
+        }
+        /* root - q = bc / (q + root) */
+        shift[0] = re[d] + (((bcRe * denominatorRe) + (bcIm * denominatorIm)) / denominator2);
+        shift[1] = im[d] + (((bcIm * denominatorRe) - (bcRe * denominatorIm)) / denominator2);
+    }
+
+    /**
+     * Performs one shifted QR step on the diagonal block lo..hi: H - &sigma;I = QR by Givens
+     * rotations of consecutive rows, then H = RQ + &sigma;I by the same rotations on the columns.
+     * Each rotation [[c, s], [-conj(s), c]] with real c is stored between the passes.
+     */
+    private static void qrStep (int n, double[] re, double[] im, int lo, int hi, double shiftRe, double shiftIm,
+                                double[] cosines, double[] sRe, double[] sIm) {
+        for (int k = lo; k <= hi; k++) {
+            re[(k * n) + k] -= shiftRe;
+            im[(k * n) + k] -= shiftIm;
+        }
+        for (int k = lo; k < hi; k++) {
+            int top = k * n, bottom = top + n;
+            double aRe = re[top + k], aIm = im[top + k], bRe = re[bottom + k], bIm = im[bottom + k];
+            double aAbs = Math.hypot(aRe, aIm), r = Math.hypot(aAbs, Math.hypot(bRe, bIm));
+            double c, gRe, gIm;
+            if (r == 0d) {
+                c = 1d;
+                gRe = 0d;
+                gIm = 0d;
+            } else if (aAbs == 0d) {
+                c = 0d;
+                gRe = bRe / r;
+                gIm = -bIm / r;
+            } else {
+                /* s = (a / |a|) conj(b) / r */
+                c = aAbs / r;
+                double pRe = aRe / (aAbs * r), pIm = aIm / (aAbs * r);
+                gRe = (pRe * bRe) + (pIm * bIm);
+                gIm = (pIm * bRe) - (pRe * bIm);
+            }
+            cosines[k] = c;
+            sRe[k] = gRe;
+            sIm[k] = gIm;
+            for (int j = k; j <= hi; j++) {
+                double xRe = re[top + j], xIm = im[top + j], yRe = re[bottom + j], yIm = im[bottom + j];
+                /* x' = c x + s y, y' = c y - conj(s) x */
+                re[top + j] = (c * xRe) + (gRe * yRe) - (gIm * yIm);
+                im[top + j] = (c * xIm) + (gRe * yIm) + (gIm * yRe);
+                re[bottom + j] = (c * yRe) - (gRe * xRe) - (gIm * xIm);
+                im[bottom + j] = (c * yIm) - (gRe * xIm) + (gIm * xRe);
+            }
+            re[bottom + k] = 0d;
+            im[bottom + k] = 0d;
+        }
+        for (int k = lo; k < hi; k++) {
+            double c = cosines[k], gRe = sRe[k], gIm = sIm[k];
+            int last = Math.min(k + 2, hi);
+            for (int i = lo; i <= last; i++) {
+                int left = (i * n) + k;
+                double xRe = re[left], xIm = im[left], yRe = re[left + 1], yIm = im[left + 1];
+                /* x' = c x + conj(s) y, y' = c y - s x */
+                re[left] = (c * xRe) + (gRe * yRe) + (gIm * yIm);
+                im[left] = (c * xIm) + (gRe * yIm) - (gIm * yRe);
+                re[left + 1] = (c * yRe) - (gRe * xRe) + (gIm * xIm);
+                im[left + 1] = (c * yIm) - (gRe * xIm) - (gIm * xRe);
+            }
+        }
+        for (int k = lo; k <= hi; k++) {
+            re[(k * n) + k] += shiftRe;
+            im[(k * n) + k] += shiftIm;
+        }
+    }
+}
@@ -0,0 +1,340 @@
+package self.kearse.mathapp;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A lazily evaluated chain of operations on a complex number, such as
+ * {@code ComplexExpression.of(z).multiply(a).multiply(b).add(c).log().evaluate()}.  Nothing is
+ * computed until {@link #evaluate()}, which carries the intermediate value in whichever of polar
+ * or Cartesian form is cheaper for the coming steps, rather than converting at every step as the
+ * eager {@link Complex} operations do:
+ * <ul>
+ *     <li>additions are performed in Cartesian form, and a run of them stays Cartesian;</li>
+ *     <li>multiplications and divisions are performed in the current form, switching form only
+ *     when a run of operands native to the other form, or a following step, makes the switch
+ *     pay for itself;</li>
+ *     <li>Log is taken from polar form and yields Cartesian form, and Exp is taken from
+ *     Cartesian form and yields polar form, neither calling any trigonometric function;</li>
+ *     <li>pow is evaluated by a {@link ComplexPower} from Cartesian form, with the same value as
+ *     {@link Complex#pow}, so that integer exponents need no transcendental functions;</li>
+ *     <li>Exp(Log(x)) cancels out entirely.</li>
+ * </ul>
+ * Operands of class {@link ComplexDoublePolar} are native to polar form, and all others to
+ * Cartesian form.  Builders are not thread-safe, but may be evaluated any number of times.
+ */
+public final class ComplexExpression {
+    /** The operations which may be chained */
+    private enum Operation { ADD, SUBTRACT, MULTIPLY, DIVIDE, POW, LOG, EXP }
+
+    /** The value the chain begins with */
+    private final Complex<? extends Number> value;
+    /** The operations of the chain, in order */
+    private final List<Operation> operations = new ArrayList<Operation>();
+    /** The operand of each operation, or null for unary operations */
+    private final List<Complex<? extends Number>> operands = new ArrayList<Complex<? extends Number>>();
+
+    private ComplexExpression (Complex<? extends Number> value) {
+        this.value = value;
+    }
+
+    /**
+     * Begins a chain of operations.
+     * @param value the value the chain begins with
+     * @return a new expression with no operations
+     * @throws NullPointerException if value is null
+     */
+    public static ComplexExpression of (Complex<? extends Number> value) throws NullPointerException {
+        if (value == null) {
+            throw new NullPointerException("Cannot begin an expression with a null reference");
+        }
+        return new ComplexExpression(value);
+    }
+
+    /**
+     * Appends an addition to the chain.
+     * @param other the number to add
+     * @return this
+     * @throws NullPointerException if other is null
+     */
+    public ComplexExpression add (Complex<? extends Number> other) throws NullPointerException {
+        return append(Operation.ADD, other);
+    }
+
+    /**
+     * Appends a subtraction to the chain.
+     * @param other the number to subtract
+     * @return this
+     * @throws NullPointerException if other is null
+     */
+    public ComplexExpression subtract (Complex<? extends Number> other) throws NullPointerException {
+        return append(Operation.SUBTRACT, other);
+    }
+
+    /**
+     * Appends a multiplication to the chain.
+     * @param other the number to multiply by
+     * @return this
+     * @throws NullPointerException if other is null
+     */
+    public ComplexExpression multiply (Complex<? extends Number> other) throws NullPointerException {
+        return append(Operation.MULTIPLY, other);
+    }
+
+    /**
+     * Appends a division to the chain.
+     * @param denominator the number to divide by
+     * @return this
+     * @throws NullPointerException if denominator is null
+     */
+    public ComplexExpression divide (Complex<? extends Number> denominator) throws NullPointerException {
+        return append(Operation.DIVIDE, denominator);
+    }
+
+    /**
+     * Appends an exponentiation to the chain, with the principal value as {@link Complex#pow}.
+     * Zero raised to zero gives one, and raised to an exponent with positive real part gives
+     * zero.
+     * @param exponent the exponent to raise to
+     * @return this
+     * @throws NullPointerException if exponent is null
+     */
+    public ComplexExpression pow (Complex<? extends Number> exponent) throws NullPointerException {
+        return append(Operation.POW, exponent);
+    }
+
+    /**
+     * Appends the principal Logarithm to the chain, as {@link Complex#Log}.
+     * @return this
+     */
+    public ComplexExpression log () {
+        operations.add(Operation.LOG);
+        operands.add(null);
+        return this;
+    }
+
+    /**
+     * Appends the exponential to the chain, as {@link Complex#Exp}.
+     * @return this
+     */
+    public ComplexExpression exp () {
+        operations.add(Operation.EXP);
+        operands.add(null);
+        return this;
+    }
+
+    /**
+     * Evaluates the chain of operations.
+     * @return a new Complex number holding the result, in whichever form the last step left it
+     * @throws ArithmeticException if the chain divides by zero, takes the Logarithm of zero, or
+     *         raises zero to a non-zero exponent with non-positive real part
+     */
+    public Complex<Double> evaluate () throws ArithmeticException {
+        Evaluation state = new Evaluation(value);
+        int count = operations.size();
+        for (int i = 0; i < count; i++) {
+            Operation operation = operations.get(i);
+            Complex<? extends Number> operand = operands.get(i);
+            switch (operation) {
+                case ADD:
+                case SUBTRACT:
+                    double sign = (operation == Operation.ADD) ? 1d : -1d;
+                    state.toCartesian();
+                    state.x += sign * operand.real().doubleValue();
+                    state.y += sign * operand.imaginary().doubleValue();
+                    break;
+                case MULTIPLY:
+                case DIVIDE:
+                    boolean divide = (operation == Operation.DIVIDE);
+                    if (prefersSwitch(state.polar, i)) {
+                        if (state.polar) state.toCartesian();
+                        else state.toPolar();
+                    }
+                    if (state.polar) {
+                        double modulus = operand.modulus().doubleValue();
+                        double argument = operand.Argument().doubleValue();
+                        if (divide) {
+                            if (modulus == 0d) {
+                                throw new ArithmeticException("Attempted to divide by zero");
+                            }
+                            state.x /= modulus;
+                            state.y -= argument;
+                        } else {
+                            state.x *= modulus;
+                            state.y += argument;
+                        }
+                    } else {
+                        double re = operand.real().doubleValue();
+                        double im = operand.imaginary().doubleValue();
+                        if (divide) {
+                            double abs2 = (re * re) + (im * im);
+                            if (abs2 == 0d) {
+                                throw new ArithmeticException("Attempted to divide by zero");
+                            }
+                            re /= abs2;
+                            im = -im / abs2;
+                        }
+                        double x = (state.x * re) - (state.y * im);
+                        state.y = (state.x * im) + (state.y * re);
+                        state.x = x;
+                    }
+                    break;
+                case POW:
+                    state.pow(ComplexPower.of(operand));
+                    break;
+                case LOG:
+                    if ( (i + 1 < count) && (operations.get(i + 1) == Operation.EXP) ) {
+                        /* Exp(Log(x)) is x itself, wherever Log(x) is defined */
+                        if (state.isZero()) {
+                            throw new ArithmeticException("Cannot take the logarithm of 0");
+                        }
+                        i++;
+                    } else {
+                        state.log();
+                    }
+                    break;
+                case EXP:
+                    state.exp();
+                    break;
+            }
+        }
+        return state.result();
+    }
+
+    /**
+     * Appends a binary operation to the chain.
+     * @param operation the operation
+     * @param operand its operand
+     * @return this
+     * @throws NullPointerException if operand is null
+     */
+    private ComplexExpression append (Operation operation, Complex<? extends Number> operand)
+            throws NullPointerException {
+        if (operand == null) {
+            throw new NullPointerException("Cannot use a null reference as an operand");
+        }
+        operations.add(operation);
+        operands.add(operand);
+        return this;
+    }
+
+    /**
+     * Decides whether a multiplicative step should switch the intermediate value to the other
+     * form.  A switch costs one conversion of the intermediate value, while staying costs one
+     * conversion of each operand native to the other form, so the value switches when there is a
+     * run of at least two such operands, or when the step after the run needs the other form.
+     * @param polar whether the intermediate value is in polar form
+     * @param index the index of the multiplicative step
+     * @return true if the intermediate value should switch form
+     */
+    private boolean prefersSwitch (boolean polar, int index) {
+        int run = 0;
+        int i = index;
+        for (; i < operations.size(); i++) {
+            Operation operation = operations.get(i);
+            if ( (operation != Operation.MULTIPLY) && (operation != Operation.DIVIDE) ) break;
+            if (isPolarNative(operands.get(i)) == polar) break;
+            run++;
+        }
+        if (run == 0) return false;
+        if (run >= 2) return true;
+        if (i >= operations.size()) return false;
+        Operation following = operations.get(i);
+        if (polar) {
+            return (following == Operation.ADD) || (following == Operation.SUBTRACT)
+                    || (following == Operation.EXP) || (following == Operation.POW);
+        } else {
+            return following == Operation.LOG;
+        }
+    }
+
+    /**
+     * Checks which form a Complex number holds natively.
+     * @param value a Complex number
+     * @return true if its polar components are available without computation
+     */
+    private static boolean isPolarNative (Complex<? extends Number> value) {
+        return value instanceof ComplexDoublePolar;
+    }
+
+    /**
+     * The intermediate value of an evaluation, in either polar form, where x is the modulus and
+     * y the argument, or Cartesian form, where x is the real and y the imaginary component.
+     */
+    private static final class Evaluation {
+        boolean polar;
+        double x;
+        double y;
+        /** Receives the results of powers */
+        final MutableComplexDouble scratch = new MutableComplexDouble();
+
+        Evaluation (Complex<? extends Number> value) {
+            this.polar = isPolarNative(value);
+            if (polar) {
+                this.x = value.modulus().doubleValue();
+                this.y = value.Argument().doubleValue();
+            } else {
+                this.x = value.real().doubleValue();
+                this.y = value.imaginary().doubleValue();
+            }
+        }
+
+        boolean isZero () {
+            return polar ? (x == 0d) : ((x == 0d) && (y == 0d));
+        }
+
+        void toCartesian () {
+            if (polar) {
+                double modulus = x;
+                x = modulus * Math.cos(y);
+                y = modulus * Math.sin(y);
+                polar = false;
+            }
+        }
+
+        void toPolar () {
+            if (!polar) {
+                double argument = Math.atan2(y, x);
+                x = Math.sqrt((x * x) + (y * y));
+                y = (argument == -Math.PI) ? Math.PI : argument;
+                polar = true;
+            }
+        }
+
+        /** Replaces the value by its principal Logarithm, in Cartesian form. */
+        void log () throws ArithmeticException {
+            toPolar();
+            if (x == 0d) {
+                throw new ArithmeticException("Cannot take the logarithm of 0");
+            }
+            /* The argument accumulated by polar multiplication may be outside the principal range */
+            y = ComplexDoublePolar.principalArgument(y);
+            x = Math.log(x);
+            polar = false;
+        }
+
+        /** Raises the value to the exponent of a power, as {@link Complex#pow}, in Cartesian form. */
+        void pow (ComplexPower power) throws ArithmeticException {
+            if ( isZero() && !(power.exponentRe() > 0d)
+                    && ((power.exponentRe() != 0d) || (power.exponentIm() != 0d)) ) {
+                throw new ArithmeticException(
+                        "Cannot raise 0 to an exponent with non-positive real part");
+            }
+            toCartesian();
+            power.apply(x, y, scratch);
+            x = scratch.re();
+            y = scratch.im();
+        }
+
+        /** Replaces the value by its exponential, in polar form. */
+        void exp () {
+            toCartesian();
+            x = Math.exp(x);
+            polar = true;
+        }
+
+        Complex<Double> result () {
+            return polar ? new ComplexDoublePolar(y, x) : new ComplexDouble(x, y);
+        }
+    }
+}
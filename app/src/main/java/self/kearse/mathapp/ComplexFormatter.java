@@ -0,0 +1,386 @@
+package self.kearse.mathapp;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+
+/**
+ * Formats complex numbers as text, appending to a caller's {@link StringBuilder} or
+ * {@link Appendable} rather than building a String for each number, so that tables of millions
+ * of values can be written without parsing a format string or boxing a component per value.
+ * <p>
+ * A formatter writes either the Cartesian form, <code>1.5-2.0i</code>, or the polar form,
+ * <code>2.5*e^(i*-0.927)</code>, as plain text or as LaTeX math code without delimiters,
+ * <code>1.5-2.0\,i</code> or <code>2.5\,e^{-0.927\,i}</code>.  By default each component is
+ * written with the fewest digits which read back as the same double, as by
+ * {@link Double#toString(double)}; a precision instead rounds each component to that many
+ * significant digits, half to even, dropping trailing zeros.  Either way, components from 10<sup>-3</sup> up to
+ * 10<sup>7</sup> are written as decimals and others in scientific notation, <code>1.0E-5</code>
+ * or <code>1.0\times10^{-5}</code> in LaTeX.
+ * <p>
+ * Formatters are immutable, so the shared instances may be used from any thread.
+ */
+public final class ComplexFormatter {
+    /** The largest precision, enough to distinguish every double. */
+    public static final int MAX_PRECISION = 17;
+    /** Writes the Cartesian form with the fewest digits, as <code>1.5-2.0i</code>. */
+    public static final ComplexFormatter CARTESIAN = new ComplexFormatter(false, false, 0);
+    /** Writes the polar form with the fewest digits, as <code>2.5*e^(i*-0.927)</code>. */
+    public static final ComplexFormatter POLAR = new ComplexFormatter(true, false, 0);
+    /** Writes the Cartesian form in LaTeX with the fewest digits, as <code>1.5-2.0\,i</code>. */
+    public static final ComplexFormatter CARTESIAN_LATEX = new ComplexFormatter(false, true, 0);
+    /** Writes the polar form in LaTeX with the fewest digits, as <code>2.5\,e^{-0.927\,i}</code>. */
+    public static final ComplexFormatter POLAR_LATEX = new ComplexFormatter(true, true, 0);
+    /** The number of characters written to an Appendable at once, by the bulk methods */
+    private static final int CHUNK_SIZE = 8192;
+    /** The powers of ten which are exact as doubles */
+    private static final double[] DOUBLE_POWERS = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+    /** The largest precision whose digits, scaled into a double, stay below 2<sup>53</sup> */
+    private static final int MAX_FAST_PRECISION = 15;
+    /** The powers of ten up to the largest precision */
+    private static final long[] LONG_POWERS = new long[MAX_PRECISION + 2];
+    static {
+        LONG_POWERS[0] = 1L;
+        for (int k = 1; k < LONG_POWERS.length; k++) LONG_POWERS[k] = LONG_POWERS[k - 1] * 10L;
+    }
+
+    /** True to write the polar form */
+    private final boolean polar;
+    /** True to write LaTeX math code */
+    private final boolean latex;
+    /** The number of significant digits, or zero for the fewest digits which read back exactly */
+    private final int precision;
+
+    private ComplexFormatter (boolean polar, boolean latex, int precision) {
+        this.polar = polar;
+        this.latex = latex;
+        this.precision = precision;
+    }
+
+    /**
+     * Returns a formatter like this, with a precision.
+     * @param precision the number of significant digits of each component, from 1 to
+     *                  {@link #MAX_PRECISION}, or zero for the fewest digits which read back
+     *                  as the same double
+     * @return a formatter with the given precision
+     * @throws IllegalArgumentException if precision is out of range
+     */
+    public ComplexFormatter withPrecision (int precision) throws IllegalArgumentException {
+        if ( (precision < 0) || (precision > MAX_PRECISION) ) {
+            throw new IllegalArgumentException(String.format(
+                    "Precision must be from 0 to %d, was %d", MAX_PRECISION, precision));
+        }
+        return new ComplexFormatter(polar, latex, precision);
+    }
+
+    /**
+     * Returns a formatter like this, writing the polar form or the Cartesian form.
+     * @param polar true for the polar form, false for the Cartesian form
+     * @return a formatter of the given form
+     */
+    public ComplexFormatter withPolar (boolean polar) {
+        return new ComplexFormatter(polar, latex, precision);
+    }
+
+    /**
+     * Returns a formatter like this, writing LaTeX math code or plain text.
+     * @param latex true for LaTeX math code, false for plain text
+     * @return a formatter of the given kind
+     */
+    public ComplexFormatter withLaTeX (boolean latex) {
+        return new ComplexFormatter(polar, latex, precision);
+    }
+
+    /** Returns the number of significant digits, or zero for the fewest which read back exactly. */
+    public int precision () {
+        return precision;
+    }
+
+    /** Returns whether this writes the polar form. */
+    public boolean isPolar () {
+        return polar;
+    }
+
+    /** Returns whether this writes LaTeX math code. */
+    public boolean isLaTeX () {
+        return latex;
+    }
+
+    /**
+     * Formats a complex number.
+     * @param re the real component
+     * @param im the imaginary component
+     * @return a new String
+     */
+    public String format (double re, double im) {
+        return append(new StringBuilder(32), re, im).toString();
+    }
+
+    /**
+     * Formats a complex number.
+     * @param value the number
+     * @return a new String
+     * @throws NullPointerException if value is null
+     */
+    public String format (Complex<? extends Number> value) throws NullPointerException {
+        return append(new StringBuilder(32), value).toString();
+    }
+
+    /**
+     * Appends a complex number given by its components.
+     * @param out the builder to append to
+     * @param re the real component
+     * @param im the imaginary component
+     * @return out
+     */
+    public StringBuilder append (StringBuilder out, double re, double im) {
+        if (polar) return appendPolar(out, Math.hypot(re, im), Math.atan2(im, re));
+        return appendCartesian(out, re, im);
+    }
+
+    /**
+     * Appends a complex number, in polar form from its own modulus and Argument.
+     * @param out the builder to append to
+     * @param value the number
+     * @return out
+     * @throws NullPointerException if value is null
+     */
+    public StringBuilder append (StringBuilder out, Complex<? extends Number> value) throws NullPointerException {
+        if (value == null) {
+            throw new NullPointerException("Cannot format a null reference");
+        }
+        if (polar) return appendPolar(out, value.modulus().doubleValue(), value.Argument().doubleValue());
+        return appendCartesian(out, value.real().doubleValue(), value.imaginary().doubleValue());
+    }
+
+    /**
+     * Appends a complex number given by its components.
+     * @param out the destination
+     * @param re the real component
+     * @param im the imaginary component
+     * @throws IOException if out throws one
+     */
+    public void appendTo (Appendable out, double re, double im) throws IOException {
+        if (out instanceof StringBuilder) append((StringBuilder) out, re, im);
+        else out.append(append(new StringBuilder(32), re, im));
+    }
+
+    /**
+     * Appends every element of a buffer, with a separator between each.
+     * @param out the destination
+     * @param values the numbers
+     * @param separator the text between numbers
+     * @throws IOException if out throws one
+     * @throws NullPointerException if separator is null
+     */
+    public void appendAll (Appendable out, ComplexDoubleArray values, CharSequence separator)
+            throws IOException, NullPointerException {
+        appendAll(out, values.re(), values.im(), 0, values.length(), separator);
+    }
+
+    /**
+     * Appends a range of numbers given by their components, with a separator between each.
+     * @param out the destination
+     * @param re the real components
+     * @param im the imaginary components
+     * @param from the index of the first number
+     * @param to the index after the last number
+     * @param separator the text between numbers
+     * @throws IOException if out throws one
+     * @throws NullPointerException if separator is null
+     * @throws IndexOutOfBoundsException if the range is outside either array
+     */
+    public void appendAll (Appendable out, double[] re, double[] im, int from, int to, CharSequence separator)
+            throws IOException, NullPointerException, IndexOutOfBoundsException {
+        if (separator == null) {
+            throw new NullPointerException("Cannot use a null separator");
+        } else if ( (from < 0) || (from > to) || (to > re.length) || (to > im.length) ) {
+            throw new IndexOutOfBoundsException(String.format(
+                    "Range %d to %d is outside arrays of %d and %d", from, to, re.length, im.length));
+        }
+        StringBuilder chunk = chunk(out);
+        for (int k = from; k < to; k++) {
+            if (k > from) chunk.append(separator);
+            append(chunk, re[k], im[k]);
+            flush(out, chunk, false);
+        }
+        flush(out, chunk, true);
+    }
+
+    /**
+     * Appends every number of a sequence, with a separator between each.
+     * @param out the destination
+     * @param values the numbers
+     * @param separator the text between numbers
+     * @throws IOException if out throws one
+     * @throws NullPointerException if separator or any of the numbers is null
+     */
+    public void appendAll (Appendable out, Iterable<? extends Complex<? extends Number>> values,
+                           CharSequence separator) throws IOException, NullPointerException {
+        if (separator == null) {
+            throw new NullPointerException("Cannot use a null separator");
+        }
+        StringBuilder chunk = chunk(out);
+        boolean first = true;
+        for (Complex<? extends Number> value : values) {
+            if (!first) chunk.append(separator);
+            first = false;
+            append(chunk, value);
+            flush(out, chunk, false);
+        }
+        flush(out, chunk, true);
+    }
+
+    /** Returns the builder to write into: out itself, or a buffer to pass on in chunks. */
+    private static StringBuilder chunk (Appendable out) {
+        return (out instanceof StringBuilder) ? (StringBuilder) out : new StringBuilder(CHUNK_SIZE + 64);
+    }
+
+    /** Passes a full, or final, chunk on to out, unless out is the chunk. */
+    private static void flush (Appendable out, StringBuilder chunk, boolean last) throws IOException {
+        if ( (chunk != out) && (last || (chunk.length() >= CHUNK_SIZE)) ) {
+            out.append(chunk);
+            chunk.setLength(0);
+        }
+    }
+
+    private StringBuilder appendCartesian (StringBuilder out, double re, double im) {
+        appendNumber(out, re);
+        /* Merge the sign of the imaginary component into the operator, even for -0.0 */
+        if (Double.isNaN(im) || (Double.doubleToRawLongBits(im) >= 0L)) {
+            out.append('+');
+        } else {
+            out.append('-');
+            im = -im;
+        }
+        appendNumber(out, im);
+        return out.append(latex ? "\\,i" : "i");
+    }
+
+    private StringBuilder appendPolar (StringBuilder out, double modulus, double argument) {
+        appendNumber(out, modulus);
+        out.append(latex ? "\\,e^{" : "*e^(i*");
+        appendNumber(out, argument);
+        return out.append(latex ? "\\,i}" : ")");
+    }
+
+    /** Appends one component. */
+    private void appendNumber (StringBuilder out, double x) {
+        if (Double.isNaN(x)) {
+            out.append(latex ? "\\mathrm{NaN}" : "NaN");
+        } else if (Double.isInfinite(x)) {
+            if (x < 0d) out.append('-');
+            out.append(latex ? "\\infty" : "Infinity");
+        } else if (precision == 0) {
+            int start = out.length();
+            out.append(x);
+            if (latex) {
+                /* Rewrite the exponent of scientific notation, 1.0E-5 as 1.0\times10^{-5} */
+                for (int k = start; k < out.length(); k++) {
+                    if (out.charAt(k) == 'E') {
+                        out.replace(k, k + 1, "\\times10^{").append('}');
+                        break;
+                    }
+                }
+            }
+        } else {
+            appendRounded(out, x);
+        }
+    }
+
+    /** Appends a finite component rounded to the precision. */
+    private void appendRounded (StringBuilder out, double x) {
+        if (Double.doubleToRawLongBits(x) < 0L) {
+            out.append('-');
+            x = -x;
+        }
+        if (x == 0d) {
+            out.append("0.0");
+            return;
+        }
+        int exponent = (int) Math.floor(Math.log10(x));
+        long digits = -1L;
+        if (precision <= MAX_FAST_PRECISION) {
+            digits = roundScaled(x, precision - 1 - exponent);
+            /* Correct an estimate of the exponent one off, or rounding up to the next power */
+            if ( (digits >= 0L) && (digits < LONG_POWERS[precision - 1]) ) {
+                exponent--;
+                digits = roundScaled(x, precision - 1 - exponent);
+            }
+            if (digits >= LONG_POWERS[precision]) {
+                exponent++;
+                digits = roundScaled(x, precision - 1 - exponent);
+            }
+        }
+        if (digits < 0L) {
+            /* The decimal expansion of a double is exact, so rounding it is too */
+            BigDecimal rounded = new BigDecimal(x).round(
+                    new MathContext(precision, RoundingMode.HALF_EVEN));
+            int length = rounded.precision();
+            exponent = length - 1 - rounded.scale();
+            digits = rounded.unscaledValue().longValue() * LONG_POWERS[precision - length];
+        }
+        int count = precision;
+        while ( (count > 1) && (digits % 10L == 0L) ) {
+            digits /= 10L;
+            count--;
+        }
+        if ( (exponent >= -3) && (exponent < 7) ) {
+            if (exponent < 0) {
+                out.append("0.");
+                for (int k = -1; k > exponent; k--) out.append('0');
+                appendDigits(out, digits, count);
+            } else {
+                /* The integer part, padded with zeros, then at least one fractional digit */
+                int whole = exponent + 1;
+                appendDigits(out, digits / LONG_POWERS[Math.max(count - whole, 0)], Math.min(whole, count));
+                for (int k = count; k < whole; k++) out.append('0');
+                out.append('.');
+                if (count > whole) appendDigits(out, digits % LONG_POWERS[count - whole], count - whole);
+                else out.append('0');
+            }
+        } else {
+            appendDigits(out, digits / LONG_POWERS[count - 1], 1);
+            out.append('.');
+            if (count > 1) appendDigits(out, digits % LONG_POWERS[count - 1], count - 1);
+            else out.append('0');
+            if (latex) out.append("\\times10^{").append(exponent).append('}');
+            else out.append('E').append(exponent);
+        }
+    }
+
+    /** Appends a number of digits, with leading zeros to the given width. */
+    private static void appendDigits (StringBuilder out, long value, int width) {
+        for (int k = width - 1; k >= 0; k--) {
+            out.append((char) ('0' + ((value / LONG_POWERS[k]) % 10L)));
+        }
+    }
+
+    /**
+     * Rounds a positive number multiplied by a power of ten to the nearest integer, scaling in
+     * steps of exact powers.  Each step rounds, so the result is returned only when the error
+     * cannot have moved the scaled value across a half.
+     * @return the rounded value, or -1 if the rounding is in doubt
+     */
+    private static long roundScaled (double x, int power) {
+        int steps = 1;
+        while (power > 22) {
+            x *= 1e22;
+            power -= 22;
+            steps++;
+        }
+        while (power < -22) {
+            x /= 1e22;
+            power += 22;
+            steps++;
+        }
+        double scaled = (power >= 0) ? (x * DOUBLE_POWERS[power]) : (x / DOUBLE_POWERS[-power]);
+        double floor = Math.floor(scaled);
+        double fraction = scaled - floor;
+        /* Each step is off by at most half an ulp of its result, so by steps ulps in all */
+        if (Math.abs(fraction - 0.5d) <= steps * Math.ulp(scaled)) return -1L;
+        return (long) floor + ((fraction > 0.5d) ? 1L : 0L);
+    }
+}
@@ -0,0 +1,48 @@
+package self.kearse.mathapp;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * A function of one complex variable, evaluated on primitive components so that evaluating it
+ * over a whole grid of points, as {@link DomainColoringRenderer} does, need allocate nothing.
+ * A {@link ComplexPower} is already one, as {@code power::apply}, and any function written
+ * against the {@link Complex} API may be adapted with {@link #of(UnaryOperator)}.
+ * <p>
+ * Functions should be free of side effects, so that they may be evaluated from any number of
+ * threads at once, and points outside their domain should give NaN rather than throw.
+ */
+public interface ComplexFunction {
+    /**
+     * Evaluates the function at a point.
+     * @param re the real component of the point
+     * @param im the imaginary component of the point
+     * @param result the number to store the value of the function in
+     * @return result
+     */
+    MutableComplexDouble apply (double re, double im, MutableComplexDouble result);
+
+    /**
+     * Adapts a function on Complex numbers, which allocates a number for every evaluation.
+     * Points where the function throws an ArithmeticException, such as the pole of
+     * {@link Complex#Log}, give NaN.
+     * @param function the function to adapt
+     * @return a new function with the same values
+     * @throws NullPointerException if function is null
+     */
+    static ComplexFunction of (final UnaryOperator<Complex<Double>> function)
+            throws NullPointerException {
+        if (function == null) {
+            throw new NullPointerException("Cannot adapt a null function");
+        }
+        return new ComplexFunction() {
+            @Override
+            public MutableComplexDouble apply (double re, double im, MutableComplexDouble result) {
+                try {
+                    return result.set(function.apply(new ComplexDouble(re, im)));
+                } catch (ArithmeticException e) {
+                    return result.set(Double.NaN, Double.NaN);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,756 @@
+package self.kearse.mathapp;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A dense matrix of complex numbers, held in row-major order as parallel primitive arrays of real
+ * and imaginary components, as {@link ComplexDoubleArray} holds a vector.  Elements enter and
+ * leave as {@link Complex} numbers, but every computation runs on the primitive arrays.
+ * <p>
+ * Products are computed in blocks of the inner dimension and of the columns, so that the block
+ * of the right operand being read stays in cache while every row of the panel uses it, and the
+ * rows of the result are divided into panels computed in parallel on a {@link ForkJoinPool}.  The
+ * LU decomposition is blocked the same way, so that most of its work is such a product.
+ * Element-wise arithmetic operates in place and returns this, so that it may be chained.
+ */
+public final class ComplexMatrix {
+    /** The number of rows of a panel computed by one task. */
+    private static final int PANEL_ROWS = 32;
+    /** The block of the inner dimension of a product */
+    private static final int INNER_BLOCK = 64;
+    /** The block of the columns of a product */
+    private static final int COLUMN_BLOCK = 256;
+    /** The number of complex multiplications below which a product is not split into tasks */
+    private static final long PARALLEL_THRESHOLD = 1L << 16;
+    /** The number of columns factored together by the LU decomposition */
+    private static final int LU_BLOCK = 48;
+    /** The edge length of the tiles of a transpose */
+    private static final int TRANSPOSE_TILE = 32;
+
+    /** The number of rows */
+    private final int rows;
+    /** The number of columns */
+    private final int columns;
+    /** The real components of the elements, in row-major order */
+    private final double[] re;
+    /** The imaginary components of the elements, in row-major order */
+    private final double[] im;
+
+    /**
+     * Constructs a new matrix with every element zero.
+     * @param rows the number of rows
+     * @param columns the number of columns
+     * @throws IllegalArgumentException if either dimension is negative
+     */
+    public ComplexMatrix (int rows, int columns) throws IllegalArgumentException {
+        this(rows, columns, null, null);
+    }
+
+    /**
+     * Constructs a new matrix backed by the given component arrays in row-major order, without
+     * copying them.
+     * @param rows the number of rows
+     * @param columns the number of columns
+     * @param re the real components, or null for a new array of zeros
+     * @param im the imaginary components, or null for a new array of zeros
+     * @throws IllegalArgumentException if either dimension is negative, or an array does not
+     *         hold rows*columns values
+     */
+    public ComplexMatrix (int rows, int columns, double[] re, double[] im) throws IllegalArgumentException {
+        if ( (rows < 0) || (columns < 0) ) {
+            throw new IllegalArgumentException(String.format(
+                    "Dimensions cannot be negative, were %d x %d", rows, columns));
+        }
+        int size = rows * columns;
+        if ( ((re != null) && (re.length != size)) || ((im != null) && (im.length != size)) ) {
+            throw new IllegalArgumentException(String.format(
+                    "Component arrays must hold %d values", size));
+        }
+        this.rows = rows;
+        this.columns = columns;
+        this.re = (re == null) ? new double[size] : re;
+        this.im = (im == null) ? new double[size] : im;
+    }
+
+    /**
+     * Constructs a new identity matrix.
+     * @param size the number of rows and columns
+     * @return a new matrix with ones on the diagonal and zeros elsewhere
+     * @throws IllegalArgumentException if size is negative
+     */
+    public static ComplexMatrix identity (int size) throws IllegalArgumentException {
+        ComplexMatrix identity = new ComplexMatrix(size, size);
+        for (int i = 0; i < size; i++) identity.re[(i * size) + i] = 1d;
+        return identity;
+    }
+
+    /**
+     * Constructs a new matrix holding the values of a List of rows of Complex numbers.
+     * @param values the rows, each of the same length
+     * @return a new matrix with the same values
+     * @throws NullPointerException if values, a row or an element is null
+     * @throws IllegalArgumentException if the rows differ in length
+     */
+    public static ComplexMatrix fromList (List<? extends List<? extends Complex<? extends Number>>> values)
+            throws NullPointerException, IllegalArgumentException {
+        int rows = values.size(), columns = (rows == 0) ? 0 : values.get(0).size();
+        ComplexMatrix matrix = new ComplexMatrix(rows, columns);
+        for (int r = 0; r < rows; r++) {
+            List<? extends Complex<? extends Number>> row = values.get(r);
+            if (row.size() != columns) {
+                throw new IllegalArgumentException(String.format(
+                        "Row %d holds %d values, %d required", r, row.size(), columns));
+            }
+            for (int c = 0; c < columns; c++) matrix.set(r, c, row.get(c));
+        }
+        return matrix;
+    }
+
+    /**
+     * Copies the elements of this into a new List of rows of Complex numbers.
+     * @return a new List of rows of ComplexDouble values
+     */
+    public List<List<Complex<Double>>> toList () {
+        List<List<Complex<Double>>> list = new ArrayList<List<Complex<Double>>>(rows);
+        for (int r = 0; r < rows; r++) {
+            List<Complex<Double>> row = new ArrayList<Complex<Double>>(columns);
+            for (int c = 0; c < columns; c++) row.add(get(r, c));
+            list.add(row);
+        }
+        return list;
+    }
+
+    /** Returns the number of rows. */
+    public int rows () {
+        return rows;
+    }
+
+    /** Returns the number of columns. */
+    public int columns () {
+        return columns;
+    }
+
+    /** Returns the backing array of real components, in row-major order. */
+    public double[] re () {
+        return re;
+    }
+
+    /** Returns the backing array of imaginary components, in row-major order. */
+    public double[] im () {
+        return im;
+    }
+
+    /**
+     * Returns an element.
+     * @param row the row of the element
+     * @param column the column of the element
+     * @return a new ComplexDouble with the value of the element
+     * @throws IndexOutOfBoundsException if row or column is out of range
+     */
+    public ComplexDouble get (int row, int column) throws IndexOutOfBoundsException {
+        int index = index(row, column);
+        return new ComplexDouble(re[index], im[index]);
+    }
+
+    /**
+     * Replaces an element.
+     * @param row the row of the element
+     * @param column the column of the element
+     * @param re the new real component
+     * @param im the new imaginary component
+     * @throws IndexOutOfBoundsException if row or column is out of range
+     */
+    public void set (int row, int column, double re, double im) throws IndexOutOfBoundsException {
+        int index = index(row, column);
+        this.re[index] = re;
+        this.im[index] = im;
+    }
+
+    /**
+     * Replaces an element.
+     * @param row the row of the element
+     * @param column the column of the element
+     * @param value the new value
+     * @throws IndexOutOfBoundsException if row or column is out of range
+     * @throws NullPointerException if value is null
+     */
+    public void set (int row, int column, Complex<? extends Number> value)
+            throws IndexOutOfBoundsException, NullPointerException {
+        if (value == null) {
+            throw new NullPointerException("Cannot store a null reference");
+        }
+        ComplexDouble v = ComplexDouble.valueOf(value);
+        set(row, column, v.re(), v.im());
+    }
+
+    /** Finds the index of an element in the component arrays. */
+    private int index (int row, int column) throws IndexOutOfBoundsException {
+        if ( (row < 0) || (row >= rows) || (column < 0) || (column >= columns) ) {
+            throw new IndexOutOfBoundsException(String.format(
+                    "Element (%d, %d) is outside a %d x %d matrix", row, column, rows, columns));
+        }
+        return (row * columns) + column;
+    }
+
+    /** Returns a new matrix with a copy of the elements of this. */
+    public ComplexMatrix copy () {
+        return new ComplexMatrix(rows, columns, re.clone(), im.clone());
+    }
+
+    /**
+     * Adds the elements of another matrix to the elements of this.
+     * @param other a matrix of equal dimensions
+     * @return this
+     * @throws IllegalArgumentException if other differs in dimensions
+     */
+    public ComplexMatrix add (ComplexMatrix other) throws IllegalArgumentException {
+        checkDimensions(other);
+        for (int i = 0; i < re.length; i++) {
+            re[i] += other.re[i];
+            im[i] += other.im[i];
+        }
+        return this;
+    }
+
+    /**
+     * Subtracts the elements of another matrix from the elements of this.
+     * @param other a matrix of equal dimensions
+     * @return this
+     * @throws IllegalArgumentException if other differs in dimensions
+     */
+    public ComplexMatrix subtract (ComplexMatrix other) throws IllegalArgumentException {
+        checkDimensions(other);
+        for (int i = 0; i < re.length; i++) {
+            re[i] -= other.re[i];
+            im[i] -= other.im[i];
+        }
+        return this;
+    }
+
+    /**
+     * Multiplies every element of this by a scalar.
+     * @param factor the scalar
+     * @return this
+     * @throws NullPointerException if factor is null
+     */
+    public ComplexMatrix scale (Complex<? extends Number> factor) throws NullPointerException {
+        if (factor == null) {
+            throw new NullPointerException("Cannot scale by a null reference");
+        }
+        ComplexDouble f = ComplexDouble.valueOf(factor);
+        double fRe = f.re(), fIm = f.im();
+        for (int i = 0; i < re.length; i++) {
+            double a = re[i], b = im[i];
+            re[i] = (a * fRe) - (b * fIm);
+            im[i] = (a * fIm) + (b * fRe);
+        }
+        return this;
+    }
+
+    private void checkDimensions (ComplexMatrix other) throws IllegalArgumentException {
+        if ( (other.rows != rows) || (other.columns != columns) ) {
+            throw new IllegalArgumentException(String.format("Dimensions differ: %d x %d and %d x %d",
+                    rows, columns, other.rows, other.columns));
+        }
+    }
+
+    /**
+     * Computes the product of this and another matrix, using the common pool.
+     * @param other the right operand, with as many rows as this has columns
+     * @return a new matrix holding the product
+     * @throws IllegalArgumentException if the dimensions do not agree
+     */
+    public ComplexMatrix multiply (ComplexMatrix other) throws IllegalArgumentException {
+        return multiply(other, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes the product of this and another matrix.
+     * @param other the right operand, with as many rows as this has columns
+     * @param pool the pool to compute the panels of the product
+     * @return a new matrix holding the product
+     * @throws IllegalArgumentException if the dimensions do not agree
+     * @throws NullPointerException if pool is null
+     */
+    public ComplexMatrix multiply (ComplexMatrix other, ForkJoinPool pool)
+            throws IllegalArgumentException, NullPointerException {
+        if (other.rows != columns) {
+            throw new IllegalArgumentException(String.format("Cannot multiply %d x %d by %d x %d",
+                    rows, columns, other.rows, other.columns));
+        } else if (pool == null) {
+            throw new NullPointerException("Cannot use a null pool");
+        }
+        ComplexMatrix product = new ComplexMatrix(rows, other.columns);
+        Product task = new Product(re, im, 0, columns, other.re, other.im, 0, other.columns,
+                product.re, product.im, 0, other.columns, columns, other.columns, 1d, 0, rows);
+        if ((long) rows * columns * other.columns < PARALLEL_THRESHOLD) task.compute();
+        else pool.invoke(task);
+        return product;
+    }
+
+    /**
+     * Computes the product of this and a column vector.
+     * @param vector the vector, with as many elements as this has columns
+     * @return a new vector holding the product
+     * @throws IllegalArgumentException if the dimensions do not agree
+     */
+    public ComplexDoubleArray multiply (ComplexDoubleArray vector) throws IllegalArgumentException {
+        if (vector.length() != columns) {
+            throw new IllegalArgumentException(String.format(
+                    "Cannot multiply %d x %d by a vector of %d", rows, columns, vector.length()));
+        }
+        double[] vRe = vector.re(), vIm = vector.im();
+        ComplexDoubleArray product = new ComplexDoubleArray(rows);
+        for (int r = 0; r < rows; r++) {
+            double sumRe = 0d, sumIm = 0d;
+            int offset = r * columns;
+            for (int c = 0; c < columns; c++) {
+                double a = re[offset + c], b = im[offset + c];
+                sumRe += (a * vRe[c]) - (b * vIm[c]);
+                sumIm += (a * vIm[c]) + (b * vRe[c]);
+            }
+            product.set(r, sumRe, sumIm);
+        }
+        return product;
+    }
+
+    /** Returns a new matrix holding the transpose of this. */
+    public ComplexMatrix transpose () {
+        return transpose(1d);
+    }
+
+    /**
+     * Computes the conjugate transpose, whose elements are the {@link Complex#complement()} of
+     * the elements of this, reflected in the diagonal.
+     * @return a new matrix holding the conjugate transpose
+     */
+    public ComplexMatrix conjugateTranspose () {
+        return transpose(-1d);
+    }
+
+    /** Transposes in tiles, so that both the rows read and the rows written stay in cache. */
+    private ComplexMatrix transpose (double imaginarySign) {
+        ComplexMatrix transpose = new ComplexMatrix(columns, rows);
+        for (int r0 = 0; r0 < rows; r0 += TRANSPOSE_TILE) {
+            int r1 = Math.min(r0 + TRANSPOSE_TILE, rows);
+            for (int c0 = 0; c0 < columns; c0 += TRANSPOSE_TILE) {
+                int c1 = Math.min(c0 + TRANSPOSE_TILE, columns);
+                for (int r = r0; r < r1; r++) {
+                    for (int c = c0; c < c1; c++) {
+                        transpose.re[(c * rows) + r] = re[(r * columns) + c];
+                        transpose.im[(c * rows) + r] = imaginarySign * im[(r * columns) + c];
+                    }
+                }
+            }
+        }
+        return transpose;
+    }
+
+    /**
+     * Divides one complex number by another by Smith's algorithm, which divides through by the
+     * larger component of the divisor rather than squaring both, so that the quotient over- or
+     * underflows only when it is itself out of range.
+     * @param aRe the real component of the dividend
+     * @param aIm the imaginary component of the dividend
+     * @param bRe the real component of the non-zero divisor
+     * @param bIm the imaginary component of the non-zero divisor
+     * @param quotient receives the real and then the imaginary component of the quotient
+     */
+    static void divide (double aRe, double aIm, double bRe, double bIm, double[] quotient) {
+        if (Math.abs(bRe) >= Math.abs(bIm)) {
+            double ratio = bIm / bRe, denominator = bRe + (bIm * ratio);
+            quotient[0] = (aRe + (aIm * ratio)) / denominator;
+            quotient[1] = (aIm - (aRe * ratio)) / denominator;
+        } else {
+            double ratio = bRe / bIm, denominator = (bRe * ratio) + bIm;
+            quotient[0] = ((aRe * ratio) + aIm) / denominator;
+            quotient[1] = ((aIm * ratio) - aRe) / denominator;
+        }
+    }
+
+    /**
+     * Computes the LU decomposition with partial pivoting, using the common pool.
+     * @return the decomposition
+     * @throws IllegalArgumentException if this is not square
+     */
+    public LU lu () throws IllegalArgumentException {
+        return lu(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes the LU decomposition with partial pivoting.
+     * @param pool the pool to compute the updates of the decomposition
+     * @return the decomposition
+     * @throws IllegalArgumentException if this is not square
+     * @throws NullPointerException if pool is null
+     */
+    public LU lu (ForkJoinPool pool) throws IllegalArgumentException, NullPointerException {
+        if (rows != columns) {
+            throw new IllegalArgumentException(String.format(
+                    "Cannot decompose a %d x %d matrix", rows, columns));
+        } else if (pool == null) {
+            throw new NullPointerException("Cannot use a null pool");
+        }
+        return new LU(this, pool);
+    }
+
+    /**
+     * Solves the linear system of this and a right hand side, by LU decomposition.
+     * @param b the right hand side
+     * @return a new vector x such that Ax = b
+     * @throws IllegalArgumentException if this is not square or b has the wrong length
+     * @throws ArithmeticException if this is singular
+     */
+    public ComplexDoubleArray solve (ComplexDoubleArray b) throws IllegalArgumentException, ArithmeticException {
+        return lu().solve(b);
+    }
+
+    /**
+     * Computes the determinant, by LU decomposition.
+     * @return the determinant
+     * @throws IllegalArgumentException if this is not square
+     */
+    public Complex<Double> determinant () throws IllegalArgumentException {
+        return lu().determinant();
+    }
+
+    @Override
+    public boolean equals (Object other) {
+        if (this == other) return true;
+        if (!(other instanceof ComplexMatrix)) return false;
+        ComplexMatrix o = (ComplexMatrix) other;
+        return (rows == o.rows) && (columns == o.columns) && Arrays.equals(re, o.re) && Arrays.equals(im, o.im);
+    }
+
+    @Override
+    public int hashCode () {
+        return (31 * ((31 * ((31 * rows) + columns)) + Arrays.hashCode(re))) + Arrays.hashCode(im);
+    }
+
+    @Override
+    @NonNull
+    public String toString () {
+        StringBuilder builder = new StringBuilder("[");
+        for (int r = 0; r < rows; r++) {
+            builder.append((r == 0) ? "[" : ", [");
+            for (int c = 0; c < columns; c++) {
+                if (c > 0) builder.append(", ");
+                builder.append(get(r, c));
+            }
+            builder.append(']');
+        }
+        return builder.append(']').toString();
+    }
+
+    /**
+     * Accumulates the product of two row-major blocks into a third, C += sign AB, one panel of the
+     * rows of C at a time.  The operands are given as offsets and strides into component arrays,
+     * so that they may be blocks of larger matrices, even of the same matrix where they do not
+     * overlap.
+     */
+    private static final class Product extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final double[] aRe, aIm;
+        private final int aOffset, aStride;
+        private final double[] bRe, bIm;
+        private final int bOffset, bStride;
+        private final double[] cRe, cIm;
+        private final int cOffset, cStride;
+        private final int inner;
+        private final int columns;
+        private final double sign;
+        private final int from;
+        private final int to;
+
+        Product (double[] aRe, double[] aIm, int aOffset, int aStride,
+                 double[] bRe, double[] bIm, int bOffset, int bStride,
+                 double[] cRe, double[] cIm, int cOffset, int cStride,
+                 int inner, int columns, double sign, int from, int to) {
+            this.aRe = aRe;
+            this.aIm = aIm;
+            this.aOffset = aOffset;
+            this.aStride = aStride;
+            this.bRe = bRe;
+            this.bIm = bIm;
+            this.bOffset = bOffset;
+            this.bStride = bStride;
+            this.cRe = cRe;
+            this.cIm = cIm;
+            this.cOffset = cOffset;
+            this.cStride = cStride;
+            this.inner = inner;
+            this.columns = columns;
+            this.sign = sign;
+            this.from = from;
+            this.to = to;
+        }
+
+        /** Creates the task for a range of the rows of this task */
+        private Product rows (int from, int to) {
+            return new Product(aRe, aIm, aOffset, aStride, bRe, bIm, bOffset, bStride,
+                    cRe, cIm, cOffset, cStride, inner, columns, sign, from, to);
+        }
+
+        @Override
+        protected void compute () {
+            if (to - from > PANEL_ROWS) {
+                int middle = (from + to) >>> 1;
+                invokeAll(rows(from, middle), rows(middle, to));
+                return;
+            }
+            for (int j0 = 0; j0 < columns; j0 += COLUMN_BLOCK) {
+                int j1 = Math.min(j0 + COLUMN_BLOCK, columns);
+                for (int k0 = 0; k0 < inner; k0 += INNER_BLOCK) {
+                    int k1 = Math.min(k0 + INNER_BLOCK, inner);
+                    for (int i = from; i < to; i++) {
+                        int a = aOffset + (i * aStride), c = cOffset + (i * cStride);
+                        for (int k = k0; k < k1; k++) {
+                            double xRe = sign * aRe[a + k], xIm = sign * aIm[a + k];
+                            if ( (xRe == 0d) && (xIm == 0d) ) continue;
+                            int b = bOffset + (k * bStride);
+                            for (int j = j0; j < j1; j++) {
+                                double yRe = bRe[b + j], yIm = bIm[b + j];
+                                cRe[c + j] += (xRe * yRe) - (xIm * yIm);
+                                cIm[c + j] += (xRe * yIm) + (xIm * yRe);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * The LU decomposition of a square matrix with partial pivoting, PA = LU, where P permutes the
+     * rows, L is unit lower triangular and U is upper triangular.  The decomposition is blocked:
+     * each block of columns is factored on its own, and the rest of the matrix updated by one
+     * product, which runs in parallel.  A zero pivot marks the matrix singular, which still has a
+     * decomposition and a determinant of zero, but no solutions.
+     */
+    public static final class LU {
+        /** The number of rows and columns */
+        private final int size;
+        /** The real components of L below the diagonal and U on and above it */
+        private final double[] re;
+        /** The imaginary components of L and U */
+        private final double[] im;
+        /** The row of the original matrix at each row of the decomposition */
+        private final int[] permutation;
+        /** True if the permutation is odd */
+        private final boolean odd;
+        /** True if a pivot is zero */
+        private final boolean singular;
+
+        private LU (ComplexMatrix matrix, ForkJoinPool pool) {
+            int n = matrix.rows;
+            this.size = n;
+            this.re = matrix.re.clone();
+            this.im = matrix.im.clone();
+            this.permutation = new int[n];
+            for (int i = 0; i < n; i++) permutation[i] = i;
+            boolean odd = false, singular = false;
+            double[] quotient = new double[2];
+            for (int k0 = 0; k0 < n; k0 += LU_BLOCK) {
+                int k1 = Math.min(k0 + LU_BLOCK, n);
+                /* Factor the panel of columns k0..k1, swapping whole rows */
+                for (int k = k0; k < k1; k++) {
+                    int pivot = k;
+                    double largest = -1d;
+                    for (int i = k; i < n; i++) {
+                        /* |re|+|im| ranks the candidates without squaring, which over- or underflows */
+                        double size = Math.abs(re[(i * n) + k]) + Math.abs(im[(i * n) + k]);
+                        if (size > largest) {
+                            largest = size;
+                            pivot = i;
+                        }
+                    }
+                    if (pivot != k) {
+                        swapRows(pivot, k);
+                        odd = !odd;
+                    }
+                    if (largest == 0d) {
+                        singular = true;
+                        continue;
+                    }
+                    double pRe = re[(k * n) + k], pIm = im[(k * n) + k];
+                    for (int i = k + 1; i < n; i++) {
+                        int row = i * n;
+                        /* l = a_ik / a_kk */
+                        divide(re[row + k], im[row + k], pRe, pIm, quotient);
+                        double lRe = quotient[0], lIm = quotient[1];
+                        re[row + k] = lRe;
+                        im[row + k] = lIm;
+                        int pivotRow = k * n;
+                        for (int j = k + 1; j < k1; j++) {
+                            double uRe = re[pivotRow + j], uIm = im[pivotRow + j];
+                            re[row + j] -= (lRe * uRe) - (lIm * uIm);
+                            im[row + j] -= (lRe * uIm) + (lIm * uRe);
+                        }
+                    }
+                }
+                if (k1 == n) break;
+                /* Solve L11 U12 = A12 for the rows of the panel right of it */
+                for (int k = k0; k < k1; k++) {
+                    for (int i = k + 1; i < k1; i++) {
+                        double lRe = re[(i * n) + k], lIm = im[(i * n) + k];
+                        for (int j = k1; j < n; j++) {
+                            double uRe = re[(k * n) + j], uIm = im[(k * n) + j];
+                            re[(i * n) + j] -= (lRe * uRe) - (lIm * uIm);
+                            im[(i * n) + j] -= (lRe * uIm) + (lIm * uRe);
+                        }
+                    }
+                }
+                /* Update the rest, A22 -= L21 U12 */
+                Product update = new Product(re, im, k0, n, re, im, (k0 * n) + k1, n,
+                        re, im, k1, n, k1 - k0, n - k1, -1d, k1, n);
+                if ((long) (n - k1) * (n - k1) * (k1 - k0) < PARALLEL_THRESHOLD) update.compute();
+                else pool.invoke(update);
+            }
+            this.odd = odd;
+            this.singular = singular;
+        }
+
+        private void swapRows (int a, int b) {
+            int n = size;
+            for (int j = 0; j < n; j++) {
+                double t = re[(a * n) + j];
+                re[(a * n) + j] = re[(b * n) + j];
+                re[(b * n) + j] = t;
+                t = im[(a * n) + j];
+                im[(a * n) + j] = im[(b * n) + j];
+                im[(b * n) + j] = t;
+            }
+            int t = permutation[a];
+            permutation[a] = permutation[b];
+            permutation[b] = t;
+        }
+
+        /** Returns the number of rows and columns. */
+        public int size () {
+            return size;
+        }
+
+        /** Returns whether a pivot is zero, so that the matrix has no inverse. */
+        public boolean isSingular () {
+            return singular;
+        }
+
+        /**
+         * Returns the permutation of the rows.
+         * @return a new array holding, for each row of LU, the row of the matrix it came from
+         */
+        public int[] permutation () {
+            return permutation.clone();
+        }
+
+        /** Returns a new matrix holding L, with ones on its diagonal. */
+        public ComplexMatrix lower () {
+            ComplexMatrix lower = ComplexMatrix.identity(size);
+            for (int i = 0; i < size; i++) {
+                System.arraycopy(re, i * size, lower.re, i * size, i);
+                System.arraycopy(im, i * size, lower.im, i * size, i);
+            }
+            return lower;
+        }
+
+        /** Returns a new matrix holding U. */
+        public ComplexMatrix upper () {
+            ComplexMatrix upper = new ComplexMatrix(size, size);
+            for (int i = 0; i < size; i++) {
+                System.arraycopy(re, (i * size) + i, upper.re, (i * size) + i, size - i);
+                System.arraycopy(im, (i * size) + i, upper.im, (i * size) + i, size - i);
+            }
+            return upper;
+        }
+
+        /**
+         * Computes the determinant, the product of the pivots and the sign of the permutation.
+         * @return the determinant
+         */
+        public Complex<Double> determinant () {
+            double dRe = odd ? -1d : 1d, dIm = 0d;
+            for (int i = 0; i < size; i++) {
+                double pRe = re[(i * size) + i], pIm = im[(i * size) + i];
+                double t = (dRe * pRe) - (dIm * pIm);
+                dIm = (dRe * pIm) + (dIm * pRe);
+                dRe = t;
+            }
+            return new ComplexDouble(dRe, dIm);
+        }
+
+        /**
+         * Solves the linear system for a right hand side.
+         * @param b the right hand side
+         * @return a new vector x such that Ax = b
+         * @throws IllegalArgumentException if b has the wrong length
+         * @throws ArithmeticException if the matrix is singular
+         */
+        public ComplexDoubleArray solve (ComplexDoubleArray b) throws IllegalArgumentException, ArithmeticException {
+            if (b.length() != size) {
+                throw new IllegalArgumentException(String.format(
+                        "Right hand side holds %d values, %d required", b.length(), size));
+            }
+            ComplexMatrix x = solve(new ComplexMatrix(size, 1, b.re(), b.im()));
+            return new ComplexDoubleArray(x.re, x.im);
+        }
+
+        /**
+         * Solves the linear system for several right hand sides at once.
+         * @param b the right hand sides, as the columns of a matrix
+         * @return a new matrix X such that AX = B
+         * @throws IllegalArgumentException if b has the wrong number of rows
+         * @throws ArithmeticException if the matrix is singular
+         */
+        public ComplexMatrix solve (ComplexMatrix b) throws IllegalArgumentException, ArithmeticException {
+            if (b.rows != size) {
+                throw new IllegalArgumentException(String.format(
+                        "Right hand sides hold %d rows, %d required", b.rows, size));
+            } else if (singular) {
+                throw new ArithmeticException("Cannot solve a singular system");
+            }
+            int n = size, m = b.columns;
+            ComplexMatrix x = new ComplexMatrix(n, m);
+            double[] xRe = x.re, xIm = x.im, quotient = new double[2];
+            for (int i = 0; i < n; i++) {
+                System.arraycopy(b.re, permutation[i] * m, xRe, i * m, m);
+                System.arraycopy(b.im, permutation[i] * m, xIm, i * m, m);
+            }
+            /* Forward substitution with L, then back substitution with U, a row at a time */
+            for (int i = 0; i < n; i++) {
+                for (int k = 0; k < i; k++) {
+                    subtractRow(re[(i * n) + k], im[(i * n) + k], xRe, xIm, k * m, i * m, m);
+                }
+            }
+            for (int i = n - 1; i >= 0; i--) {
+                for (int k = i + 1; k < n; k++) {
+                    subtractRow(re[(i * n) + k], im[(i * n) + k], xRe, xIm, k * m, i * m, m);
+                }
+                double pRe = re[(i * n) + i], pIm = im[(i * n) + i];
+                for (int j = i * m; j < (i + 1) * m; j++) {
+                    divide(xRe[j], xIm[j], pRe, pIm, quotient);
+                    xRe[j] = quotient[0];
+                    xIm[j] = quotient[1];
+                }
+            }
+            return x;
+        }
+
+        /** Subtracts a multiple of one row of the solution from another. */
+        private static void subtractRow (double fRe, double fIm, double[] xRe, double[] xIm,
+                                         int from, int to, int length) {
+            if ( (fRe == 0d) && (fIm == 0d) ) return;
+            for (int j = 0; j < length; j++) {
+                double a = xRe[from + j], c = xIm[from + j];
+                xRe[to + j] -= (fRe * a) - (fIm * c);
+                xIm[to + j] -= (fRe * c) + (fIm * a);
+            }
+        }
+    }
+}
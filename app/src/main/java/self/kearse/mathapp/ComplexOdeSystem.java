@@ -0,0 +1,23 @@
+package self.kearse.mathapp;
+
+/**
+ * A system of first order ordinary differential equations <i>z'</i>&nbsp;=&nbsp;<i>f(t,&nbsp;z)</i>
+ * in complex variables, for integration by {@link AdamsIntegrator}.  The state is held as two
+ * primitive arrays of real and imaginary components, as in {@link ComplexDoubleArray}, so that
+ * computing a derivative need allocate nothing.
+ */
+public interface ComplexOdeSystem {
+    /** Returns the number of complex variables in the state. */
+    int dimension ();
+
+    /**
+     * Computes the derivative of the state, writing every component of the result.
+     * Implementations should not keep references to any of the arrays, which are reused.
+     * @param t the time
+     * @param re the real components of the state, which must not be modified
+     * @param im the imaginary components of the state, which must not be modified
+     * @param dRe the array to store the real components of the derivative in
+     * @param dIm the array to store the imaginary components of the derivative in
+     */
+    void derivative (double t, double[] re, double[] im, double[] dRe, double[] dIm);
+}
@@ -0,0 +1,534 @@
+package self.kearse.mathapp;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Parses complex numbers from the text written by {@link Complex#toString()} and
+ * {@link ComplexFormatter}: the Cartesian forms <code>a+bi</code>, <code>a+-bi</code> and
+ * <code>a-bi</code>, the polar form <code>m*e^(i*a)</code>, and the shorter Cartesian forms
+ * <code>a</code>, <code>bi</code>, <code>i</code> and <code>-i</code>.  Components are written as
+ * by {@link Double#toString(double)} or as decimal literals, such as <code>2</code>,
+ * <code>-.5</code> or <code>1e-3</code>, and may be <code>NaN</code> or <code>Infinity</code>.
+ * A number may have whitespace around it, but not within it.
+ * <p>
+ * The parser works directly on a {@link CharSequence}, a char array or a byte array of ASCII
+ * text, without regular expressions or substrings, and converts components with the
+ * {@link FastDoubleParser}, falling back to {@link Double#parseDouble(String)} only for more
+ * than 19 significant digits.  A {@link Reader} streams whole files of numbers, separated by
+ * commas, semicolons or whitespace, into primitive arrays.
+ */
+public final class ComplexParser {
+    private ComplexParser () {
+    }
+
+    /**
+     * Parses a complex number.  The polar form is kept as a {@link ComplexDoublePolar}, so that
+     * the text of {@link ComplexDoublePolar#toString()} reads back as the same number.
+     * @param text the text of the number
+     * @return a new ComplexDoublePolar for the polar form, otherwise a new ComplexDouble
+     * @throws NullPointerException if text is null
+     * @throws IllegalArgumentException if text is not a complex number, giving the position of
+     *         the error
+     */
+    public static Complex<Double> parse (CharSequence text) throws NullPointerException, IllegalArgumentException {
+        if (text == null) {
+            throw new NullPointerException("Cannot parse a null reference");
+        }
+        Cursor cursor = new Cursor(null, null, text);
+        cursor.reset(0, text.length());
+        if (cursor.parse()) return new ComplexDoublePolar(cursor.second, cursor.first);
+        return new ComplexDouble(cursor.first, cursor.second);
+    }
+
+    /**
+     * Parses a complex number from a range of text, without allocating.
+     * @param text the text
+     * @param from the index of the first character of the number
+     * @param to the index after the last character of the number
+     * @param result the accumulator to store the number in, as Cartesian components
+     * @return result
+     * @throws IllegalArgumentException if the range is not a complex number
+     * @throws IndexOutOfBoundsException if the range is outside text
+     */
+    public static MutableComplexDouble parse (CharSequence text, int from, int to, MutableComplexDouble result)
+            throws IllegalArgumentException, IndexOutOfBoundsException {
+        checkRange(from, to, text.length());
+        return parse(new Cursor(null, null, text), from, to, result);
+    }
+
+    /**
+     * Parses a complex number from a range of characters, without allocating.
+     * @param text the characters
+     * @param from the index of the first character of the number
+     * @param to the index after the last character of the number
+     * @param result the accumulator to store the number in, as Cartesian components
+     * @return result
+     * @throws IllegalArgumentException if the range is not a complex number
+     * @throws IndexOutOfBoundsException if the range is outside text
+     */
+    public static MutableComplexDouble parse (char[] text, int from, int to, MutableComplexDouble result)
+            throws IllegalArgumentException, IndexOutOfBoundsException {
+        checkRange(from, to, text.length);
+        return parse(new Cursor(text, null, null), from, to, result);
+    }
+
+    /**
+     * Parses a complex number from a range of ASCII bytes, as read from a file, without
+     * allocating.
+     * @param text the bytes
+     * @param from the index of the first byte of the number
+     * @param to the index after the last byte of the number
+     * @param result the accumulator to store the number in, as Cartesian components
+     * @return result
+     * @throws IllegalArgumentException if the range is not a complex number
+     * @throws IndexOutOfBoundsException if the range is outside text
+     */
+    public static MutableComplexDouble parse (byte[] text, int from, int to, MutableComplexDouble result)
+            throws IllegalArgumentException, IndexOutOfBoundsException {
+        checkRange(from, to, text.length);
+        return parse(new Cursor(null, text, null), from, to, result);
+    }
+
+    /**
+     * Parses a real number from a range of text, as {@link Double#parseDouble(String)} does for
+     * decimal literals, without allocating.
+     * @param text the text
+     * @param from the index of the first character of the number
+     * @param to the index after the last character of the number
+     * @return the nearest double
+     * @throws IllegalArgumentException if the range is not a decimal number
+     * @throws IndexOutOfBoundsException if the range is outside text
+     */
+    public static double parseDouble (CharSequence text, int from, int to)
+            throws IllegalArgumentException, IndexOutOfBoundsException {
+        checkRange(from, to, text.length());
+        Cursor cursor = new Cursor(null, null, text);
+        cursor.reset(from, to);
+        cursor.skipWhitespace();
+        double value = cursor.number();
+        cursor.finish();
+        return value;
+    }
+
+    private static MutableComplexDouble parse (Cursor cursor, int from, int to, MutableComplexDouble result) {
+        cursor.reset(from, to);
+        if (cursor.parse()) {
+            return result.set(cursor.first * Math.cos(cursor.second), cursor.first * Math.sin(cursor.second));
+        }
+        return result.set(cursor.first, cursor.second);
+    }
+
+    private static void checkRange (int from, int to, int length) throws IndexOutOfBoundsException {
+        if ( (from < 0) || (from > to) || (to > length) ) {
+            throw new IndexOutOfBoundsException(String.format(
+                    "Range %d to %d is outside text of length %d", from, to, length));
+        }
+    }
+
+    /**
+     * A position in one of the kinds of text, and the components of the last number parsed.
+     */
+    private static final class Cursor {
+        /** The largest number of significant digits of a significand held exactly in a long */
+        private static final int MAX_DIGITS = 19;
+
+        private final char[] chars;
+        private final byte[] bytes;
+        private final CharSequence sequence;
+        /** The start of the number being parsed, for error messages */
+        private int from;
+        /** The end of the number being parsed */
+        private int to;
+        /** The index of the next character */
+        private int position;
+        /** The real component or modulus of the last number */
+        double first;
+        /** The imaginary component or argument of the last number */
+        double second;
+
+        Cursor (char[] chars, byte[] bytes, CharSequence sequence) {
+            this.chars = chars;
+            this.bytes = bytes;
+            this.sequence = sequence;
+        }
+
+        void reset (int from, int to) {
+            this.from = from;
+            this.to = to;
+            this.position = from;
+        }
+
+        /** Returns the character at an index, or zero past the end. */
+        private char at (int index) {
+            if (index >= to) return 0;
+            if (bytes != null) return (char) (bytes[index] & 0xFF);
+            if (chars != null) return chars[index];
+            return sequence.charAt(index);
+        }
+
+        /**
+         * Parses a whole complex number into first and second.
+         * @return true for the polar form, with the modulus first and the argument second,
+         *         false for the Cartesian form
+         */
+        boolean parse () throws IllegalArgumentException {
+            skipWhitespace();
+            boolean polar = false;
+            if (isUnit()) {
+                /* i or -i alone */
+                first = 0d;
+                second = unit();
+            } else {
+                first = number();
+                char c = at(position);
+                if (c == 'i') {
+                    position++;
+                    second = first;
+                    first = 0d;
+                } else if ( (c == '+') || (c == '-') ) {
+                    position++;
+                    double imaginary;
+                    if (isUnit()) {
+                        /* A bare i, signed as in a+-i, leaving the i to be expected */
+                        imaginary = unit();
+                        position--;
+                    } else {
+                        imaginary = number();
+                    }
+                    expect('i');
+                    second = (c == '-') ? -imaginary : imaginary;
+                } else if (c == '*') {
+                    position++;
+                    expect('e');
+                    expect('^');
+                    expect('(');
+                    expect('i');
+                    expect('*');
+                    second = number();
+                    expect(')');
+                    polar = true;
+                } else {
+                    second = 0d;
+                }
+            }
+            finish();
+            return polar;
+        }
+
+        /** Checks that only whitespace remains. */
+        void finish () throws IllegalArgumentException {
+            skipWhitespace();
+            if (position < to) {
+                throw error("Unexpected '" + at(position) + "'");
+            }
+        }
+
+        /** Tests whether a signed imaginary unit follows, as i, +i or -i. */
+        private boolean isUnit () {
+            char c = at(position);
+            if ( (c == '+') || (c == '-') ) c = at(position + 1);
+            return c == 'i';
+        }
+
+        /** Consumes a signed imaginary unit, returning its sign. */
+        private double unit () {
+            double sign = 1d;
+            char c = at(position);
+            if ( (c == '+') || (c == '-') ) {
+                sign = (c == '-') ? -1d : 1d;
+                position++;
+            }
+            position++;
+            return sign;
+        }
+
+        /** Parses a signed decimal number, NaN or Infinity. */
+        double number () throws IllegalArgumentException {
+            int start = position;
+            boolean negative = false;
+            char c = at(position);
+            if ( (c == '+') || (c == '-') ) {
+                negative = (c == '-');
+                c = at(++position);
+            }
+            if (c == 'N') {
+                word("NaN");
+                return Double.NaN;
+            } else if (c == 'I') {
+                word("Infinity");
+                return negative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+            }
+            long significand = 0L;
+            int digits = 0, exponent = 0;
+            boolean any = false, truncated = false;
+            while (isDigit(c = at(position))) {
+                any = true;
+                int d = c - '0';
+                if (digits < MAX_DIGITS) {
+                    if ( (significand != 0L) || (d != 0) ) {
+                        significand = (significand * 10L) + d;
+                        digits++;
+                    }
+                } else {
+                    exponent++;
+                    truncated |= (d != 0);
+                }
+                position++;
+            }
+            if (c == '.') {
+                c = at(++position);
+                while (isDigit(c)) {
+                    any = true;
+                    int d = c - '0';
+                    if (digits < MAX_DIGITS) {
+                        if ( (significand != 0L) || (d != 0) ) {
+                            significand = (significand * 10L) + d;
+                            digits++;
+                        }
+                        exponent--;
+                    } else {
+                        truncated |= (d != 0);
+                    }
+                    c = at(++position);
+                }
+            }
+            if (!any) {
+                position = start;
+                throw error("Expected a number");
+            }
+            if ( (c == 'e') || (c == 'E') ) {
+                /* An exponent only if digits follow, so that the e of a polar form is left alone */
+                int mark = position + 1;
+                boolean negativeExponent = false;
+                if ( (at(mark) == '+') || (at(mark) == '-') ) negativeExponent = (at(mark++) == '-');
+                if (isDigit(at(mark))) {
+                    int value = 0;
+                    for (position = mark; isDigit(c = at(position)); position++) {
+                        if (value < 100000) value = (value * 10) + (c - '0');
+                    }
+                    exponent += negativeExponent ? -value : value;
+                }
+            }
+            if (truncated) {
+                /* Beyond the exact significand, leave the rounding to the platform */
+                StringBuilder text = new StringBuilder(position - start);
+                for (int k = start; k < position; k++) text.append(at(k));
+                return Double.parseDouble(text.toString());
+            }
+            return FastDoubleParser.toDouble(significand, exponent, negative);
+        }
+
+        private void word (String word) throws IllegalArgumentException {
+            for (int k = 0; k < word.length(); k++) {
+                if (at(position) != word.charAt(k)) {
+                    throw error("Expected " + word);
+                }
+                position++;
+            }
+        }
+
+        private void expect (char c) throws IllegalArgumentException {
+            if (at(position) != c) {
+                throw error("Expected '" + c + "'");
+            }
+            position++;
+        }
+
+        void skipWhitespace () {
+            while ( (position < to) && Character.isWhitespace(at(position)) ) position++;
+        }
+
+        private static boolean isDigit (char c) {
+            return (c >= '0') && (c <= '9');
+        }
+
+        /** Creates the exception for an error at the current position. */
+        IllegalArgumentException error (String message) {
+            StringBuilder text = new StringBuilder(to - from);
+            for (int k = from; k < to; k++) text.append(at(k));
+            return new IllegalArgumentException(String.format("%s at position %d of \"%s\"",
+                    message, position - from, text));
+        }
+    }
+
+    /**
+     * Reads complex numbers from a stream of ASCII text, such as a CSV or newline-delimited file,
+     * into primitive arrays, a chunk at a time.  Numbers are separated by any run of commas,
+     * semicolons and whitespace.  The stream is read through one buffer, reused for every chunk,
+     * and numbers are parsed in place in the buffer, so that reading allocates nothing per
+     * number.  Instances are not thread-safe.
+     */
+    public static final class Reader implements Closeable {
+        /** The default size of the buffer, which is also the longest number allowed. */
+        public static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+        private final InputStream in;
+        private final byte[] buffer;
+        private final Cursor cursor;
+        private final MutableComplexDouble value = new MutableComplexDouble();
+        /** The index of the next unread byte of the buffer */
+        private int position = 0;
+        /** The index after the last byte read into the buffer */
+        private int limit = 0;
+        /** True once the stream has ended */
+        private boolean ended = false;
+        /** The line of the next unread byte, counted from one */
+        private long line = 1L;
+
+        /**
+         * Constructs a reader with the default buffer size.
+         * @param in the stream to read
+         * @throws NullPointerException if in is null
+         */
+        public Reader (InputStream in) throws NullPointerException {
+            this(in, DEFAULT_BUFFER_SIZE);
+        }
+
+        /**
+         * Constructs a reader.
+         * @param in the stream to read
+         * @param bufferSize the size of the buffer, and the longest number allowed
+         * @throws NullPointerException if in is null
+         * @throws IllegalArgumentException if bufferSize is not positive
+         */
+        public Reader (InputStream in, int bufferSize) throws NullPointerException, IllegalArgumentException {
+            if (in == null) {
+                throw new NullPointerException("Cannot read a null stream");
+            } else if (bufferSize < 1) {
+                throw new IllegalArgumentException("Buffer size must be positive, was " + bufferSize);
+            }
+            this.in = in;
+            this.buffer = new byte[bufferSize];
+            this.cursor = new Cursor(null, buffer, null);
+        }
+
+        /** Returns the line of the next unread number, counted from one. */
+        public long line () {
+            return line;
+        }
+
+        /**
+         * Reads numbers into a buffer, until it is full or the stream ends.
+         * @param destination the buffer to fill from its start
+         * @return the number of numbers read, or -1 if the stream had already ended
+         * @throws IOException if the stream throws one
+         * @throws IllegalArgumentException if the text is not a complex number, giving the line
+         */
+        public int read (ComplexDoubleArray destination) throws IOException, IllegalArgumentException {
+            return read(destination.re(), destination.im(), 0, destination.length());
+        }
+
+        /**
+         * Reads numbers into arrays of components, until the range is full or the stream ends.
+         * @param re the array to store the real components in
+         * @param im the array to store the imaginary components in
+         * @param offset the index to store the first number at
+         * @param length the largest number of numbers to read
+         * @return the number of numbers read, or -1 if the stream had already ended
+         * @throws IOException if the stream throws one
+         * @throws IllegalArgumentException if the text is not a complex number, giving the line
+         * @throws IndexOutOfBoundsException if the range is outside either array
+         */
+        public int read (double[] re, double[] im, int offset, int length)
+                throws IOException, IllegalArgumentException, IndexOutOfBoundsException {
+            if ( (offset < 0) || (length < 0) || (offset + length > re.length) || (offset + length > im.length) ) {
+                throw new IndexOutOfBoundsException(String.format("Range %d to %d is outside arrays of %d and %d",
+                        offset, offset + length, re.length, im.length));
+            }
+            int count = 0;
+            while ( (count < length) && skipSeparators() ) {
+                int end = tokenEnd();
+                try {
+                    parse(cursor, position, end, value);
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException(e.getMessage() + " on line " + line, e);
+                }
+                re[offset + count] = value.re();
+                im[offset + count] = value.im();
+                count++;
+                position = end;
+            }
+            return ( (count == 0) && (length > 0) ) ? -1 : count;
+        }
+
+        /**
+         * Reads every remaining number.
+         * @return a new buffer holding the numbers
+         * @throws IOException if the stream throws one
+         * @throws IllegalArgumentException if the text is not a complex number, giving the line
+         */
+        public ComplexDoubleArray readAll () throws IOException, IllegalArgumentException {
+            double[] re = new double[1024], im = new double[1024];
+            int size = 0, count;
+            while ( (count = read(re, im, size, re.length - size)) > 0 ) {
+                size += count;
+                if (size == re.length) {
+                    re = Arrays.copyOf(re, size * 2);
+                    im = Arrays.copyOf(im, size * 2);
+                }
+            }
+            return new ComplexDoubleArray(Arrays.copyOf(re, size), Arrays.copyOf(im, size));
+        }
+
+        /**
+         * Skips separators, reading more of the stream as needed.
+         * @return true if a number follows, false at the end of the stream
+         */
+        private boolean skipSeparators () throws IOException {
+            while (true) {
+                while (position < limit) {
+                    byte b = buffer[position];
+                    if (!isSeparator(b)) return true;
+                    if (b == '\n') line++;
+                    position++;
+                }
+                if (ended) return false;
+                position = 0;
+                limit = 0;
+                fill();
+            }
+        }
+
+        /** Finds the end of the number at the position, reading more of the stream as needed. */
+        private int tokenEnd () throws IOException, IllegalArgumentException {
+            int end = position;
+            while (true) {
+                while (end < limit) {
+                    if (isSeparator(buffer[end])) return end;
+                    end++;
+                }
+                if (ended) return end;
+                /* Move the partial number to the start of the buffer, and read after it */
+                if ( (position == 0) && (limit == buffer.length) ) {
+                    throw new IllegalArgumentException(String.format(
+                            "Number longer than %d characters on line %d", buffer.length, line));
+                }
+                System.arraycopy(buffer, position, buffer, 0, limit - position);
+                end -= position;
+                limit -= position;
+                position = 0;
+                fill();
+            }
+        }
+
+        /** Reads more of the stream after the limit, noting its end. */
+        private void fill () throws IOException {
+            int read = 0;
+            while (read == 0) read = in.read(buffer, limit, buffer.length - limit);
+            if (read < 0) ended = true;
+            else limit += read;
+        }
+
+        private static boolean isSeparator (byte b) {
+            return (b == ',') || (b == ';') || (b == ' ') || (b == '\n') || (b == '\r') || (b == '\t');
+        }
+
+        @Override
+        public void close () throws IOException {
+            in.close();
+        }
+    }
+}
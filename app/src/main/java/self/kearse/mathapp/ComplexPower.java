@@ -0,0 +1,371 @@
+package self.kearse.mathapp;
+
+/**
+ * Raises complex numbers to one fixed exponent, choosing the cheapest exact method for the kind
+ * of exponent once, when the power is created, rather than for every base:
+ * <ul>
+ *     <li>integers up to {@link #MAX_INTEGER_EXPONENT} in magnitude by binary exponentiation in
+ *     Cartesian form, needing no transcendental functions at all, and exact for Gaussian
+ *     integers such as i<sup>2</sup>;</li>
+ *     <li>&plusmn;1/2 by a numerically stable complex square root, needing one real square
+ *     root;</li>
+ *     <li>other real exponents <i>p</i> in polar form, as <i>r<sup>p</sup>e<sup>ip&theta;</sup></i>;</li>
+ *     <li>any other exponent <i>w</i> as the principal value <i>e<sup>w Log z</sup></i>, as
+ *     {@link Complex#pow} did for every exponent before.</li>
+ * </ul>
+ * A zero base raised to zero gives one, and raised to an exponent with positive real part gives
+ * zero.  Powers are immutable, so one may be created per exponent and reused from any thread.
+ */
+public abstract class ComplexPower {
+    /** The largest magnitude of an integer exponent evaluated by binary exponentiation. */
+    public static final int MAX_INTEGER_EXPONENT = 64;
+
+    /** The real component of the exponent */
+    protected final double exponentRe;
+    /** The imaginary component of the exponent */
+    protected final double exponentIm;
+
+    /**
+     * Constructs the common state of a power.
+     * @param exponentRe the real component of the exponent
+     * @param exponentIm the imaginary component of the exponent
+     */
+    private ComplexPower (double exponentRe, double exponentIm) {
+        this.exponentRe = exponentRe;
+        this.exponentIm = exponentIm;
+    }
+
+    /**
+     * Creates a power raising to the given exponent.
+     * @param exponent the exponent
+     * @return a new, reusable power
+     * @throws NullPointerException if exponent is null
+     */
+    public static ComplexPower of (Complex<? extends Number> exponent) throws NullPointerException {
+        if (exponent == null) {
+            throw new NullPointerException("cannot exponentiate by a null reference");
+        }
+        return of(exponent.real().doubleValue(), exponent.imaginary().doubleValue());
+    }
+
+    /**
+     * Creates a power raising to the given exponent.
+     * @param re the real component of the exponent
+     * @param im the imaginary component of the exponent
+     * @return a new, reusable power
+     */
+    public static ComplexPower of (double re, double im) {
+        if (im != 0d) {
+            return new General(re, im);
+        } else if ( (re == Math.rint(re)) && (Math.abs(re) <= MAX_INTEGER_EXPONENT) ) {
+            return new Integral((int) re);
+        } else if (Math.abs(re) == 0.5d) {
+            return new SquareRoot(re < 0d);
+        } else {
+            return new Real(re);
+        }
+    }
+
+    /**
+     * Raises a base to an exponent, as {@link #of(Complex)} followed by {@link #apply(Complex)}.
+     * @param base the base
+     * @param exponent the exponent
+     * @return a new Complex number representing the exponentiation result
+     * @throws NullPointerException if base or exponent is null
+     * @throws ArithmeticException if base is zero and the real part of exponent is not positive,
+     *         except for the exponent zero
+     */
+    public static Complex<Double> pow (Complex<? extends Number> base, Complex<? extends Number> exponent)
+            throws NullPointerException, ArithmeticException {
+        return of(exponent).apply(base);
+    }
+
+    /** Returns the real component of the exponent. */
+    public double exponentRe () {
+        return exponentRe;
+    }
+
+    /** Returns the imaginary component of the exponent. */
+    public double exponentIm () {
+        return exponentIm;
+    }
+
+    /**
+     * Raises a base to the exponent of this power.
+     * @param base the base
+     * @return a new Complex number representing the exponentiation result, in Cartesian form for
+     *         integer exponents and square roots and in polar form otherwise
+     * @throws NullPointerException if base is null
+     * @throws ArithmeticException if base is zero and the real part of the exponent is not
+     *         positive, except for the exponent zero
+     */
+    public Complex<Double> apply (Complex<? extends Number> base)
+            throws NullPointerException, ArithmeticException {
+        if (base == null) {
+            throw new NullPointerException("cannot exponentiate a null reference");
+        }
+        if (base.modulus().doubleValue() == 0d) {
+            if ( (exponentRe == 0d) && (exponentIm == 0d) ) return ComplexDouble.ONE;
+            else if (exponentRe > 0d) return ComplexDouble.ZERO;
+            else throw new ArithmeticException(
+                        "Cannot raise 0 to an exponent with non-positive real part");
+        }
+        return power(base);
+    }
+
+    /**
+     * Raises a base given by its Cartesian components to the exponent of this power.  A zero base
+     * for which {@link #apply(Complex)} would throw gives NaN components instead.
+     * @param re the real component of the base
+     * @param im the imaginary component of the base
+     * @param result the accumulator to hold the result
+     * @return result
+     */
+    public MutableComplexDouble apply (double re, double im, MutableComplexDouble result) {
+        if ( (re == 0d) && (im == 0d) ) {
+            if ( (exponentRe == 0d) && (exponentIm == 0d) ) return result.set(1d, 0d);
+            else if (exponentRe > 0d) return result.set(0d, 0d);
+            else return result.set(Double.NaN, Double.NaN);
+        }
+        power(re, im, result);
+        return result;
+    }
+
+    /**
+     * Raises each of an array of bases to the exponent of this power, with the semantics of
+     * {@link #apply(double, double, MutableComplexDouble)}.
+     * @param bases the bases
+     * @param destination a buffer at least as long as bases, which may be bases itself
+     * @return destination, holding the results
+     * @throws IllegalArgumentException if destination is too short
+     */
+    public ComplexDoubleArray apply (ComplexDoubleArray bases, ComplexDoubleArray destination)
+            throws IllegalArgumentException {
+        int length = bases.length();
+        if (destination.length() < length) {
+            throw new IllegalArgumentException(String.format(
+                    "Destination holds %d values, %d required", destination.length(), length));
+        }
+        double[] re = bases.re(), im = bases.im();
+        double[] dRe = destination.re(), dIm = destination.im();
+        MutableComplexDouble result = new MutableComplexDouble();
+        for (int i = 0; i < length; i++) {
+            apply(re[i], im[i], result);
+            dRe[i] = result.re();
+            dIm[i] = result.im();
+        }
+        return destination;
+    }
+
+    /**
+     * Raises each of an array of bases to the exponent of this power.
+     * @param bases the bases
+     * @return a new array holding the results
+     */
+    public ComplexDoubleArray apply (ComplexDoubleArray bases) {
+        return apply(bases, new ComplexDoubleArray(bases.length()));
+    }
+
+    /**
+     * Raises a non-zero base to the exponent of this power.
+     * @param base the non-zero base
+     * @return a new Complex number representing the exponentiation result
+     */
+    abstract Complex<Double> power (Complex<? extends Number> base);
+
+    /**
+     * Raises a non-zero base to the exponent of this power.
+     * @param re the real component of the base
+     * @param im the imaginary component of the base
+     * @param result the accumulator to hold the result
+     */
+    abstract void power (double re, double im, MutableComplexDouble result);
+
+    /**
+     * Computes the principal Argument of a non-zero base given by its Cartesian components.
+     * @param re the real component of the base
+     * @param im the imaginary component of the base
+     * @return the Argument in the range -&pi;&nbsp;&lt;&nbsp;&theta;&nbsp;&leq;&nbsp;&pi;
+     */
+    private static double argument (double re, double im) {
+        double argument = Math.atan2(im, re);
+        return (argument == -Math.PI) ? Math.PI : argument;
+    }
+
+    /**
+     * Computes the natural logarithm of the modulus of a non-zero base given by its Cartesian
+     * components.
+     * @param re the real component of the base
+     * @param im the imaginary component of the base
+     * @return log|z|
+     */
+    private static double logModulus (double re, double im) {
+        double abs2 = (re * re) + (im * im);
+        /* log|z| = log(|z|^2)/2 saves the square root, unless the square over- or underflows */
+        return ( (abs2 >= Double.MIN_NORMAL) && (abs2 < Double.POSITIVE_INFINITY) )
+                ? 0.5d * Math.log(abs2) : Math.log(Math.hypot(re, im));
+    }
+
+    /**
+     * Computes the reciprocal of a non-zero number given by its Cartesian components by Smith's
+     * algorithm, which divides through by the larger component rather than squaring both, so the
+     * result over- or underflows only when the reciprocal itself is out of range.
+     * @param re the real component of the number
+     * @param im the imaginary component of the number
+     * @param result the accumulator to hold the reciprocal
+     */
+    static void reciprocal (double re, double im, MutableComplexDouble result) {
+        if (Math.abs(re) >= Math.abs(im)) {
+            double ratio = im / re;
+            double denominator = re + (im * ratio);
+            /* 0-x keeps a real result free of -0 */
+            result.set(1d / denominator, 0d - (ratio / denominator));
+        } else {
+            double ratio = re / im;
+            double denominator = (re * ratio) + im;
+            result.set(ratio / denominator, -1d / denominator);
+        }
+    }
+
+    /**
+     * A power with an integer exponent, evaluated by binary exponentiation.
+     */
+    private static final class Integral extends ComplexPower {
+        /** The integer exponent */
+        private final int exponent;
+
+        Integral (int exponent) {
+            super(exponent, 0d);
+            this.exponent = exponent;
+        }
+
+        @Override
+        Complex<Double> power (Complex<? extends Number> base) {
+            MutableComplexDouble result = new MutableComplexDouble();
+            power(base.real().doubleValue(), base.imaginary().doubleValue(), result);
+            return result.snapshot();
+        }
+
+        @Override
+        void power (double re, double im, MutableComplexDouble result) {
+            if (exponent < 0) {
+                /* Inverting the base first keeps z^-n finite whenever it is representable */
+                reciprocal(re, im, result);
+                re = result.re();
+                im = result.im();
+            }
+            int n = Math.abs(exponent);
+            double rRe = 1d, rIm = 0d;
+            while (n > 0) {
+                if ((n & 1) != 0) {
+                    double t = (rRe * re) - (rIm * im);
+                    rIm = (rRe * im) + (rIm * re);
+                    rRe = t;
+                }
+                n >>>= 1;
+                if (n > 0) {
+                    double t = (re * re) - (im * im);
+                    im = 2d * re * im;
+                    re = t;
+                }
+            }
+            result.set(rRe, rIm);
+        }
+    }
+
+    /**
+     * A power with exponent 1/2 or -1/2, evaluated by a complex square root which avoids
+     * cancellation: the larger of the components of the root is computed first, and the smaller
+     * from it by division.
+     */
+    private static final class SquareRoot extends ComplexPower {
+        /** True for the exponent -1/2 */
+        private final boolean reciprocal;
+
+        SquareRoot (boolean reciprocal) {
+            super(reciprocal ? -0.5d : 0.5d, 0d);
+            this.reciprocal = reciprocal;
+        }
+
+        @Override
+        Complex<Double> power (Complex<? extends Number> base) {
+            MutableComplexDouble result = new MutableComplexDouble();
+            power(base.real().doubleValue(), base.imaginary().doubleValue(), result);
+            return result.snapshot();
+        }
+
+        @Override
+        void power (double re, double im, MutableComplexDouble result) {
+            double abs2 = (re * re) + (im * im);
+            double modulus = ( (abs2 >= Double.MIN_NORMAL) && (abs2 < Double.POSITIVE_INFINITY) )
+                    ? Math.sqrt(abs2) : Math.hypot(re, im);
+            double t = Math.sqrt((Math.abs(re) + modulus) * 0.5d);
+            double sRe, sIm;
+            if (re >= 0d) {
+                sRe = t;
+                sIm = im / (2d * t);
+            } else {
+                /* A negative zero imaginary part lies on the principal branch, Argument pi */
+                sRe = Math.abs(im) / (2d * t);
+                sIm = (im < 0d) ? -t : t;
+            }
+            if (reciprocal) {
+                reciprocal(sRe, sIm, result);
+            } else {
+                result.set(sRe, sIm);
+            }
+        }
+    }
+
+    /**
+     * A power with any other real exponent, evaluated in polar form.
+     */
+    private static final class Real extends ComplexPower {
+        Real (double exponent) {
+            super(exponent, 0d);
+        }
+
+        @Override
+        Complex<Double> power (Complex<? extends Number> base) {
+            return new ComplexDoublePolar(exponentRe * base.Argument().doubleValue(),
+                    Math.pow(base.modulus().doubleValue(), exponentRe));
+        }
+
+        @Override
+        void power (double re, double im, MutableComplexDouble result) {
+            double abs2 = (re * re) + (im * im);
+            /* |z|^p = (|z|^2)^(p/2) saves the square root, unless the square over- or underflows */
+            double modulus = ( (abs2 >= Double.MIN_NORMAL) && (abs2 < Double.POSITIVE_INFINITY) )
+                    ? Math.pow(abs2, 0.5d * exponentRe)
+                    : Math.pow(Math.hypot(re, im), exponentRe);
+            double argument = exponentRe * argument(re, im);
+            result.set(modulus * Math.cos(argument), modulus * Math.sin(argument));
+        }
+    }
+
+    /**
+     * A power with a non-real exponent <i>w</i>, evaluated as <i>e<sup>w Log z</sup></i>.
+     */
+    private static final class General extends ComplexPower {
+        General (double exponentRe, double exponentIm) {
+            super(exponentRe, exponentIm);
+        }
+
+        @Override
+        Complex<Double> power (Complex<? extends Number> base) {
+            double logModulus = Math.log(base.modulus().doubleValue());
+            double argument = base.Argument().doubleValue();
+            return new ComplexDoublePolar((exponentIm * logModulus) + (exponentRe * argument),
+                    Math.exp((exponentRe * logModulus) - (exponentIm * argument)));
+        }
+
+        @Override
+        void power (double re, double im, MutableComplexDouble result) {
+            double logModulus = logModulus(re, im);
+            double argument = argument(re, im);
+            double modulus = Math.exp((exponentRe * logModulus) - (exponentIm * argument));
+            argument = (exponentIm * logModulus) + (exponentRe * argument);
+            result.set(modulus * Math.cos(argument), modulus * Math.sin(argument));
+        }
+    }
+}
@@ -0,0 +1,792 @@
+package self.kearse.mathapp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A compiled complex expression in the variable <i>z</i> and any number of named parameters,
+ * as produced by {@link ExpressionParser}.  The expression is held as a flat program of
+ * register instructions over primitive doubles, rather than as a tree: register 0 holds
+ * <i>z</i>, the following registers the parameters, then the constants of the expression, and
+ * the remaining registers the intermediate results, which are reused once no later instruction
+ * reads them.  Constant subexpressions are evaluated once when the program is built, and
+ * repeated subexpressions are computed once, so the program for
+ * <code>(z^2+c)^2 + (z^2+c)</code> holds four instructions rather than six.  Small integer
+ * powers are expanded into multiplications, so <code>z^3 + z^2</code> costs three.
+ * <p>
+ * Programs are immutable.  Evaluating one needs a register file, which an {@link Evaluator}
+ * provides: an evaluator allocates nothing per point, and evaluates arrays of points in blocks,
+ * one instruction at a time over the whole block, which keeps the inner loops short and
+ * branch-free.  As a {@link ComplexFunction}, a program evaluates through an evaluator kept per
+ * thread, so it may be rendered from any number of threads at once.
+ * <p>
+ * Values follow the {@link ComplexFunction} convention of NaN outside the domain: division by
+ * zero, the Logarithm of zero, and zero raised to an exponent with non-positive real part other
+ * than zero all give NaN.
+ */
+public final class ComplexProgram implements ComplexFunction {
+    /** Adds two registers */
+    static final int ADD = 0;
+    /** Subtracts the right register from the left */
+    static final int SUBTRACT = 1;
+    /** Multiplies two registers */
+    static final int MULTIPLY = 2;
+    /** Divides the left register by the right */
+    static final int DIVIDE = 3;
+    /** Negates a register */
+    static final int NEGATE = 4;
+    /** Takes the complex conjugate of a register */
+    static final int CONJUGATE = 5;
+    /** Takes the principal Logarithm of a register */
+    static final int LOG = 6;
+    /** Exponentiates a register */
+    static final int EXP = 7;
+    /** Raises the left register to the right, as the principal value */
+    static final int POWER = 8;
+    /** Raises the left register to a constant exponent, by a {@link ComplexPower} */
+    static final int POWER_CONSTANT = 9;
+    /** The names of the operations, for listings */
+    private static final String[] MNEMONICS =
+            {"add", "sub", "mul", "div", "neg", "conj", "log", "exp", "pow", "powc"};
+
+    /** The expression compiled */
+    private final String source;
+    /** The names of the parameters, in the order of their registers */
+    private final String[] parameters;
+    /** The operation of each instruction */
+    private final int[] opcodes;
+    /** The register written by each instruction */
+    private final int[] targets;
+    /** The first register read by each instruction */
+    private final int[] lefts;
+    /** The second register read by each instruction, or -1 */
+    private final int[] rights;
+    /** The power of each {@link #POWER_CONSTANT} instruction, or null */
+    private final ComplexPower[] powers;
+    /** The initial values of the registers: zero for z, the parameter values and the constants */
+    private final double[] initialRe;
+    /** The initial imaginary components of the registers */
+    private final double[] initialIm;
+    /** The register holding the value of the expression */
+    private final int result;
+    /** The evaluator of each thread which evaluates this as a function */
+    private final ThreadLocal<Evaluator> evaluators = new ThreadLocal<Evaluator>() {
+        @Override
+        protected Evaluator initialValue () {
+            return evaluator();
+        }
+    };
+
+    private ComplexProgram (String source, String[] parameters, int[] opcodes, int[] targets,
+                            int[] lefts, int[] rights, ComplexPower[] powers,
+                            double[] initialRe, double[] initialIm, int result) {
+        this.source = source;
+        this.parameters = parameters;
+        this.opcodes = opcodes;
+        this.targets = targets;
+        this.lefts = lefts;
+        this.rights = rights;
+        this.powers = powers;
+        this.initialRe = initialRe;
+        this.initialIm = initialIm;
+        this.result = result;
+    }
+
+    /** Returns the expression compiled. */
+    public String source () {
+        return source;
+    }
+
+    /** Returns the names of the parameters, in the order they were declared. */
+    public List<String> parameters () {
+        return Collections.unmodifiableList(Arrays.asList(parameters));
+    }
+
+    /** Returns the number of instructions, which is the cost of one evaluation. */
+    public int length () {
+        return opcodes.length;
+    }
+
+    /** Returns the number of registers an evaluator of this needs. */
+    public int registers () {
+        return initialRe.length;
+    }
+
+    /**
+     * Gives the same program with a new value of one parameter.  Parameters are zero until given
+     * a value.
+     * @param name the name of the parameter
+     * @param re the real component of the value
+     * @param im the imaginary component of the value
+     * @return a new program
+     * @throws IllegalArgumentException if there is no parameter of that name
+     */
+    public ComplexProgram withParameter (String name, double re, double im)
+            throws IllegalArgumentException {
+        int register = parameterRegister(name);
+        double[] valuesRe = initialRe.clone(), valuesIm = initialIm.clone();
+        valuesRe[register] = re;
+        valuesIm[register] = im;
+        return new ComplexProgram(source, parameters, opcodes, targets, lefts, rights, powers,
+                valuesRe, valuesIm, result);
+    }
+
+    /**
+     * Gives the current value of a parameter.
+     * @param name the name of the parameter
+     * @return a new number with the value
+     * @throws IllegalArgumentException if there is no parameter of that name
+     */
+    public ComplexDouble parameter (String name) throws IllegalArgumentException {
+        int register = parameterRegister(name);
+        return new ComplexDouble(initialRe[register], initialIm[register]);
+    }
+
+    /**
+     * Creates an evaluator of this with the strict transcendental backend.
+     * @return a new evaluator, for use by one thread at a time
+     */
+    public Evaluator evaluator () {
+        return new Evaluator(this, Transcendental.STRICT);
+    }
+
+    /**
+     * Creates an evaluator of this.  Constant subexpressions were evaluated with the strict
+     * backend when this was built, whatever the backend of the evaluator.
+     * @param backend the implementation of the transcendental functions
+     * @return a new evaluator, for use by one thread at a time
+     * @throws NullPointerException if backend is null
+     */
+    public Evaluator evaluator (Transcendental backend) throws NullPointerException {
+        if (backend == null) {
+            throw new NullPointerException("Cannot use a null backend");
+        }
+        return new Evaluator(this, backend);
+    }
+
+    /**
+     * Evaluates the expression at a point, with the evaluator of the calling thread.
+     * @param re the real component of z
+     * @param im the imaginary component of z
+     * @param result the number to store the value in
+     * @return result
+     */
+    @Override
+    public MutableComplexDouble apply (double re, double im, MutableComplexDouble result) {
+        return evaluators.get().apply(re, im, result);
+    }
+
+    /** Finds the register of a parameter. */
+    private int parameterRegister (String name) throws IllegalArgumentException {
+        for (int i = 0; i < parameters.length; i++) {
+            if (parameters[i].equals(name)) return i + 1;
+        }
+        throw new IllegalArgumentException("No parameter named " + name);
+    }
+
+    /**
+     * Lists the instructions, one per line, with the register holding the result last.
+     * @return the listing
+     */
+    public String listing () {
+        StringBuilder listing = new StringBuilder();
+        for (int i = 0; i < opcodes.length; i++) {
+            listing.append('r').append(targets[i]).append(" = ").append(MNEMONICS[opcodes[i]])
+                    .append(" r").append(lefts[i]);
+            if (rights[i] >= 0) listing.append(", r").append(rights[i]);
+            listing.append('\n');
+        }
+        return listing.append("return r").append(result).toString();
+    }
+
+    /**
+     * Tests equality by the expression, its parameters and their values, so that renderers of the
+     * same expression share cached tiles.
+     */
+    @Override
+    public boolean equals (Object other) {
+        if (this == other) return true;
+        if (!(other instanceof ComplexProgram)) return false;
+        ComplexProgram o = (ComplexProgram) other;
+        return source.equals(o.source) && Arrays.equals(parameters, o.parameters)
+                && Arrays.equals(initialRe, o.initialRe) && Arrays.equals(initialIm, o.initialIm);
+    }
+
+    @Override
+    public int hashCode () {
+        return (31 * ((31 * source.hashCode()) + Arrays.hashCode(initialRe))) + Arrays.hashCode(initialIm);
+    }
+
+    @Override
+    public String toString () {
+        return source;
+    }
+
+    /**
+     * Performs one operation on two operands, as every instruction and every folded constant is
+     * computed.
+     * @param opcode the operation, other than the arithmetic ones which need no backend
+     * @param aRe the real component of the left operand
+     * @param aIm the imaginary component of the left operand
+     * @param bRe the real component of the right operand, if any
+     * @param bIm the imaginary component of the right operand, if any
+     * @param power the power of a {@link #POWER_CONSTANT} operation
+     * @param backend the implementation of the transcendental functions
+     * @param result the number to store the value in
+     */
+    static void step (int opcode, double aRe, double aIm, double bRe, double bIm,
+                      ComplexPower power, Transcendental backend, MutableComplexDouble result) {
+        switch (opcode) {
+            case ADD:
+                result.set(aRe + bRe, aIm + bIm);
+                break;
+            case SUBTRACT:
+                result.set(aRe - bRe, aIm - bIm);
+                break;
+            case MULTIPLY:
+                result.set((aRe * bRe) - (aIm * bIm), (aRe * bIm) + (aIm * bRe));
+                break;
+            case DIVIDE: {
+                double abs2 = (bRe * bRe) + (bIm * bIm);
+                result.set(((aRe * bRe) + (aIm * bIm)) / abs2, ((aIm * bRe) - (aRe * bIm)) / abs2);
+                break;
+            }
+            case NEGATE:
+                result.set(-aRe, -aIm);
+                break;
+            case CONJUGATE:
+                result.set(aRe, -aIm);
+                break;
+            case LOG:
+                log(aRe, aIm, backend, result);
+                break;
+            case EXP:
+                exp(aRe, aIm, backend, result);
+                break;
+            case POWER:
+                if ( (aRe == 0d) && (aIm == 0d) ) {
+                    if ( (bRe == 0d) && (bIm == 0d) ) result.set(1d, 0d);
+                    else if (bRe > 0d) result.set(0d, 0d);
+                    else result.set(Double.NaN, Double.NaN);
+                } else {
+                    /* The principal value, e^(w Log z) */
+                    log(aRe, aIm, backend, result);
+                    double lRe = result.re(), lIm = result.im();
+                    exp((bRe * lRe) - (bIm * lIm), (bRe * lIm) + (bIm * lRe), backend, result);
+                }
+                break;
+            case POWER_CONSTANT:
+                power.apply(aRe, aIm, result);
+                break;
+            default:
+                throw new IllegalStateException("Unknown operation " + opcode);
+        }
+    }
+
+    /** Computes the principal Logarithm, or NaN for zero. */
+    private static void log (double re, double im, Transcendental backend, MutableComplexDouble result) {
+        if ( (re == 0d) && (im == 0d) ) {
+            result.set(Double.NaN, Double.NaN);
+            return;
+        }
+        double abs2 = (re * re) + (im * im);
+        double logModulus = ( (abs2 >= Double.MIN_NORMAL) && (abs2 <= Double.MAX_VALUE) )
+                ? 0.5d * backend.log(abs2) : backend.log(Math.hypot(re, im));
+        result.set(logModulus, backend.argument(re, im));
+    }
+
+    /** Computes the exponential, keeping real arguments real. */
+    private static void exp (double re, double im, Transcendental backend, MutableComplexDouble result) {
+        double modulus = backend.exp(re);
+        if (im == 0d) result.set(modulus, im);
+        else result.set(modulus * backend.cos(im), modulus * backend.sin(im));
+    }
+
+    /**
+     * Evaluates a program, holding its register file.  An evaluator allocates nothing per point,
+     * and may have its parameters changed between evaluations, as when animating them.
+     * Evaluators are not thread-safe; each thread should create its own.
+     */
+    public static final class Evaluator implements ComplexFunction {
+        /** The number of points evaluated together by the array methods. */
+        public static final int BLOCK_SIZE = 256;
+
+        /** The program evaluated */
+        private final ComplexProgram program;
+        /** The implementation of the transcendental functions */
+        private final Transcendental backend;
+        /** The real components of the registers */
+        private final double[] re;
+        /** The imaginary components of the registers */
+        private final double[] im;
+        /** The registers of a block of points, allocated on first use */
+        private double[][] blockRe;
+        /** The imaginary components of the registers of a block of points */
+        private double[][] blockIm;
+        /** The accumulator of the non-arithmetic operations */
+        private final MutableComplexDouble value = new MutableComplexDouble();
+
+        private Evaluator (ComplexProgram program, Transcendental backend) {
+            this.program = program;
+            this.backend = backend;
+            this.re = program.initialRe.clone();
+            this.im = program.initialIm.clone();
+        }
+
+        /**
+         * Changes the value of a parameter for later evaluations.
+         * @param name the name of the parameter
+         * @param re the real component of the value
+         * @param im the imaginary component of the value
+         * @throws IllegalArgumentException if there is no parameter of that name
+         */
+        public void setParameter (String name, double re, double im) throws IllegalArgumentException {
+            int register = program.parameterRegister(name);
+            this.re[register] = re;
+            this.im[register] = im;
+            if (blockRe != null) {
+                Arrays.fill(blockRe[register], re);
+                Arrays.fill(blockIm[register], im);
+            }
+        }
+
+        /**
+         * Evaluates the program at a point.
+         * @param zRe the real component of z
+         * @param zIm the imaginary component of z
+         * @param result the number to store the value in
+         * @return result
+         */
+        @Override
+        public MutableComplexDouble apply (double zRe, double zIm, MutableComplexDouble result) {
+            double[] re = this.re, im = this.im;
+            int[] opcodes = program.opcodes, targets = program.targets;
+            int[] lefts = program.lefts, rights = program.rights;
+            re[0] = zRe;
+            im[0] = zIm;
+            for (int i = 0; i < opcodes.length; i++) {
+                int a = lefts[i], b = rights[i], t = targets[i];
+                double aRe = re[a], aIm = im[a];
+                double bRe = (b < 0) ? 0d : re[b], bIm = (b < 0) ? 0d : im[b];
+                switch (opcodes[i]) {
+                    case ADD:
+                        re[t] = aRe + bRe;
+                        im[t] = aIm + bIm;
+                        break;
+                    case SUBTRACT:
+                        re[t] = aRe - bRe;
+                        im[t] = aIm - bIm;
+                        break;
+                    case MULTIPLY:
+                        re[t] = (aRe * bRe) - (aIm * bIm);
+                        im[t] = (aRe * bIm) + (aIm * bRe);
+                        break;
+                    default:
+                        step(opcodes[i], aRe, aIm, bRe, bIm, program.powers[i], backend, value);
+                        re[t] = value.re();
+                        im[t] = value.im();
+                        break;
+                }
+            }
+            return result.set(re[program.result], im[program.result]);
+        }
+
+        /**
+         * Evaluates the program at each of an array of points.
+         * @param points the values of z
+         * @param destination a buffer at least as long as points, which may be points itself
+         * @return destination, holding the values
+         * @throws IllegalArgumentException if destination is too short
+         */
+        public ComplexDoubleArray apply (ComplexDoubleArray points, ComplexDoubleArray destination)
+                throws IllegalArgumentException {
+            int length = points.length();
+            if (destination.length() < length) {
+                throw new IllegalArgumentException(String.format(
+                        "Destination holds %d values, %d required", destination.length(), length));
+            }
+            apply(points.re(), points.im(), destination.re(), destination.im(), length);
+            return destination;
+        }
+
+        /**
+         * Evaluates the program at each of a number of points, a block at a time.
+         * @param zRe the real components of z
+         * @param zIm the imaginary components of z
+         * @param resultRe the array to store the real components of the values in, which may be
+         *                 zRe
+         * @param resultIm the array to store the imaginary components of the values in, which
+         *                 may be zIm
+         * @param length the number of points
+         * @throws IllegalArgumentException if any array holds fewer than length values
+         */
+        public void apply (double[] zRe, double[] zIm, double[] resultRe, double[] resultIm, int length)
+                throws IllegalArgumentException {
+            if ( (zRe.length < length) || (zIm.length < length)
+                    || (resultRe.length < length) || (resultIm.length < length) ) {
+                throw new IllegalArgumentException(String.format(
+                        "Arrays must hold at least %d values", length));
+            }
+            if (blockRe == null) allocateBlocks();
+            for (int from = 0; from < length; from += BLOCK_SIZE) {
+                int count = Math.min(BLOCK_SIZE, length - from);
+                System.arraycopy(zRe, from, blockRe[0], 0, count);
+                System.arraycopy(zIm, from, blockIm[0], 0, count);
+                evaluateBlock(count);
+                System.arraycopy(blockRe[program.result], 0, resultRe, from, count);
+                System.arraycopy(blockIm[program.result], 0, resultIm, from, count);
+            }
+        }
+
+        /** Allocates the block registers, filled with the values of the scalar registers. */
+        private void allocateBlocks () {
+            int registers = re.length;
+            blockRe = new double[registers][BLOCK_SIZE];
+            blockIm = new double[registers][BLOCK_SIZE];
+            for (int r = 1; r < registers; r++) {
+                Arrays.fill(blockRe[r], re[r]);
+                Arrays.fill(blockIm[r], im[r]);
+            }
+        }
+
+        /** Runs every instruction over the first count points of the block registers. */
+        private void evaluateBlock (int count) {
+            int[] opcodes = program.opcodes, targets = program.targets;
+            int[] lefts = program.lefts, rights = program.rights;
+            for (int i = 0; i < opcodes.length; i++) {
+                double[] aRe = blockRe[lefts[i]], aIm = blockIm[lefts[i]];
+                double[] bRe = (rights[i] < 0) ? aRe : blockRe[rights[i]];
+                double[] bIm = (rights[i] < 0) ? aIm : blockIm[rights[i]];
+                double[] tRe = blockRe[targets[i]], tIm = blockIm[targets[i]];
+                switch (opcodes[i]) {
+                    case ADD:
+                        for (int k = 0; k < count; k++) {
+                            tRe[k] = aRe[k] + bRe[k];
+                            tIm[k] = aIm[k] + bIm[k];
+                        }
+                        break;
+                    case SUBTRACT:
+                        for (int k = 0; k < count; k++) {
+                            tRe[k] = aRe[k] - bRe[k];
+                            tIm[k] = aIm[k] - bIm[k];
+                        }
+                        break;
+                    case MULTIPLY:
+                        for (int k = 0; k < count; k++) {
+                            double xRe = aRe[k], xIm = aIm[k], yRe = bRe[k], yIm = bIm[k];
+                            tRe[k] = (xRe * yRe) - (xIm * yIm);
+                            tIm[k] = (xRe * yIm) + (xIm * yRe);
+                        }
+                        break;
+                    case NEGATE:
+                        for (int k = 0; k < count; k++) {
+                            tRe[k] = -aRe[k];
+                            tIm[k] = -aIm[k];
+                        }
+                        break;
+                    case CONJUGATE:
+                        for (int k = 0; k < count; k++) {
+                            tRe[k] = aRe[k];
+                            tIm[k] = -aIm[k];
+                        }
+                        break;
+                    default: {
+                        int opcode = opcodes[i];
+                        ComplexPower power = program.powers[i];
+                        boolean binary = rights[i] >= 0;
+                        for (int k = 0; k < count; k++) {
+                            step(opcode, aRe[k], aIm[k], binary ? bRe[k] : 0d, binary ? bIm[k] : 0d,
+                                    power, backend, value);
+                            tRe[k] = value.re();
+                            tIm[k] = value.im();
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Builds a program from its operations, in an order where every operand precedes its uses,
+     * folding constant operations and merging repeated ones as they are added.  Each operation is
+     * identified by a node number, which is only meaningful to the builder.
+     */
+    static final class Builder {
+        /** The node of a variable, z or a parameter, numbered by its register */
+        private static final int VARIABLE = -1;
+        /** The node of a constant */
+        private static final int CONSTANT = -2;
+        /** The largest integer exponent expanded into multiplications */
+        private static final int MAX_EXPANDED_EXPONENT = 16;
+
+        /** The names of the parameters */
+        private final String[] parameters;
+        /** The nodes, in order of creation */
+        private final List<Node> nodes = new ArrayList<>();
+        /** The number of each distinct node */
+        private final Map<Node, Integer> numbers = new HashMap<>();
+        /** The accumulator for folding constants */
+        private final MutableComplexDouble folded = new MutableComplexDouble();
+
+        /**
+         * Constructs a builder of a program in z and the given parameters.
+         * @param parameters the names of the parameters
+         */
+        Builder (String[] parameters) {
+            this.parameters = parameters.clone();
+            for (int i = 0; i <= parameters.length; i++) add(new Node(VARIABLE, i, -1, 0d, 0d, null));
+        }
+
+        /** Returns the node of z. */
+        int z () {
+            return 0;
+        }
+
+        /** Returns the node of a parameter, by its index in declaration order. */
+        int parameter (int index) {
+            return index + 1;
+        }
+
+        /** Returns the node of a constant. */
+        int constant (double re, double im) {
+            return add(new Node(CONSTANT, -1, -1, re, im, null));
+        }
+
+        /** Returns whether a node is constant. */
+        boolean isConstant (int node) {
+            return nodes.get(node).opcode == CONSTANT;
+        }
+
+        /** Returns the real component of a constant node. */
+        double real (int node) {
+            return nodes.get(node).re;
+        }
+
+        /** Returns the imaginary component of a constant node. */
+        double imaginary (int node) {
+            return nodes.get(node).im;
+        }
+
+        /**
+         * Adds an operation of one operand.
+         * @param opcode {@link #NEGATE}, {@link #CONJUGATE}, {@link #LOG} or {@link #EXP}
+         * @param a the operand
+         * @return the node of the result
+         */
+        int unary (int opcode, int a) {
+            Node operand = nodes.get(a);
+            if ( (opcode == NEGATE || opcode == CONJUGATE) && (operand.opcode == opcode) ) {
+                return operand.left;
+            } else if (operand.opcode == CONSTANT) {
+                step(opcode, operand.re, operand.im, 0d, 0d, null, Transcendental.STRICT, folded);
+                return constant(folded.re(), folded.im());
+            }
+            return add(new Node(opcode, a, -1, 0d, 0d, null));
+        }
+
+        /**
+         * Adds an operation of two operands.
+         * @param opcode {@link #ADD}, {@link #SUBTRACT}, {@link #MULTIPLY}, {@link #DIVIDE} or
+         *               {@link #POWER}
+         * @param a the left operand
+         * @param b the right operand
+         * @return the node of the result
+         */
+        int binary (int opcode, int a, int b) {
+            /* Identities which hold for every finite value */
+            switch (opcode) {
+                case ADD:
+                    if (isConstant(b, 0d)) return a;
+                    if (isConstant(a, 0d)) return b;
+                    break;
+                case SUBTRACT:
+                    if (isConstant(b, 0d)) return a;
+                    if (isConstant(a, 0d)) return unary(NEGATE, b);
+                    break;
+                case MULTIPLY:
+                    if (isConstant(b, 1d)) return a;
+                    if (isConstant(a, 1d)) return b;
+                    break;
+                case DIVIDE:
+                    if (isConstant(b, 1d)) return a;
+                    break;
+                case POWER:
+                    if (isConstant(b, 1d)) return a;
+                    break;
+                default:
+                    break;
+            }
+            Node left = nodes.get(a), right = nodes.get(b);
+            if ( (opcode == POWER) && (left.opcode != CONSTANT) && (right.opcode == CONSTANT)
+                    && (right.im == 0d) && (right.re == Math.rint(right.re))
+                    && (right.re >= 2d) && (right.re <= MAX_EXPANDED_EXPONENT) ) {
+                return expand(a, (int) right.re);
+            }
+            ComplexPower power = null;
+            if ( (opcode == POWER) && (right.opcode == CONSTANT) ) {
+                opcode = POWER_CONSTANT;
+                power = ComplexPower.of(right.re, right.im);
+            }
+            if ( (left.opcode == CONSTANT) && (right.opcode == CONSTANT) ) {
+                step(opcode, left.re, left.im, right.re, right.im, power, Transcendental.STRICT, folded);
+                return constant(folded.re(), folded.im());
+            }
+            /* Order the operands of commutative operations, so that both orders are merged */
+            if ( ((opcode == ADD) || (opcode == MULTIPLY)) && (a > b) ) {
+                int swap = a;
+                a = b;
+                b = swap;
+            }
+            return add(new Node(opcode, a, b, 0d, 0d, power));
+        }
+
+        /**
+         * Expands a small integer power into multiplications, in the order of
+         * {@link ComplexPower}'s binary exponentiation, so that the values are the same.  The
+         * squares are shared between powers of the same base.
+         */
+        private int expand (int base, int exponent) {
+            int result = -1, square = base;
+            for (int n = exponent; n > 0; n >>>= 1) {
+                if ((n & 1) != 0) result = (result < 0) ? square : binary(MULTIPLY, result, square);
+                if (n > 1) square = binary(MULTIPLY, square, square);
+            }
+            return result;
+        }
+
+        /** Checks whether a node is the given real constant. */
+        private boolean isConstant (int node, double value) {
+            Node n = nodes.get(node);
+            return (n.opcode == CONSTANT) && (n.re == value) && (n.im == 0d);
+        }
+
+        /** Adds a node, unless an equal node exists. */
+        private int add (Node node) {
+            Integer number = numbers.get(node);
+            if (number != null) return number;
+            nodes.add(node);
+            numbers.put(node, nodes.size() - 1);
+            return nodes.size() - 1;
+        }
+
+        /**
+         * Builds the program computing a node, keeping only the operations it depends on, and
+         * assigning registers so that each is reused once its value is no longer needed.
+         * @param source the expression compiled
+         * @param node the node of the value of the expression
+         * @return a new program
+         */
+        ComplexProgram build (String source, int node) {
+            int count = nodes.size();
+            /* Every operand precedes its uses, so one backward pass finds the needed nodes */
+            boolean[] needed = new boolean[count];
+            int[] lastUse = new int[count];
+            needed[node] = true;
+            for (int n = count - 1; n >= 0; n--) {
+                if (!needed[n]) continue;
+                Node current = nodes.get(n);
+                if (current.opcode < 0) continue;
+                needed[current.left] = true;
+                lastUse[current.left] = Math.max(lastUse[current.left], n);
+                if (current.right >= 0) {
+                    needed[current.right] = true;
+                    lastUse[current.right] = Math.max(lastUse[current.right], n);
+                }
+            }
+            /* Registers: z and the parameters, then constants, then reusable temporaries */
+            int[] register = new int[count];
+            int registers = parameters.length + 1;
+            List<Double> values = new ArrayList<>();
+            for (int n = 0; n < count; n++) {
+                Node current = nodes.get(n);
+                if (current.opcode == VARIABLE) register[n] = current.left;
+                else if ( (current.opcode == CONSTANT) && needed[n] ) {
+                    register[n] = registers++;
+                    values.add(current.re);
+                    values.add(current.im);
+                }
+            }
+            int constants = registers;
+            int instructions = 0;
+            for (int n = 0; n < count; n++) {
+                if (needed[n] && (nodes.get(n).opcode >= 0)) instructions++;
+            }
+            int[] opcodes = new int[instructions], targets = new int[instructions];
+            int[] lefts = new int[instructions], rights = new int[instructions];
+            ComplexPower[] powers = new ComplexPower[instructions];
+            ArrayList<Integer> free = new ArrayList<>();
+            int i = 0;
+            for (int n = 0; n < count; n++) {
+                Node current = nodes.get(n);
+                if (!needed[n] || (current.opcode < 0)) continue;
+                opcodes[i] = current.opcode;
+                lefts[i] = register[current.left];
+                rights[i] = (current.right < 0) ? -1 : register[current.right];
+                powers[i] = current.power;
+                /* Release operands read for the last time, which the result may then overwrite */
+                release(current.left, n, lastUse, register, constants, free);
+                if (current.right != current.left) {
+                    release(current.right, n, lastUse, register, constants, free);
+                }
+                register[n] = free.isEmpty() ? registers++ : free.remove(free.size() - 1);
+                targets[i++] = register[n];
+            }
+            double[] initialRe = new double[registers], initialIm = new double[registers];
+            for (int c = 0; c < values.size() / 2; c++) {
+                initialRe[parameters.length + 1 + c] = values.get(2 * c);
+                initialIm[parameters.length + 1 + c] = values.get((2 * c) + 1);
+            }
+            return new ComplexProgram(source, parameters, opcodes, targets, lefts, rights, powers,
+                    initialRe, initialIm, register[node]);
+        }
+
+        /** Frees the register of a temporary operand if the given node reads it for the last time. */
+        private static void release (int operand, int node, int[] lastUse, int[] register,
+                                     int constants, List<Integer> free) {
+            if ( (operand >= 0) && (lastUse[operand] == node) && (register[operand] >= constants) ) {
+                free.add(register[operand]);
+            }
+        }
+
+        /**
+         * An operation, variable or constant, compared by value so that equal ones are merged.
+         */
+        private static final class Node {
+            final int opcode;
+            final int left;
+            final int right;
+            final double re;
+            final double im;
+            final ComplexPower power;
+
+            Node (int opcode, int left, int right, double re, double im, ComplexPower power) {
+                this.opcode = opcode;
+                this.left = left;
+                this.right = right;
+                this.re = re;
+                this.im = im;
+                this.power = power;
+            }
+
+            @Override
+            public boolean equals (Object other) {
+                if (!(other instanceof Node)) return false;
+                Node o = (Node) other;
+                return (opcode == o.opcode) && (left == o.left) && (right == o.right)
+                        && (Double.doubleToLongBits(re) == Double.doubleToLongBits(o.re))
+                        && (Double.doubleToLongBits(im) == Double.doubleToLongBits(o.im));
+            }
+
+            @Override
+            public int hashCode () {
+                long bits = (31L * Double.doubleToLongBits(re)) + Double.doubleToLongBits(im);
+                return (31 * ((31 * ((31 * opcode) + left)) + right)) + (int) (bits ^ (bits >>> 32));
+            }
+        }
+    }
+}
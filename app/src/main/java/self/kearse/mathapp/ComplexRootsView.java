@@ -0,0 +1,229 @@
+package self.kearse.mathapp;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * An unmodifiable List view of the <i>n</i> roots of a complex number, using O(1) memory.  The
+ * <i>k</i>-th root is computed on demand from the principal root as
+ * <i>r*e<sup>i(&theta;+2&pi;k/n)</sup></i>, directly from its index, so rounding error does not
+ * accumulate along the list and any range of indices may be computed independently, such as by
+ * the splits of {@link #spliterator()} in a parallel stream.  The Cartesian components of each
+ * root are found by rotating the principal root by a root of unity from the shared
+ * {@link RootsOfUnityCache}, rather than by a cosine and sine per root.
+ */
+public final class ComplexRootsView extends AbstractList<Complex<Double>> implements RandomAccess {
+    /** The Argument of the principal root */
+    private final double principalArgument;
+    /** The common modulus of every root */
+    private final double modulus;
+    /** The number of roots */
+    private final int degree;
+    /** The real component of the principal root */
+    private final double principalReal;
+    /** The imaginary component of the principal root */
+    private final double principalImaginary;
+    /** The roots of unity of the degree, looked up on first use.  The table is immutable, so a
+     * racing thread sees either null or the complete table, and at worst looks it up again. */
+    private RootsOfUnity unity;
+
+    /**
+     * Constructs a view of the roots of the given value.
+     * @param value the number to find the roots of
+     * @param degree the exponent <i>n</i> such that (root)^n=value
+     * @throws NullPointerException if value is null
+     * @throws IllegalArgumentException if degree is not positive
+     */
+    public ComplexRootsView (Complex<? extends Number> value, int degree)
+            throws NullPointerException, IllegalArgumentException {
+        if (value == null) {
+            throw new NullPointerException("Cannot take the roots of null");
+        } else if (degree < 1) {
+            throw new IllegalArgumentException("Degree must be positive, was " + degree);
+        }
+        Complex<Double> principal = Complex.root(value, degree);
+        this.principalArgument = principal.Argument();
+        this.modulus = principal.modulus();
+        this.degree = degree;
+        this.principalReal = modulus * Math.cos(principalArgument);
+        this.principalImaginary = modulus * Math.sin(principalArgument);
+    }
+
+    /** Returns the number of roots, the degree. */
+    @Override
+    public int size () {
+        return degree;
+    }
+
+    /**
+     * Computes the <i>k</i>-th root.
+     * @param index the index <i>k</i> of the root, where index 0 is the principal root
+     * @return a new Complex number with the value of the root, in polar form
+     * @throws IndexOutOfBoundsException if index is out of range
+     */
+    @Override
+    public Complex<Double> get (int index) throws IndexOutOfBoundsException {
+        if ( (index < 0) || (index >= degree) ) {
+            throw new IndexOutOfBoundsException("Index " + index + ", size " + degree);
+        }
+        return root(unity(), index);
+    }
+
+    /** Returns the common modulus of every root. */
+    public double modulus () {
+        return modulus;
+    }
+
+    /**
+     * Computes the argument of the <i>k</i>-th root, which is not reduced to the principal range.
+     * @param index the index <i>k</i> of the root
+     * @return &theta;+2&pi;k/n, for principal Argument &theta;
+     */
+    public double argument (int index) {
+        return principalArgument + ((2d * Math.PI * index) / degree);
+    }
+
+    /**
+     * Writes the Cartesian components of every root into a buffer.
+     * @param destination a buffer with at least {@link #size()} elements
+     * @return destination
+     * @throws IndexOutOfBoundsException if destination is too short
+     */
+    public ComplexDoubleArray fill (ComplexDoubleArray destination) throws IndexOutOfBoundsException {
+        fill(0, degree, destination.re(), destination.im(), 0);
+        return destination;
+    }
+
+    /**
+     * Writes the Cartesian components of a range of roots into primitive arrays.  The roots of
+     * unity for the degree come from the shared {@link RootsOfUnityCache}, so repeated fills of
+     * the same degree cost two trigonometric calls in total.
+     * @param from the index of the first root, inclusive
+     * @param to the index of the last root, exclusive
+     * @param re the destination of the real components
+     * @param im the destination of the imaginary components
+     * @param offset the position in the destination arrays of root <i>from</i>
+     * @throws IndexOutOfBoundsException if the range or destination is out of bounds
+     */
+    public void fill (int from, int to, double[] re, double[] im, int offset)
+            throws IndexOutOfBoundsException {
+        checkRange(from, to);
+        if ( (offset < 0) || (offset + (to - from) > Math.min(re.length, im.length)) ) {
+            throw new IndexOutOfBoundsException("Destination too short for " + (to - from) + " roots");
+        }
+        /* Rotate the principal root by each root of unity, looked up rather than computed */
+        RootsOfUnity unity = unity();
+        double pRe = principalReal, pIm = principalImaginary;
+        for (int k = from; k < to; k++) {
+            double c = unity.cos(k), s = unity.sin(k);
+            re[offset] = (pRe * c) - (pIm * s);
+            im[offset] = (pRe * s) + (pIm * c);
+            offset++;
+        }
+    }
+
+    /**
+     * Creates a spliterator over the roots which splits by index, so that each half computes its
+     * roots independently.
+     * @return a new sized, ordered and immutable spliterator
+     */
+    @Override
+    public Spliterator<Complex<Double>> spliterator () {
+        return new IndexSpliterator(0, degree);
+    }
+
+    /**
+     * Returns the roots of unity of the degree, looking them up on first use.
+     * @return the shared table of the roots of unity of the degree
+     */
+    private RootsOfUnity unity () {
+        RootsOfUnity cached = this.unity;
+        if (cached == null) {
+            cached = RootsOfUnityCache.shared().get(degree);
+            this.unity = cached;
+        }
+        return cached;
+    }
+
+    /**
+     * Builds the <i>k</i>-th root, rotating the principal root by the <i>k</i>-th root of unity.
+     * @param unity the roots of unity of the degree
+     * @param index the index <i>k</i> of the root
+     * @return a new Complex number with the value of the root, in polar form, with its Cartesian
+     * components already cached
+     */
+    private Complex<Double> root (RootsOfUnity unity, int index) {
+        double c = unity.cos(index), s = unity.sin(index);
+        return new ComplexDoublePolar(argument(index), modulus,
+                (principalReal * c) - (principalImaginary * s),
+                (principalReal * s) + (principalImaginary * c));
+    }
+
+    /**
+     * Ensures a range of indices lies within this view.
+     * @param from the first index, inclusive
+     * @param to the last index, exclusive
+     * @throws IndexOutOfBoundsException if the range is out of bounds
+     */
+    private void checkRange (int from, int to) throws IndexOutOfBoundsException {
+        if ( (from < 0) || (to > degree) || (from > to) ) {
+            throw new IndexOutOfBoundsException(String.format(
+                    "Range [%d, %d), size %d", from, to, degree));
+        }
+    }
+
+    /**
+     * A spliterator over a range of indices of the enclosing view.
+     */
+    private final class IndexSpliterator implements Spliterator<Complex<Double>> {
+        /** The next index to visit */
+        private int index;
+        /** The index after the last to visit */
+        private final int fence;
+        /** The roots of unity of the degree */
+        private final RootsOfUnity unity;
+
+        IndexSpliterator (int index, int fence) {
+            this.index = index;
+            this.fence = fence;
+            this.unity = unity();
+        }
+
+        @Override
+        public boolean tryAdvance (Consumer<? super Complex<Double>> action) {
+            if (index < fence) {
+                action.accept(root(unity, index++));
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining (Consumer<? super Complex<Double>> action) {
+            for (; index < fence; index++) {
+                action.accept(root(unity, index));
+            }
+        }
+
+        @Override
+        public Spliterator<Complex<Double>> trySplit () {
+            int middle = (index + fence) >>> 1;
+            if (middle <= index) return null;
+            IndexSpliterator prefix = new IndexSpliterator(index, middle);
+            index = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize () {
+            return fence - index;
+        }
+
+        @Override
+        public int characteristics () {
+            return ORDERED | SIZED | SUBSIZED | IMMUTABLE | NONNULL;
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package self.kearse.mathapp;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Renders a complex function by domain colouring: each pixel shows the value of the function at
+ * its point, with the Argument of the value as hue and the modulus as brightness, see
+ * {@link #STANDARD}.
+ * <p>
+ * The function is not sampled at the pixels of the view, but on a fixed grid of the plane at the
+ * nearest zoom level no coarser than the view: level <i>L</i> samples the points whose
+ * components are multiples of 2<sup>-L</sup>, in square tiles of {@link #PLANE_TILE_SIZE}
+ * samples, which are kept in a {@link TileCache}.  The grid does not move with the view, so a
+ * view panned by any distance recomputes only the tiles newly in sight, and returning to an
+ * earlier zoom finds its tiles still cached.  Every sample of a level is also a sample of the
+ * next finer level, so the four children of a cached tile take a quarter of their samples from
+ * it, and refining a view from coarse to fine with
+ * {@link #renderProgressively(Viewport, int[], int, Progress)} costs little more than rendering
+ * it once at full resolution.
+ * <p>
+ * Levels range from {@link #MIN_LEVEL} to {@link #MAX_LEVEL}; views finer than the finest level
+ * are magnified from it.
+ */
+public final class DomainColoringRenderer extends PlaneRenderer {
+    /** The edge length of a tile of the plane, in samples, a power of two. */
+    public static final int PLANE_TILE_SIZE = 64;
+    /** The coarsest zoom level, sampling every 2<sup>32</sup>. */
+    public static final int MIN_LEVEL = -32;
+    /** The finest zoom level, sampling every 2<sup>-48</sup>, about 3.6E-15. */
+    public static final int MAX_LEVEL = 48;
+    /** The base 2 logarithm of the tile size */
+    private static final int PLANE_TILE_SHIFT = 6;
+    /** The mask of the position of a sample within its tile */
+    private static final int PLANE_TILE_MASK = PLANE_TILE_SIZE - 1;
+    /** The natural logarithm of 2 */
+    private static final double LN2 = Math.log(2d);
+
+    /**
+     * The standard domain colouring.  The hue follows the Argument of the value, from red on the
+     * positive real axis through yellow, green, cyan and blue to magenta, and the brightness
+     * rises from 60% to 100% between each power of two of the modulus, which draws the contours
+     * of constant modulus.  Zeros are black, infinities white, and NaN grey.
+     */
+    public static final Coloring STANDARD = new Coloring() {
+        @Override
+        public int color (double re, double im) {
+            if (Double.isNaN(re) || Double.isNaN(im)) return 0xFF808080;
+            if (Double.isInfinite(re) || Double.isInfinite(im)) return 0xFFFFFFFF;
+            double abs2 = (re * re) + (im * im);
+            if (abs2 == 0d) return 0xFF000000;
+            /* Hue in sextants, from 0 on the positive real axis */
+            double hue = Transcendental.FAST.atan2(im, re) * (3d / Math.PI);
+            if (hue < 0d) hue += 6d;
+            double magnitude = ( (abs2 >= Double.MIN_NORMAL) && (abs2 <= Double.MAX_VALUE) )
+                    ? 0.5d * Transcendental.FAST.log(abs2) / LN2
+                    : Math.log(Math.hypot(re, im)) / LN2;
+            return hsv(hue, 0.6d + (0.4d * (magnitude - Math.floor(magnitude))));
+        }
+
+        @Override
+        public String toString () {
+            return "STANDARD";
+        }
+    };
+
+    /** The function rendered */
+    private final ComplexFunction function;
+    /** The colouring of the function values */
+    private final Coloring coloring;
+    /** The cache of rendered tiles */
+    private final TileCache cache;
+
+    /**
+     * Constructs a renderer of a function with the standard colouring, using the shared cache and
+     * the common pool.
+     * @param function the function to render
+     * @throws NullPointerException if function is null
+     */
+    public DomainColoringRenderer (ComplexFunction function) throws NullPointerException {
+        this(function, STANDARD, TileCache.shared(), ForkJoinPool.commonPool(), DEFAULT_TILE_SIZE);
+    }
+
+    /**
+     * Constructs a renderer.  Renderers with equal functions and colourings share the tiles of
+     * a cache.
+     * @param function the function to render
+     * @param coloring the colouring of the function values
+     * @param cache the cache of rendered tiles
+     * @param pool the pool to render the tiles
+     * @param tileSize the edge length of a tile of the view, in pixels
+     * @throws NullPointerException if any reference is null
+     * @throws IllegalArgumentException if tileSize is not positive
+     */
+    public DomainColoringRenderer (ComplexFunction function, Coloring coloring, TileCache cache,
+                                   ForkJoinPool pool, int tileSize)
+            throws NullPointerException, IllegalArgumentException {
+        super(pool, tileSize);
+        if ( (function == null) || (coloring == null) || (cache == null) ) {
+            throw new NullPointerException("Cannot use null values");
+        }
+        this.function = function;
+        this.coloring = coloring;
+        this.cache = cache;
+    }
+
+    /** Returns the function rendered. */
+    public ComplexFunction function () {
+        return function;
+    }
+
+    /** Returns the colouring of the function values. */
+    public Coloring coloring () {
+        return coloring;
+    }
+
+    /** Returns the cache of rendered tiles. */
+    public TileCache cache () {
+        return cache;
+    }
+
+    /**
+     * Chooses the zoom level sampling a view.
+     * @param pixelSize the pixel size of the view
+     * @return the coarsest level with samples at most pixelSize apart, within
+     *         [{@link #MIN_LEVEL}, {@link #MAX_LEVEL}]
+     */
+    public static int level (double pixelSize) {
+        return Math.max(MIN_LEVEL, Math.min(MAX_LEVEL, -Math.getExponent(pixelSize)));
+    }
+
+    /**
+     * Renders a view in passes of increasing resolution, each pass one zoom level finer than the
+     * one before, ending at the full resolution of {@link #render(Viewport, int[])}.  Each pass
+     * overwrites the whole destination.
+     * @param viewport the view to render
+     * @param destination a buffer of at least width*height pixels, in row-major order
+     * @param coarsePasses the number of passes before the full resolution pass
+     * @param progress notified after each pass, which may stop the render
+     * @return true if every pass was rendered
+     * @throws IllegalArgumentException if destination is too short or coarsePasses is negative
+     * @throws NullPointerException if progress is null
+     */
+    public boolean renderProgressively (Viewport viewport, int[] destination, int coarsePasses,
+                                        Progress progress)
+            throws IllegalArgumentException, NullPointerException {
+        if (coarsePasses < 0) {
+            throw new IllegalArgumentException("Number of passes cannot be negative");
+        } else if (progress == null) {
+            throw new NullPointerException("Cannot notify a null reference");
+        }
+        int finest = level(viewport.pixelSize());
+        for (int level = Math.max(MIN_LEVEL, finest - coarsePasses); level <= finest; level++) {
+            new Pass(level, pool, tileSize).render(viewport, destination);
+            if (!progress.passRendered(destination, level, level == finest)) return false;
+        }
+        return true;
+    }
+
+    @Override
+    protected void renderTile (Viewport viewport, int[] destination,
+                               int x0, int y0, int x1, int y1, Render render) {
+        fill(viewport, destination, x0, y0, x1, y1, render, level(viewport.pixelSize()));
+    }
+
+    /**
+     * Fills the pixels of one tile of a view from the tiles of the plane at a zoom level, taking
+     * the nearest sample to each pixel.
+     */
+    private void fill (Viewport viewport, int[] destination,
+                       int x0, int y0, int x1, int y1, Render render, int level) {
+        double scale = Math.scalb(1d, level);
+        int width = viewport.width();
+        MutableComplexDouble value = new MutableComplexDouble();
+        for (int y = y0; y < y1; y++) {
+            if (render.isCancelled()) return;
+            long v = Math.round(-viewport.im(y) * scale);
+            long row = v >> PLANE_TILE_SHIFT;
+            int rowOffset = ((int) v & PLANE_TILE_MASK) << PLANE_TILE_SHIFT;
+            int offset = y * width;
+            int[] tile = null;
+            long column = 0L;
+            for (int x = x0; x < x1; x++) {
+                long u = Math.round(viewport.re(x) * scale);
+                if ( (tile == null) || ((u >> PLANE_TILE_SHIFT) != column) ) {
+                    column = u >> PLANE_TILE_SHIFT;
+                    tile = tile(level, column, row, value);
+                }
+                destination[offset + x] = tile[rowOffset | ((int) u & PLANE_TILE_MASK)];
+            }
+        }
+    }
+
+    /**
+     * Finds a tile of the plane in the cache, or computes and caches it, taking the samples it
+     * shares with its parent from the parent if that is cached.
+     * @param level the zoom level
+     * @param column the column of the tile within its level
+     * @param row the row of the tile within its level
+     * @param value the accumulator for function values
+     * @return the colours of the samples of the tile, in row-major order
+     */
+    int[] tile (int level, long column, long row, MutableComplexDouble value) {
+        TileCache.Key key = new TileCache.Key(function, coloring, level, column, row);
+        int[] pixels = cache.get(key);
+        if (pixels != null) return pixels;
+        int[] parent = cache.get(key.parent());
+        int half = PLANE_TILE_SIZE >> 1;
+        int parentColumn = (int) (column & 1L) * half, parentRow = (int) (row & 1L) * half;
+        double step = Math.scalb(1d, -level);
+        long u0 = column << PLANE_TILE_SHIFT, v0 = row << PLANE_TILE_SHIFT;
+        pixels = new int[PLANE_TILE_SIZE * PLANE_TILE_SIZE];
+        for (int j = 0; j < PLANE_TILE_SIZE; j++) {
+            double im = -(v0 + j) * step;
+            int offset = j << PLANE_TILE_SHIFT;
+            for (int i = 0; i < PLANE_TILE_SIZE; i++) {
+                if ( (parent != null) && (((i | j) & 1) == 0) ) {
+                    /* Sample 2k of this level is sample k of the parent level */
+                    pixels[offset + i] = parent[((parentRow + (j >> 1)) << PLANE_TILE_SHIFT)
+                            + parentColumn + (i >> 1)];
+                } else {
+                    function.apply((u0 + i) * step, im, value);
+                    pixels[offset + i] = coloring.color(value.re(), value.im());
+                }
+            }
+        }
+        return cache.put(key, pixels);
+    }
+
+    /**
+     * Converts a fully saturated colour to ARGB.
+     * @param hue the hue in sextants, in [0, 6)
+     * @param value the brightness, in [0, 1]
+     * @return the opaque colour
+     */
+    private static int hsv (double hue, double value) {
+        int sextant = (int) hue;
+        double fraction = hue - sextant;
+        int max = (int) ((value * 255d) + 0.5d);
+        int rising = (int) ((value * fraction * 255d) + 0.5d);
+        int falling = max - rising;
+        int r, g, b;
+        switch (sextant) {
+            case 1: r = falling; g = max; b = 0; break;
+            case 2: r = 0; g = max; b = rising; break;
+            case 3: r = 0; g = falling; b = max; break;
+            case 4: r = rising; g = 0; b = max; break;
+            case 5: r = max; g = 0; b = falling; break;
+            default: r = max; g = rising; b = 0; break;
+        }
+        return 0xFF000000 | (r << 16) | (g << 8) | b;
+    }
+
+    /**
+     * Maps function values to ARGB colours.  Colourings are part of the identity of cached
+     * tiles, so they should implement equals if distinct instances colour alike.
+     */
+    public interface Coloring {
+        /**
+         * Gives the colour of a function value.
+         * @param re the real component of the value
+         * @param im the imaginary component of the value
+         * @return the colour, as ARGB
+         */
+        int color (double re, double im);
+    }
+
+    /**
+     * Receives the passes of a progressive render.
+     */
+    public interface Progress {
+        /**
+         * Called after each pass has been written to the destination.
+         * @param destination the buffer of the view
+         * @param level the zoom level of the pass
+         * @param last true for the final, full resolution pass
+         * @return true to continue with the next pass, false to stop
+         */
+        boolean passRendered (int[] destination, int level, boolean last);
+    }
+
+    /**
+     * One pass of a progressive render, sampling at a fixed zoom level.
+     */
+    private final class Pass extends PlaneRenderer {
+        /** The zoom level sampled */
+        private final int level;
+
+        Pass (int level, ForkJoinPool pool, int tileSize) {
+            super(pool, tileSize);
+            this.level = level;
+        }
+
+        @Override
+        protected void renderTile (Viewport viewport, int[] destination,
+                                   int x0, int y0, int x1, int y1, Render render) {
+            fill(viewport, destination, x0, y0, x1, y1, render, level);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package self.kearse.mathapp;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Renders the Mandelbrot set, or the Julia set of a constant <i>c</i>, by the escape-time
+ * algorithm: each pixel iterates <i>z&rarr;z<sup>2</sup>+c</i> and records the number of
+ * iterations taken for |z| to exceed 2, or {@link #maxIterations()} for points which never
+ * escape.  Iteration runs on a {@link MutableComplexDouble}, so the inner loop allocates nothing.
+ * Interior points are the most expensive, since they run to the iteration limit, so two checks
+ * find most of them early:
+ * <ul>
+ *     <li>for the Mandelbrot set, points within the main cardioid or the period-2 bulb are known
+ *     to be interior without iterating at all;</li>
+ *     <li>an orbit which returns to within {@link #PERIODICITY_TOLERANCE} of a point it visited
+ *     before has reached a cycle and never escapes, which is checked by Brent's method against a
+ *     saved point whose checking window doubles in length.</li>
+ * </ul>
+ * Without a {@link Palette}, the destination receives the iteration counts; with one, the
+ * colours it gives them.
+ */
+public final class EscapeTimeRenderer extends PlaneRenderer {
+    /** The square of the radius beyond which an orbit escapes. */
+    public static final double ESCAPE_RADIUS_SQUARED = 4d;
+    /** The distance between points of an orbit below which the orbit is considered cyclic. */
+    public static final double PERIODICITY_TOLERANCE = 1E-15;
+    /** The length of the first window of Brent's cycle check. */
+    private static final int INITIAL_WINDOW = 8;
+
+    /** The iteration limit */
+    private final int maxIterations;
+    /** True to render the Julia set of the constant, false for the Mandelbrot set */
+    private final boolean julia;
+    /** The real component of the Julia constant */
+    private final double juliaRe;
+    /** The imaginary component of the Julia constant */
+    private final double juliaIm;
+    /** The colours of the iteration counts, or null to render the counts themselves */
+    private final Palette palette;
+
+    /**
+     * Constructs a renderer of the Mandelbrot set, writing iteration counts, using the common pool.
+     * @param maxIterations the iteration limit
+     * @throws IllegalArgumentException if maxIterations is not positive
+     */
+    public EscapeTimeRenderer (int maxIterations) throws IllegalArgumentException {
+        this(maxIterations, null, null, ForkJoinPool.commonPool(), DEFAULT_TILE_SIZE);
+    }
+
+    /**
+     * Constructs a renderer.
+     * @param maxIterations the iteration limit
+     * @param juliaConstant the constant <i>c</i> of a Julia set, or null for the Mandelbrot set
+     * @param palette the colours of the iteration counts, or null to render the counts themselves
+     * @param pool the pool to render the tiles
+     * @param tileSize the edge length of a tile, in pixels
+     * @throws IllegalArgumentException if maxIterations or tileSize is not positive
+     * @throws NullPointerException if pool is null
+     */
+    public EscapeTimeRenderer (int maxIterations, Complex<? extends Number> juliaConstant,
+                               Palette palette, ForkJoinPool pool, int tileSize)
+            throws IllegalArgumentException, NullPointerException {
+        super(pool, tileSize);
+        if (maxIterations < 1) {
+            throw new IllegalArgumentException("Iteration limit must be positive");
+        }
+        this.maxIterations = maxIterations;
+        this.julia = (juliaConstant != null);
+        this.juliaRe = julia ? juliaConstant.real().doubleValue() : 0d;
+        this.juliaIm = julia ? juliaConstant.imaginary().doubleValue() : 0d;
+        this.palette = palette;
+    }
+
+    /** Returns the iteration limit, which is also the count of points which never escape. */
+    public int maxIterations () {
+        return maxIterations;
+    }
+
+    /** Returns whether this renders a Julia set rather than the Mandelbrot set. */
+    public boolean isJulia () {
+        return julia;
+    }
+
+    @Override
+    protected void renderTile (Viewport viewport, int[] destination,
+                               int x0, int y0, int x1, int y1, Render render) {
+        int width = viewport.width();
+        MutableComplexDouble z = new MutableComplexDouble();
+        for (int y = y0; y < y1; y++) {
+            if (render.isCancelled()) return;
+            double im = viewport.im(y);
+            int offset = y * width;
+            for (int x = x0; x < x1; x++) {
+                int count = iterate(viewport.re(x), im, z);
+                destination[offset + x] = (palette == null) ? count : palette.color(count, maxIterations);
+            }
+        }
+    }
+
+    /**
+     * Counts the iterations taken by the orbit of a point to escape.
+     * @param re the real component of the point
+     * @param im the imaginary component of the point
+     * @param z the accumulator to iterate in
+     * @return the number of iterations, or {@link #maxIterations} if the point never escapes
+     */
+    int iterate (double re, double im, MutableComplexDouble z) {
+        double cRe, cIm;
+        if (julia) {
+            cRe = juliaRe;
+            cIm = juliaIm;
+        } else {
+            if (inCardioidOrBulb(re, im)) return maxIterations;
+            cRe = re;
+            cIm = im;
+        }
+        z.set(re, im);
+        double savedRe = re, savedIm = im;
+        int window = INITIAL_WINDOW, step = 0;
+        /* The point itself is the first iterate for the Mandelbrot set, after 0 */
+        for (int n = julia ? 0 : 1; n < maxIterations; n++) {
+            if (z.abs2() > ESCAPE_RADIUS_SQUARED) return n;
+            z.squareAddAssign(cRe, cIm);
+            if ( (Math.abs(z.re() - savedRe) + Math.abs(z.im() - savedIm)) < PERIODICITY_TOLERANCE ) {
+                return maxIterations;
+            }
+            if (++step == window) {
+                step = 0;
+                window <<= 1;
+                savedRe = z.re();
+                savedIm = z.im();
+            }
+        }
+        return maxIterations;
+    }
+
+    /**
+     * Tests whether a point lies in the main cardioid or the period-2 bulb of the Mandelbrot set.
+     * @param re the real component of the point
+     * @param im the imaginary component of the point
+     * @return true if the point is known to be interior
+     */
+    static boolean inCardioidOrBulb (double re, double im) {
+        double im2 = im * im;
+        double shifted = re - 0.25d;
+        double q = (shifted * shifted) + im2;
+        if (q * (q + shifted) <= 0.25d * im2) return true;
+        double bulb = re + 1d;
+        return (bulb * bulb) + im2 <= 0.0625d;
+    }
+
+    /**
+     * Maps iteration counts to ARGB colours.
+     */
+    public interface Palette {
+        /**
+         * Gives the colour of an iteration count.
+         * @param iterations the iteration count of a pixel
+         * @param maxIterations the iteration limit, the count of points which never escape
+         * @return the colour, as ARGB
+         */
+        int color (int iterations, int maxIterations);
+    }
+
+    /**
+     * Creates a palette which cycles through the given colours, one per iteration, and paints
+     * points which never escape opaque black.
+     * @param colors the ARGB colours to cycle through
+     * @return a new palette
+     * @throws IllegalArgumentException if colors is empty
+     */
+    public static Palette cyclicPalette (int... colors) throws IllegalArgumentException {
+        if (colors.length == 0) {
+            throw new IllegalArgumentException("Palette needs at least one colour");
+        }
+        final int[] table = colors.clone();
+        return new Palette() {
+            @Override
+            public int color (int iterations, int maxIterations) {
+                return (iterations >= maxIterations) ? 0xFF000000 : table[iterations % table.length];
+            }
+        };
+    }
+}
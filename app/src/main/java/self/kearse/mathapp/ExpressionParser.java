@@ -0,0 +1,255 @@
+package self.kearse.mathapp;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Parses textual complex expressions in the variable <i>z</i> and named parameters, compiling
+ * them to a {@link ComplexProgram}.  The grammar, from lowest to highest precedence:
+ * <ul>
+ *     <li>sums and differences, <code>a + b</code> and <code>a - b</code>;</li>
+ *     <li>products and quotients, <code>a * b</code> and <code>a / b</code>, and implicit
+ *     products of a factor followed by a name or a parenthesis, as in <code>2z</code>,
+ *     <code>3i</code> or <code>(z+1)(z-1)</code>;</li>
+ *     <li>signs, <code>-a</code> and <code>+a</code>;</li>
+ *     <li>powers, <code>a ^ b</code>, which group from the right and take the principal value,
+ *     so that <code>-z^2</code> is <code>-(z^2)</code> and <code>z^-1</code> is allowed;</li>
+ *     <li>numbers such as <code>2</code>, <code>0.5</code> or <code>1e-3</code>, the names
+ *     <code>z</code>, <code>i</code>, <code>pi</code> and <code>e</code>, the parameters,
+ *     parentheses, and the functions <code>Log(a)</code>, <code>Exp(a)</code>,
+ *     <code>conj(a)</code> and <code>root(a, n)</code>, the principal <i>n</i>-th root
+ *     <i>a</i><sup>1/n</sup> for a non-zero integer constant <i>n</i>.  Function names may be
+ *     written in any case.</li>
+ * </ul>
+ * Whitespace is ignored between tokens.  The expression is compiled as it is parsed, without
+ * building a tree, folding constants and merging repeated subexpressions as it goes.
+ */
+public final class ExpressionParser {
+    /** The names which cannot be used for parameters, in lower case */
+    private static final List<String> RESERVED =
+            Arrays.asList("z", "i", "pi", "e", "log", "exp", "conj", "root");
+
+    /** The expression being parsed */
+    private final String source;
+    /** The names of the parameters */
+    private final String[] parameters;
+    /** The program being built */
+    private final ComplexProgram.Builder builder;
+    /** The index of the next character to parse */
+    private int position = 0;
+
+    private ExpressionParser (String source, String[] parameters) {
+        this.source = source;
+        this.parameters = parameters;
+        this.builder = new ComplexProgram.Builder(parameters);
+    }
+
+    /**
+     * Parses and compiles an expression.
+     * @param expression the expression, in z and the parameters
+     * @param parameters the names of the parameters, which are identifiers other than z, i, pi,
+     *                   e and the function names
+     * @return a new program, with every parameter zero, see
+     *         {@link ComplexProgram#withParameter(String, double, double)}
+     * @throws NullPointerException if expression or a parameter name is null
+     * @throws IllegalArgumentException if the expression is malformed, giving the position of the
+     *         error, or if a parameter name is invalid or repeated
+     */
+    public static ComplexProgram parse (String expression, String... parameters)
+            throws NullPointerException, IllegalArgumentException {
+        if (expression == null) {
+            throw new NullPointerException("Cannot parse a null expression");
+        }
+        for (int p = 0; p < parameters.length; p++) {
+            String name = parameters[p];
+            if (name == null) {
+                throw new NullPointerException("Cannot use a null parameter name");
+            } else if (!isIdentifier(name) || RESERVED.contains(name.toLowerCase())) {
+                throw new IllegalArgumentException("Invalid parameter name " + name);
+            } else if (Arrays.asList(parameters).subList(0, p).contains(name)) {
+                throw new IllegalArgumentException("Repeated parameter name " + name);
+            }
+        }
+        ExpressionParser parser = new ExpressionParser(expression, parameters.clone());
+        int node = parser.sum();
+        parser.skipWhitespace();
+        if (parser.position < expression.length()) {
+            throw parser.error("Unexpected '" + expression.charAt(parser.position) + "'");
+        }
+        return parser.builder.build(expression, node);
+    }
+
+    /** Parses a sum or difference of terms. */
+    private int sum () {
+        int node = term();
+        while (true) {
+            if (accept('+')) node = builder.binary(ComplexProgram.ADD, node, term());
+            else if (accept('-')) node = builder.binary(ComplexProgram.SUBTRACT, node, term());
+            else return node;
+        }
+    }
+
+    /** Parses a product or quotient of signed factors, including implicit products. */
+    private int term () {
+        int node = signed();
+        while (true) {
+            if (accept('*')) node = builder.binary(ComplexProgram.MULTIPLY, node, signed());
+            else if (accept('/')) node = builder.binary(ComplexProgram.DIVIDE, node, signed());
+            else if ( (position < source.length())
+                    && (Character.isLetter(source.charAt(position)) || (source.charAt(position) == '(')) ) {
+                node = builder.binary(ComplexProgram.MULTIPLY, node, power());
+            } else return node;
+        }
+    }
+
+    /** Parses a factor with any number of signs. */
+    private int signed () {
+        if (accept('-')) return builder.unary(ComplexProgram.NEGATE, signed());
+        else if (accept('+')) return signed();
+        else return power();
+    }
+
+    /** Parses a power, grouping from the right, or a single value. */
+    private int power () {
+        int base = value();
+        if (accept('^')) return builder.binary(ComplexProgram.POWER, base, signed());
+        return base;
+    }
+
+    /** Parses a number, name, function call or parenthesized expression. */
+    private int value () {
+        skipWhitespace();
+        if (position >= source.length()) {
+            throw error("Expected a value");
+        }
+        char c = source.charAt(position);
+        if ( Character.isDigit(c) || (c == '.') ) {
+            return number();
+        } else if (c == '(') {
+            position++;
+            int node = sum();
+            expect(')');
+            return node;
+        } else if (!Character.isLetter(c)) {
+            throw error("Unexpected '" + c + "'");
+        }
+        int start = position;
+        while ( (position < source.length())
+                && (Character.isLetterOrDigit(source.charAt(position)) || (source.charAt(position) == '_')) ) {
+            position++;
+        }
+        String name = source.substring(start, position);
+        switch (name) {
+            case "z": return builder.z();
+            case "i": return builder.constant(0d, 1d);
+            case "pi": return builder.constant(Math.PI, 0d);
+            case "e": return builder.constant(Math.E, 0d);
+            default: break;
+        }
+        for (int p = 0; p < parameters.length; p++) {
+            if (parameters[p].equals(name)) return builder.parameter(p);
+        }
+        switch (name.toLowerCase()) {
+            case "log": return builder.unary(ComplexProgram.LOG, argument());
+            case "exp": return builder.unary(ComplexProgram.EXP, argument());
+            case "conj": return builder.unary(ComplexProgram.CONJUGATE, argument());
+            case "root": return root();
+            default:
+                position = start;
+                throw error("Unknown name '" + name + "'");
+        }
+    }
+
+    /** Parses the parenthesized argument of a function of one argument. */
+    private int argument () {
+        expect('(');
+        int node = sum();
+        expect(')');
+        return node;
+    }
+
+    /** Parses the arguments of root, compiling it as a power. */
+    private int root () {
+        expect('(');
+        int value = sum();
+        expect(',');
+        skipWhitespace();
+        int start = position;
+        int degree = sum();
+        expect(')');
+        double n = builder.real(degree);
+        if ( !builder.isConstant(degree) || (builder.imaginary(degree) != 0d) || (n != Math.rint(n))
+                || (n == 0d) || (Math.abs(n) > Integer.MAX_VALUE) ) {
+            position = start;
+            throw error("Degree of a root must be a non-zero integer constant");
+        }
+        return builder.binary(ComplexProgram.POWER, value, builder.constant(1d / n, 0d));
+    }
+
+    /** Parses an unsigned decimal number, with an optional exponent. */
+    private int number () {
+        int start = position;
+        while ( (position < source.length()) && Character.isDigit(source.charAt(position)) ) position++;
+        if ( (position < source.length()) && (source.charAt(position) == '.') ) {
+            position++;
+            while ( (position < source.length()) && Character.isDigit(source.charAt(position)) ) position++;
+        }
+        if (position - start == 1 && source.charAt(start) == '.') {
+            position = start;
+            throw error("Expected digits");
+        }
+        /* An exponent only if digits follow, so that 2e is the product 2*e */
+        if ( (position < source.length()) && ((source.charAt(position) | 0x20) == 'e') ) {
+            int mark = position + 1;
+            if ( (mark < source.length()) && ((source.charAt(mark) == '+') || (source.charAt(mark) == '-')) ) {
+                mark++;
+            }
+            if ( (mark < source.length()) && Character.isDigit(source.charAt(mark)) ) {
+                position = mark;
+                while ( (position < source.length()) && Character.isDigit(source.charAt(position)) ) {
+                    position++;
+                }
+            }
+        }
+        return builder.constant(Double.parseDouble(source.substring(start, position)), 0d);
+    }
+
+    /** Consumes a character after any whitespace, if it is the one given. */
+    private boolean accept (char c) {
+        skipWhitespace();
+        if ( (position < source.length()) && (source.charAt(position) == c) ) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    /** Consumes a character after any whitespace, which must be the one given. */
+    private void expect (char c) throws IllegalArgumentException {
+        if (!accept(c)) {
+            throw error("Expected '" + c + "'");
+        }
+    }
+
+    private void skipWhitespace () {
+        while ( (position < source.length()) && Character.isWhitespace(source.charAt(position)) ) {
+            position++;
+        }
+    }
+
+    /** Creates the exception for an error at the current position. */
+    private IllegalArgumentException error (String message) {
+        return new IllegalArgumentException(String.format("%s at position %d of \"%s\"",
+                message, position, source));
+    }
+
+    /** Checks whether a name is a letter followed by letters, digits and underscores. */
+    private static boolean isIdentifier (String name) {
+        if ( name.isEmpty() || !Character.isLetter(name.charAt(0)) ) return false;
+        for (int k = 1; k < name.length(); k++) {
+            char c = name.charAt(k);
+            if ( !Character.isLetterOrDigit(c) && (c != '_') ) return false;
+        }
+        return true;
+    }
+}
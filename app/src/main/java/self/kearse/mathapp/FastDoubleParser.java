@@ -0,0 +1,135 @@
+package self.kearse.mathapp;
+
+import java.math.BigInteger;
+
+/**
+ * Converts a decimal significand and exponent, w &times; 10<sup>q</sup>, to the nearest double,
+ * without the String and arbitrary-precision arithmetic of {@link Double#parseDouble(String)}.
+ * Small cases are exact in double arithmetic, after Clinger: a significand below 2<sup>53</sup>
+ * and a power of ten below 10<sup>23</sup> are both exact doubles, so one correctly rounded
+ * multiplication or division gives the answer.  Every other case uses the algorithm of Eisel and
+ * Lemire, multiplying the significand by a 128-bit approximation of 5<sup>q</sup> and rounding
+ * the high bits of the product, which is correctly rounded for any significand of up to 19
+ * digits.  Callers fall back to {@link Double#parseDouble(String)} for longer significands.
+ */
+final class FastDoubleParser {
+    /** The powers of ten which are exact as doubles */
+    private static final double[] POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+    /** The smallest power of ten of a non-zero double, below which every value rounds to zero */
+    private static final int SMALLEST_POWER = -342;
+    /** The largest power of ten of a finite double, above which every value rounds to infinity */
+    private static final int LARGEST_POWER = 308;
+    /** The explicit bits of the mantissa of a double */
+    private static final int MANTISSA_BITS = 52;
+    /** The biased exponent of infinity */
+    private static final int INFINITE_POWER = 0x7FF;
+
+    private FastDoubleParser () {
+    }
+
+    /**
+     * Finds the double nearest to a decimal value, rounding halfway cases to even.
+     * @param significand the decimal significand w, of at most 19 digits, as an unsigned long
+     * @param exponent the decimal exponent q
+     * @param negative true for a negative value
+     * @return the nearest double, signed, zero or infinite beyond the range of doubles
+     */
+    static double toDouble (long significand, int exponent, boolean negative) {
+        double value;
+        if ( (significand >= 0L) && (significand <= (1L << 53)) && (exponent >= -22) && (exponent <= 22) ) {
+            value = (double) significand;
+            value = (exponent < 0) ? (value / POWERS_OF_TEN[-exponent]) : (value * POWERS_OF_TEN[exponent]);
+        } else {
+            value = Double.longBitsToDouble(eiselLemire(significand, exponent));
+        }
+        return negative ? -value : value;
+    }
+
+    /** Computes the bits of the positive double nearest to w &times; 10<sup>q</sup>. */
+    private static long eiselLemire (long w, int q) {
+        if ( (w == 0L) || (q < SMALLEST_POWER) ) return 0L;
+        if (q > LARGEST_POWER) return (long) INFINITE_POWER << MANTISSA_BITS;
+        int leadingZeros = Long.numberOfLeadingZeros(w);
+        w <<= leadingZeros;
+        /* The high 64 bits of w times 5^q, corrected from the low half of 5^q only if they could carry */
+        int index = 2 * (q - SMALLEST_POWER);
+        long[] powers = Powers.FIVE;
+        long high = multiplyHigh(w, powers[index]), low = w * powers[index];
+        long precisionMask = -1L >>> (MANTISSA_BITS + 3);
+        if ((high & precisionMask) == precisionMask) {
+            long carry = multiplyHigh(w, powers[index + 1]);
+            low += carry;
+            if (unsignedLess(low, carry)) high++;
+        }
+        int upperBit = (int) (high >>> 63);
+        int shift = upperBit + 64 - MANTISSA_BITS - 3;
+        long mantissa = high >>> shift;
+        /* The binary exponent, from floor(q log2(10)) + 63, biased */
+        int power2 = (int) (((((152170L + 65536L) * q) >> 16) + 63) + upperBit - leadingZeros + 1023);
+        if (power2 <= 0) {
+            /* A subnormal result */
+            if (-power2 + 1 >= 64) return 0L;
+            mantissa >>>= -power2 + 1;
+            mantissa += mantissa & 1L;
+            mantissa >>>= 1;
+            power2 = (mantissa < (1L << MANTISSA_BITS)) ? 0 : 1;
+            return (mantissa & ((1L << MANTISSA_BITS) - 1L)) | ((long) power2 << MANTISSA_BITS);
+        }
+        /* A product exactly halfway between doubles, possible only for small q, rounds to even */
+        if ( !unsignedLess(1L, low) && (q >= -4) && (q <= 23) && ((mantissa & 3L) == 1L)
+                && ((mantissa << shift) == high) ) {
+            mantissa &= ~1L;
+        }
+        mantissa += mantissa & 1L;
+        mantissa >>>= 1;
+        if (mantissa >= (2L << MANTISSA_BITS)) {
+            mantissa = 1L << MANTISSA_BITS;
+            power2++;
+        }
+        mantissa &= ~(1L << MANTISSA_BITS);
+        if (power2 >= INFINITE_POWER) return (long) INFINITE_POWER << MANTISSA_BITS;
+        return mantissa | ((long) power2 << MANTISSA_BITS);
+    }
+
+    /** Computes the high 64 bits of the unsigned 128-bit product of two unsigned longs. */
+    private static long multiplyHigh (long a, long b) {
+        long aLow = a & 0xFFFFFFFFL, aHigh = a >>> 32, bLow = b & 0xFFFFFFFFL, bHigh = b >>> 32;
+        long lowLow = aLow * bLow, highLow = aHigh * bLow, lowHigh = aLow * bHigh, highHigh = aHigh * bHigh;
+        long cross = (lowLow >>> 32) + (highLow & 0xFFFFFFFFL) + lowHigh;
+        return highHigh + (highLow >>> 32) + (cross >>> 32);
+    }
+
+    private static boolean unsignedLess (long a, long b) {
+        return (a ^ Long.MIN_VALUE) < (b ^ Long.MIN_VALUE);
+    }
+
+    /**
+     * The 128-bit approximations of the powers of five from 5<sup>-342</sup> to
+     * 5<sup>308</sup>, normalized so that the highest bit is set, as pairs of high and low
+     * halves.  Negative powers are rounded up and positive powers truncated, as the algorithm
+     * requires.  Computed once, on first use.
+     */
+    private static final class Powers {
+        static final long[] FIVE = new long[2 * (LARGEST_POWER - SMALLEST_POWER + 1)];
+        static {
+            BigInteger five = BigInteger.valueOf(5L), mask = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+            for (int q = SMALLEST_POWER; q <= LARGEST_POWER; q++) {
+                BigInteger c;
+                if (q < 0) {
+                    BigInteger power = five.pow(-q);
+                    int z = power.bitLength();
+                    int b = (q >= -27) ? (z + 127) : ((2 * z) + 128);
+                    c = BigInteger.ONE.shiftLeft(b).divide(power).add(BigInteger.ONE);
+                } else {
+                    c = five.pow(q);
+                    if (c.bitLength() < 128) c = c.shiftLeft(128 - c.bitLength());
+                }
+                if (c.bitLength() > 128) c = c.shiftRight(c.bitLength() - 128);
+                int index = 2 * (q - SMALLEST_POWER);
+                FIVE[index] = c.shiftRight(64).longValue();
+                FIVE[index + 1] = c.and(mask).longValue();
+            }
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package self.kearse.mathapp;
+
+import java.util.List;
+
+/**
+ * A precomputed plan for the discrete Fourier transform of sequences of one fixed size.  Plans
+ * hold only immutable tables, so one plan may be created per size and reused, including from
+ * several threads at once.  Sizes which are powers of two are transformed in place with an
+ * iterative radix-2 algorithm; any other size uses Bluestein's chirp-z algorithm on top of a
+ * radix-2 plan of at least twice the size.  Twiddle factors are taken from the shared
+ * {@link RootsOfUnityCache}, so creating further plans of a recent size needs no trigonometry.
+ * <p>
+ * The forward transform is X<sub>k</sub>&nbsp;=&nbsp;&Sigma;&nbsp;x<sub>j</sub>&nbsp;e<sup>-2&pi;ijk/n</sup>,
+ * without normalization, and the inverse transform carries the factor 1/n so that the two are
+ * exact inverses of each other.
+ */
+public abstract class FourierTransform {
+    /** The length of the sequences this plan transforms. */
+    protected final int size;
+
+    /**
+     * Constructs the common state of a plan.
+     * @param size the length of the sequences to transform
+     */
+    private FourierTransform (int size) {
+        this.size = size;
+    }
+
+    /**
+     * Creates a plan for transforming sequences of the given length.
+     * @param size the length of the sequences to transform
+     * @return a new, reusable plan
+     * @throws IllegalArgumentException if size is not positive
+     */
+    public static FourierTransform plan (int size) throws IllegalArgumentException {
+        if (size < 1) {
+            throw new IllegalArgumentException("Transform size must be positive, was " + size);
+        } else if ((size & (size - 1)) == 0) {
+            return new Radix2(size);
+        } else {
+            return new Bluestein(size);
+        }
+    }
+
+    /** Returns the length of the sequences this plan transforms. */
+    public int size () {
+        return size;
+    }
+
+    /**
+     * Replaces the given sequence with its forward transform.
+     * @param re the real components, of length {@link #size()}
+     * @param im the imaginary components, of length {@link #size()}
+     * @throws IllegalArgumentException if either array is not of length {@link #size()}
+     */
+    public void forward (double[] re, double[] im) throws IllegalArgumentException {
+        checkSize(re, im);
+        transform(re, im);
+    }
+
+    /**
+     * Replaces the given sequence with its inverse transform, including the factor 1/n.
+     * @param re the real components, of length {@link #size()}
+     * @param im the imaginary components, of length {@link #size()}
+     * @throws IllegalArgumentException if either array is not of length {@link #size()}
+     */
+    public void inverse (double[] re, double[] im) throws IllegalArgumentException {
+        checkSize(re, im);
+        /* The inverse is the conjugate of the forward transform of the conjugate */
+        for (int i = 0; i < size; i++) {
+            im[i] = -im[i];
+        }
+        transform(re, im);
+        double scale = 1d / size;
+        for (int i = 0; i < size; i++) {
+            re[i] *= scale;
+            im[i] *= -scale;
+        }
+    }
+
+    /**
+     * Replaces the elements of the given buffer with their forward transform.
+     * @param values a buffer of length {@link #size()}
+     * @return values
+     * @throws IllegalArgumentException if values is not of length {@link #size()}
+     */
+    public ComplexDoubleArray forward (ComplexDoubleArray values) throws IllegalArgumentException {
+        forward(values.re(), values.im());
+        return values;
+    }
+
+    /**
+     * Replaces the elements of the given buffer with their inverse transform.
+     * @param values a buffer of length {@link #size()}
+     * @return values
+     * @throws IllegalArgumentException if values is not of length {@link #size()}
+     */
+    public ComplexDoubleArray inverse (ComplexDoubleArray values) throws IllegalArgumentException {
+        inverse(values.re(), values.im());
+        return values;
+    }
+
+    /**
+     * Computes the forward transform of a List of Complex numbers.
+     * @param values a List of length {@link #size()}
+     * @return a new List holding the transform
+     * @throws IllegalArgumentException if values is not of length {@link #size()}
+     */
+    public List<Complex<Double>> forward (List<? extends Complex<? extends Number>> values)
+            throws IllegalArgumentException {
+        return forward(ComplexDoubleArray.fromList(values)).toList();
+    }
+
+    /**
+     * Computes the inverse transform of a List of Complex numbers.
+     * @param values a List of length {@link #size()}
+     * @return a new List holding the transform
+     * @throws IllegalArgumentException if values is not of length {@link #size()}
+     */
+    public List<Complex<Double>> inverse (List<? extends Complex<? extends Number>> values)
+            throws IllegalArgumentException {
+        return inverse(ComplexDoubleArray.fromList(values)).toList();
+    }
+
+    /**
+     * Performs the unnormalized forward transform in place, on arrays of the correct length.
+     * @param re the real components
+     * @param im the imaginary components
+     */
+    protected abstract void transform (double[] re, double[] im);
+
+    /**
+     * Ensures a sequence has the length of this plan.
+     * @param re the real components
+     * @param im the imaginary components
+     * @throws IllegalArgumentException if either array is not of length {@link #size()}
+     */
+    private void checkSize (double[] re, double[] im) throws IllegalArgumentException {
+        if ( (re.length != size) || (im.length != size) ) {
+            throw new IllegalArgumentException(String.format(
+                    "Plan transforms %d values, was given %d and %d", size, re.length, im.length));
+        }
+    }
+
+    /**
+     * An iterative, in-place radix-2 decimation-in-time transform for power of two sizes.
+     */
+    private static final class Radix2 extends FourierTransform {
+        /** The bit-reversed index of each index, for the initial permutation */
+        private final int[] reversed;
+        /** cos(2&pi;k/n) for k&nbsp;&lt;&nbsp;n/2 */
+        private final double[] cos;
+        /** sin(2&pi;k/n) for k&nbsp;&lt;&nbsp;n/2 */
+        private final double[] sin;
+
+        private Radix2 (int size) {
+            super(size);
+            int bits = Integer.numberOfTrailingZeros(size);
+            this.reversed = new int[size];
+            for (int i = 1; i < size; i++) {
+                reversed[i] = Integer.reverse(i) >>> (Integer.SIZE - bits);
+            }
+            int half = size / 2;
+            this.cos = new double[half];
+            this.sin = new double[half];
+            RootsOfUnityCache.shared().get(size).fill(cos, sin);
+        }
+
+        @Override
+        protected void transform (double[] re, double[] im) {
+            for (int i = 0; i < size; i++) {
+                int j = reversed[i];
+                if (i < j) {
+                    double t = re[i]; re[i] = re[j]; re[j] = t;
+                    t = im[i]; im[i] = im[j]; im[j] = t;
+                }
+            }
+            for (int length = 2; length <= size; length <<= 1) {
+                int half = length >>> 1;
+                int stride = size / length;
+                for (int start = 0; start < size; start += length) {
+                    for (int k = 0; k < half; k++) {
+                        /* Twiddle factor e^(-2*pi*i*k/length) */
+                        double wRe = cos[k * stride];
+                        double wIm = -sin[k * stride];
+                        int a = start + k;
+                        int b = a + half;
+                        double tRe = (re[b] * wRe) - (im[b] * wIm);
+                        double tIm = (re[b] * wIm) + (im[b] * wRe);
+                        re[b] = re[a] - tRe;
+                        im[b] = im[a] - tIm;
+                        re[a] += tRe;
+                        im[a] += tIm;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Bluestein's algorithm, expressing a transform of any size as a convolution which is
+     * evaluated with a power of two transform.
+     */
+    private static final class Bluestein extends FourierTransform {
+        /** The power of two plan used for the convolution */
+        private final FourierTransform convolution;
+        /** The real components of the chirp e^(-&pi;ik&sup2;/n) */
+        private final double[] chirpRe;
+        /** The imaginary components of the chirp e^(-&pi;ik&sup2;/n) */
+        private final double[] chirpIm;
+        /** The real components of the transformed, conjugated and wrapped chirp */
+        private final double[] kernelRe;
+        /** The imaginary components of the transformed, conjugated and wrapped chirp */
+        private final double[] kernelIm;
+
+        private Bluestein (int size) {
+            super(size);
+            int padded = Integer.highestOneBit((2 * size) - 1) << 1;
+            this.convolution = new Radix2(padded);
+            this.chirpRe = new double[size];
+            this.chirpIm = new double[size];
+            /* The chirp angle pi*k^2/n is the (k^2 mod 2n)-th of the 2n-th roots of unity */
+            RootsOfUnity unity = RootsOfUnityCache.shared().get(2 * size);
+            for (int k = 0; k < size; k++) {
+                long index = (long) k * k;
+                chirpRe[k] = unity.cos(index);
+                chirpIm[k] = -unity.sin(index);
+            }
+            this.kernelRe = new double[padded];
+            this.kernelIm = new double[padded];
+            kernelRe[0] = chirpRe[0];
+            kernelIm[0] = -chirpIm[0];
+            for (int k = 1; k < size; k++) {
+                kernelRe[k] = kernelRe[padded - k] = chirpRe[k];
+                kernelIm[k] = kernelIm[padded - k] = -chirpIm[k];
+            }
+            convolution.transform(kernelRe, kernelIm);
+        }
+
+        @Override
+        protected void transform (double[] re, double[] im) {
+            int padded = convolution.size;
+            double[] aRe = new double[padded];
+            double[] aIm = new double[padded];
+            for (int k = 0; k < size; k++) {
+                aRe[k] = (re[k] * chirpRe[k]) - (im[k] * chirpIm[k]);
+                aIm[k] = (re[k] * chirpIm[k]) + (im[k] * chirpRe[k]);
+            }
+            convolution.transform(aRe, aIm);
+            for (int k = 0; k < padded; k++) {
+                double a = aRe[k], b = aIm[k];
+                aRe[k] = (a * kernelRe[k]) - (b * kernelIm[k]);
+                aIm[k] = (a * kernelIm[k]) + (b * kernelRe[k]);
+            }
+            convolution.inverse(aRe, aIm);
+            for (int k = 0; k < size; k++) {
+                re[k] = (aRe[k] * chirpRe[k]) - (aIm[k] * chirpIm[k]);
+                im[k] = (aRe[k] * chirpIm[k]) + (aIm[k] * chirpRe[k]);
+            }
+        }
+    }
+}
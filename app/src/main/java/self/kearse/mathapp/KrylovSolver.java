@@ -0,0 +1,539 @@
+package self.kearse.mathapp;
+
+import androidx.annotation.NonNull;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Solves large sparse complex linear systems <i>Ax = b</i> iteratively, by the restarted
+ * generalized minimal residual method, GMRES(<i>m</i>), or the stabilized biconjugate gradient
+ * method, BiCGSTAB, neither of which needs the matrix to be Hermitian.  Each iteration costs one
+ * or two products with the {@link SparseComplexMatrix}, which run in parallel on a
+ * {@link ForkJoinPool}, and a few passes over vectors held as primitive arrays.
+ * <p>
+ * Both methods are preconditioned from the right, solving <i>AM<sup>-1</sup>u = b</i> with
+ * <i>x = M<sup>-1</sup>u</i>, so that the residual they track is the residual of the original
+ * system.  A {@link Preconditioner} applies <i>M<sup>-1</sup></i>; {@link #jacobi} and
+ * {@link #ilu0} build the usual ones from the matrix.  Iteration stops when the residual norm
+ * relative to the norm of <i>b</i> falls within the tolerance, or at the iteration limit, and
+ * the {@link Result} reports the iterations taken and the final residual either way.
+ */
+public final class KrylovSolver {
+    /** The default limit on the number of iterations. */
+    public static final int DEFAULT_MAX_ITERATIONS = 1000;
+    /** The default tolerance on the residual norm, relative to the norm of the right hand side. */
+    public static final double DEFAULT_TOLERANCE = 1E-10;
+    /** The default number of iterations of GMRES between restarts. */
+    public static final int DEFAULT_RESTART = 30;
+
+    /** The preconditioner which applies the identity, leaving the system unchanged. */
+    public static final Preconditioner IDENTITY = new Preconditioner() {
+        @Override
+        public void apply (double[] re, double[] im, double[] resultRe, double[] resultIm) {
+            System.arraycopy(re, 0, resultRe, 0, re.length);
+            System.arraycopy(im, 0, resultIm, 0, im.length);
+        }
+    };
+
+    /** The limit on the number of iterations */
+    private final int maxIterations;
+    /** The tolerance on the relative residual norm */
+    private final double tolerance;
+    /** The pool performing the matrix-vector products */
+    private final ForkJoinPool pool;
+
+    /** Constructs a solver with the default limits, using the common pool. */
+    public KrylovSolver () {
+        this(DEFAULT_MAX_ITERATIONS, DEFAULT_TOLERANCE, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a solver with the given limits.
+     * @param maxIterations the limit on the number of iterations
+     * @param tolerance the tolerance on the residual norm, relative to the norm of the right
+     *                  hand side
+     * @param pool the pool to perform the matrix-vector products
+     * @throws IllegalArgumentException if maxIterations or tolerance is not positive
+     * @throws NullPointerException if pool is null
+     */
+    public KrylovSolver (int maxIterations, double tolerance, ForkJoinPool pool)
+            throws IllegalArgumentException, NullPointerException {
+        if (maxIterations < 1) {
+            throw new IllegalArgumentException("Iteration limit must be positive");
+        } else if (!(tolerance > 0d)) {
+            throw new IllegalArgumentException("Tolerance must be positive");
+        } else if (pool == null) {
+            throw new NullPointerException("Cannot use a null pool");
+        }
+        this.maxIterations = maxIterations;
+        this.tolerance = tolerance;
+        this.pool = pool;
+    }
+
+    /**
+     * Solves a system by GMRES(m), from an initial guess of zero.
+     * @see #gmres(SparseComplexMatrix, ComplexDoubleArray, ComplexDoubleArray, int, Preconditioner)
+     */
+    public Result gmres (SparseComplexMatrix matrix, ComplexDoubleArray b, int restart, Preconditioner preconditioner)
+            throws IllegalArgumentException, NullPointerException {
+        return gmres(matrix, b, new ComplexDoubleArray(b.length()), restart, preconditioner);
+    }
+
+    /**
+     * Solves a system by GMRES(m), which minimizes the residual over a Krylov subspace built up
+     * one matrix-vector product per iteration, and restarts from the current solution once the
+     * subspace has restart dimensions, bounding the memory to restart + 1 vectors.
+     * @param matrix the square matrix A
+     * @param b the right hand side
+     * @param initial the initial guess, which is not changed
+     * @param restart the number of iterations between restarts
+     * @param preconditioner the preconditioner, or {@link #IDENTITY}
+     * @return the result, with a new solution vector
+     * @throws IllegalArgumentException if the matrix is not square, the vectors have the wrong
+     *         length, or restart is not positive
+     * @throws NullPointerException if preconditioner is null
+     */
+    public Result gmres (SparseComplexMatrix matrix, ComplexDoubleArray b, ComplexDoubleArray initial, int restart,
+                         Preconditioner preconditioner) throws IllegalArgumentException, NullPointerException {
+        checkSystem(matrix, b, initial, preconditioner);
+        if (restart < 1) {
+            throw new IllegalArgumentException("Restart must be positive, was " + restart);
+        }
+        int n = b.length(), m = Math.min(restart, Math.max(n, 1));
+        double[] bRe = b.re(), bIm = b.im();
+        double[] xRe = initial.re().clone(), xIm = initial.im().clone();
+        double bNorm = norm(bRe, bIm);
+        if (bNorm == 0d) return new Result(new ComplexDoubleArray(n), 0, 0d, true);
+        double target = tolerance * bNorm;
+        /* The basis of the subspace, the Hessenberg matrix by columns, and the rotations */
+        double[][] vRe = new double[m + 1][n], vIm = new double[m + 1][n];
+        double[][] hRe = new double[m][m + 1], hIm = new double[m][m + 1];
+        double[] cosines = new double[m], sRe = new double[m], sIm = new double[m];
+        double[] gRe = new double[m + 1], gIm = new double[m + 1];
+        double[] zRe = new double[n], zIm = new double[n], dot = new double[2];
+        int iterations = 0;
+        double residual = residual(matrix, bRe, bIm, xRe, xIm, vRe[0], vIm[0]);
+        while ( (residual > target) && (iterations < maxIterations) ) {
+            scale(vRe[0], vIm[0], 1d / residual);
+            Arrays.fill(gRe, 0d);
+            Arrays.fill(gIm, 0d);
+            gRe[0] = residual;
+            int k = 0;
+            while ( (k < m) && (iterations < maxIterations) ) {
+                /* w = A M^-1 v_k, orthogonalized against the basis by modified Gram-Schmidt */
+                preconditioner.apply(vRe[k], vIm[k], zRe, zIm);
+                double[] wRe = vRe[k + 1], wIm = vIm[k + 1];
+                matrix.multiply(zRe, zIm, wRe, wIm, pool);
+                double[] columnRe = hRe[k], columnIm = hIm[k];
+                for (int i = 0; i <= k; i++) {
+                    dot(vRe[i], vIm[i], wRe, wIm, dot);
+                    columnRe[i] = dot[0];
+                    columnIm[i] = dot[1];
+                    axpy(-dot[0], -dot[1], vRe[i], vIm[i], wRe, wIm);
+                }
+                double wNorm = norm(wRe, wIm);
+                columnRe[k + 1] = wNorm;
+                columnIm[k + 1] = 0d;
+                if (wNorm > 0d) scale(wRe, wIm, 1d / wNorm);
+                /* Reduce the new column to triangular form with the rotations so far and a new one */
+                for (int i = 0; i < k; i++) {
+                    rotate(cosines[i], sRe[i], sIm[i], columnRe, columnIm, i);
+                }
+                givens(columnRe[k], columnIm[k], columnRe[k + 1], cosines, sRe, sIm, k);
+                rotate(cosines[k], sRe[k], sIm[k], columnRe, columnIm, k);
+                rotate(cosines[k], sRe[k], sIm[k], gRe, gIm, k);
+                k++;
+                iterations++;
+                residual = Math.hypot(gRe[k], gIm[k]);
+                /* A zero norm is a lucky breakdown: the subspace holds the solution */
+                if ( (residual <= target) || (wNorm == 0d) ) break;
+            }
+            /* Solve the triangular system Hy = g, and x += M^-1 V y */
+            for (int i = k - 1; i >= 0; i--) {
+                double yRe = gRe[i], yIm = gIm[i];
+                for (int j = i + 1; j < k; j++) {
+                    yRe -= (hRe[j][i] * gRe[j]) - (hIm[j][i] * gIm[j]);
+                    yIm -= (hRe[j][i] * gIm[j]) + (hIm[j][i] * gRe[j]);
+                }
+                double dRe = hRe[i][i], dIm = hIm[i][i], d2 = (dRe * dRe) + (dIm * dIm);
+                gRe[i] = ((yRe * dRe) + (yIm * dIm)) / d2;
+                gIm[i] = ((yIm * dRe) - (yRe * dIm)) / d2;
+            }
+            Arrays.fill(zRe, 0d);
+            Arrays.fill(zIm, 0d);
+            for (int i = 0; i < k; i++) axpy(gRe[i], gIm[i], vRe[i], vIm[i], zRe, zIm);
+            preconditioner.apply(zRe, zIm, vRe[1], vIm[1]);
+            axpy(1d, 0d, vRe[1], vIm[1], xRe, xIm);
+            /* The true residual, which also starts the next cycle */
+            residual = residual(matrix, bRe, bIm, xRe, xIm, vRe[0], vIm[0]);
+        }
+        return new Result(new ComplexDoubleArray(xRe, xIm), iterations, residual / bNorm, residual <= target);
+    }
+
+    /**
+     * Solves a system by BiCGSTAB, from an initial guess of zero.
+     * @see #bicgstab(SparseComplexMatrix, ComplexDoubleArray, ComplexDoubleArray, Preconditioner)
+     */
+    public Result bicgstab (SparseComplexMatrix matrix, ComplexDoubleArray b, Preconditioner preconditioner)
+            throws IllegalArgumentException, NullPointerException {
+        return bicgstab(matrix, b, new ComplexDoubleArray(b.length()), preconditioner);
+    }
+
+    /**
+     * Solves a system by BiCGSTAB, which uses two matrix-vector products per iteration and a
+     * fixed amount of memory, but does not minimize the residual, so that it may converge
+     * irregularly or break down where GMRES would not.  A breakdown ends the iteration early,
+     * with the result marked as not converged.
+     * @param matrix the square matrix A
+     * @param b the right hand side
+     * @param initial the initial guess, which is not changed
+     * @param preconditioner the preconditioner, or {@link #IDENTITY}
+     * @return the result, with a new solution vector
+     * @throws IllegalArgumentException if the matrix is not square or the vectors have the
+     *         wrong length
+     * @throws NullPointerException if preconditioner is null
+     */
+    public Result bicgstab (SparseComplexMatrix matrix, ComplexDoubleArray b, ComplexDoubleArray initial,
+                            Preconditioner preconditioner) throws IllegalArgumentException, NullPointerException {
+        checkSystem(matrix, b, initial, preconditioner);
+        int n = b.length();
+        double[] bRe = b.re(), bIm = b.im();
+        double[] xRe = initial.re().clone(), xIm = initial.im().clone();
+        double bNorm = norm(bRe, bIm);
+        if (bNorm == 0d) return new Result(new ComplexDoubleArray(n), 0, 0d, true);
+        double target = tolerance * bNorm;
+        double[] rRe = new double[n], rIm = new double[n];
+        double residual = residual(matrix, bRe, bIm, xRe, xIm, rRe, rIm);
+        double[] shadowRe = rRe.clone(), shadowIm = rIm.clone();
+        double[] pRe = new double[n], pIm = new double[n], vRe = new double[n], vIm = new double[n];
+        double[] hatRe = new double[n], hatIm = new double[n], tRe = new double[n], tIm = new double[n];
+        double[] dot = new double[2];
+        double rhoRe = 1d, rhoIm = 0d, alphaRe = 1d, alphaIm = 0d, omegaRe = 1d, omegaIm = 0d;
+        int iterations = 0;
+        while ( (residual > target) && (iterations < maxIterations) ) {
+            iterations++;
+            dot(shadowRe, shadowIm, rRe, rIm, dot);
+            double nextRhoRe = dot[0], nextRhoIm = dot[1];
+            if ( (nextRhoRe == 0d) && (nextRhoIm == 0d) ) break;
+            /* beta = (rho' / rho)(alpha / omega), then p = r + beta (p - omega v) */
+            double[] beta = divide((nextRhoRe * alphaRe) - (nextRhoIm * alphaIm),
+                    (nextRhoRe * alphaIm) + (nextRhoIm * alphaRe),
+                    (rhoRe * omegaRe) - (rhoIm * omegaIm), (rhoRe * omegaIm) + (rhoIm * omegaRe));
+            rhoRe = nextRhoRe;
+            rhoIm = nextRhoIm;
+            for (int i = 0; i < n; i++) {
+                double qRe = pRe[i] - ((omegaRe * vRe[i]) - (omegaIm * vIm[i]));
+                double qIm = pIm[i] - ((omegaRe * vIm[i]) + (omegaIm * vRe[i]));
+                pRe[i] = rRe[i] + ((beta[0] * qRe) - (beta[1] * qIm));
+                pIm[i] = rIm[i] + ((beta[0] * qIm) + (beta[1] * qRe));
+            }
+            /* v = A M^-1 p, alpha = rho / (shadow, v), s = r - alpha v, kept in r */
+            preconditioner.apply(pRe, pIm, hatRe, hatIm);
+            matrix.multiply(hatRe, hatIm, vRe, vIm, pool);
+            dot(shadowRe, shadowIm, vRe, vIm, dot);
+            if ( (dot[0] == 0d) && (dot[1] == 0d) ) break;
+            double[] alpha = divide(rhoRe, rhoIm, dot[0], dot[1]);
+            alphaRe = alpha[0];
+            alphaIm = alpha[1];
+            axpy(alphaRe, alphaIm, hatRe, hatIm, xRe, xIm);
+            axpy(-alphaRe, -alphaIm, vRe, vIm, rRe, rIm);
+            residual = norm(rRe, rIm);
+            if (residual <= target) break;
+            /* t = A M^-1 s, omega = (t, s) / (t, t), x += omega M^-1 s, r = s - omega t */
+            preconditioner.apply(rRe, rIm, hatRe, hatIm);
+            matrix.multiply(hatRe, hatIm, tRe, tIm, pool);
+            dot(tRe, tIm, rRe, rIm, dot);
+            double tNorm = norm(tRe, tIm);
+            if (tNorm == 0d) break;
+            omegaRe = dot[0] / (tNorm * tNorm);
+            omegaIm = dot[1] / (tNorm * tNorm);
+            axpy(omegaRe, omegaIm, hatRe, hatIm, xRe, xIm);
+            axpy(-omegaRe, -omegaIm, tRe, tIm, rRe, rIm);
+            residual = norm(rRe, rIm);
+            if ( (omegaRe == 0d) && (omegaIm == 0d) ) break;
+        }
+        /* The true residual, which the recurrence only approximates */
+        residual = residual(matrix, bRe, bIm, xRe, xIm, rRe, rIm);
+        return new Result(new ComplexDoubleArray(xRe, xIm), iterations, residual / bNorm, residual <= target);
+    }
+
+    /** Validates the arguments common to the solvers. */
+    private static void checkSystem (SparseComplexMatrix matrix, ComplexDoubleArray b, ComplexDoubleArray initial,
+                                     Preconditioner preconditioner) throws IllegalArgumentException, NullPointerException {
+        if (preconditioner == null) {
+            throw new NullPointerException("Cannot use a null preconditioner");
+        } else if (matrix.rows() != matrix.columns()) {
+            throw new IllegalArgumentException(String.format(
+                    "Cannot solve a %d x %d system", matrix.rows(), matrix.columns()));
+        } else if ( (b.length() != matrix.rows()) || (initial.length() != matrix.rows()) ) {
+            throw new IllegalArgumentException(String.format(
+                    "Vectors hold %d and %d values, %d required", b.length(), initial.length(), matrix.rows()));
+        }
+    }
+
+    /** Computes r = b - Ax, returning the norm of r. */
+    private double residual (SparseComplexMatrix matrix, double[] bRe, double[] bIm, double[] xRe, double[] xIm,
+                             double[] rRe, double[] rIm) {
+        matrix.multiply(xRe, xIm, rRe, rIm, pool);
+        for (int i = 0; i < rRe.length; i++) {
+            rRe[i] = bRe[i] - rRe[i];
+            rIm[i] = bIm[i] - rIm[i];
+        }
+        return norm(rRe, rIm);
+    }
+
+    /** Computes the inner product conj(a) . b into result. */
+    private static void dot (double[] aRe, double[] aIm, double[] bRe, double[] bIm, double[] result) {
+        double sumRe = 0d, sumIm = 0d;
+        for (int i = 0; i < aRe.length; i++) {
+            sumRe += (aRe[i] * bRe[i]) + (aIm[i] * bIm[i]);
+            sumIm += (aRe[i] * bIm[i]) - (aIm[i] * bRe[i]);
+        }
+        result[0] = sumRe;
+        result[1] = sumIm;
+    }
+
+    private static double norm (double[] re, double[] im) {
+        double sum = 0d;
+        for (int i = 0; i < re.length; i++) sum += (re[i] * re[i]) + (im[i] * im[i]);
+        return Math.sqrt(sum);
+    }
+
+    /** Computes y += ax for a complex scalar a. */
+    private static void axpy (double aRe, double aIm, double[] xRe, double[] xIm, double[] yRe, double[] yIm) {
+        for (int i = 0; i < xRe.length; i++) {
+            yRe[i] += (aRe * xRe[i]) - (aIm * xIm[i]);
+            yIm[i] += (aRe * xIm[i]) + (aIm * xRe[i]);
+        }
+    }
+
+    private static void scale (double[] re, double[] im, double factor) {
+        for (int i = 0; i < re.length; i++) {
+            re[i] *= factor;
+            im[i] *= factor;
+        }
+    }
+
+    /** Returns a new array holding the quotient of two complex numbers. */
+    private static double[] divide (double aRe, double aIm, double bRe, double bIm) {
+        double[] quotient = new double[2];
+        ComplexMatrix.divide(aRe, aIm, bRe, bIm, quotient);
+        return quotient;
+    }
+
+    /**
+     * Computes the rotation [[c, s], [-conj(s), c]] with real c which zeros b beneath a, storing
+     * it at index k.
+     */
+    private static void givens (double aRe, double aIm, double b, double[] cosines, double[] sRe, double[] sIm,
+                                int k) {
+        double aAbs = Math.hypot(aRe, aIm), r = Math.hypot(aAbs, b);
+        if (r == 0d) {
+            cosines[k] = 1d;
+            sRe[k] = 0d;
+            sIm[k] = 0d;
+        } else if (aAbs == 0d) {
+            cosines[k] = 0d;
+            sRe[k] = 1d;
+            sIm[k] = 0d;
+        } else {
+            /* s = (a / |a|) b / r, for real b */
+            cosines[k] = aAbs / r;
+            sRe[k] = (aRe / aAbs) * (b / r);
+            sIm[k] = (aIm / aAbs) * (b / r);
+        }
+    }
+
+    /** Applies a rotation to the elements i and i + 1 of a vector. */
+    private static void rotate (double c, double sRe, double sIm, double[] re, double[] im, int i) {
+        double xRe = re[i], xIm = im[i], yRe = re[i + 1], yIm = im[i + 1];
+        re[i] = (c * xRe) + (sRe * yRe) - (sIm * yIm);
+        im[i] = (c * xIm) + (sRe * yIm) + (sIm * yRe);
+        re[i + 1] = (c * yRe) - (sRe * xRe) - (sIm * xIm);
+        im[i + 1] = (c * yIm) - (sRe * xIm) + (sIm * xRe);
+    }
+
+    /**
+     * Builds the Jacobi preconditioner, which divides by the diagonal of the matrix.
+     * @param matrix a square matrix
+     * @return a new preconditioner
+     * @throws IllegalArgumentException if the matrix is not square
+     * @throws ArithmeticException if an element of the diagonal is zero
+     */
+    public static Preconditioner jacobi (SparseComplexMatrix matrix) throws IllegalArgumentException, ArithmeticException {
+        int n = checkSquare(matrix);
+        final double[] inverseRe = new double[n], inverseIm = new double[n];
+        double[] quotient = new double[2];
+        for (int i = 0; i < n; i++) {
+            int k = matrix.find(i, i);
+            double dRe = (k < 0) ? 0d : matrix.re()[k], dIm = (k < 0) ? 0d : matrix.im()[k];
+            if ( (dRe == 0d) && (dIm == 0d) ) {
+                throw new ArithmeticException("Diagonal element " + i + " is zero");
+            }
+            ComplexMatrix.divide(1d, 0d, dRe, dIm, quotient);
+            inverseRe[i] = quotient[0];
+            inverseIm[i] = quotient[1];
+        }
+        return new Preconditioner() {
+            @Override
+            public void apply (double[] re, double[] im, double[] resultRe, double[] resultIm) {
+                for (int i = 0; i < inverseRe.length; i++) {
+                    double a = re[i], b = im[i];
+                    resultRe[i] = (a * inverseRe[i]) - (b * inverseIm[i]);
+                    resultIm[i] = (a * inverseIm[i]) + (b * inverseRe[i]);
+                }
+            }
+        };
+    }
+
+    /**
+     * Builds the incomplete LU preconditioner with no fill, ILU(0), whose factors L and U keep
+     * exactly the sparsity pattern of the matrix, so that they take the same memory.  Applying
+     * it solves with both triangular factors, which is sequential.
+     * @param matrix a square matrix with every diagonal element stored
+     * @return a new preconditioner
+     * @throws IllegalArgumentException if the matrix is not square, or lacks a diagonal element
+     * @throws ArithmeticException if a pivot of the factorization is zero
+     */
+    public static Preconditioner ilu0 (SparseComplexMatrix matrix) throws IllegalArgumentException, ArithmeticException {
+        int n = checkSquare(matrix);
+        final int[] rowStart = matrix.rowStart(), columnIndex = matrix.columnIndex();
+        final double[] re = matrix.re().clone(), im = matrix.im().clone();
+        final int[] diagonal = new int[n];
+        for (int i = 0; i < n; i++) {
+            diagonal[i] = matrix.find(i, i);
+            if (diagonal[i] < 0) {
+                throw new IllegalArgumentException("Diagonal element " + i + " is not stored");
+            }
+        }
+        /* The position of each column in the current row, or -1 */
+        int[] position = new int[n];
+        Arrays.fill(position, -1);
+        double[] quotient = new double[2];
+        for (int i = 0; i < n; i++) {
+            for (int k = rowStart[i]; k < rowStart[i + 1]; k++) position[columnIndex[k]] = k;
+            for (int k = rowStart[i]; k < diagonal[i]; k++) {
+                /* l_ij = a_ij / u_jj, then row i -= l_ij row j, within the pattern */
+                int j = columnIndex[k], pivot = diagonal[j];
+                double pRe = re[pivot], pIm = im[pivot];
+                if ( (pRe == 0d) && (pIm == 0d) ) {
+                    throw new ArithmeticException("Pivot " + j + " is zero");
+                }
+                ComplexMatrix.divide(re[k], im[k], pRe, pIm, quotient);
+                double lRe = quotient[0], lIm = quotient[1];
+                re[k] = lRe;
+                im[k] = lIm;
+                for (int u = pivot + 1; u < rowStart[j + 1]; u++) {
+                    int target = position[columnIndex[u]];
+                    if (target < 0) continue;
+                    re[target] -= (lRe * re[u]) - (lIm * im[u]);
+                    im[target] -= (lRe * im[u]) + (lIm * re[u]);
+                }
+            }
+            for (int k = rowStart[i]; k < rowStart[i + 1]; k++) position[columnIndex[k]] = -1;
+        }
+        for (int i = 0; i < n; i++) {
+            if ( (re[diagonal[i]] == 0d) && (im[diagonal[i]] == 0d) ) {
+                throw new ArithmeticException("Pivot " + i + " is zero");
+            }
+        }
+        return new Preconditioner() {
+            @Override
+            public void apply (double[] bRe, double[] bIm, double[] resultRe, double[] resultIm) {
+                int n = diagonal.length;
+                double[] quotient = new double[2];
+                /* Forward with the unit lower factor, then back with the upper factor */
+                for (int i = 0; i < n; i++) {
+                    double sumRe = bRe[i], sumIm = bIm[i];
+                    for (int k = rowStart[i]; k < diagonal[i]; k++) {
+                        double xRe = resultRe[columnIndex[k]], xIm = resultIm[columnIndex[k]];
+                        sumRe -= (re[k] * xRe) - (im[k] * xIm);
+                        sumIm -= (re[k] * xIm) + (im[k] * xRe);
+                    }
+                    resultRe[i] = sumRe;
+                    resultIm[i] = sumIm;
+                }
+                for (int i = n - 1; i >= 0; i--) {
+                    double sumRe = resultRe[i], sumIm = resultIm[i];
+                    for (int k = diagonal[i] + 1; k < rowStart[i + 1]; k++) {
+                        double xRe = resultRe[columnIndex[k]], xIm = resultIm[columnIndex[k]];
+                        sumRe -= (re[k] * xRe) - (im[k] * xIm);
+                        sumIm -= (re[k] * xIm) + (im[k] * xRe);
+                    }
+                    ComplexMatrix.divide(sumRe, sumIm, re[diagonal[i]], im[diagonal[i]], quotient);
+                    resultRe[i] = quotient[0];
+                    resultIm[i] = quotient[1];
+                }
+            }
+        };
+    }
+
+    private static int checkSquare (SparseComplexMatrix matrix) throws IllegalArgumentException {
+        if (matrix.rows() != matrix.columns()) {
+            throw new IllegalArgumentException(String.format(
+                    "Cannot precondition a %d x %d matrix", matrix.rows(), matrix.columns()));
+        }
+        return matrix.rows();
+    }
+
+    /**
+     * Applies the inverse of a preconditioning matrix M, approximating the inverse of the
+     * system matrix cheaply.  Preconditioners keep no state between calls, so that one may
+     * serve several solves at once.
+     */
+    public interface Preconditioner {
+        /**
+         * Solves Mz = r.
+         * @param re the real components of r
+         * @param im the imaginary components of r
+         * @param resultRe the array to store the real components of z, which is not r
+         * @param resultIm the array to store the imaginary components of z, which is not r
+         */
+        void apply (double[] re, double[] im, double[] resultRe, double[] resultIm);
+    }
+
+    /**
+     * The outcome of a solve: the solution, and how it was reached.
+     */
+    public static final class Result {
+        private final ComplexDoubleArray solution;
+        private final int iterations;
+        private final double residual;
+        private final boolean converged;
+
+        private Result (ComplexDoubleArray solution, int iterations, double residual, boolean converged) {
+            this.solution = solution;
+            this.iterations = iterations;
+            this.residual = residual;
+            this.converged = converged;
+        }
+
+        /** Returns the solution, or the last approximation if the solve did not converge. */
+        public ComplexDoubleArray solution () {
+            return solution;
+        }
+
+        /** Returns the number of iterations taken. */
+        public int iterations () {
+            return iterations;
+        }
+
+        /** Returns the norm of the residual b - Ax of the solution, relative to the norm of b. */
+        public double residual () {
+            return residual;
+        }
+
+        /** Returns whether the relative residual is within the tolerance. */
+        public boolean converged () {
+            return converged;
+        }
+
+        @Override
+        @NonNull
+        public String toString () {
+            return String.format("%s after %d iterations, relative residual %s",
+                    converged ? "Converged" : "Not converged", iterations, residual);
+        }
+    }
+}
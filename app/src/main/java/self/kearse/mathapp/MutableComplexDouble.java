@@ -0,0 +1,333 @@
+package self.kearse.mathapp;
+
+import androidx.annotation.NonNull;
+
+/**
+ * A mutable complex accumulator backed by two primitive double fields, for iterative algorithms
+ * which would otherwise allocate a new {@link Complex} on every step.  The assigning operations
+ * update this in place and return this, so they may be chained, and {@link #snapshot()} copies
+ * the current value out to an immutable {@link ComplexDouble}.  Instances are not thread-safe.
+ */
+public final class MutableComplexDouble {
+    /** The current real component */
+    private double re;
+    /** The current imaginary component */
+    private double im;
+
+    /** Constructs a new accumulator with value zero. */
+    public MutableComplexDouble () {
+    }
+
+    /**
+     * Constructs a new accumulator with the given Cartesian components.
+     * @param re the initial real component
+     * @param im the initial imaginary component
+     */
+    public MutableComplexDouble (double re, double im) {
+        this.re = re;
+        this.im = im;
+    }
+
+    /** Returns the current real component. */
+    public double re () {
+        return re;
+    }
+
+    /** Returns the current imaginary component. */
+    public double im () {
+        return im;
+    }
+
+    /** Returns the modulus of the current value. */
+    public double abs () {
+        return Math.sqrt((re * re) + (im * im));
+    }
+
+    /** Returns the square of the modulus of the current value, avoiding the square root. */
+    public double abs2 () {
+        return (re * re) + (im * im);
+    }
+
+    /**
+     * Replaces the current value with the given Cartesian components.
+     * @param re the new real component
+     * @param im the new imaginary component
+     * @return this
+     */
+    public MutableComplexDouble set (double re, double im) {
+        this.re = re;
+        this.im = im;
+        return this;
+    }
+
+    /**
+     * Replaces the current value with the value of another accumulator.
+     * @param other another accumulator
+     * @return this
+     */
+    public MutableComplexDouble set (MutableComplexDouble other) {
+        return set(other.re, other.im);
+    }
+
+    /**
+     * Replaces the current value with the value of a Complex number.
+     * @param value a Complex number
+     * @return this
+     * @throws NullPointerException if value is null
+     */
+    public MutableComplexDouble set (Complex<? extends Number> value) throws NullPointerException {
+        if (value == null) {
+            throw new NullPointerException("Cannot assign a null reference");
+        } else if (value instanceof ComplexDouble) {
+            return set(((ComplexDouble) value).re(), ((ComplexDouble) value).im());
+        } else {
+            return set(value.real().doubleValue(), value.imaginary().doubleValue());
+        }
+    }
+
+    /**
+     * Adds the given Cartesian components to the current value.
+     * @param re the real component to add
+     * @param im the imaginary component to add
+     * @return this
+     */
+    public MutableComplexDouble addAssign (double re, double im) {
+        this.re += re;
+        this.im += im;
+        return this;
+    }
+
+    /**
+     * Adds the value of another accumulator to the current value.
+     * @param other another accumulator
+     * @return this
+     */
+    public MutableComplexDouble addAssign (MutableComplexDouble other) {
+        return addAssign(other.re, other.im);
+    }
+
+    /**
+     * Adds the value of a Complex number to the current value.
+     * @param other a Complex number
+     * @return this
+     * @throws NullPointerException if other is null
+     */
+    public MutableComplexDouble addAssign (Complex<? extends Number> other) throws NullPointerException {
+        if (other == null) {
+            throw new NullPointerException("Cannot add a null reference");
+        } else if (other instanceof ComplexDouble) {
+            return addAssign(((ComplexDouble) other).re(), ((ComplexDouble) other).im());
+        } else {
+            return addAssign(other.real().doubleValue(), other.imaginary().doubleValue());
+        }
+    }
+
+    /**
+     * Subtracts the given Cartesian components from the current value.
+     * @param re the real component to subtract
+     * @param im the imaginary component to subtract
+     * @return this
+     */
+    public MutableComplexDouble subAssign (double re, double im) {
+        this.re -= re;
+        this.im -= im;
+        return this;
+    }
+
+    /**
+     * Subtracts the value of another accumulator from the current value.
+     * @param other another accumulator
+     * @return this
+     */
+    public MutableComplexDouble subAssign (MutableComplexDouble other) {
+        return subAssign(other.re, other.im);
+    }
+
+    /**
+     * Subtracts the value of a Complex number from the current value.
+     * @param other a Complex number
+     * @return this
+     * @throws NullPointerException if other is null
+     */
+    public MutableComplexDouble subAssign (Complex<? extends Number> other) throws NullPointerException {
+        if (other == null) {
+            throw new NullPointerException("Cannot subtract a null reference");
+        } else if (other instanceof ComplexDouble) {
+            return subAssign(((ComplexDouble) other).re(), ((ComplexDouble) other).im());
+        } else {
+            return subAssign(other.real().doubleValue(), other.imaginary().doubleValue());
+        }
+    }
+
+    /**
+     * Multiplies the current value by the given Cartesian components.
+     * @param re the real component of the multiplier
+     * @param im the imaginary component of the multiplier
+     * @return this
+     */
+    public MutableComplexDouble mulAssign (double re, double im) {
+        double real = (this.re * re) - (this.im * im);
+        this.im = (this.re * im) + (this.im * re);
+        this.re = real;
+        return this;
+    }
+
+    /**
+     * Multiplies the current value by the value of another accumulator.
+     * @param other another accumulator, which may be this
+     * @return this
+     */
+    public MutableComplexDouble mulAssign (MutableComplexDouble other) {
+        return mulAssign(other.re, other.im);
+    }
+
+    /**
+     * Multiplies the current value by the value of a Complex number.
+     * @param other a Complex number
+     * @return this
+     * @throws NullPointerException if other is null
+     */
+    public MutableComplexDouble mulAssign (Complex<? extends Number> other) throws NullPointerException {
+        if (other == null) {
+            throw new NullPointerException("Cannot multiply a null reference");
+        } else if (other instanceof ComplexDouble) {
+            return mulAssign(((ComplexDouble) other).re(), ((ComplexDouble) other).im());
+        } else {
+            return mulAssign(other.real().doubleValue(), other.imaginary().doubleValue());
+        }
+    }
+
+    /**
+     * Multiplies the current value by a real scalar.
+     * @param factor the real scaling factor
+     * @return this
+     */
+    public MutableComplexDouble scaleAssign (double factor) {
+        this.re *= factor;
+        this.im *= factor;
+        return this;
+    }
+
+    /**
+     * Divides the current value by the given Cartesian components.
+     * @param re the real component of the denominator
+     * @param im the imaginary component of the denominator
+     * @return this
+     * @throws ArithmeticException if the denominator is zero
+     */
+    public MutableComplexDouble divAssign (double re, double im) throws ArithmeticException {
+        double abs2 = (re * re) + (im * im);
+        if (abs2 == 0d) {
+            throw new ArithmeticException("Attempted to divide by zero");
+        }
+        double real = ((this.re * re) + (this.im * im)) / abs2;
+        this.im = ((this.im * re) - (this.re * im)) / abs2;
+        this.re = real;
+        return this;
+    }
+
+    /**
+     * Divides the current value by the value of another accumulator.
+     * @param other another accumulator, which may be this
+     * @return this
+     * @throws ArithmeticException if other is zero
+     */
+    public MutableComplexDouble divAssign (MutableComplexDouble other) throws ArithmeticException {
+        return divAssign(other.re, other.im);
+    }
+
+    /**
+     * Divides the current value by the value of a Complex number.
+     * @param other a Complex number
+     * @return this
+     * @throws ArithmeticException if other is zero
+     * @throws NullPointerException if other is null
+     */
+    public MutableComplexDouble divAssign (Complex<? extends Number> other)
+            throws ArithmeticException, NullPointerException {
+        if (other == null) {
+            throw new NullPointerException("Cannot divide by a null reference");
+        } else if (other instanceof ComplexDouble) {
+            return divAssign(((ComplexDouble) other).re(), ((ComplexDouble) other).im());
+        } else {
+            return divAssign(other.real().doubleValue(), other.imaginary().doubleValue());
+        }
+    }
+
+    /**
+     * Fused multiply-add, replacing the current value <i>z</i> with <i>z*a+b</i>.  Evaluating a
+     * polynomial by Horner's method is a sequence of these steps.
+     * @param aRe the real component of the multiplier
+     * @param aIm the imaginary component of the multiplier
+     * @param bRe the real component of the addend
+     * @param bIm the imaginary component of the addend
+     * @return this
+     */
+    public MutableComplexDouble mulAddAssign (double aRe, double aIm, double bRe, double bIm) {
+        double real = (this.re * aRe) - (this.im * aIm) + bRe;
+        this.im = (this.re * aIm) + (this.im * aRe) + bIm;
+        this.re = real;
+        return this;
+    }
+
+    /**
+     * Fused multiply-add, replacing the current value <i>z</i> with <i>z*a+b</i>.
+     * @param a the multiplier, which may be this
+     * @param b the addend, which may be this
+     * @return this
+     */
+    public MutableComplexDouble mulAddAssign (MutableComplexDouble a, MutableComplexDouble b) {
+        return mulAddAssign(a.re, a.im, b.re, b.im);
+    }
+
+    /**
+     * Fused square-add, replacing the current value <i>z</i> with <i>z&sup2;+c</i>, the step of
+     * the Mandelbrot and Julia iterations.
+     * @param cRe the real component of the addend
+     * @param cIm the imaginary component of the addend
+     * @return this
+     */
+    public MutableComplexDouble squareAddAssign (double cRe, double cIm) {
+        double real = (this.re * this.re) - (this.im * this.im) + cRe;
+        this.im = (2d * this.re * this.im) + cIm;
+        this.re = real;
+        return this;
+    }
+
+    /**
+     * Replaces the current value with its complement.
+     * @return this
+     */
+    public MutableComplexDouble conjugate () {
+        this.im = -this.im;
+        return this;
+    }
+
+    /**
+     * Replaces the current value with its additive inverse.
+     * @return this
+     */
+    public MutableComplexDouble negate () {
+        this.re = -this.re;
+        this.im = -this.im;
+        return this;
+    }
+
+    /**
+     * Copies the current value to an immutable Complex number.
+     * @return a new ComplexDouble with the current value
+     */
+    public ComplexDouble snapshot () {
+        return new ComplexDouble(re, im);
+    }
+
+    /**
+     * Formats the current value for String output.
+     * @return "&lt;a&gt;+&lt;b&gt;i", such as "3.0+1.5i"
+     */
+    @Override
+    @NonNull
+    public String toString () {
+        return new StringBuilder(32).append(re).append('+').append(im).append('i').toString();
+    }
+}
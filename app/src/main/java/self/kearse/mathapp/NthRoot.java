@@ -0,0 +1,129 @@
+package self.kearse.mathapp;
+
+/**
+ * Computes <i>n</i>-th roots of real numbers with primitive arithmetic and a bounded amount of
+ * work.  Square and cube roots use {@link Math#sqrt(double)} and {@link Math#cbrt(double)}
+ * directly.  Other degrees seed a guess from the exponent/logarithm form and refine it with
+ * Newton's method (see
+ * <a href=https://en.wikipedia.org/wiki/Nth_root_algorithm>https://en.wikipedia.org/wiki/Nth_root_algorithm</a>)
+ * until a step moves the guess by no more than {@link #ULP_TOLERANCE} units in the last place,
+ * or {@link #MAX_ITERATIONS} steps have been taken.  Since the seed is already close and Newton's
+ * method converges quadratically, one or two steps usually suffice, and the bound is reached only
+ * when rounding makes the guesses alternate between neighbours.  Results are within one ulp of
+ * the true root.
+ */
+public final class NthRoot {
+    /** The greatest number of Newton steps taken for one root. */
+    public static final int MAX_ITERATIONS = 8;
+    /** The size of a Newton step, in ulps of the guess, which is considered converged. */
+    public static final double ULP_TOLERANCE = 1d;
+
+    private NthRoot () {
+    }
+
+    /**
+     * Computes the real <i>n</i>-th root of a real number.  Roots which are integers are returned
+     * exactly, such as 3 for the cube root of 27.
+     * @param value a real number
+     * @param degree the degree of the root, where a negative degree gives the reciprocal root
+     * @return the real root, negative for a negative value and odd degree, or NaN for a negative
+     *         value and even degree
+     * @throws IllegalArgumentException if degree is zero
+     */
+    public static double root (double value, int degree) throws IllegalArgumentException {
+        if (degree == 0) {
+            throw new IllegalArgumentException("Cannot take the root of degree zero");
+        } else if (degree < 0) {
+            /* Widen before negating, since -Integer.MIN_VALUE overflows */
+            return 1d / root(value, -(long) degree);
+        } else {
+            return root(value, (long) degree);
+        }
+    }
+
+    /**
+     * Computes the real <i>n</i>-th root of each of an array of real numbers.
+     * @param values the real numbers
+     * @param degree the degree of the roots
+     * @param destination an array at least as long as values, which may be values itself
+     * @return destination, holding the roots
+     * @throws IllegalArgumentException if degree is zero or destination is too short
+     */
+    public static double[] root (double[] values, int degree, double[] destination)
+            throws IllegalArgumentException {
+        if (degree == 0) {
+            throw new IllegalArgumentException("Cannot take the root of degree zero");
+        } else if (destination.length < values.length) {
+            throw new IllegalArgumentException(String.format(
+                    "Destination holds %d values, %d required", destination.length, values.length));
+        }
+        for (int i = 0; i < values.length; i++) {
+            destination[i] = root(values[i], degree);
+        }
+        return destination;
+    }
+
+    /**
+     * Computes the real <i>n</i>-th root of each of an array of real numbers.
+     * @param values the real numbers
+     * @param degree the degree of the roots
+     * @return a new array holding the roots
+     * @throws IllegalArgumentException if degree is zero
+     */
+    public static double[] root (double[] values, int degree) throws IllegalArgumentException {
+        return root(values, degree, new double[values.length]);
+    }
+
+    /**
+     * Computes the real root for a positive degree.
+     * @param value a real number
+     * @param degree the positive degree of the root
+     * @return the real root
+     */
+    private static double root (double value, long degree) {
+        if (degree == 1L) return value;
+        else if (degree == 2L) return Math.sqrt(value);
+        else if (degree == 3L) return Math.cbrt(value);
+        /* Short-circuit for zero, one, infinity and NaN */
+        if ( (value == 0d) || (value == 1d) || Double.isInfinite(value) || Double.isNaN(value) ) {
+            return (value < 0d) && ((degree & 1L) == 0L) ? Double.NaN : value;
+        }
+        if (value < 0d) {
+            return ((degree & 1L) == 0L) ? Double.NaN : -root(-value, degree);
+        }
+        double decDegree = 1d / degree;
+        double root = Math.exp(Math.log(value) * decDegree);
+        for (int i = 0; i < MAX_ITERATIONS; i++) {
+            /* Newton's step written as a small correction, r + r*(value/r^n - 1)/n, so that the
+             * rounding error of r^n is divided by n rather than added to the result.  Dividing
+             * by r before r^(n-1) keeps the intermediate values from overflowing. */
+            double ratio = (value / root) / power(root, degree - 1L);
+            double delta = root * (ratio - 1d) * decDegree;
+            root += delta;
+            if (Math.abs(delta) <= ULP_TOLERANCE * Math.ulp(root)) break;
+        }
+        /* Coerce root to integer when appropriate */
+        double integer = Math.rint(root);
+        if ( (integer != root) && (Math.abs(integer - root) <= ULP_TOLERANCE * Math.ulp(root))
+                && (power(integer, degree) == value) ) {
+            root = integer;
+        }
+        return root;
+    }
+
+    /**
+     * Raises a real number to a non-negative integer power by repeated squaring.
+     * @param base the real base
+     * @param exponent the non-negative exponent
+     * @return base<sup>exponent</sup>
+     */
+    static double power (double base, long exponent) {
+        double result = 1d;
+        while (exponent > 0L) {
+            if ((exponent & 1L) != 0L) result *= base;
+            exponent >>>= 1;
+            base *= base;
+        }
+        return result;
+    }
+}
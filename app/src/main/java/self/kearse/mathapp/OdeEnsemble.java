@@ -0,0 +1,437 @@
+package self.kearse.mathapp;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Runs an ensemble of independent integrations of one model, which differ only in their
+ * parameters or initial conditions, such as a parameter sweep.  The runs are numbered from zero,
+ * and the range of runs is split recursively between the threads of a {@link ForkJoinPool}, so
+ * threads which finish their cheap runs steal the remaining halves of expensive ranges.
+ * <p>
+ * Each worker thread creates its own system and {@link AdamsIntegrator} once per ensemble, and
+ * reuses them for every run it takes, so the runs themselves allocate nothing.  The workers are
+ * held only by the tasks of the ensemble, so they are released when it returns.  Trajectories are
+ * not kept: each run ends with its final state passed to a {@link Sink}, and any values wanted
+ * along the way may be collected by the event check of the model, which sees every step.  A run
+ * ends early when its event check says so, as when a trajectory escapes or crosses a threshold.
+ * <p>
+ * Complex models are integrated alike, with the state held as real and imaginary components; a
+ * {@link #sweep sweep} over complex coefficients gives the system of each run its coefficient
+ * from a list of {@link Complex} numbers, see {@link CoefficientModel#configure}.
+ */
+public final class OdeEnsemble {
+    /** The number of leaf ranges of runs per thread of the pool, to balance uneven runs. */
+    private static final int RANGES_PER_THREAD = 8;
+
+    /** The order of the integrators */
+    private final int order;
+    /** The pool running the integrations */
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructs an ensemble runner using the common pool.
+     * @param order the order of the integrators, from 1 to {@link AdamsIntegrator#MAX_ORDER}
+     * @throws IllegalArgumentException if order is out of range
+     */
+    public OdeEnsemble (int order) throws IllegalArgumentException {
+        this(order, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs an ensemble runner.
+     * @param order the order of the integrators, from 1 to {@link AdamsIntegrator#MAX_ORDER}
+     * @param pool the pool to run the integrations
+     * @throws NullPointerException if pool is null
+     * @throws IllegalArgumentException if order is out of range
+     */
+    public OdeEnsemble (int order, ForkJoinPool pool) throws NullPointerException, IllegalArgumentException {
+        if (pool == null) {
+            throw new NullPointerException("Cannot use a null pool");
+        } else if ( (order < 1) || (order > AdamsIntegrator.MAX_ORDER) ) {
+            throw new IllegalArgumentException(String.format(
+                    "Order must be from 1 to %d, was %d", AdamsIntegrator.MAX_ORDER, order));
+        }
+        this.order = order;
+        this.pool = pool;
+    }
+
+    /** Returns the order of the integrators. */
+    public int order () {
+        return order;
+    }
+
+    /**
+     * Runs an ensemble of a real model, waiting for every run to end.
+     * @param runs the number of runs
+     * @param model the model, which must be safe to call from every thread of the pool
+     * @param startTime the time at the start of each run
+     * @param stepSize the step size of each run
+     * @param steps the number of steps of each run which is not ended early by its event
+     * @param sink receives the final state of each run, from every thread of the pool
+     * @param <S> the type of the system
+     * @return the number of runs ended early by their event
+     * @throws NullPointerException if model or sink is null
+     * @throws IllegalArgumentException if runs or steps is negative, or stepSize is zero or not
+     *         finite
+     */
+    public <S extends OdeSystem> int run (int runs, final RealModel<S> model, final double startTime,
+                                          final double stepSize, long steps, Sink sink)
+            throws NullPointerException, IllegalArgumentException {
+        if (model == null) {
+            throw new NullPointerException("Cannot integrate a null model");
+        }
+        return execute(runs, steps, stepSize, sink, new Member() {
+            @Override
+            public Worker create () {
+                S system = model.createSystem();
+                return new Worker(system, new AdamsIntegrator(system, order), system.dimension());
+            }
+
+            @Override
+            public void start (int run, Worker worker) {
+                @SuppressWarnings("unchecked") S system = (S) worker.system;
+                model.configure(run, system, worker.re);
+                worker.integrator.start(startTime, worker.re, stepSize);
+            }
+
+            @Override
+            public boolean event (int run, AdamsIntegrator integrator) {
+                return model.event(run, integrator);
+            }
+        });
+    }
+
+    /**
+     * Runs an ensemble of a complex model, waiting for every run to end.
+     * @param runs the number of runs
+     * @param model the model, which must be safe to call from every thread of the pool
+     * @param startTime the time at the start of each run
+     * @param stepSize the step size of each run
+     * @param steps the number of steps of each run which is not ended early by its event
+     * @param sink receives the final state of each run, from every thread of the pool
+     * @param <S> the type of the system
+     * @return the number of runs ended early by their event
+     * @throws NullPointerException if model or sink is null
+     * @throws IllegalArgumentException if runs or steps is negative, or stepSize is zero or not
+     *         finite
+     */
+    public <S extends ComplexOdeSystem> int run (int runs, final ComplexModel<S> model,
+                                                 final double startTime, final double stepSize,
+                                                 long steps, Sink sink)
+            throws NullPointerException, IllegalArgumentException {
+        if (model == null) {
+            throw new NullPointerException("Cannot integrate a null model");
+        }
+        return execute(runs, steps, stepSize, sink, new Member() {
+            @Override
+            public Worker create () {
+                S system = model.createSystem();
+                return new Worker(system, new AdamsIntegrator(system, order), system.dimension());
+            }
+
+            @Override
+            public void start (int run, Worker worker) {
+                @SuppressWarnings("unchecked") S system = (S) worker.system;
+                model.configure(run, system, worker.re, worker.im);
+                worker.integrator.start(startTime, worker.re, worker.im, stepSize);
+            }
+
+            @Override
+            public boolean event (int run, AdamsIntegrator integrator) {
+                return model.event(run, integrator);
+            }
+        });
+    }
+
+    /**
+     * Runs an ensemble of a complex model over a list of complex coefficients, one run for each,
+     * waiting for every run to end.  The coefficients are converted to {@link ComplexDouble} once,
+     * before any run starts, so later changes to the list do not affect the ensemble.
+     * @param coefficients the coefficient of each run, in the order of the runs
+     * @param model the model, which must be safe to call from every thread of the pool
+     * @param startTime the time at the start of each run
+     * @param stepSize the step size of each run
+     * @param steps the number of steps of each run which is not ended early by its event
+     * @param sink receives the final state of each run, from every thread of the pool
+     * @param <S> the type of the system
+     * @return the number of runs ended early by their event
+     * @throws NullPointerException if coefficients, any coefficient, model or sink is null
+     * @throws IllegalArgumentException if steps is negative, or stepSize is zero or not finite
+     */
+    public <S extends ComplexOdeSystem> int sweep (List<? extends Complex<? extends Number>> coefficients,
+                                                   final CoefficientModel<S> model,
+                                                   double startTime, double stepSize, long steps,
+                                                   Sink sink)
+            throws NullPointerException, IllegalArgumentException {
+        if (coefficients == null) {
+            throw new NullPointerException("Cannot sweep a null list of coefficients");
+        } else if (model == null) {
+            throw new NullPointerException("Cannot integrate a null model");
+        }
+        final ComplexDouble[] values = new ComplexDouble[coefficients.size()];
+        int index = 0;
+        for (Complex<? extends Number> coefficient : coefficients) {
+            values[index++] = ComplexDouble.valueOf(coefficient);
+        }
+        return run(values.length, new ComplexModel<S>() {
+            @Override
+            public S createSystem () {
+                return model.createSystem();
+            }
+
+            @Override
+            public void configure (int run, S system, double[] re, double[] im) {
+                model.configure(run, values[run], system, re, im);
+            }
+
+            @Override
+            public boolean event (int run, AdamsIntegrator integrator) {
+                return model.event(run, integrator);
+            }
+        }, startTime, stepSize, steps, sink);
+    }
+
+    /** Validates the common arguments and runs the ensemble on the pool. */
+    private int execute (int runs, long steps, double stepSize, Sink sink, Member member)
+            throws NullPointerException, IllegalArgumentException {
+        if (sink == null) {
+            throw new NullPointerException("Cannot use a null sink");
+        } else if ( (runs < 0) || (steps < 0L) ) {
+            throw new IllegalArgumentException("Numbers of runs and steps cannot be negative");
+        } else if ( (stepSize == 0d) || Double.isNaN(stepSize) || Double.isInfinite(stepSize) ) {
+            throw new IllegalArgumentException("Step size must be finite and non-zero, was " + stepSize);
+        }
+        if (runs == 0) return 0;
+        int leaf = Math.max(1, runs / (pool.getParallelism() * RANGES_PER_THREAD));
+        /* One worker per thread for this ensemble, discarded with it: the pool numbers its
+         * threads below twice its parallelism, unless it adds threads to compensate for blocking,
+         * and the last worker is for this thread, which may run ranges while it waits */
+        int threads = (2 * pool.getParallelism()) + 1;
+        AtomicReferenceArray<Worker> workers = new AtomicReferenceArray<>(threads);
+        return pool.invoke(new Runs(pool, Thread.currentThread(), member, workers, sink, steps, leaf,
+                0, runs));
+    }
+
+    /**
+     * A model of real systems, giving each run its parameters and initial state.
+     * @param <S> the type of the system, which may hold parameters set for each run
+     */
+    public interface RealModel<S extends OdeSystem> {
+        /**
+         * Creates a system, once for each worker thread, to be reused for each run it takes.
+         * @return a new system
+         */
+        S createSystem ();
+
+        /**
+         * Prepares a run, setting the parameters of the system and the initial state.
+         * @param run the number of the run
+         * @param system the system of the worker thread
+         * @param initial the array to store the initial state in
+         */
+        void configure (int run, S system, double[] initial);
+
+        /**
+         * Checks a run for its ending event after each step.
+         * @param run the number of the run
+         * @param integrator the integrator of the run, holding the time and state
+         * @return true to end the run now
+         */
+        boolean event (int run, AdamsIntegrator integrator);
+    }
+
+    /**
+     * A model of complex systems, giving each run its parameters and initial state.
+     * @param <S> the type of the system, which may hold parameters set for each run
+     */
+    public interface ComplexModel<S extends ComplexOdeSystem> {
+        /**
+         * Creates a system, once for each worker thread, to be reused for each run it takes.
+         * @return a new system
+         */
+        S createSystem ();
+
+        /**
+         * Prepares a run, setting the parameters of the system and the initial state.
+         * @param run the number of the run
+         * @param system the system of the worker thread
+         * @param re the array to store the real components of the initial state in
+         * @param im the array to store the imaginary components of the initial state in
+         */
+        void configure (int run, S system, double[] re, double[] im);
+
+        /**
+         * Checks a run for its ending event after each step.
+         * @param run the number of the run
+         * @param integrator the integrator of the run, holding the time and state
+         * @return true to end the run now
+         */
+        boolean event (int run, AdamsIntegrator integrator);
+    }
+
+    /**
+     * A model of complex systems swept over complex coefficients, giving each run its coefficient,
+     * parameters and initial state.
+     * @param <S> the type of the system, which holds the coefficient set for each run
+     */
+    public interface CoefficientModel<S extends ComplexOdeSystem> {
+        /**
+         * Creates a system, once for each worker thread, to be reused for each run it takes.
+         * @return a new system
+         */
+        S createSystem ();
+
+        /**
+         * Prepares a run, setting the coefficient and other parameters of the system and the
+         * initial state.
+         * @param run the number of the run
+         * @param coefficient the coefficient of the run, from the list of the sweep
+         * @param system the system of the worker thread
+         * @param re the array to store the real components of the initial state in
+         * @param im the array to store the imaginary components of the initial state in
+         */
+        void configure (int run, ComplexDouble coefficient, S system, double[] re, double[] im);
+
+        /**
+         * Checks a run for its ending event after each step.
+         * @param run the number of the run
+         * @param integrator the integrator of the run, holding the time and state
+         * @return true to end the run now
+         */
+        boolean event (int run, AdamsIntegrator integrator);
+    }
+
+    /**
+     * Receives the results of the runs of an ensemble.  Runs end in no particular order, on any
+     * thread of the pool, so sinks must be thread-safe, as they are when each run stores its
+     * result at its own index of an array.
+     */
+    public interface Sink {
+        /**
+         * Called when a run ends.
+         * @param run the number of the run
+         * @param integrator the integrator of the run, holding the final time and state, which
+         *                   is reused once this returns
+         * @param ended true if the run was ended early by its event
+         */
+        void accept (int run, AdamsIntegrator integrator, boolean ended);
+    }
+
+    /**
+     * The state reused by one worker thread for each of its runs.
+     */
+    private static final class Worker {
+        final Object system;
+        final AdamsIntegrator integrator;
+        /** The initial state, or its real components */
+        final double[] re;
+        /** The imaginary components of the initial state */
+        final double[] im;
+
+        Worker (Object system, AdamsIntegrator integrator, int dimension) {
+            this.system = system;
+            this.integrator = integrator;
+            this.re = new double[dimension];
+            this.im = integrator.isComplex() ? new double[dimension] : null;
+        }
+    }
+
+    /**
+     * Adapts a real or complex model to the runs.
+     */
+    private interface Member {
+        Worker create ();
+
+        void start (int run, Worker worker);
+
+        boolean event (int run, AdamsIntegrator integrator);
+    }
+
+    /**
+     * A range of runs, split in halves until ranges of at most the leaf size remain.
+     */
+    private static final class Runs extends RecursiveTask<Integer> {
+        private static final long serialVersionUID = 1L;
+
+        private final ForkJoinPool pool;
+        /** The thread which invoked the ensemble */
+        private final Thread caller;
+        private final Member member;
+        /** The worker of each thread of the pool, by its index number, then of the caller */
+        private final AtomicReferenceArray<Worker> workers;
+        private final Sink sink;
+        private final long steps;
+        private final int leaf;
+        private final int from;
+        private final int to;
+
+        Runs (ForkJoinPool pool, Thread caller, Member member, AtomicReferenceArray<Worker> workers, Sink sink,
+              long steps, int leaf, int from, int to) {
+            this.pool = pool;
+            this.caller = caller;
+            this.member = member;
+            this.workers = workers;
+            this.sink = sink;
+            this.steps = steps;
+            this.leaf = leaf;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Integer compute () {
+            if (to - from <= leaf) return integrate();
+            int middle = (from + to) >>> 1;
+            Runs second = new Runs(pool, caller, member, workers, sink, steps, leaf, middle, to);
+            second.fork();
+            int ended = new Runs(pool, caller, member, workers, sink, steps, leaf, from, middle).compute();
+            return ended + second.join();
+        }
+
+        /** Integrates each run of the range with the worker of this thread. */
+        private int integrate () {
+            Worker worker = worker();
+            AdamsIntegrator integrator = worker.integrator;
+            int ended = 0;
+            for (int run = from; run < to; run++) {
+                member.start(run, worker);
+                boolean early = false;
+                for (long k = 0L; (k < steps) && !early; k++) {
+                    integrator.step();
+                    early = member.event(run, integrator);
+                }
+                if (early) ended++;
+                sink.accept(run, integrator, early);
+            }
+            return ended;
+        }
+
+        /**
+         * Returns the worker of this thread, creating it on first use.  Any other thread, such as
+         * one the pool numbers beyond the workers, gets a worker for this range alone.
+         */
+        private Worker worker () {
+            Thread thread = Thread.currentThread();
+            /* The last worker is the caller's, the others are the pool's */
+            int index = -1, last = workers.length() - 1;
+            if (thread == caller) {
+                index = last;
+            } else if ( (thread instanceof ForkJoinWorkerThread)
+                    && (((ForkJoinWorkerThread) thread).getPool() == pool) ) {
+                index = ((ForkJoinWorkerThread) thread).getPoolIndex();
+                if (index >= last) index = -1;
+            }
+            if (index < 0) return member.create();
+            Worker worker = workers.get(index);
+            if (worker == null) {
+                worker = member.create();
+                workers.set(index, worker);
+            }
+            return worker;
+        }
+    }
+}
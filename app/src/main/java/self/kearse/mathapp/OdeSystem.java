@@ -0,0 +1,20 @@
+package self.kearse.mathapp;
+
+/**
+ * A system of first order ordinary differential equations <i>y'</i>&nbsp;=&nbsp;<i>f(t,&nbsp;y)</i>
+ * in real variables, for integration by {@link AdamsIntegrator}.  The state is a primitive array,
+ * so that computing a derivative need allocate nothing.
+ */
+public interface OdeSystem {
+    /** Returns the number of variables in the state. */
+    int dimension ();
+
+    /**
+     * Computes the derivative of the state, writing every component of the result.
+     * Implementations should not keep references to either array, which are reused.
+     * @param t the time
+     * @param y the state, which must not be modified
+     * @param dydt the array to store the derivative in
+     */
+    void derivative (double t, double[] y, double[] dydt);
+}
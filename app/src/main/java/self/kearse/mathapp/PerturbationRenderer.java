@@ -0,0 +1,170 @@
+package self.kearse.mathapp;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Renders deep zooms of the Mandelbrot set, beyond the roughly 1E-13 pixel size at which double
+ * precision coordinates run out of digits, by perturbation theory.  A single reference orbit
+ * <i>Z<sub>n</sub></i> of the reference point <i>C</i> is computed once, at arbitrary precision
+ * with {@link ComplexBigDecimal}, and stored in double precision.  Every pixel
+ * <i>c&nbsp;=&nbsp;C&nbsp;+&nbsp;&delta;c</i> then iterates only its small difference
+ * <i>&delta;<sub>n</sub>&nbsp;=&nbsp;z<sub>n</sub>&nbsp;-&nbsp;Z<sub>n</sub></i> from the
+ * reference, in double precision, by
+ * <i>&delta;<sub>n+1</sub>&nbsp;=&nbsp;(2Z<sub>n</sub>&nbsp;+&nbsp;&delta;<sub>n</sub>)&delta;<sub>n</sub>&nbsp;+&nbsp;&delta;c</i>.
+ * <p>
+ * The difference loses its precision, which shows as glitches, when the pixel orbit
+ * <i>Z<sub>n</sub>&nbsp;+&nbsp;&delta;<sub>n</sub></i> comes closer to zero than the difference
+ * itself.  Each step detects this, and rebases the pixel onto the start of the reference orbit
+ * by taking the pixel orbit as its new difference from <i>Z<sub>0</sub>&nbsp;=&nbsp;0</i>, which
+ * is exact.  Pixels which outlast an escaping reference orbit are rebased the same way, so one
+ * reference serves the whole view.
+ * <p>
+ * Viewports given to this renderer are relative to the reference point: their centre and pixel
+ * coordinates are the offsets <i>&delta;c</i>, so that panning and zooming keep full precision.
+ * Pixel sizes down to about 1E-290 are supported, the limit of the double exponent range.
+ */
+public final class PerturbationRenderer extends PlaneRenderer {
+    /** The number of decimal digits of precision beyond those of the pixel size. */
+    public static final int GUARD_DIGITS = 10;
+
+    /** The reference point */
+    private final ComplexBigDecimal reference;
+    /** The iteration limit */
+    private final int maxIterations;
+    /** The real components of the reference orbit, from Z<sub>0</sub> = 0 */
+    private final double[] orbitRe;
+    /** The imaginary components of the reference orbit */
+    private final double[] orbitIm;
+    /** The colours of the iteration counts, or null to render the counts themselves */
+    private final EscapeTimeRenderer.Palette palette;
+
+    /**
+     * Constructs a renderer about a reference point, writing iteration counts, using the common
+     * pool.
+     * @param reference the reference point, with the precision for its orbit
+     * @param maxIterations the iteration limit
+     * @throws NullPointerException if reference is null
+     * @throws IllegalArgumentException if maxIterations is not positive
+     */
+    public PerturbationRenderer (ComplexBigDecimal reference, int maxIterations)
+            throws NullPointerException, IllegalArgumentException {
+        this(reference, maxIterations, null, ForkJoinPool.commonPool(), DEFAULT_TILE_SIZE);
+    }
+
+    /**
+     * Constructs a renderer about a reference point, computing its reference orbit at the
+     * precision of its context.
+     * @param reference the reference point, with the precision for its orbit, see
+     *                  {@link #contextFor(double)}
+     * @param maxIterations the iteration limit
+     * @param palette the colours of the iteration counts, or null to render the counts themselves
+     * @param pool the pool to render the tiles
+     * @param tileSize the edge length of a tile, in pixels
+     * @throws NullPointerException if reference or pool is null
+     * @throws IllegalArgumentException if maxIterations or tileSize is not positive
+     */
+    public PerturbationRenderer (ComplexBigDecimal reference, int maxIterations,
+                                 EscapeTimeRenderer.Palette palette, ForkJoinPool pool, int tileSize)
+            throws NullPointerException, IllegalArgumentException {
+        super(pool, tileSize);
+        if (reference == null) {
+            throw new NullPointerException("Cannot use a null reference point");
+        } else if (maxIterations < 1) {
+            throw new IllegalArgumentException("Iteration limit must be positive");
+        }
+        this.reference = reference;
+        this.maxIterations = maxIterations;
+        this.palette = palette;
+        /* Iterate until the reference escapes, keeping the escaping value */
+        double[] re = new double[maxIterations + 1], im = new double[maxIterations + 1];
+        ComplexBigDecimal z = new ComplexBigDecimal(BigDecimal.ZERO, BigDecimal.ZERO,
+                reference.context());
+        int length = 1;
+        while (length <= maxIterations) {
+            z = z.squareAdd(reference);
+            double zRe = z.real().doubleValue(), zIm = z.imaginary().doubleValue();
+            re[length] = zRe;
+            im[length] = zIm;
+            length++;
+            if ( (zRe * zRe) + (zIm * zIm) > EscapeTimeRenderer.ESCAPE_RADIUS_SQUARED ) break;
+        }
+        this.orbitRe = Arrays.copyOf(re, length);
+        this.orbitIm = Arrays.copyOf(im, length);
+    }
+
+    /**
+     * Chooses a precision for the reference orbit of a zoom.
+     * @param pixelSize the smallest pixel size to be rendered
+     * @return a context with {@link #GUARD_DIGITS} more digits than the pixel size needs, and at
+     *         least those of a double
+     */
+    public static MathContext contextFor (double pixelSize) {
+        int digits = (int) Math.ceil(-Math.log10(pixelSize)) + GUARD_DIGITS;
+        return new MathContext(Math.max(17, digits));
+    }
+
+    /** Returns the reference point. */
+    public ComplexBigDecimal reference () {
+        return reference;
+    }
+
+    /** Returns the iteration limit, which is also the count of points which never escape. */
+    public int maxIterations () {
+        return maxIterations;
+    }
+
+    /** Returns the number of iterations before the reference orbit escapes, or the limit. */
+    public int referenceIterations () {
+        return orbitRe.length - 1;
+    }
+
+    @Override
+    protected void renderTile (Viewport viewport, int[] destination,
+                               int x0, int y0, int x1, int y1, Render render) {
+        int width = viewport.width();
+        for (int y = y0; y < y1; y++) {
+            if (render.isCancelled()) return;
+            double dcIm = viewport.im(y);
+            int offset = y * width;
+            for (int x = x0; x < x1; x++) {
+                int count = iterate(viewport.re(x), dcIm);
+                destination[offset + x] = (palette == null) ? count : palette.color(count, maxIterations);
+            }
+        }
+    }
+
+    /**
+     * Counts the iterations taken by the orbit of a pixel to escape, with the same counting as
+     * {@link EscapeTimeRenderer}.
+     * @param dcRe the real offset of the pixel from the reference point
+     * @param dcIm the imaginary offset of the pixel from the reference point
+     * @return the number of iterations, or {@link #maxIterations} if the pixel never escapes
+     */
+    int iterate (double dcRe, double dcIm) {
+        double[] orbitRe = this.orbitRe, orbitIm = this.orbitIm;
+        int last = orbitRe.length - 1;
+        double dRe = 0d, dIm = 0d;
+        int m = 0;
+        for (int n = 1; n < maxIterations; n++) {
+            /* delta <- (2Z + delta) * delta + dc */
+            double tRe = (2d * orbitRe[m]) + dRe, tIm = (2d * orbitIm[m]) + dIm;
+            double nRe = (tRe * dRe) - (tIm * dIm) + dcRe;
+            dIm = (tRe * dIm) + (tIm * dRe) + dcIm;
+            dRe = nRe;
+            m++;
+            double zRe = orbitRe[m] + dRe, zIm = orbitIm[m] + dIm;
+            double z2 = (zRe * zRe) + (zIm * zIm);
+            if (z2 > EscapeTimeRenderer.ESCAPE_RADIUS_SQUARED) return n;
+            if ( (z2 < (dRe * dRe) + (dIm * dIm)) || (m == last) ) {
+                /* Rebase: the pixel orbit is its own difference from Z0 = 0 */
+                dRe = zRe;
+                dIm = zIm;
+                m = 0;
+            }
+        }
+        return maxIterations;
+    }
+}
@@ -0,0 +1,171 @@
+package self.kearse.mathapp;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Renders a value for every pixel of a {@link Viewport} into an int[] buffer in row-major order,
+ * such as an iteration count or an ARGB colour.  The view is divided into square tiles, and the
+ * range of tiles is split recursively between the threads of a {@link ForkJoinPool}, so threads
+ * which finish their cheap tiles steal the remaining halves of expensive ranges.  A render runs
+ * in the background and may be cancelled, which stops it at the next row of each tile in
+ * progress, leaving the pixels rendered so far in the buffer.
+ * <p>
+ * Subclasses compute the pixels of one tile at a time, and are expected to be immutable so that
+ * any number of renders may run at once.
+ */
+public abstract class PlaneRenderer {
+    /** The default edge length of a tile, in pixels. */
+    public static final int DEFAULT_TILE_SIZE = 32;
+
+    /** The pool rendering the tiles */
+    protected final ForkJoinPool pool;
+    /** The edge length of a tile, in pixels */
+    protected final int tileSize;
+
+    /**
+     * Constructs the common state of a renderer.
+     * @param pool the pool to render the tiles
+     * @param tileSize the edge length of a tile, in pixels
+     * @throws NullPointerException if pool is null
+     * @throws IllegalArgumentException if tileSize is not positive
+     */
+    protected PlaneRenderer (ForkJoinPool pool, int tileSize)
+            throws NullPointerException, IllegalArgumentException {
+        if (pool == null) {
+            throw new NullPointerException("Cannot use a null pool");
+        } else if (tileSize < 1) {
+            throw new IllegalArgumentException("Tile size must be positive, was " + tileSize);
+        }
+        this.pool = pool;
+        this.tileSize = tileSize;
+    }
+
+    /**
+     * Renders a view, waiting for the render to complete.
+     * @param viewport the view to render
+     * @param destination a buffer of at least width*height pixels, in row-major order
+     * @return destination
+     * @throws IllegalArgumentException if the view has more pixels than an array can hold, or
+     *         destination is too short
+     */
+    public int[] render (Viewport viewport, int[] destination) throws IllegalArgumentException {
+        start(viewport, destination).await();
+        return destination;
+    }
+
+    /**
+     * Starts rendering a view in the background.
+     * @param viewport the view to render
+     * @param destination a buffer of at least width*height pixels, in row-major order, which
+     *                    should not be read until the render is done
+     * @return the handle of the render, to wait for or cancel it
+     * @throws IllegalArgumentException if the view has more pixels than an array can hold, or
+     *         destination is too short
+     */
+    public Render start (Viewport viewport, int[] destination) throws IllegalArgumentException {
+        long pixels = (long) viewport.width() * viewport.height();
+        if (pixels > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(String.format(
+                    "View of %dx%d pixels is too large", viewport.width(), viewport.height()));
+        } else if (destination.length < pixels) {
+            throw new IllegalArgumentException(String.format(
+                    "Destination holds %d pixels, %d required", destination.length, pixels));
+        }
+        int columns = ((viewport.width() - 1) / tileSize) + 1;
+        int rows = ((viewport.height() - 1) / tileSize) + 1;
+        Render render = new Render();
+        render.task = new Tiles(render, viewport, destination, columns, 0, columns * rows);
+        pool.execute(render.task);
+        return render;
+    }
+
+    /**
+     * Renders the pixels of one tile.  Implementations should return early once the render is
+     * cancelled, checking at least once per row.
+     * @param viewport the view being rendered
+     * @param destination the buffer of the whole view, in row-major order
+     * @param x0 the first column of the tile, inclusive
+     * @param y0 the first row of the tile, inclusive
+     * @param x1 the last column of the tile, exclusive
+     * @param y1 the last row of the tile, exclusive
+     * @param render the render in progress
+     */
+    protected abstract void renderTile (Viewport viewport, int[] destination,
+                                        int x0, int y0, int x1, int y1, Render render);
+
+    /**
+     * The handle of a render in progress.
+     */
+    public static final class Render {
+        /** Set when the render is cancelled, and read by every tile */
+        private volatile boolean cancelled;
+        /** The root task of the render */
+        private Tiles task;
+
+        private Render () {
+        }
+
+        /** Cancels the render.  Tiles in progress stop at their next row. */
+        public void cancel () {
+            cancelled = true;
+        }
+
+        /** Returns whether the render has been cancelled. */
+        public boolean isCancelled () {
+            return cancelled;
+        }
+
+        /** Returns whether every tile has finished or stopped. */
+        public boolean isDone () {
+            return task.isDone();
+        }
+
+        /**
+         * Waits for every tile to finish or stop.
+         * @return true if the render completed without being cancelled
+         */
+        public boolean await () {
+            task.join();
+            return !cancelled;
+        }
+    }
+
+    /**
+     * A range of tiles, numbered in row-major order, split in halves until single tiles remain.
+     */
+    private final class Tiles extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Render render;
+        private final Viewport viewport;
+        private final int[] destination;
+        private final int columns;
+        private final int from;
+        private final int to;
+
+        Tiles (Render render, Viewport viewport, int[] destination, int columns, int from, int to) {
+            this.render = render;
+            this.viewport = viewport;
+            this.destination = destination;
+            this.columns = columns;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute () {
+            if (render.cancelled) return;
+            if (to - from == 1) {
+                int x0 = (from % columns) * tileSize, y0 = (from / columns) * tileSize;
+                renderTile(viewport, destination, x0, y0,
+                        Math.min(x0 + tileSize, viewport.width()),
+                        Math.min(y0 + tileSize, viewport.height()), render);
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Tiles(render, viewport, destination, columns, from, middle),
+                        new Tiles(render, viewport, destination, columns, middle, to));
+            }
+        }
+    }
+}
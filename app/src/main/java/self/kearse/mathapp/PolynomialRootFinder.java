@@ -0,0 +1,298 @@
+package self.kearse.mathapp;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Finds all roots of a polynomial with complex coefficients by the Aberth-Ehrlich method, which
+ * refines approximations of every root simultaneously.  The update of each root within an
+ * iteration depends only on the approximations from the previous iteration, so the updates are
+ * divided between the threads of a {@link ForkJoinPool}.  Each root is tracked separately, and
+ * once its correction falls within the tolerance it is no longer updated, while still taking part
+ * in the updates of the remaining roots.
+ * <p>
+ * Coefficients are given in ascending order of power, so index <i>k</i> holds the coefficient
+ * of <i>z<sup>k</sup></i>.
+ */
+public final class PolynomialRootFinder {
+    /** The default limit on the number of iterations. */
+    public static final int DEFAULT_MAX_ITERATIONS = 500;
+    /** The default relative tolerance on the correction of each root. */
+    public static final double DEFAULT_TOLERANCE = 1E-14;
+    /** The number of roots below which an update is computed without forking. */
+    private static final int SEQUENTIAL_THRESHOLD = 64;
+
+    /** The limit on the number of iterations */
+    private final int maxIterations;
+    /** The relative tolerance on the correction of each root */
+    private final double tolerance;
+    /** The pool performing the per-root updates */
+    private final ForkJoinPool pool;
+
+    /** Constructs a root finder with the default limits, using the common pool. */
+    public PolynomialRootFinder () {
+        this(DEFAULT_MAX_ITERATIONS, DEFAULT_TOLERANCE, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a root finder with the given limits.
+     * @param maxIterations the limit on the number of iterations
+     * @param tolerance the relative tolerance on the correction of each root
+     * @param pool the pool to perform the per-root updates
+     * @throws IllegalArgumentException if maxIterations or tolerance is not positive
+     * @throws NullPointerException if pool is null
+     */
+    public PolynomialRootFinder (int maxIterations, double tolerance, ForkJoinPool pool)
+            throws IllegalArgumentException, NullPointerException {
+        if (maxIterations < 1) {
+            throw new IllegalArgumentException("Iteration limit must be positive");
+        } else if (!(tolerance > 0d)) {
+            throw new IllegalArgumentException("Tolerance must be positive");
+        } else if (pool == null) {
+            throw new NullPointerException("Cannot use a null pool");
+        }
+        this.maxIterations = maxIterations;
+        this.tolerance = tolerance;
+        this.pool = pool;
+    }
+
+    /**
+     * Finds the roots of the polynomial with the given coefficients.
+     * @param coefficients the coefficients, in ascending order of power
+     * @return a new List with one root per degree of the polynomial, repeated by multiplicity
+     * @throws IllegalArgumentException if every coefficient is zero
+     * @throws NullPointerException if coefficients or any of its elements are null
+     */
+    public List<Complex<Double>> solve (List<? extends Complex<? extends Number>> coefficients)
+            throws IllegalArgumentException, NullPointerException {
+        return solve(ComplexDoubleArray.fromList(coefficients)).toList();
+    }
+
+    /**
+     * Finds the roots of the polynomial with the given coefficients.  Roots which have not
+     * converged within the iteration limit are returned at their last approximation.
+     * @param coefficients the coefficients, in ascending order of power
+     * @return a new buffer with one root per degree of the polynomial, repeated by multiplicity
+     * @throws IllegalArgumentException if every coefficient is zero
+     */
+    public ComplexDoubleArray solve (ComplexDoubleArray coefficients) throws IllegalArgumentException {
+        double[] cRe = coefficients.re(), cIm = coefficients.im();
+        int degree = coefficients.length() - 1;
+        while ( (degree >= 0) && (cRe[degree] == 0d) && (cIm[degree] == 0d) ) {
+            degree--;
+        }
+        if (degree < 0) {
+            throw new IllegalArgumentException("Every coefficient is zero");
+        }
+        /* Normalize to a monic polynomial */
+        double[] aRe = new double[degree + 1], aIm = new double[degree + 1];
+        double leadAbs2 = (cRe[degree] * cRe[degree]) + (cIm[degree] * cIm[degree]);
+        for (int k = 0; k <= degree; k++) {
+            aRe[k] = ((cRe[k] * cRe[degree]) + (cIm[k] * cIm[degree])) / leadAbs2;
+            aIm[k] = ((cIm[k] * cRe[degree]) - (cRe[k] * cIm[degree])) / leadAbs2;
+        }
+        ComplexDoubleArray roots = initialGuesses(aRe, aIm, degree);
+        if (degree == 0) return roots;
+
+        Iteration iteration = new Iteration(aRe, aIm, roots.re(), roots.im());
+        for (int i = 0; (i < maxIterations) && (iteration.active > 0); i++) {
+            iteration.step();
+        }
+        System.arraycopy(iteration.re, 0, roots.re(), 0, degree);
+        System.arraycopy(iteration.im, 0, roots.im(), 0, degree);
+        return roots;
+    }
+
+    /**
+     * Places the initial approximations evenly on a circle.  The radius is the geometric mean of
+     * the moduli of the roots, |a<sub>0</sub>|<sup>1/n</sup>, clamped within the Cauchy bounds on
+     * the moduli of the roots, and the circle is rotated off the real axis so that conjugate
+     * pairs are not started in a symmetric deadlock.
+     * @param aRe the real components of the monic coefficients
+     * @param aIm the imaginary components of the monic coefficients
+     * @param degree the degree of the polynomial
+     * @return a new buffer with the initial approximations
+     */
+    private static ComplexDoubleArray initialGuesses (double[] aRe, double[] aIm, int degree) {
+        ComplexDoubleArray guesses = new ComplexDoubleArray(degree);
+        if (degree == 0) return guesses;
+        double a0 = Math.hypot(aRe[0], aIm[0]);
+        /* The largest modulus of the middle coefficients, 0 < k < n */
+        double middle = 0d;
+        for (int k = 1; k < degree; k++) {
+            middle = Math.max(middle, Math.hypot(aRe[k], aIm[k]));
+        }
+        /* Cauchy's bounds, with the monic leading coefficient of modulus one */
+        double upper = 1d + Math.max(middle, a0);
+        double lower = a0 / (a0 + Math.max(middle, 1d));
+        double radius = (a0 == 0d) ? (upper / 2d) : Math.pow(a0, 1d / degree);
+        radius = Math.min(upper, Math.max(lower, radius));
+        double offset = Math.PI / (2d * degree);
+        for (int k = 0; k < degree; k++) {
+            double angle = ((2d * Math.PI * k) / degree) + offset;
+            guesses.set(k, radius * Math.cos(angle), radius * Math.sin(angle));
+        }
+        return guesses;
+    }
+
+    /**
+     * The state of the simultaneous iteration: the current approximations, the next
+     * approximations being computed, and which roots have converged.
+     */
+    private final class Iteration {
+        final double[] aRe, aIm;
+        double[] re, im;
+        double[] nextRe, nextIm;
+        final boolean[] converged;
+        int active;
+
+        Iteration (double[] aRe, double[] aIm, double[] re, double[] im) {
+            this.aRe = aRe;
+            this.aIm = aIm;
+            this.re = re.clone();
+            this.im = im.clone();
+            this.nextRe = new double[re.length];
+            this.nextIm = new double[re.length];
+            this.converged = new boolean[re.length];
+            this.active = re.length;
+        }
+
+        /** Performs one iteration over every root which has not yet converged. */
+        void step () {
+            Update update = new Update(this, 0, re.length);
+            if (re.length < SEQUENTIAL_THRESHOLD) {
+                active = update.compute();
+            } else {
+                active = pool.invoke(update);
+            }
+            double[] swap = re; re = nextRe; nextRe = swap;
+            swap = im; im = nextIm; nextIm = swap;
+        }
+
+        /**
+         * Computes the next approximation of one root.
+         * @param k the index of the root
+         * @return true if the root has converged
+         */
+        boolean update (int k) {
+            double zRe = re[k], zIm = im[k];
+            if (converged[k]) {
+                nextRe[k] = zRe;
+                nextIm[k] = zIm;
+                return true;
+            }
+            /* Newton correction N = p(z)/p'(z) */
+            double nRe, nIm;
+            int n = aRe.length - 1;
+            double zAbs2 = (zRe * zRe) + (zIm * zIm);
+            if (zAbs2 <= 1d) {
+                double pRe = aRe[n], pIm = aIm[n], dRe = 0d, dIm = 0d;
+                for (int j = n - 1; j >= 0; j--) {
+                    double t = (dRe * zRe) - (dIm * zIm) + pRe;
+                    dIm = (dRe * zIm) + (dIm * zRe) + pIm;
+                    dRe = t;
+                    t = (pRe * zRe) - (pIm * zIm) + aRe[j];
+                    pIm = (pRe * zIm) + (pIm * zRe) + aIm[j];
+                    pRe = t;
+                }
+                double dAbs2 = (dRe * dRe) + (dIm * dIm);
+                if (dAbs2 == 0d) {
+                    nRe = pRe;
+                    nIm = pIm;
+                } else {
+                    nRe = ((pRe * dRe) + (pIm * dIm)) / dAbs2;
+                    nIm = ((pIm * dRe) - (pRe * dIm)) / dAbs2;
+                }
+            } else {
+                /* Evaluate the reversed polynomial q(w) = w^n p(1/w) at w = 1/z to avoid
+                 * overflow, using p/p' = z q / (n q - w q') */
+                double wRe = zRe / zAbs2, wIm = -zIm / zAbs2;
+                double qRe = aRe[0], qIm = aIm[0], dRe = 0d, dIm = 0d;
+                for (int j = 1; j <= n; j++) {
+                    double t = (dRe * wRe) - (dIm * wIm) + qRe;
+                    dIm = (dRe * wIm) + (dIm * wRe) + qIm;
+                    dRe = t;
+                    t = (qRe * wRe) - (qIm * wIm) + aRe[j];
+                    qIm = (qRe * wIm) + (qIm * wRe) + aIm[j];
+                    qRe = t;
+                }
+                double numRe = (zRe * qRe) - (zIm * qIm);
+                double numIm = (zRe * qIm) + (zIm * qRe);
+                double denRe = (n * qRe) - ((wRe * dRe) - (wIm * dIm));
+                double denIm = (n * qIm) - ((wRe * dIm) + (wIm * dRe));
+                double denAbs2 = (denRe * denRe) + (denIm * denIm);
+                if (denAbs2 == 0d) {
+                    nRe = numRe;
+                    nIm = numIm;
+                } else {
+                    nRe = ((numRe * denRe) + (numIm * denIm)) / denAbs2;
+                    nIm = ((numIm * denRe) - (numRe * denIm)) / denAbs2;
+                }
+            }
+            /* Aberth sum S = sum over j != k of 1/(z_k - z_j) */
+            double sRe = 0d, sIm = 0d;
+            for (int j = 0; j < re.length; j++) {
+                if (j == k) continue;
+                double dRe = zRe - re[j], dIm = zIm - im[j];
+                double dAbs2 = (dRe * dRe) + (dIm * dIm);
+                if (dAbs2 == 0d) continue;
+                sRe += dRe / dAbs2;
+                sIm -= dIm / dAbs2;
+            }
+            /* Correction w = N / (1 - N S) */
+            double denRe = 1d - ((nRe * sRe) - (nIm * sIm));
+            double denIm = -((nRe * sIm) + (nIm * sRe));
+            double denAbs2 = (denRe * denRe) + (denIm * denIm);
+            double wRe = ((nRe * denRe) + (nIm * denIm)) / denAbs2;
+            double wIm = ((nIm * denRe) - (nRe * denIm)) / denAbs2;
+            if ( Double.isNaN(wRe) || Double.isNaN(wIm) ) {
+                wRe = nRe;
+                wIm = nIm;
+            }
+            nextRe[k] = zRe - wRe;
+            nextIm[k] = zIm - wIm;
+            double step2 = (wRe * wRe) + (wIm * wIm);
+            double scale2 = Math.max(zAbs2, Double.MIN_NORMAL);
+            if (step2 <= tolerance * tolerance * scale2) {
+                converged[k] = true;
+            }
+            return converged[k];
+        }
+    }
+
+    /**
+     * Updates a range of roots, splitting the range between threads while it is large.
+     * Returns the number of roots in the range which have not yet converged.
+     */
+    private static final class Update extends RecursiveTask<Integer> {
+        private static final long serialVersionUID = 1L;
+
+        private final Iteration iteration;
+        private final int from;
+        private final int to;
+
+        Update (Iteration iteration, int from, int to) {
+            this.iteration = iteration;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Integer compute () {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                int active = 0;
+                for (int k = from; k < to; k++) {
+                    if (!iteration.update(k)) active++;
+                }
+                return active;
+            } else {
+                int middle = (from + to) >>> 1;
+                Update left = new Update(iteration, from, middle);
+                left.fork();
+                int right = new Update(iteration, middle, to).compute();
+                return right + left.join();
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package self.kearse.mathapp;
+
+/**
+ * An immutable table of the <i>n</i>-th roots of unity,
+ * <i>e<sup>2&pi;ik/n</sup>&nbsp;=&nbsp;cos(2&pi;k/n)&nbsp;+&nbsp;i&nbsp;sin(2&pi;k/n)</i>, stored as
+ * primitive cosine and sine values.  Only the values up to the first symmetry axis of the unit
+ * circle are stored and the rest are found by reflection: about <i>n</i>/8 values when
+ * <i>n</i> is a multiple of 8, <i>n</i>/4 when <i>n</i> is even and <i>n</i>/2 otherwise.
+ * Shared tables are obtained from {@link RootsOfUnityCache}.
+ */
+public final class RootsOfUnity {
+    /** The degree <i>n</i> */
+    private final int degree;
+    /** cos(2&pi;j/n) for each stored index j */
+    private final double[] cos;
+    /** sin(2&pi;j/n) for each stored index j */
+    private final double[] sin;
+
+    /**
+     * Computes the table of roots of unity of the given degree.
+     * @param degree the degree <i>n</i>
+     * @throws IllegalArgumentException if degree is not positive
+     */
+    public RootsOfUnity (int degree) throws IllegalArgumentException {
+        if (degree < 1) {
+            throw new IllegalArgumentException("Degree must be positive, was " + degree);
+        }
+        this.degree = degree;
+        int stored;
+        if ((degree & 7) == 0) stored = degree / 8;
+        else if ((degree & 1) == 0) stored = degree / 4;
+        else stored = degree / 2;
+        this.cos = new double[stored + 1];
+        this.sin = new double[stored + 1];
+        for (int j = 0; j <= stored; j++) {
+            double angle = (2d * Math.PI * j) / degree;
+            cos[j] = Math.cos(angle);
+            sin[j] = Math.sin(angle);
+        }
+    }
+
+    /** Returns the degree <i>n</i> of this table. */
+    public int degree () {
+        return degree;
+    }
+
+    /** Returns the approximate number of bytes of primitive storage held by this table. */
+    public long memoryBytes () {
+        return 16L * cos.length;
+    }
+
+    /**
+     * Looks up the real component of a root.
+     * @param index the index <i>k</i> of the root, taken modulo the degree
+     * @return cos(2&pi;k/n)
+     */
+    public double cos (long index) {
+        return component(index, false);
+    }
+
+    /**
+     * Looks up the imaginary component of a root.
+     * @param index the index <i>k</i> of the root, taken modulo the degree
+     * @return sin(2&pi;k/n)
+     */
+    public double sin (long index) {
+        return component(index, true);
+    }
+
+    /**
+     * Writes the components of the roots with indices 0, 1, 2... into primitive arrays, until
+     * the shorter array is full.
+     * @param cos the destination of the real components
+     * @param sin the destination of the imaginary components
+     */
+    public void fill (double[] cos, double[] sin) {
+        int count = Math.min(cos.length, sin.length);
+        for (int k = 0; k < count; k++) {
+            cos[k] = component(k, false);
+            sin[k] = component(k, true);
+        }
+    }
+
+    /**
+     * Finds one component of a root by reflecting its index into the stored range.
+     * @param index the index <i>k</i> of the root
+     * @param imaginary true for the sine, false for the cosine
+     * @return the requested component of <i>e<sup>2&pi;ik/n</sup></i>
+     */
+    private double component (long index, boolean imaginary) {
+        int k = (int) (index % degree);
+        if (k < 0) k += degree;
+        double sign = 1d;
+        /* Conjugate symmetry: e^(2*pi*i*(n-k)/n) is the complement of e^(2*pi*i*k/n) */
+        if (2L * k > degree) {
+            k = degree - k;
+            if (imaginary) sign = -sign;
+        }
+        if ((degree & 1) == 0) {
+            /* Reflection about the imaginary axis, negating the real component */
+            if (4L * k > degree) {
+                k = (degree / 2) - k;
+                if (!imaginary) sign = -sign;
+            }
+            /* Reflection about the line at pi/4, exchanging the components */
+            if ( ((degree & 7) == 0) && (8L * k > degree) ) {
+                k = (degree / 4) - k;
+                imaginary = !imaginary;
+            }
+        }
+        return sign * (imaginary ? sin[k] : cos[k]);
+    }
+}
@@ -0,0 +1,101 @@
+package self.kearse.mathapp;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A cache of {@link RootsOfUnity} tables by degree, bounded by the memory held by its tables.
+ * When adding a table would exceed the budget, the least recently used tables are evicted first.
+ * Lookups are synchronized only for the bookkeeping of the cache; tables are immutable, so any
+ * number of threads may read a table once it has been obtained.  A table larger than the whole
+ * budget is computed and returned without being cached.
+ */
+public final class RootsOfUnityCache {
+    /** The memory budget of the shared cache, in bytes. */
+    public static final long DEFAULT_BUDGET_BYTES = 8L * 1024L * 1024L;
+    /** The cache shared by the library. */
+    private static final RootsOfUnityCache SHARED = new RootsOfUnityCache(DEFAULT_BUDGET_BYTES);
+
+    /** The memory budget, in bytes */
+    private final long budgetBytes;
+    /** The cached tables by degree, in order of least to most recent use */
+    private final LinkedHashMap<Integer, RootsOfUnity> tables =
+            new LinkedHashMap<Integer, RootsOfUnity>(16, 0.75f, true);
+    /** The memory held by the cached tables, in bytes */
+    private long usedBytes = 0L;
+
+    /**
+     * Constructs an empty cache.
+     * @param budgetBytes the memory budget of the cached tables, in bytes
+     * @throws IllegalArgumentException if budgetBytes is negative
+     */
+    public RootsOfUnityCache (long budgetBytes) throws IllegalArgumentException {
+        if (budgetBytes < 0L) {
+            throw new IllegalArgumentException("Memory budget cannot be negative");
+        }
+        this.budgetBytes = budgetBytes;
+    }
+
+    /** Returns the cache shared by the library, with a budget of {@link #DEFAULT_BUDGET_BYTES}. */
+    public static RootsOfUnityCache shared () {
+        return SHARED;
+    }
+
+    /**
+     * Returns the table of roots of unity of the given degree, computing it if it is not cached.
+     * @param degree the degree <i>n</i>
+     * @return the table for the degree
+     * @throws IllegalArgumentException if degree is not positive
+     */
+    public RootsOfUnity get (int degree) throws IllegalArgumentException {
+        Integer key = degree;
+        synchronized (tables) {
+            RootsOfUnity table = tables.get(key);
+            if (table != null) return table;
+        }
+        /* Compute outside the lock, so that other degrees may still be looked up meanwhile */
+        RootsOfUnity table = new RootsOfUnity(degree);
+        long bytes = table.memoryBytes();
+        if (bytes > budgetBytes) return table;
+        synchronized (tables) {
+            RootsOfUnity existing = tables.get(key);
+            if (existing != null) return existing;
+            Iterator<Map.Entry<Integer, RootsOfUnity>> eldest = tables.entrySet().iterator();
+            while (usedBytes + bytes > budgetBytes) {
+                usedBytes -= eldest.next().getValue().memoryBytes();
+                eldest.remove();
+            }
+            tables.put(key, table);
+            usedBytes += bytes;
+        }
+        return table;
+    }
+
+    /** Returns the memory held by the cached tables, in bytes. */
+    public long usedBytes () {
+        synchronized (tables) {
+            return usedBytes;
+        }
+    }
+
+    /**
+     * Checks whether the table of the given degree is currently cached, without affecting the
+     * order of eviction.
+     * @param degree the degree <i>n</i>
+     * @return true if the table is cached
+     */
+    public boolean contains (int degree) {
+        synchronized (tables) {
+            return tables.containsKey(degree);
+        }
+    }
+
+    /** Evicts every cached table. */
+    public void clear () {
+        synchronized (tables) {
+            tables.clear();
+            usedBytes = 0L;
+        }
+    }
+}
@@ -0,0 +1,338 @@
+package self.kearse.mathapp;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A sparse matrix of complex numbers in compressed sparse row (CSR) form: the stored elements of
+ * each row in ascending order of column, as parallel primitive arrays of columns, real and
+ * imaginary components, with the start of each row in those arrays.  Matrices are assembled
+ * element by element with a {@link Builder}, and are immutable once built.
+ * <p>
+ * The product with a vector is divided between the threads of a {@link ForkJoinPool} by ranges
+ * of rows holding similar numbers of stored elements, so that each thread writes only its own
+ * rows of the result.  It is the kernel of the iterative {@link KrylovSolver}.
+ */
+public final class SparseComplexMatrix {
+    /** The number of stored elements below which a product is computed without forking. */
+    private static final int SEQUENTIAL_THRESHOLD = 1 << 14;
+
+    /** The number of rows */
+    private final int rows;
+    /** The number of columns */
+    private final int columns;
+    /** The index of the first element of each row, and the number of elements at the end */
+    private final int[] rowStart;
+    /** The column of each element */
+    private final int[] columnIndex;
+    /** The real component of each element */
+    private final double[] re;
+    /** The imaginary component of each element */
+    private final double[] im;
+
+    private SparseComplexMatrix (int rows, int columns, int[] rowStart, int[] columnIndex,
+                                 double[] re, double[] im) {
+        this.rows = rows;
+        this.columns = columns;
+        this.rowStart = rowStart;
+        this.columnIndex = columnIndex;
+        this.re = re;
+        this.im = im;
+    }
+
+    /** Returns the number of rows. */
+    public int rows () {
+        return rows;
+    }
+
+    /** Returns the number of columns. */
+    public int columns () {
+        return columns;
+    }
+
+    /** Returns the number of stored elements. */
+    public int nonZeros () {
+        return rowStart[rows];
+    }
+
+    /** Returns the backing array of the starts of the rows, with the number of elements at the end. */
+    int[] rowStart () {
+        return rowStart;
+    }
+
+    /** Returns the backing array of the columns of the elements. */
+    int[] columnIndex () {
+        return columnIndex;
+    }
+
+    /** Returns the backing array of the real components of the elements. */
+    double[] re () {
+        return re;
+    }
+
+    /** Returns the backing array of the imaginary components of the elements. */
+    double[] im () {
+        return im;
+    }
+
+    /**
+     * Finds the index of an element among the stored elements.
+     * @return the index, or a negative number if the element is not stored
+     */
+    int find (int row, int column) {
+        return Arrays.binarySearch(columnIndex, rowStart[row], rowStart[row + 1], column);
+    }
+
+    /**
+     * Returns an element.
+     * @param row the row of the element
+     * @param column the column of the element
+     * @return a new ComplexDouble with the value of the element, zero if it is not stored
+     * @throws IndexOutOfBoundsException if row or column is out of range
+     */
+    public ComplexDouble get (int row, int column) throws IndexOutOfBoundsException {
+        checkIndex(row, column, rows, columns);
+        int index = find(row, column);
+        return (index < 0) ? ComplexDouble.ZERO : new ComplexDouble(re[index], im[index]);
+    }
+
+    /** Returns a new dense matrix with the same elements. */
+    public ComplexMatrix toDense () {
+        ComplexMatrix dense = new ComplexMatrix(rows, columns);
+        for (int r = 0; r < rows; r++) {
+            for (int k = rowStart[r]; k < rowStart[r + 1]; k++) {
+                dense.set(r, columnIndex[k], re[k], im[k]);
+            }
+        }
+        return dense;
+    }
+
+    /**
+     * Computes the product of this and a column vector, using the common pool.
+     * @param vector the vector, with as many elements as this has columns
+     * @return a new vector holding the product
+     * @throws IllegalArgumentException if the dimensions do not agree
+     */
+    public ComplexDoubleArray multiply (ComplexDoubleArray vector) throws IllegalArgumentException {
+        return multiply(vector, new ComplexDoubleArray(rows), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes the product of this and a column vector into a destination.
+     * @param vector the vector, with as many elements as this has columns
+     * @param destination the vector to store the product in, with as many elements as this has
+     *                    rows, which must not share arrays with vector
+     * @param pool the pool to compute the ranges of rows
+     * @return destination
+     * @throws IllegalArgumentException if the dimensions do not agree, or destination shares
+     *         arrays with vector
+     * @throws NullPointerException if pool is null
+     */
+    public ComplexDoubleArray multiply (ComplexDoubleArray vector, ComplexDoubleArray destination, ForkJoinPool pool)
+            throws IllegalArgumentException, NullPointerException {
+        if (vector.length() != columns) {
+            throw new IllegalArgumentException(String.format(
+                    "Cannot multiply %d x %d by a vector of %d", rows, columns, vector.length()));
+        } else if (destination.length() != rows) {
+            throw new IllegalArgumentException(String.format(
+                    "Destination holds %d values, %d required", destination.length(), rows));
+        } else if ( (vector.re() == destination.re()) || (vector.im() == destination.im()) ) {
+            throw new IllegalArgumentException("Destination cannot share arrays with the vector");
+        } else if (pool == null) {
+            throw new NullPointerException("Cannot use a null pool");
+        }
+        multiply(vector.re(), vector.im(), destination.re(), destination.im(), pool);
+        return destination;
+    }
+
+    /** Computes the product of this and a vector, without checking the arguments. */
+    void multiply (double[] xRe, double[] xIm, double[] yRe, double[] yIm, ForkJoinPool pool) {
+        Product product = new Product(this, xRe, xIm, yRe, yIm, 0, rows);
+        if (nonZeros() < SEQUENTIAL_THRESHOLD) product.compute();
+        else pool.invoke(product);
+    }
+
+    private static void checkIndex (int row, int column, int rows, int columns) throws IndexOutOfBoundsException {
+        if ( (row < 0) || (row >= rows) || (column < 0) || (column >= columns) ) {
+            throw new IndexOutOfBoundsException(String.format(
+                    "Element (%d, %d) is outside a %d x %d matrix", row, column, rows, columns));
+        }
+    }
+
+    /**
+     * A range of rows of a product, split where it divides the stored elements in halves.
+     */
+    private static final class Product extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final SparseComplexMatrix matrix;
+        private final double[] xRe, xIm, yRe, yIm;
+        private final int from;
+        private final int to;
+
+        Product (SparseComplexMatrix matrix, double[] xRe, double[] xIm, double[] yRe, double[] yIm,
+                 int from, int to) {
+            this.matrix = matrix;
+            this.xRe = xRe;
+            this.xIm = xIm;
+            this.yRe = yRe;
+            this.yIm = yIm;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute () {
+            int[] rowStart = matrix.rowStart, columnIndex = matrix.columnIndex;
+            double[] re = matrix.re, im = matrix.im;
+            int elements = rowStart[to] - rowStart[from];
+            if ( (elements > SEQUENTIAL_THRESHOLD) && (to - from > 1) ) {
+                int middle = Arrays.binarySearch(rowStart, from, to, rowStart[from] + (elements / 2));
+                if (middle < 0) middle = -middle - 1;
+                middle = Math.max(from + 1, Math.min(to - 1, middle));
+                invokeAll(new Product(matrix, xRe, xIm, yRe, yIm, from, middle),
+                        new Product(matrix, xRe, xIm, yRe, yIm, middle, to));
+                return;
+            }
+            for (int r = from; r < to; r++) {
+                double sumRe = 0d, sumIm = 0d;
+                for (int k = rowStart[r]; k < rowStart[r + 1]; k++) {
+                    double a = re[k], b = im[k], cRe = xRe[columnIndex[k]], cIm = xIm[columnIndex[k]];
+                    sumRe += (a * cRe) - (b * cIm);
+                    sumIm += (a * cIm) + (b * cRe);
+                }
+                yRe[r] = sumRe;
+                yIm[r] = sumIm;
+            }
+        }
+    }
+
+    /**
+     * Assembles a sparse matrix from its elements in any order.  Elements added more than once
+     * at the same position are summed, as when assembling contributions from neighbouring cells of
+     * a finite-difference grid.  An element added as zero is still stored.
+     */
+    public static final class Builder {
+        /** The initial capacity for elements */
+        private static final int INITIAL_CAPACITY = 16;
+
+        private final int rows;
+        private final int columns;
+        /** The number of elements added */
+        private int size = 0;
+        private int[] rowOf = new int[INITIAL_CAPACITY];
+        private int[] columnOf = new int[INITIAL_CAPACITY];
+        private double[] re = new double[INITIAL_CAPACITY];
+        private double[] im = new double[INITIAL_CAPACITY];
+
+        /**
+         * Constructs a builder for a matrix with every element zero.
+         * @param rows the number of rows
+         * @param columns the number of columns
+         * @throws IllegalArgumentException if either dimension is negative
+         */
+        public Builder (int rows, int columns) throws IllegalArgumentException {
+            if ( (rows < 0) || (columns < 0) ) {
+                throw new IllegalArgumentException(String.format(
+                        "Dimensions cannot be negative, were %d x %d", rows, columns));
+            }
+            this.rows = rows;
+            this.columns = columns;
+        }
+
+        /**
+         * Adds a value to an element.
+         * @param row the row of the element
+         * @param column the column of the element
+         * @param re the real component of the value
+         * @param im the imaginary component of the value
+         * @return this
+         * @throws IndexOutOfBoundsException if row or column is out of range
+         */
+        public Builder add (int row, int column, double re, double im) throws IndexOutOfBoundsException {
+            checkIndex(row, column, rows, columns);
+            if (size == rowOf.length) {
+                int capacity = size * 2;
+                rowOf = Arrays.copyOf(rowOf, capacity);
+                columnOf = Arrays.copyOf(columnOf, capacity);
+                this.re = Arrays.copyOf(this.re, capacity);
+                this.im = Arrays.copyOf(this.im, capacity);
+            }
+            rowOf[size] = row;
+            columnOf[size] = column;
+            this.re[size] = re;
+            this.im[size] = im;
+            size++;
+            return this;
+        }
+
+        /**
+         * Adds a value to an element.
+         * @param row the row of the element
+         * @param column the column of the element
+         * @param value the value
+         * @return this
+         * @throws IndexOutOfBoundsException if row or column is out of range
+         * @throws NullPointerException if value is null
+         */
+        public Builder add (int row, int column, Complex<? extends Number> value)
+                throws IndexOutOfBoundsException, NullPointerException {
+            if (value == null) {
+                throw new NullPointerException("Cannot add a null reference");
+            }
+            ComplexDouble v = ComplexDouble.valueOf(value);
+            return add(row, column, v.re(), v.im());
+        }
+
+        /**
+         * Builds the matrix from the elements added so far.  The builder may continue to be used.
+         * @return a new matrix
+         */
+        public SparseComplexMatrix build () {
+            /* Sort stably by column, then by row, each by counting */
+            int[] byColumn = countingSort(columnOf, columns, identity(size));
+            int[] order = countingSort(rowOf, rows, byColumn);
+            int[] rowStart = new int[rows + 1];
+            int[] columnIndex = new int[size];
+            double[] sortedRe = new double[size], sortedIm = new double[size];
+            int count = 0, lastRow = -1, lastColumn = -1;
+            for (int k = 0; k < size; k++) {
+                int e = order[k], row = rowOf[e], column = columnOf[e];
+                if ( (row == lastRow) && (column == lastColumn) ) {
+                    /* A repeated position, summed into the last element */
+                    sortedRe[count - 1] += re[e];
+                    sortedIm[count - 1] += im[e];
+                    continue;
+                }
+                columnIndex[count] = column;
+                sortedRe[count] = re[e];
+                sortedIm[count] = im[e];
+                count++;
+                rowStart[row + 1] = count;
+                lastRow = row;
+                lastColumn = column;
+            }
+            /* Rows without elements start where the previous row ends */
+            for (int r = 1; r <= rows; r++) rowStart[r] = Math.max(rowStart[r], rowStart[r - 1]);
+            return new SparseComplexMatrix(rows, columns, rowStart, Arrays.copyOf(columnIndex, count),
+                    Arrays.copyOf(sortedRe, count), Arrays.copyOf(sortedIm, count));
+        }
+
+        private static int[] identity (int size) {
+            int[] identity = new int[size];
+            for (int k = 0; k < size; k++) identity[k] = k;
+            return identity;
+        }
+
+        /** Sorts element indices stably by a key from 0 to range - 1. */
+        private int[] countingSort (int[] keys, int range, int[] indices) {
+            int[] start = new int[range + 1];
+            for (int k = 0; k < size; k++) start[keys[k] + 1]++;
+            for (int r = 0; r < range; r++) start[r + 1] += start[r];
+            int[] sorted = new int[size];
+            for (int k = 0; k < size; k++) sorted[start[keys[indices[k]]]++] = indices[k];
+            return sorted;
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package self.kearse.mathapp;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A cache of rendered tiles of the complex plane, bounded by the memory held by its tiles.  A tile
+ * is identified by the function and colouring which rendered it, its zoom level, and its
+ * coordinates within that level, so tiles stay valid as the view pans and zooms, and may be
+ * shared by every renderer of the same function.  When adding a tile would exceed the budget,
+ * the least recently used tiles are evicted first.  Tiles are never modified once cached, so any
+ * number of threads may read a tile once it has been obtained.
+ */
+public final class TileCache {
+    /** The memory budget of the shared cache, in bytes. */
+    public static final long DEFAULT_BUDGET_BYTES = 32L * 1024L * 1024L;
+    /** The cache shared by the library. */
+    private static final TileCache SHARED = new TileCache(DEFAULT_BUDGET_BYTES);
+
+    /** The memory budget, in bytes */
+    private final long budgetBytes;
+    /** The cached tiles by key, in order of least to most recent use */
+    private final LinkedHashMap<Key, int[]> tiles = new LinkedHashMap<Key, int[]>(64, 0.75f, true);
+    /** The memory held by the cached tiles, in bytes */
+    private long usedBytes = 0L;
+
+    /**
+     * Constructs an empty cache.
+     * @param budgetBytes the memory budget of the cached tiles, in bytes
+     * @throws IllegalArgumentException if budgetBytes is negative
+     */
+    public TileCache (long budgetBytes) throws IllegalArgumentException {
+        if (budgetBytes < 0L) {
+            throw new IllegalArgumentException("Memory budget cannot be negative");
+        }
+        this.budgetBytes = budgetBytes;
+    }
+
+    /** Returns the cache shared by the library, with a budget of {@link #DEFAULT_BUDGET_BYTES}. */
+    public static TileCache shared () {
+        return SHARED;
+    }
+
+    /**
+     * Looks up a tile, marking it as the most recently used.
+     * @param key the identity of the tile
+     * @return the pixels of the tile, or null if it is not cached
+     */
+    public int[] get (Key key) {
+        synchronized (tiles) {
+            return tiles.get(key);
+        }
+    }
+
+    /**
+     * Caches a tile, unless another thread has cached the same tile meanwhile.  A tile larger
+     * than the whole budget is not cached.
+     * @param key the identity of the tile
+     * @param pixels the pixels of the tile, which must not be modified afterwards
+     * @return the pixels now cached for the key, which are those already cached if any
+     * @throws NullPointerException if key or pixels is null
+     */
+    public int[] put (Key key, int[] pixels) throws NullPointerException {
+        if ( (key == null) || (pixels == null) ) {
+            throw new NullPointerException("Cannot cache null values");
+        }
+        long bytes = memoryBytes(pixels);
+        if (bytes > budgetBytes) return pixels;
+        synchronized (tiles) {
+            int[] existing = tiles.get(key);
+            if (existing != null) return existing;
+            Iterator<Map.Entry<Key, int[]>> eldest = tiles.entrySet().iterator();
+            while (usedBytes + bytes > budgetBytes) {
+                usedBytes -= memoryBytes(eldest.next().getValue());
+                eldest.remove();
+            }
+            tiles.put(key, pixels);
+            usedBytes += bytes;
+        }
+        return pixels;
+    }
+
+    /** Returns the memory held by the cached tiles, in bytes. */
+    public long usedBytes () {
+        synchronized (tiles) {
+            return usedBytes;
+        }
+    }
+
+    /** Returns the number of cached tiles. */
+    public int size () {
+        synchronized (tiles) {
+            return tiles.size();
+        }
+    }
+
+    /**
+     * Checks whether a tile is currently cached, without affecting the order of eviction.
+     * @param key the identity of the tile
+     * @return true if the tile is cached
+     */
+    public boolean contains (Key key) {
+        synchronized (tiles) {
+            return tiles.containsKey(key);
+        }
+    }
+
+    /** Evicts every cached tile. */
+    public void clear () {
+        synchronized (tiles) {
+            tiles.clear();
+            usedBytes = 0L;
+        }
+    }
+
+    /** Estimates the memory held by the pixels of a tile, including the array header. */
+    private static long memoryBytes (int[] pixels) {
+        return 16L + (4L * pixels.length);
+    }
+
+    /**
+     * The identity of a tile.  Tiles at zoom level <i>L</i> sample the plane every
+     * 2<sup>-L</sup>, so each tile has four children at the next level, covering its quadrants.
+     */
+    public static final class Key {
+        /** The function rendered, compared by equality */
+        private final Object function;
+        /** The colouring of the function values, compared by equality */
+        private final Object coloring;
+        /** The zoom level */
+        private final int level;
+        /** The column of the tile within its level */
+        private final long column;
+        /** The row of the tile within its level */
+        private final long row;
+
+        /**
+         * Constructs the identity of a tile.
+         * @param function the function rendered
+         * @param coloring the colouring of the function values
+         * @param level the zoom level
+         * @param column the column of the tile within its level
+         * @param row the row of the tile within its level
+         * @throws NullPointerException if function or coloring is null
+         */
+        public Key (Object function, Object coloring, int level, long column, long row)
+                throws NullPointerException {
+            if ( (function == null) || (coloring == null) ) {
+                throw new NullPointerException("Cannot identify a tile by null values");
+            }
+            this.function = function;
+            this.coloring = coloring;
+            this.level = level;
+            this.column = column;
+            this.row = row;
+        }
+
+        /** Returns the zoom level. */
+        public int level () {
+            return level;
+        }
+
+        /** Returns the column of the tile within its level. */
+        public long column () {
+            return column;
+        }
+
+        /** Returns the row of the tile within its level. */
+        public long row () {
+            return row;
+        }
+
+        /** Returns the identity of the tile one level coarser whose quadrant holds this tile. */
+        public Key parent () {
+            return new Key(function, coloring, level - 1, column >> 1, row >> 1);
+        }
+
+        @Override
+        public boolean equals (Object other) {
+            if (this == other) return true;
+            if (!(other instanceof Key)) return false;
+            Key o = (Key) other;
+            return (level == o.level) && (column == o.column) && (row == o.row)
+                    && function.equals(o.function) && coloring.equals(o.coloring);
+        }
+
+        @Override
+        public int hashCode () {
+            long bits = (31L * column) + row;
+            int hash = (31 * ((31 * function.hashCode()) + coloring.hashCode())) + level;
+            return (31 * hash) + (int) (bits ^ (bits >>> 32));
+        }
+
+        @Override
+        public String toString () {
+            return String.format("level %d, tile (%d, %d)", level, column, row);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package self.kearse.mathapp;
+
+/**
+ * A rectangular view of the complex plane, sampled on a grid of pixels.  Pixel (0, 0) is the top
+ * left corner of the view, columns increase along the real axis and rows decrease along the
+ * imaginary axis, as on screen.  Each pixel samples the point at its centre.  Viewports are
+ * immutable, and panning or zooming gives a new viewport.
+ */
+public final class Viewport {
+    /** The real component at the centre of the view */
+    private final double centerRe;
+    /** The imaginary component at the centre of the view */
+    private final double centerIm;
+    /** The distance on the plane between the centres of neighbouring pixels */
+    private final double pixelSize;
+    /** The number of pixel columns */
+    private final int width;
+    /** The number of pixel rows */
+    private final int height;
+
+    /**
+     * Constructs a viewport.
+     * @param centerRe the real component at the centre of the view
+     * @param centerIm the imaginary component at the centre of the view
+     * @param pixelSize the distance on the plane between the centres of neighbouring pixels
+     * @param width the number of pixel columns
+     * @param height the number of pixel rows
+     * @throws IllegalArgumentException if pixelSize, width or height is not positive, or the
+     *         centre is not finite
+     */
+    public Viewport (double centerRe, double centerIm, double pixelSize, int width, int height)
+            throws IllegalArgumentException {
+        if ( (width < 1) || (height < 1) ) {
+            throw new IllegalArgumentException(String.format(
+                    "Dimensions must be positive, were %d x %d", width, height));
+        } else if (!(pixelSize > 0d) || Double.isInfinite(pixelSize)) {
+            throw new IllegalArgumentException("Pixel size must be positive, was " + pixelSize);
+        } else if (Double.isNaN(centerRe + centerIm) || Double.isInfinite(centerRe + centerIm)) {
+            throw new IllegalArgumentException("Centre must be finite");
+        }
+        this.centerRe = centerRe;
+        this.centerIm = centerIm;
+        this.pixelSize = pixelSize;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Constructs a viewport showing at least the given span of the plane in both directions.
+     * @param centerRe the real component at the centre of the view
+     * @param centerIm the imaginary component at the centre of the view
+     * @param span the least extent of the view along either axis
+     * @param width the number of pixel columns
+     * @param height the number of pixel rows
+     * @return a new viewport
+     * @throws IllegalArgumentException if span, width or height is not positive
+     */
+    public static Viewport fit (double centerRe, double centerIm, double span, int width, int height)
+            throws IllegalArgumentException {
+        if ( (width < 1) || (height < 1) ) {
+            throw new IllegalArgumentException(String.format(
+                    "Dimensions must be positive, were %d x %d", width, height));
+        }
+        return new Viewport(centerRe, centerIm, span / Math.min(width, height), width, height);
+    }
+
+    /** Returns the real component at the centre of the view. */
+    public double centerRe () {
+        return centerRe;
+    }
+
+    /** Returns the imaginary component at the centre of the view. */
+    public double centerIm () {
+        return centerIm;
+    }
+
+    /** Returns the distance on the plane between the centres of neighbouring pixels. */
+    public double pixelSize () {
+        return pixelSize;
+    }
+
+    /** Returns the number of pixel columns. */
+    public int width () {
+        return width;
+    }
+
+    /** Returns the number of pixel rows. */
+    public int height () {
+        return height;
+    }
+
+    /**
+     * Computes the real component sampled by a column.
+     * @param x the column, which may lie outside the view
+     * @return the real component at the centre of the column
+     */
+    public double re (double x) {
+        return centerRe + ((x - ((width - 1) * 0.5d)) * pixelSize);
+    }
+
+    /**
+     * Computes the imaginary component sampled by a row.
+     * @param y the row, which may lie outside the view
+     * @return the imaginary component at the centre of the row
+     */
+    public double im (double y) {
+        return centerIm - ((y - ((height - 1) * 0.5d)) * pixelSize);
+    }
+
+    /**
+     * Moves the view by a number of pixels, as when dragging.
+     * @param dx the number of columns to move the centre by
+     * @param dy the number of rows to move the centre by
+     * @return a new viewport of the same size
+     */
+    public Viewport pan (double dx, double dy) {
+        return new Viewport(centerRe + (dx * pixelSize), centerIm - (dy * pixelSize),
+                pixelSize, width, height);
+    }
+
+    /**
+     * Magnifies the view about a pixel, which keeps its position on the plane.
+     * @param factor the magnification, where values above one zoom in
+     * @param x the column to zoom about
+     * @param y the row to zoom about
+     * @return a new viewport of the same size
+     * @throws IllegalArgumentException if factor is not positive
+     */
+    public Viewport zoom (double factor, double x, double y) throws IllegalArgumentException {
+        if (!(factor > 0d)) {
+            throw new IllegalArgumentException("Zoom factor must be positive, was " + factor);
+        }
+        double re = re(x), im = im(y);
+        return new Viewport(re + ((centerRe - re) / factor), im + ((centerIm - im) / factor),
+                pixelSize / factor, width, height);
+    }
+
+    /**
+     * Gives a view of the same region of the plane at a different resolution.
+     * @param width the new number of pixel columns
+     * @param height the new number of pixel rows
+     * @return a new viewport with the same centre, covering at least the span of this
+     * @throws IllegalArgumentException if width or height is not positive
+     */
+    public Viewport resize (int width, int height) throws IllegalArgumentException {
+        return fit(centerRe, centerIm, pixelSize * Math.min(this.width, this.height), width, height);
+    }
+
+    @Override
+    public boolean equals (Object other) {
+        if (this == other) return true;
+        if (!(other instanceof Viewport)) return false;
+        Viewport o = (Viewport) other;
+        return (Double.compare(centerRe, o.centerRe) == 0) && (Double.compare(centerIm, o.centerIm) == 0)
+                && (Double.compare(pixelSize, o.pixelSize) == 0)
+                && (width == o.width) && (height == o.height);
+    }
+
+    @Override
+    public int hashCode () {
+        long bits = Double.doubleToLongBits(centerRe);
+        bits = (31L * bits) + Double.doubleToLongBits(centerIm);
+        bits = (31L * bits) + Double.doubleToLongBits(pixelSize);
+        return (31 * ((31 * (int) (bits ^ (bits >>> 32))) + width)) + height;
+    }
+
+    @Override
+    public String toString () {
+        return String.format("%d x %d at %s%+si, pixel %s", width, height, centerRe, centerIm, pixelSize);
+    }
+}
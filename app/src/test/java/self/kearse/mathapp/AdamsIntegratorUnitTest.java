@@ -0,0 +1,134 @@
+package self.kearse.mathapp;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit testing for the AdamsIntegrator class
+ */
+public class AdamsIntegratorUnitTest {
+    /** y' = -y + sin t, with y = (3e^-t + sin t - cos t) / 2 from y(0) = 1 */
+    private static final OdeSystem FORCED_DECAY = new OdeSystem() {
+        @Override
+        public int dimension () {
+            return 1;
+        }
+
+        @Override
+        public void derivative (double t, double[] y, double[] dydt) {
+            dydt[0] = Math.sin(t) - y[0];
+        }
+    };
+
+    /** z' = iz, with z = e^(it) from z(0) = 1, and w' = -w/2 */
+    private static final ComplexOdeSystem ROTATION = new ComplexOdeSystem() {
+        @Override
+        public int dimension () {
+            return 2;
+        }
+
+        @Override
+        public void derivative (double t, double[] re, double[] im, double[] dRe, double[] dIm) {
+            dRe[0] = -im[0];
+            dIm[0] = re[0];
+            dRe[1] = -0.5d * re[1];
+            dIm[1] = -0.5d * im[1];
+        }
+    };
+
+    private static double forcedDecayError (int order, int steps) {
+        AdamsIntegrator integrator = new AdamsIntegrator(FORCED_DECAY, order);
+        integrator.start(0d, new double[] {1d}, 2d / steps);
+        integrator.integrate(steps, null);
+        double exact = ((3d * Math.exp(-2d)) + Math.sin(2d) - Math.cos(2d)) / 2d;
+        return Math.abs(integrator.state()[0] - exact);
+    }
+
+    @Nested
+    public class AccuracyTests {
+        @Test
+        public void orderOfConvergence() {
+            for (int order = 1; order <= AdamsIntegrator.MAX_ORDER; order++) {
+                double coarse = forcedDecayError(order, 40), fine = forcedDecayError(order, 80);
+                double observed = Math.log(coarse / fine) / Math.log(2d);
+                assertTrue(observed > order - 0.3d, String.format("Order %d converged at order %.2f",
+                        order, observed));
+            }
+        }
+        @Test
+        public void complexRotation() {
+            AdamsIntegrator integrator = new AdamsIntegrator(ROTATION, 4);
+            integrator.start(0d, new double[] {1d, 2d}, new double[] {0d, -2d}, (2d * Math.PI) / 1000d);
+            assertTrue(integrator.integrate(1000L, null));
+            assertEquals(2d * Math.PI, integrator.time(), 1E-12);
+            assertEquals(1d, integrator.state()[0], 1E-9);
+            assertEquals(0d, integrator.imaginary()[0], 1E-9);
+            double decay = Math.exp(-Math.PI);
+            assertEquals(2d * decay, integrator.state()[1], 1E-9);
+            assertEquals(-2d * decay, integrator.imaginary()[1], 1E-9);
+            assertTrue(integrator.lastCorrection() < 1E-9);
+        }
+        @Test
+        public void backwards() {
+            AdamsIntegrator integrator = new AdamsIntegrator(FORCED_DECAY, 3);
+            integrator.start(2d, new double[] {((3d * Math.exp(-2d)) + Math.sin(2d) - Math.cos(2d)) / 2d}, -0.01d);
+            integrator.integrate(200L, null);
+            assertEquals(0d, integrator.time(), 1E-12);
+            assertEquals(1d, integrator.state()[0], 1E-5);
+        }
+    }
+
+    @Nested
+    public class ListenerTests {
+        @Test
+        public void everyStepReported() {
+            AdamsIntegrator integrator = new AdamsIntegrator(FORCED_DECAY, 5);
+            integrator.start(0d, new double[] {1d}, 0.1d);
+            final double[] times = new double[10];
+            assertTrue(integrator.integrate(10L, new AdamsIntegrator.StepListener() {
+                @Override
+                public boolean stepTaken (AdamsIntegrator source) {
+                    times[(int) source.steps() - 1] = source.time();
+                    return true;
+                }
+            }));
+            for (int k = 0; k < 10; k++) assertEquals(0.1d * (k + 1), times[k], 1E-15);
+        }
+        @Test
+        public void listenerStops() {
+            AdamsIntegrator integrator = new AdamsIntegrator(ROTATION, 2);
+            integrator.start(0d, new double[2], new double[2], 0.1d);
+            assertFalse(integrator.integrate(100L, new AdamsIntegrator.StepListener() {
+                @Override
+                public boolean stepTaken (AdamsIntegrator source) {
+                    return source.steps() < 5L;
+                }
+            }));
+            assertEquals(5L, integrator.steps());
+        }
+    }
+
+    @Nested
+    public class ArgumentTests {
+        @Test
+        public void invalidConstruction() {
+            assertThrows(NullPointerException.class, () -> new AdamsIntegrator((OdeSystem) null, 2));
+            assertThrows(IllegalArgumentException.class, () -> new AdamsIntegrator(FORCED_DECAY, 0));
+            assertThrows(IllegalArgumentException.class,
+                    () -> new AdamsIntegrator(FORCED_DECAY, AdamsIntegrator.MAX_ORDER + 1));
+        }
+        @Test
+        public void invalidStart() {
+            AdamsIntegrator real = new AdamsIntegrator(FORCED_DECAY, 2);
+            assertThrows(IllegalStateException.class, real::step);
+            assertThrows(IllegalArgumentException.class, () -> real.start(0d, new double[2], 0.1d));
+            assertThrows(IllegalArgumentException.class, () -> real.start(0d, new double[1], 0d));
+            assertThrows(IllegalArgumentException.class, () -> real.start(0d, new double[1], new double[1], 0.1d));
+            AdamsIntegrator complex = new AdamsIntegrator(ROTATION, 2);
+            assertThrows(IllegalArgumentException.class, () -> complex.start(0d, new double[2], 0.1d));
+            assertNull(real.imaginary());
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package self.kearse.mathapp;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit testing for the ComplexBigDecimal class
+ */
+public class ComplexBigDecimalUnitTest {
+    private static ComplexBigDecimal of(String re, String im) {
+        return new ComplexBigDecimal(new BigDecimal(re), new BigDecimal(im));
+    }
+
+    @Nested
+    public class MathTests {
+        @Test
+        public void addAndMultiply() {
+            assertEquals(of("4", "1"), of("1", "2").add(of("3", "-1")));
+            assertEquals(of("5", "5"), of("1", "2").multiply(of("3", "-1")));
+            assertEquals(of("5", "5"), of("1", "2").multiply(new ComplexDoubleCartesian(3d, -1d)),
+                    "Operands of other types are converted exactly");
+        }
+        @Test
+        public void inverses() {
+            assertEquals(of("-1", "-2"), of("1", "2").addInverse());
+            assertEquals(of("1", "-2"), of("1", "2").complement());
+            assertEquals(of("0.12", "-0.16"), of("3", "4").multInverse());
+            assertThrows(ArithmeticException.class, () -> of("0", "0").multInverse());
+        }
+        @Test
+        public void squareAdd() {
+            /* (1+2i)^2 + (1-1i) = -2+3i */
+            assertEquals(of("-2", "3"), of("1", "2").squareAdd(of("1", "-1")));
+        }
+        @Test
+        public void modulusToFullPrecision() {
+            MathContext context = new MathContext(50);
+            ComplexBigDecimal z = new ComplexBigDecimal(BigDecimal.ONE, BigDecimal.ONE, context);
+            BigDecimal root2 = new BigDecimal("1.4142135623730950488016887242096980785696718753769");
+            assertEquals(0, root2.compareTo(z.modulus()));
+            assertEquals(0, new BigDecimal("5").compareTo(of("3", "-4").modulus()));
+            assertEquals(0, new BigDecimal("5E-40").compareTo(of("3E-40", "4E-40").modulus()));
+        }
+        @Test
+        public void precisionBounded() {
+            MathContext context = new MathContext(10);
+            ComplexBigDecimal third = new ComplexBigDecimal(new BigDecimal(3), BigDecimal.ZERO, context)
+                    .multInverse();
+            assertEquals(10, third.real().precision());
+            assertThrows(IllegalArgumentException.class,
+                    () -> new ComplexBigDecimal(BigDecimal.ONE, BigDecimal.ONE, MathContext.UNLIMITED));
+        }
+    }
+
+    @Nested
+    public class ConversionTests {
+        @Test
+        public void exactConversion() {
+            ComplexBigDecimal z = ComplexBigDecimal.valueOf(new ComplexDouble(0.1d, -2d),
+                    ComplexBigDecimal.DEFAULT_CONTEXT);
+            assertEquals(new BigDecimal(0.1d), z.real());
+            assertEquals(z, new ComplexDouble(0.1d, -2d));
+            assertSame(z, ComplexBigDecimal.valueOf(z, ComplexBigDecimal.DEFAULT_CONTEXT));
+        }
+        @Test
+        public void equalityIgnoresScale() {
+            assertEquals(of("1.50", "2"), of("1.5", "2.000"));
+            assertEquals(of("1.50", "2").hashCode(), of("1.5", "2.000").hashCode());
+            assertNotEquals(of("1", "2"), new ComplexDouble(Double.NaN, 2d));
+        }
+        @Test
+        public void argument() {
+            assertEquals(Math.PI / 4d, of("1", "1").Argument().doubleValue());
+            assertEquals(Math.PI, of("-1", "0").Argument().doubleValue());
+        }
+        @Test
+        public void text() {
+            assertEquals("1.5+-2.0i", of("1.5", "-2.0").toString());
+            assertEquals("1.5-2.0\\,i", of("1.5", "-2.0").toLaTeX());
+            assertEquals("1.5\\times10^{-12}+2\\,i", of("1.5E-12", "2").toLaTeX());
+            assertEquals("0+1\\times10^{20}\\,i", of("0", "1E+20").toLaTeX());
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package self.kearse.mathapp;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit testing for the ComplexDoubleArray class
+ */
+public class ComplexDoubleArrayUnitTest {
+
+    @Nested
+    public class ConversionTests {
+        @Test
+        public void fromListRetainsValues() {
+            List<Complex<Double>> list = Arrays.<Complex<Double>>asList(
+                    new ComplexDoubleCartesian(1d, 2d),
+                    new ComplexDoublePolar(0d, 3d));
+            ComplexDoubleArray array = ComplexDoubleArray.fromList(list);
+            assertEquals(2, array.length());
+            assertEquals(new ComplexDouble(1d, 2d), array.get(0));
+            assertEquals(new ComplexDouble(3d, 0d), array.get(1));
+        }
+        @Test
+        public void toListRoundTrip() {
+            ComplexDoubleArray array = new ComplexDoubleArray(
+                    new double[] {1d, -2d}, new double[] {0.5d, 4d});
+            assertEquals(array, ComplexDoubleArray.fromList(array.toList()));
+        }
+        @Test
+        public void mismatchedComponents() {
+            assertThrows(IllegalArgumentException.class,
+                    () -> new ComplexDoubleArray(new double[2], new double[3]));
+        }
+    }
+
+    @Nested
+    public class KernelTests {
+        ComplexDoubleArray a;
+        ComplexDoubleArray b;
+        @BeforeEach
+        public void setup() {
+            a = new ComplexDoubleArray(new double[] {1d, 5d}, new double[] {2d, 5d});
+            b = new ComplexDoubleArray(new double[] {3d, 3d}, new double[] {-1d, -1d});
+        }
+        @Test
+        public void addTest() {
+            a.add(b);
+            assertEquals(new ComplexDouble(4d, 1d), a.get(0));
+            assertEquals(new ComplexDouble(8d, 4d), a.get(1));
+        }
+        @Test
+        public void subtractTest() {
+            a.subtract(b);
+            assertEquals(new ComplexDouble(-2d, 3d), a.get(0));
+        }
+        @Test
+        public void multiplyTest() {
+            a.multiply(b);
+            assertEquals(new ComplexDouble(5d, 5d), a.get(0));
+        }
+        @Test
+        public void divideTest() {
+            a.divide(b);
+            assertEquals(new ComplexDouble(1d, 2d), a.get(1));
+        }
+        @Test
+        public void scaleAndConjugate() {
+            a.scale(2d).conjugate();
+            assertEquals(new ComplexDouble(2d, -4d), a.get(0));
+        }
+        @Test
+        public void modulusAndArgument() {
+            ComplexDoubleArray c = new ComplexDoubleArray(
+                    new double[] {3d, -1d}, new double[] {4d, 0d});
+            assertArrayEquals(new double[] {5d, 1d}, c.modulus());
+            assertArrayEquals(new double[] {Math.atan2(4d, 3d), Math.PI}, c.argument());
+        }
+        @Test
+        public void expAndLog() {
+            Transcendental[] backends = {Transcendental.STRICT, Transcendental.FAST};
+            for (Transcendental backend : backends) {
+                ComplexDoubleArray c = a.copy().log(backend);
+                for (int i = 0; i < a.length(); i++) {
+                    Complex<Double> expected = Complex.Log(a.get(i));
+                    assertEquals(expected.real(), c.get(i).re(), 1E-15);
+                    assertEquals(expected.imaginary(), c.get(i).im(), 1E-15);
+                }
+                c.exp(backend);
+                for (int i = 0; i < a.length(); i++) {
+                    assertEquals(a.get(i).re(), c.get(i).re(), 1E-14);
+                    assertEquals(a.get(i).im(), c.get(i).im(), 1E-14);
+                }
+            }
+        }
+        @Test
+        public void lengthMismatch() {
+            assertThrows(IllegalArgumentException.class, () -> a.add(new ComplexDoubleArray(3)));
+        }
+    }
+}
@@ -68,4 +68,54 @@ public class ComplexDoubleCartesianUnitTest {
             }
         }
     }
+
+    /**
+     * Tests for the derived quantities, which are cached after their first computation.
+     */
+    @Nested
+    public class DerivativesTests {
+        @Test
+        void ModulusRepeatable() {
+            Complex<Double> z = new ComplexDoubleCartesian(3d, -4d);
+            assertEquals(new Double(5d), z.modulus());
+            assertEquals(new Double(5d), z.modulus());
+        }
+        @Test
+        void ArgumentRepeatable() {
+            Complex<Double> z = new ComplexDoubleCartesian(-1d, 1d);
+            assertEquals(new Double(3d * Math.PI / 4d), z.Argument());
+            assertSame(z.Argument(), z.Argument(), "Argument is computed once");
+        }
+        @Test
+        void ArgumentImaginaryAxis() {
+            assertEquals(new Double(Math.PI / 2d), new ComplexDoubleCartesian(0d, 2d).Argument());
+            assertEquals(new Double(-Math.PI / 2d), new ComplexDoubleCartesian(0d, -2d).Argument());
+            assertEquals(new Double(Math.PI), new ComplexDoubleCartesian(-2d, -0d).Argument());
+        }
+        @Test
+        void MultiplyInverseTest() {
+            assertEquals(new ComplexDoubleCartesian(0.12d, -0.16d),
+                    new ComplexDoubleCartesian(3d, 4d).multInverse());
+            assertThrows(ArithmeticException.class,
+                    () -> new ComplexDoubleCartesian(0d, 0d).multInverse());
+        }
+        @Test
+        void DivideByZero() {
+            assertThrows(ArithmeticException.class,
+                    () -> new ComplexDoubleCartesian(1d, 0d).divide(new ComplexDoubleCartesian(0d, 0d)));
+        }
+        @Test
+        void MultiplyInverseExtremeTest() {
+            Complex<Double> inverse = new ComplexDoubleCartesian(1e-170, 1e-170).multInverse();
+            assertEquals(0.5e170, inverse.real(), 0.5e170 * 1e-15);
+            assertEquals(-0.5e170, inverse.imaginary(), 0.5e170 * 1e-15);
+            inverse = new ComplexDoubleCartesian(1e200, -1e200).multInverse();
+            assertEquals(0.5e-200, inverse.real(), 0.5e-200 * 1e-15);
+            assertEquals(0.5e-200, inverse.imaginary(), 0.5e-200 * 1e-15);
+            assertThrows(ArithmeticException.class,
+                    () -> new ComplexDoubleCartesian(-0d, 0d).multInverse());
+            assertThrows(ArithmeticException.class,
+                    () -> new ComplexDoubleCartesian(1d, 0d).divide(new ComplexDoubleCartesian(-0d, -0d)));
+        }
+    }
 }
\ No newline at end of file
@@ -96,6 +96,20 @@ public class ComplexDoublePolarUnitTest {
             assertEquals(Math.PI, Argument);
         }
         @Test
+        void NegativeModulusNormalized() {
+            ComplexDoublePolar negativeTwo = new ComplexDoublePolar(0d, -2d);
+            assertEquals(new Double(2d), negativeTwo.modulus(),
+                    "Modulus is non-negative from construction");
+            assertEquals(new Double(Math.PI), negativeTwo.Argument());
+        }
+        @Test
+        void NormalizedOnceAtConstruction() {
+            ComplexDoublePolar wrapped = new ComplexDoublePolar(3d * Math.PI, -1d);
+            Double Argument = wrapped.Argument();
+            assertSame(Argument, wrapped.Argument(), "Reading the Argument does not rewrite it");
+            assertEquals(new Double(1d), wrapped.modulus());
+        }
+        @Test
         void BelowBoundsCheck() {
             ComplexDoublePolar negative = new ComplexDoublePolar(-1000d, 1d);
             double Argument = negative.Argument();
@@ -155,6 +169,13 @@ public class ComplexDoublePolarUnitTest {
             assertEquals(new Double(-1d), negativeiPolar.imaginary());
         }
 
+        @Test
+        void ToCartesianTest() {
+            ComplexDoubleCartesian cartesian = ((ComplexDoublePolar) negativeiPolar).toCartesian();
+            assertEquals(negativeiPolar.real(), cartesian.real());
+            assertEquals(new Double(-1d), cartesian.imaginary());
+        }
+
         @Test
         void AddInverseTest() {
             //TODO: revert to primitive zero if possible
@@ -162,6 +183,14 @@ public class ComplexDoublePolarUnitTest {
             assertEquals(zero, negativeiPolar.add(negativeiPolar.addInverse()));
         }
 
+        @Test
+        void AddInverseIsCartesianTest() {
+            Complex<Double> inverse = fortytwoPolar.addInverse();
+            assertTrue(inverse instanceof ComplexDoubleCartesian);
+            assertEquals(-fortytwoPolar.real(), inverse.real(), 0d);
+            assertEquals(-fortytwoPolar.imaginary(), inverse.imaginary(), 0d);
+        }
+
         @Test
         void MultiplyInverseTest() {
             //TODO: revert to primitive one if possible
@@ -0,0 +1,123 @@
+package self.kearse.mathapp;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit testing for the ComplexDouble class
+ */
+public class ComplexDoubleUnitTest {
+    /** The allowed tolerance for computational error (when checking equality). */
+    private static double TOLERANCE = 1E-15;
+
+    /**
+     * Tests to ensure that the primitive accessors agree with the Complex accessors.
+     */
+    @Nested
+    public class AccessorTests {
+        @Test
+        void PrimitiveComponents() {
+            ComplexDouble z = new ComplexDouble(3d, -4d);
+            assertEquals(3d, z.re());
+            assertEquals(-4d, z.im());
+            assertEquals(new Double(3d), z.real());
+            assertEquals(new Double(-4d), z.imaginary());
+        }
+        @Test
+        void PrimitiveModulus() {
+            assertEquals(5d, new ComplexDouble(3d, -4d).abs());
+            assertEquals(25d, new ComplexDouble(3d, -4d).abs2());
+        }
+        @Test
+        void ArgumentQuadrants() {
+            assertEquals(Math.PI / 2d, ComplexDouble.I.arg());
+            assertEquals(-Math.PI / 2d, new ComplexDouble(0d, -1d).arg());
+            assertEquals(Math.PI, new ComplexDouble(-1d, 0d).arg());
+            assertEquals(Math.PI, new ComplexDouble(-1d, -0d).arg(),
+                    "A negative zero imaginary part stays within the principal range");
+            assertEquals(0d, ComplexDouble.ZERO.arg());
+        }
+    }
+
+    @Nested
+    public class MathTests {
+        @Test
+        public void addTests() {
+            assertEquals(new ComplexDouble(4d, 1d),
+                    new ComplexDouble(1d, 2d).add(new ComplexDouble(3d, -1d)));
+            assertEquals(new ComplexDouble(4d, 1d),
+                    new ComplexDouble(1d, 2d).add(new ComplexDoubleCartesian(3d, -1d)));
+        }
+        @Test
+        public void subtractTests() {
+            assertEquals(new ComplexDouble(-2d, 3d),
+                    new ComplexDouble(1d, 2d).subtract(3d, -1d));
+        }
+        @Test
+        public void multiplyTests() {
+            assertEquals(new ComplexDouble(-1d, 0d), ComplexDouble.I.multiply(ComplexDouble.I));
+            assertEquals(new ComplexDouble(5d, 5d),
+                    new ComplexDouble(1d, 2d).multiply(new ComplexDouble(3d, -1d)));
+        }
+        @Test
+        public void divideTests() {
+            assertEquals(new ComplexDouble(1d, 2d),
+                    new ComplexDouble(5d, 5d).divide(new ComplexDouble(3d, -1d)));
+            assertThrows(ArithmeticException.class,
+                    () -> ComplexDouble.ONE.divide(ComplexDouble.ZERO));
+        }
+        @Test
+        public void multInverseTest() {
+            assertEquals(ComplexDouble.ONE,
+                    new ComplexDouble(3d, 4d).multiply(new ComplexDouble(3d, 4d).multInverse()));
+            assertThrows(ArithmeticException.class, ComplexDouble.ZERO::multInverse);
+        }
+        @Test
+        public void extremeRange() {
+            /* Squaring these components would overflow or underflow */
+            ComplexDouble big = new ComplexDouble(1e200, 1e200), tiny = new ComplexDouble(1e-170, 1e-170);
+            assertEquals(ComplexDouble.ONE, big.divide(big));
+            assertEquals(Math.sqrt(2d) * 1e200, big.abs(), 1e200 * TOLERANCE);
+            assertEquals(Math.sqrt(2d) * 1e-170, tiny.abs(), 1e-170 * TOLERANCE);
+            ComplexDouble quotient = ComplexDouble.ONE.divide(tiny);
+            assertEquals(0.5e170, quotient.re(), 0.5e170 * TOLERANCE);
+            assertEquals(-0.5e170, quotient.im(), 0.5e170 * TOLERANCE);
+            assertEquals(quotient, tiny.multInverse());
+            assertEquals(0.5e-200, big.multInverse().re(), 0.5e-200 * TOLERANCE);
+            assertThrows(ArithmeticException.class, () -> new ComplexDouble(-0d, 0d).multInverse());
+        }
+        @Test
+        public void polarConstruction() {
+            ComplexDouble z = ComplexDouble.polar(Math.PI / 2d, 2d);
+            assertTrue(Math.abs(z.re()) < TOLERANCE);
+            assertEquals(2d, z.im());
+        }
+    }
+
+    @Nested
+    public class InteroperabilityTests {
+        @Test
+        public void cartesianEquality() {
+            assertEquals(new ComplexDoubleCartesian(42d, -1d), new ComplexDouble(42d, -1d));
+            assertEquals(new ComplexDouble(42d, -1d), new ComplexDoubleCartesian(42d, -1d));
+        }
+        @Test
+        public void lesserTypes() {
+            assertEquals(new ComplexDouble(42d, 0d), 42d);
+            assertNotEquals(new ComplexDouble(42d, 1d), 42d);
+        }
+        @Test
+        public void valueOfRetainsInstance() {
+            ComplexDouble z = new ComplexDouble(1d, 1d);
+            assertSame(z, ComplexDouble.valueOf(z));
+            assertEquals(z, ComplexDouble.valueOf(new ComplexDoubleCartesian(1d, 1d)));
+        }
+        @Test
+        public void hashCodeConsistent() {
+            assertEquals(new ComplexDouble(1.5d, -2d).hashCode(),
+                    new ComplexDouble(1.5d, -2d).hashCode());
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package self.kearse.mathapp;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit testing for the ComplexEigenSolver class
+ */
+public class ComplexEigenSolverUnitTest {
+    /** The allowed tolerance for computational error (when checking equality). */
+    private static final double TOLERANCE = 1E-9;
+
+    /** Asserts that the expected values and the actual values are the same, in any order. */
+    private static void assertSameValues (ComplexDoubleArray expected, ComplexDoubleArray actual, double tolerance) {
+        assertEquals(expected.length(), actual.length());
+        boolean[] used = new boolean[actual.length()];
+        for (int i = 0; i < expected.length(); i++) {
+            int closest = -1;
+            double distance = Double.POSITIVE_INFINITY;
+            for (int j = 0; j < actual.length(); j++) {
+                double d = Math.hypot(expected.re()[i] - actual.re()[j], expected.im()[i] - actual.im()[j]);
+                if (!used[j] && (d < distance)) {
+                    distance = d;
+                    closest = j;
+                }
+            }
+            assertTrue(distance < tolerance, String.format("Value %s, maximum error: %s, actual: %s",
+                    expected.get(i), tolerance, distance));
+            used[closest] = true;
+        }
+    }
+
+    private static ComplexMatrix random (int size, long seed) {
+        Random random = new Random(seed);
+        ComplexMatrix matrix = new ComplexMatrix(size, size);
+        for (int k = 0; k < size * size; k++) {
+            matrix.re()[k] = random.nextGaussian();
+            matrix.im()[k] = random.nextGaussian();
+        }
+        return matrix;
+    }
+
+    @Nested
+    public class MatrixTests {
+        @Test
+        public void triangular() {
+            ComplexMatrix matrix = random(6, 1L);
+            for (int r = 0; r < 6; r++) {
+                for (int c = 0; c < r; c++) matrix.set(r, c, 0d, 0d);
+            }
+            ComplexDoubleArray diagonal = new ComplexDoubleArray(6);
+            for (int k = 0; k < 6; k++) diagonal.set(k, matrix.get(k, k));
+            assertSameValues(diagonal, new ComplexEigenSolver().eigenvalues(matrix), TOLERANCE);
+        }
+        @Test
+        public void similarity() {
+            /* A = S D S^-1 has the eigenvalues on the diagonal of D */
+            int n = 40;
+            ComplexMatrix s = random(n, 2L);
+            ComplexDoubleArray values = new ComplexDoubleArray(n);
+            ComplexMatrix sd = s.copy();
+            for (int k = 0; k < n; k++) {
+                values.set(k, k - 20d, (k % 3) - 1d);
+                for (int r = 0; r < n; r++) sd.set(r, k, sd.get(r, k).multiply(values.get(k)));
+            }
+            ComplexMatrix a = sd.multiply(s.lu().solve(ComplexMatrix.identity(n)));
+            ComplexMatrix copy = a.copy();
+            assertSameValues(values, new ComplexEigenSolver().eigenvalues(a), 1E-8);
+            assertEquals(copy, a);
+        }
+        @Test
+        public void traceAndDeterminant() {
+            /* The eigenvalues sum to the trace and multiply to the determinant */
+            int n = 120;
+            ComplexMatrix a = random(n, 3L);
+            ComplexDouble trace = ComplexDouble.ZERO;
+            for (int k = 0; k < n; k++) trace = trace.add(a.get(k, k));
+            ComplexDouble determinant = ComplexDouble.valueOf(a.determinant());
+            ComplexDoubleArray eigenvalues = new ComplexEigenSolver().eigenvaluesInPlace(a);
+            ComplexDouble sum = ComplexDouble.ZERO, product = ComplexDouble.ONE;
+            for (int k = 0; k < n; k++) {
+                sum = sum.add(eigenvalues.get(k));
+                product = product.multiply(eigenvalues.get(k));
+            }
+            assertEquals(0d, sum.subtract(trace).abs(), TOLERANCE);
+            assertEquals(0d, product.divide(determinant).subtract(ComplexDouble.ONE).abs(), TOLERANCE);
+        }
+        @Test
+        public void rotation() {
+            /* A real rotation has the eigenvalues e^(+-i theta), which the shifts must not cycle over */
+            ComplexMatrix rotation = ComplexMatrix.fromList(Arrays.asList(
+                    Arrays.asList(new ComplexDouble(0d, 0d), new ComplexDouble(-1d, 0d)),
+                    Arrays.asList(new ComplexDouble(1d, 0d), new ComplexDouble(0d, 0d))));
+            assertSameValues(new ComplexDoubleArray(new double[2], new double[] {1d, -1d}),
+                    new ComplexEigenSolver().eigenvalues(rotation), TOLERANCE);
+        }
+        @Test
+        public void invalid() {
+            assertThrows(IllegalArgumentException.class, () -> new ComplexEigenSolver(0));
+            assertThrows(IllegalArgumentException.class,
+                    () -> new ComplexEigenSolver().eigenvalues(new ComplexMatrix(2, 3)));
+            assertEquals(0, new ComplexEigenSolver().eigenvalues(new ComplexMatrix(0, 0)).length());
+        }
+    }
+
+    @Nested
+    public class PolynomialTests {
+        @Test
+        public void quadraticComplexRoots() {
+            /* z^2 + 1 has roots i and -i */
+            List<Complex<Double>> roots = new ComplexEigenSolver().polynomialRoots(Arrays.<Complex<Double>>asList(
+                    new ComplexDoubleCartesian(1d, 0d), new ComplexDoubleCartesian(0d, 0d),
+                    new ComplexDoublePolar(0d, 1d)));
+            assertSameValues(new ComplexDoubleArray(new double[2], new double[] {1d, -1d}),
+                    ComplexDoubleArray.fromList(roots), TOLERANCE);
+        }
+        @Test
+        public void zeroRootsAndLeadingZeros() {
+            /* z^4 - z^2 = z^2(z - 1)(z + 1), with leading zero coefficients */
+            ComplexDoubleArray roots = new ComplexEigenSolver().polynomialRoots(new ComplexDoubleArray(
+                    new double[] {0d, 0d, -1d, 0d, 1d, 0d}, new double[6]));
+            assertSameValues(new ComplexDoubleArray(new double[] {0d, 0d, 1d, -1d}, new double[4]),
+                    roots, TOLERANCE);
+            assertEquals(0, new ComplexEigenSolver().polynomialRoots(
+                    new ComplexDoubleArray(new double[] {3d}, new double[1])).length());
+            assertThrows(IllegalArgumentException.class,
+                    () -> new ComplexEigenSolver().polynomialRoots(new ComplexDoubleArray(3)));
+        }
+        @Test
+        public void complexCoefficients() {
+            /* (z - (1 + 2i))(z + 3i)(z - 0.5) */
+            ComplexDoubleArray expected = new ComplexDoubleArray(new double[] {1d, 0d, 0.5d},
+                    new double[] {2d, -3d, 0d});
+            ComplexDoubleArray coefficients = new ComplexDoubleArray(new double[] {1d, 0d, 0d, 0d},
+                    new double[4]);
+            for (int k = 0; k < 3; k++) {
+                /* Multiply by (z - root) */
+                ComplexDouble root = expected.get(k);
+                for (int power = k + 1; power >= 0; power--) {
+                    ComplexDouble lower = (power == 0) ? ComplexDouble.ZERO : coefficients.get(power - 1);
+                    coefficients.set(power, lower.subtract(coefficients.get(power).multiply(root)));
+                }
+            }
+            assertSameValues(expected, new ComplexEigenSolver().polynomialRoots(coefficients), TOLERANCE);
+        }
+        @Test
+        public void rootsOfComplexNumber() {
+            /* z^n - c, with roots matching Complex.roots */
+            int degree = 100;
+            Complex<Double> c = new ComplexDoubleCartesian(0.5d, -2d);
+            ComplexDoubleArray coefficients = new ComplexDoubleArray(degree + 1);
+            coefficients.set(0, -0.5d, 2d);
+            coefficients.set(degree, 1d, 0d);
+            assertSameValues(ComplexDoubleArray.fromList(Complex.roots(c, degree)),
+                    new ComplexEigenSolver().polynomialRoots(coefficients), TOLERANCE);
+        }
+    }
+}
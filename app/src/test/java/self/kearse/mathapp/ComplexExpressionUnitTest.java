@@ -0,0 +1,133 @@
+package self.kearse.mathapp;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit testing for the ComplexExpression class
+ */
+public class ComplexExpressionUnitTest {
+    /** The allowed tolerance for computational error (when checking equality). */
+    private static double TOLERANCE = 1E-12;
+
+    private static void assertClose(Complex<? extends Number> expected, Complex<Double> actual) {
+        double re = expected.real().doubleValue() - actual.real();
+        double im = expected.imaginary().doubleValue() - actual.imaginary();
+        assertTrue(Math.sqrt((re * re) + (im * im)) < TOLERANCE,
+                String.format("Expected %s, was %s", expected, actual));
+    }
+
+    /**
+     * Tests that chains agree with the eager operations they replace.
+     */
+    @Nested
+    public class AgreementTests {
+        private final Complex<Double> a = new ComplexDoubleCartesian(1.5d, -2d);
+        private final Complex<Double> b = new ComplexDoublePolar(2.5d, 0.75d);
+        private final Complex<Double> c = new ComplexDouble(-0.5d, 3d);
+
+        @Test
+        public void noOperations() {
+            assertClose(a, ComplexExpression.of(a).evaluate());
+            assertClose(b, ComplexExpression.of(b).evaluate());
+        }
+        @Test
+        public void additiveRun() {
+            assertClose(a.add(b).subtract(c).add(b),
+                    ComplexExpression.of(a).add(b).subtract(c).add(b).evaluate());
+        }
+        @Test
+        public void multiplicativeRun() {
+            assertClose(b.multiply(b).multiply(a).divide(b).multiply(c),
+                    ComplexExpression.of(b).multiply(b).multiply(a).divide(b).multiply(c).evaluate());
+            assertClose(a.multiply(b).multiply(b).add(c),
+                    ComplexExpression.of(a).multiply(b).multiply(b).add(c).evaluate());
+        }
+        @Test
+        public void mixedChain() {
+            Complex<Double> expected = Complex.Exp(Complex.Log(a.multiply(b).add(c)).multiply(b))
+                    .divide(c);
+            assertClose(expected, ComplexExpression.of(a).multiply(b).add(c).log().multiply(b)
+                    .exp().divide(c).evaluate());
+        }
+        @Test
+        public void power() {
+            assertClose(Complex.Exp(Complex.Log(a).multiply(c)),
+                    ComplexExpression.of(a).pow(c).evaluate());
+            assertClose(b.multiply(b).multiply(b),
+                    ComplexExpression.of(b).pow(new ComplexDouble(3d, 0d)).evaluate());
+        }
+        @Test
+        public void powerMatchesComplexPow() {
+            Complex<Double> three = new ComplexDouble(3d, 0d), half = new ComplexDouble(0.5d, 0d);
+            assertEquals(ComplexDouble.valueOf(b.pow(three)),
+                    ComplexDouble.valueOf(ComplexExpression.of(b).pow(three).evaluate()));
+            assertEquals(ComplexDouble.valueOf(a.pow(half)),
+                    ComplexDouble.valueOf(ComplexExpression.of(a).pow(half).evaluate()));
+            assertEquals(ComplexDouble.ZERO, ComplexDouble.valueOf(
+                    ComplexExpression.of(ComplexDouble.ZERO).pow(three).evaluate()));
+            assertEquals(ComplexDouble.ONE, ComplexDouble.valueOf(
+                    ComplexExpression.of(ComplexDouble.ZERO).pow(ComplexDouble.ZERO).evaluate()));
+            assertThrows(ArithmeticException.class,
+                    () -> ComplexExpression.of(ComplexDouble.ZERO).pow(new ComplexDouble(-1d, 0d)).evaluate());
+        }
+        @Test
+        public void logarithmOfAccumulatedArgument() {
+            Complex<Double> z = new ComplexDoublePolar(3d, 1d);
+            assertClose(Complex.Log(z.multiply(z).multiply(z)),
+                    ComplexExpression.of(z).multiply(z).multiply(z).log().evaluate());
+        }
+    }
+
+    @Nested
+    public class FusionTests {
+        @Test
+        public void expLogCancels() {
+            ComplexDouble z = new ComplexDouble(0.1d, 0.2d);
+            assertEquals(z, ComplexExpression.of(z).log().exp().evaluate(),
+                    "Exp(Log(x)) is x exactly");
+        }
+        @Test
+        public void polarRunStaysPolar() {
+            Complex<Double> z = new ComplexDoublePolar(1d, 2d);
+            Complex<Double> product = ComplexExpression.of(z).multiply(z).multiply(z).evaluate();
+            assertTrue(product instanceof ComplexDoublePolar);
+            assertEquals(3d, product.Argument(), TOLERANCE);
+            assertEquals(8d, product.modulus(), TOLERANCE);
+        }
+        @Test
+        public void cartesianRunStaysCartesian() {
+            Complex<Double> product = ComplexExpression.of(ComplexDouble.I)
+                    .multiply(ComplexDouble.I).add(ComplexDouble.ONE).evaluate();
+            assertEquals(ComplexDouble.ZERO, product, "i*i+1 has no rounding error in Cartesian form");
+        }
+    }
+
+    @Nested
+    public class ExceptionTests {
+        @Test
+        public void nullOperands() {
+            assertThrows(NullPointerException.class, () -> ComplexExpression.of(null));
+            assertThrows(NullPointerException.class,
+                    () -> ComplexExpression.of(ComplexDouble.ONE).multiply(null));
+        }
+        @Test
+        public void logarithmOfZero() {
+            assertThrows(ArithmeticException.class,
+                    () -> ComplexExpression.of(ComplexDouble.ZERO).log().evaluate());
+            assertThrows(ArithmeticException.class,
+                    () -> ComplexExpression.of(ComplexDouble.ZERO).log().exp().evaluate(),
+                    "Cancelling Exp(Log(x)) still requires Log(x) to exist");
+        }
+        @Test
+        public void divideByZero() {
+            assertThrows(ArithmeticException.class,
+                    () -> ComplexExpression.of(ComplexDouble.ONE).divide(ComplexDouble.ZERO).evaluate());
+            assertThrows(ArithmeticException.class,
+                    () -> ComplexExpression.of(new ComplexDoublePolar(1d, 1d))
+                            .divide(new ComplexDoublePolar(0d, 0d)).evaluate());
+        }
+    }
+}
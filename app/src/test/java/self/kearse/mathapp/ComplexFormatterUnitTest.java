@@ -0,0 +1,172 @@
+package self.kearse.mathapp;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit testing for the ComplexFormatter class
+ */
+public class ComplexFormatterUnitTest {
+    @Nested
+    public class ShortestTests {
+        @Test
+        public void cartesian() {
+            assertEquals("1.5-2.0i", ComplexFormatter.CARTESIAN.format(1.5d, -2d));
+            assertEquals("0.1+0.30000000000000004i", ComplexFormatter.CARTESIAN.format(0.1d, 0.1d + 0.2d));
+            assertEquals("-0.0-0.0i", ComplexFormatter.CARTESIAN.format(-0d, -0d));
+            assertEquals("NaN+Infinityi", ComplexFormatter.CARTESIAN.format(Double.NaN, Double.POSITIVE_INFINITY));
+            assertEquals("1.0E-5+1.0E7i", ComplexFormatter.CARTESIAN.format(new ComplexDouble(1e-5d, 1e7d)));
+        }
+        @Test
+        public void polar() {
+            assertEquals("2.0*e^(i*-1.5707963267948966)", ComplexFormatter.POLAR.format(0d, -2d));
+            assertEquals("1.0*e^(i*3.0)", ComplexFormatter.POLAR.format(new ComplexDoublePolar(3d, 1d)));
+        }
+        @Test
+        public void latex() {
+            assertEquals("1.5-2.0\\,i", ComplexFormatter.CARTESIAN_LATEX.format(1.5d, -2d));
+            assertEquals("1.0\\times10^{-5}+\\infty\\,i",
+                    ComplexFormatter.CARTESIAN_LATEX.format(1e-5d, Double.POSITIVE_INFINITY));
+            assertEquals("\\mathrm{NaN}-\\infty\\,i",
+                    ComplexFormatter.CARTESIAN_LATEX.format(Double.NaN, Double.NEGATIVE_INFINITY));
+            assertEquals("3.0\\,e^{1.5\\,i}", ComplexFormatter.POLAR_LATEX.format(new ComplexDoublePolar(1.5d, 3d)));
+        }
+        @Test
+        public void roundTrip() {
+            double[] values = {Math.PI, -1e-300, Double.MIN_VALUE, Double.MAX_VALUE, 123456.789d, 1d / 3d};
+            for (double value : values) {
+                String text = ComplexFormatter.CARTESIAN.format(value, 0d);
+                assertEquals(value, Double.parseDouble(text.substring(0, text.length() - "+0.0i".length())), 0d);
+            }
+        }
+    }
+
+    @Nested
+    public class ExistingFormatTests {
+        @Test
+        public void toStringUnchanged() {
+            assertEquals("1.0+-2.0i", new ComplexDouble(1d, -2d).toString());
+            assertEquals("1.0+-2.0i", new ComplexDoubleCartesian(1d, -2d).toString());
+            assertEquals("1.0+-2.0i", new MutableComplexDouble(1d, -2d).toString());
+            assertEquals("1.0*e^(i*1.5707963267948966)", new ComplexDoublePolar(Math.PI / 2d, 1d).toString());
+        }
+        @Test
+        public void toLaTeX() {
+            assertEquals("1.0-2.0\\,i", new ComplexDoubleCartesian(1d, -2d).toLaTeX());
+            assertEquals("0.5+0.25\\,i", new ComplexDouble(0.5d, 0.25d).toLaTeX());
+            assertEquals("2.0\\,e^{-0.5\\,i}", new ComplexDoublePolar(-0.5d, 2d).toLaTeX());
+        }
+    }
+
+    @Nested
+    public class PrecisionTests {
+        private String format (int precision, double value) {
+            String text = ComplexFormatter.CARTESIAN.withPrecision(precision).format(value, 0d);
+            return text.substring(0, text.indexOf("+0.0i"));
+        }
+        @Test
+        public void rounding() {
+            assertEquals("3.14", format(3, Math.PI));
+            assertEquals("-3.1416", format(5, -Math.PI));
+            assertEquals("1000.0", format(4, 999.96d));
+            assertEquals("0.5", format(6, 0.5d));
+            assertEquals("120.0", format(2, 123d));
+            assertEquals("0.00123", format(3, 0.0012345d));
+            assertEquals("0.0", format(3, 0d));
+            assertEquals("-0.0", format(3, -0d));
+        }
+        @Test
+        public void scientific() {
+            assertEquals("1.23E7", format(3, 12345678d));
+            assertEquals("1.23E-4", format(3, 0.00012345d));
+            assertEquals("4.9E-324", format(2, Double.MIN_VALUE));
+            assertEquals("1.8E308", format(2, Double.MAX_VALUE));
+            assertEquals("1.0E10", format(3, 9.9999e9d));
+            assertEquals("1.23\\times10^{-4}+0.0\\,i",
+                    ComplexFormatter.CARTESIAN_LATEX.withPrecision(3).format(0.00012345d, 0d));
+        }
+        @Test
+        public void fullPrecisionMatchesShortest() {
+            assertEquals(Double.toString(0.1d), format(17, 0.1d).substring(0, 3));
+            assertEquals(1d / 3d, Double.parseDouble(format(17, 1d / 3d)), 0d);
+        }
+        @Test
+        public void fullPrecisionReadsBack() {
+            int precision = ComplexFormatter.MAX_PRECISION;
+            assertEquals(Double.MAX_VALUE, Double.parseDouble(format(precision, Double.MAX_VALUE)));
+            assertEquals(Double.MIN_VALUE, Double.parseDouble(format(precision, Double.MIN_VALUE)));
+            Random random = new Random(24L);
+            for (int k = 0; k < 10000; k++) {
+                double value = Double.longBitsToDouble(random.nextLong() & Long.MAX_VALUE);
+                if (Double.isNaN(value) || Double.isInfinite(value)) continue;
+                assertEquals(value, Double.parseDouble(format(precision, value)));
+            }
+        }
+        @Test
+        public void digitsMatchExactRounding() {
+            assertEquals("0.12", format(2, 0.125d));
+            Random random = new Random(17L);
+            for (int k = 0; k < 10000; k++) {
+                double value = (random.nextDouble() + 0.5d) * Math.pow(10d, random.nextInt(40) - 20);
+                int precision = 1 + random.nextInt(ComplexFormatter.MAX_PRECISION);
+                BigDecimal expected = new BigDecimal(value).round(
+                        new MathContext(precision, RoundingMode.HALF_EVEN));
+                assertEquals(0, expected.compareTo(new BigDecimal(format(precision, value))),
+                        String.format("%s to %d digits", new BigDecimal(value), precision));
+            }
+        }
+        @Test
+        public void invalid() {
+            assertThrows(IllegalArgumentException.class, () -> ComplexFormatter.POLAR.withPrecision(-1));
+            assertThrows(IllegalArgumentException.class,
+                    () -> ComplexFormatter.POLAR.withPrecision(ComplexFormatter.MAX_PRECISION + 1));
+            assertEquals(4, ComplexFormatter.POLAR.withPrecision(4).withLaTeX(true).precision());
+            assertTrue(ComplexFormatter.CARTESIAN.withPolar(true).isPolar());
+        }
+    }
+
+    @Nested
+    public class BulkTests {
+        @Test
+        public void appendableMatchesBuilder() throws IOException {
+            int n = 5000;
+            ComplexDoubleArray values = new ComplexDoubleArray(n);
+            for (int k = 0; k < n; k++) values.set(k, Math.sin(k), -Math.cos(k) * k);
+            StringBuilder builder = new StringBuilder();
+            StringWriter writer = new StringWriter();
+            ComplexFormatter.CARTESIAN.appendAll(builder, values, ", ");
+            ComplexFormatter.CARTESIAN.appendAll(writer, values, ", ");
+            assertEquals(builder.toString(), writer.toString());
+            String[] parts = writer.toString().split(", ");
+            assertEquals(n, parts.length);
+            assertEquals(ComplexFormatter.CARTESIAN.format(values.get(1234)), parts[1234]);
+        }
+        @Test
+        public void list() throws IOException {
+            StringWriter writer = new StringWriter();
+            ComplexFormatter.POLAR.withPrecision(3).appendAll(writer,
+                    Arrays.asList(new ComplexDoublePolar(1d, 2d), new ComplexDouble(0d, 1d)), "\n");
+            assertEquals("2.0*e^(i*1.0)\n1.0*e^(i*1.57)", writer.toString());
+            StringBuilder empty = new StringBuilder("x");
+            ComplexFormatter.CARTESIAN.appendAll(empty, new ComplexDoubleArray(0), ";");
+            assertEquals("x", empty.toString());
+        }
+        @Test
+        public void invalid() {
+            assertThrows(NullPointerException.class,
+                    () -> ComplexFormatter.CARTESIAN.appendAll(new StringBuilder(), new ComplexDoubleArray(2), null));
+            assertThrows(IndexOutOfBoundsException.class, () -> ComplexFormatter.CARTESIAN.appendAll(
+                    new StringBuilder(), new double[3], new double[2], 0, 3, ","));
+        }
+    }
+}
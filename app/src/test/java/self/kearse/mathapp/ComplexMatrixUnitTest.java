@@ -0,0 +1,205 @@
+package self.kearse.mathapp;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit testing for the ComplexMatrix class
+ */
+public class ComplexMatrixUnitTest {
+    private static ComplexMatrix random (int rows, int columns, long seed) {
+        Random random = new Random(seed);
+        ComplexMatrix matrix = new ComplexMatrix(rows, columns);
+        for (int k = 0; k < rows * columns; k++) {
+            matrix.re()[k] = random.nextDouble() - 0.5d;
+            matrix.im()[k] = random.nextDouble() - 0.5d;
+        }
+        return matrix;
+    }
+
+    /** The product by the definition, one element at a time */
+    private static ComplexMatrix naiveProduct (ComplexMatrix a, ComplexMatrix b) {
+        ComplexMatrix product = new ComplexMatrix(a.rows(), b.columns());
+        for (int i = 0; i < a.rows(); i++) {
+            for (int j = 0; j < b.columns(); j++) {
+                ComplexDouble sum = ComplexDouble.ZERO;
+                for (int k = 0; k < a.columns(); k++) sum = sum.add(a.get(i, k).multiply(b.get(k, j)));
+                product.set(i, j, sum);
+            }
+        }
+        return product;
+    }
+
+    private static void assertClose (ComplexMatrix expected, ComplexMatrix actual, double tolerance) {
+        assertEquals(expected.rows(), actual.rows());
+        assertEquals(expected.columns(), actual.columns());
+        for (int k = 0; k < expected.re().length; k++) {
+            assertEquals(expected.re()[k], actual.re()[k], tolerance, "Real component " + k);
+            assertEquals(expected.im()[k], actual.im()[k], tolerance, "Imaginary component " + k);
+        }
+    }
+
+    @Nested
+    public class ConstructorTests {
+        @Test
+        public void fromList() {
+            List<List<ComplexDouble>> values = Arrays.asList(
+                    Arrays.asList(new ComplexDouble(1d, 2d), new ComplexDouble(3d, 4d)),
+                    Arrays.asList(new ComplexDouble(5d, 6d), new ComplexDouble(7d, 8d)));
+            ComplexMatrix matrix = ComplexMatrix.fromList(values);
+            assertEquals(2, matrix.rows());
+            assertEquals(new ComplexDouble(3d, 4d), matrix.get(0, 1));
+            assertEquals(values, matrix.toList());
+        }
+        @Test
+        public void invalidDimensions() {
+            assertThrows(IllegalArgumentException.class, () -> new ComplexMatrix(-1, 2));
+            assertThrows(IllegalArgumentException.class, () -> new ComplexMatrix(2, 2, new double[3], null));
+            assertThrows(IllegalArgumentException.class, () -> ComplexMatrix.fromList(Arrays.asList(
+                    Arrays.asList(ComplexDouble.ONE), Arrays.asList(ComplexDouble.ONE, ComplexDouble.I))));
+            assertThrows(IndexOutOfBoundsException.class, () -> new ComplexMatrix(2, 3).get(2, 0));
+            assertThrows(NullPointerException.class, () -> new ComplexMatrix(2, 3).set(0, 0, null));
+        }
+    }
+
+    @Nested
+    public class ArithmeticTests {
+        @Test
+        public void smallProduct() {
+            ComplexMatrix a = ComplexMatrix.fromList(Arrays.asList(
+                    Arrays.asList(ComplexDouble.I, ComplexDouble.ONE)));
+            ComplexMatrix b = ComplexMatrix.fromList(Arrays.asList(
+                    Arrays.asList(ComplexDouble.I), Arrays.asList(new ComplexDouble(2d, 0d))));
+            assertEquals(new ComplexDouble(1d, 0d), a.multiply(b).get(0, 0));
+        }
+        @Test
+        public void blockedProduct() {
+            /* Dimensions crossing the block sizes, in a pool of more than one thread */
+            ComplexMatrix a = random(97, 150, 1L), b = random(150, 300, 2L);
+            ForkJoinPool pool = new ForkJoinPool(3);
+            try {
+                assertClose(naiveProduct(a, b), a.multiply(b, pool), 1e-12d);
+            } finally {
+                pool.shutdown();
+            }
+        }
+        @Test
+        public void vectorProduct() {
+            ComplexMatrix a = random(7, 5, 3L), v = random(5, 1, 4L);
+            ComplexDoubleArray product = a.multiply(new ComplexDoubleArray(v.re(), v.im()));
+            ComplexMatrix expected = naiveProduct(a, v);
+            assertArrayEquals(expected.re(), product.re(), 1e-14d);
+            assertArrayEquals(expected.im(), product.im(), 1e-14d);
+        }
+        @Test
+        public void mismatchedProduct() {
+            assertThrows(IllegalArgumentException.class, () -> random(2, 3, 1L).multiply(random(2, 3, 1L)));
+            assertThrows(IllegalArgumentException.class, () -> random(2, 3, 1L).add(random(3, 2, 1L)));
+            assertThrows(NullPointerException.class, () -> random(2, 2, 1L).multiply(random(2, 2, 1L), null));
+        }
+        @Test
+        public void addAndSubtract() {
+            ComplexMatrix a = random(4, 6, 5L), b = random(4, 6, 6L);
+            assertClose(a, a.copy().add(b).subtract(b), 1e-15d);
+        }
+        @Test
+        public void conjugateTranspose() {
+            ComplexMatrix a = random(45, 70, 7L);
+            ComplexMatrix h = a.conjugateTranspose();
+            assertEquals(70, h.rows());
+            for (int r = 0; r < a.rows(); r++) {
+                for (int c = 0; c < a.columns(); c++) {
+                    assertEquals(a.get(r, c).complement(), h.get(c, r));
+                    assertEquals(a.get(r, c), a.transpose().get(c, r));
+                }
+            }
+        }
+    }
+
+    @Nested
+    public class DecompositionTests {
+        @Test
+        public void permutedProduct() {
+            /* Larger than a block, so that the blocked update is used */
+            int n = 130;
+            ComplexMatrix a = random(n, n, 8L);
+            ComplexMatrix.LU lu = a.lu();
+            assertFalse(lu.isSingular());
+            ComplexMatrix permuted = new ComplexMatrix(n, n);
+            int[] permutation = lu.permutation();
+            for (int r = 0; r < n; r++) {
+                for (int c = 0; c < n; c++) permuted.set(r, c, a.get(permutation[r], c));
+            }
+            assertClose(permuted, lu.lower().multiply(lu.upper()), 1e-12d);
+        }
+        @Test
+        public void solve() {
+            int n = 110;
+            ComplexMatrix a = random(n, n, 9L), x = random(n, 3, 10L);
+            ComplexMatrix b = a.multiply(x);
+            assertClose(x, a.lu().solve(b), 1e-10d);
+            ComplexDoubleArray column = new ComplexDoubleArray(n);
+            for (int r = 0; r < n; r++) column.set(r, b.get(r, 1));
+            ComplexDoubleArray solution = a.solve(column);
+            for (int r = 0; r < n; r++) {
+                assertEquals(x.get(r, 1).re(), solution.re()[r], 1e-10d);
+                assertEquals(x.get(r, 1).im(), solution.im()[r], 1e-10d);
+            }
+        }
+        @Test
+        public void determinant() {
+            ComplexMatrix a = ComplexMatrix.fromList(Arrays.asList(
+                    Arrays.asList(new ComplexDouble(1d, 1d), new ComplexDouble(2d, 0d)),
+                    Arrays.asList(new ComplexDouble(3d, 0d), new ComplexDouble(0d, -1d))));
+            /* (1+i)(-i) - 6 = -5-i */
+            ComplexDouble determinant = ComplexDouble.valueOf(a.determinant());
+            assertEquals(-5d, determinant.re(), 1e-14d);
+            assertEquals(-1d, determinant.im(), 1e-14d);
+            ComplexDouble identity = ComplexDouble.valueOf(ComplexMatrix.identity(60).determinant());
+            assertEquals(ComplexDouble.ONE, identity);
+            /* Swapping two rows of the identity negates the determinant */
+            ComplexMatrix swapped = ComplexMatrix.identity(3);
+            swapped.set(0, 0, 0d, 0d);
+            swapped.set(1, 1, 0d, 0d);
+            swapped.set(0, 1, 1d, 0d);
+            swapped.set(1, 0, 1d, 0d);
+            assertEquals(-1d, swapped.determinant().real(), 0d);
+        }
+        @Test
+        public void extremeScales() {
+            /* Squaring these pivots would underflow or overflow */
+            ComplexMatrix tiny = new ComplexMatrix(2, 2);
+            tiny.set(0, 0, 1e-170, 0d);
+            tiny.set(1, 1, 0d, 1e-170);
+            assertFalse(tiny.lu().isSingular());
+            ComplexDoubleArray x = tiny.solve(new ComplexDoubleArray(new double[] {1e-170, 2e-170}, new double[2]));
+            assertEquals(1d, x.re()[0], 1e-14d);
+            assertEquals(0d, x.re()[1], 1e-14d);
+            assertEquals(-2d, x.im()[1], 1e-14d);
+            ComplexMatrix huge = new ComplexMatrix(2, 2,
+                    new double[] {1e200, 1e200, 1e199, 3e200}, new double[] {0d, 0d, 0d, 1e200});
+            ComplexDoubleArray y = huge.solve(huge.multiply(
+                    new ComplexDoubleArray(new double[] {1d, -2d}, new double[] {0.5d, 1d})));
+            assertArrayEquals(new double[] {1d, -2d}, y.re(), 1e-14d);
+            assertArrayEquals(new double[] {0.5d, 1d}, y.im(), 1e-14d);
+        }
+        @Test
+        public void singular() {
+            ComplexMatrix a = random(5, 5, 11L);
+            for (int r = 0; r < 5; r++) a.set(r, 2, 0d, 0d);
+            ComplexMatrix.LU lu = a.lu();
+            assertTrue(lu.isSingular());
+            assertEquals(0d, ComplexDouble.valueOf(lu.determinant()).abs(), 1e-14d);
+            assertThrows(ArithmeticException.class, () -> lu.solve(new ComplexDoubleArray(5)));
+            assertThrows(IllegalArgumentException.class, () -> random(2, 3, 1L).lu());
+            assertThrows(IllegalArgumentException.class, () -> random(3, 3, 1L).lu().solve(new ComplexDoubleArray(2)));
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package self.kearse.mathapp;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit testing for the ComplexParser class
+ */
+public class ComplexParserUnitTest {
+    private static void assertParses (double re, double im, String text) {
+        Complex<Double> value = ComplexParser.parse(text);
+        assertEquals(re, value.real(), 0d, text);
+        assertEquals(im, value.imaginary(), 0d, text);
+    }
+
+    @Nested
+    public class GrammarTests {
+        @Test
+        public void cartesian() {
+            assertParses(1d, -2d, "1.0+-2.0i");
+            assertParses(1.5d, -2d, "1.5-2.0i");
+            assertParses(2000d, 0.04d, " 2e3+4E-2i ");
+            assertParses(-2.5d, 0d, "-2.5");
+            assertParses(0d, 3d, "3i");
+            assertParses(0d, 1d, "i");
+            assertParses(0d, -1d, "-i");
+            assertParses(1d, 1d, "1+i");
+            assertParses(1d, -1d, "1-i");
+            assertParses(1d, -1d, "1+-i");
+            assertParses(0.5d, 0.25d, ".5+.25i");
+        }
+        @Test
+        public void special() {
+            Complex<Double> value = ComplexParser.parse("NaN+-Infinityi");
+            assertTrue(Double.isNaN(value.real()));
+            assertEquals(Double.NEGATIVE_INFINITY, value.imaginary(), 0d);
+            value = ComplexParser.parse("-0.0-0.0i");
+            assertEquals(Double.doubleToRawLongBits(-0d), Double.doubleToRawLongBits(value.real()));
+            assertEquals(Double.doubleToRawLongBits(-0d), Double.doubleToRawLongBits(value.imaginary()));
+        }
+        @Test
+        public void polar() {
+            Complex<Double> value = ComplexParser.parse("2.0*e^(i*1.5)");
+            assertTrue(value instanceof ComplexDoublePolar);
+            assertEquals(2d, ((ComplexDoublePolar) value).modulus(), 0d);
+            assertEquals(1.5d, ((ComplexDoublePolar) value).Argument(), 0d);
+            MutableComplexDouble result = ComplexParser.parse("2.0*e^(i*1.5)", 0, 13, new MutableComplexDouble());
+            assertEquals(2d * Math.cos(1.5d), result.re(), 0d);
+            assertEquals(2d * Math.sin(1.5d), result.im(), 0d);
+        }
+        @Test
+        public void ranges() {
+            MutableComplexDouble result = new MutableComplexDouble();
+            char[] chars = "x,1.5-2.0i,y".toCharArray();
+            assertSame(result, ComplexParser.parse(chars, 2, 10, result));
+            assertEquals(1.5d, result.re(), 0d);
+            assertEquals(-2d, result.im(), 0d);
+            byte[] bytes = "3e1+4i;".getBytes(StandardCharsets.US_ASCII);
+            ComplexParser.parse(bytes, 0, 6, result);
+            assertEquals(30d, result.re(), 0d);
+            assertEquals(4d, result.im(), 0d);
+            assertThrows(IndexOutOfBoundsException.class, () -> ComplexParser.parse(bytes, 0, 8, result));
+        }
+        @Test
+        public void errors() {
+            assertThrows(NullPointerException.class, () -> ComplexParser.parse(null));
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                    () -> ComplexParser.parse("1 + 2i"));
+            assertEquals("Unexpected '+' at position 2 of \"1 + 2i\"", e.getMessage());
+            e = assertThrows(IllegalArgumentException.class, () -> ComplexParser.parse("1+2"));
+            assertEquals("Expected 'i' at position 3 of \"1+2\"", e.getMessage());
+            for (String text : new String[]{"", "*", "1e", "Nan", "2*e^(i*)", "1+2j", "--1"}) {
+                assertThrows(IllegalArgumentException.class, () -> ComplexParser.parse(text), text);
+            }
+        }
+    }
+
+    @Nested
+    public class NumberTests {
+        private void assertExact (String text) {
+            assertEquals(Double.doubleToRawLongBits(Double.parseDouble(text)),
+                    Double.doubleToRawLongBits(ComplexParser.parseDouble(text, 0, text.length())), text);
+        }
+        @Test
+        public void edges() {
+            String[] texts = {"4.9E-324", "2.4703282292062327e-324", "2.4703282292062328e-324",
+                    "1.7976931348623157E308", "1.7976931348623159e308", "2.2250738585072011e-308",
+                    "9007199254740993", "1e23", "8.41e21", "1e-400", "1e400", "-0", "0.000e5",
+                    "12345678901234567890123456789e-20", "0.1000000000000000055511151231257827"};
+            for (String text : texts) assertExact(text);
+        }
+        @Test
+        public void random() {
+            Random random = new Random(25L);
+            for (int i = 0; i < 100000; i++) {
+                assertExact(Double.toString(Double.longBitsToDouble(random.nextLong())));
+                assertExact((random.nextLong() >>> random.nextInt(64)) + "e" + (random.nextInt(700) - 360));
+            }
+        }
+        @Test
+        public void roundTrip() {
+            Random random = new Random(24L);
+            for (int i = 0; i < 10000; i++) {
+                ComplexDouble value = new ComplexDouble(random.nextGaussian(), random.nextGaussian());
+                assertEquals(value, ComplexParser.parse(value.toString()));
+                Complex<Double> parsed = ComplexParser.parse(ComplexFormatter.CARTESIAN.format(value));
+                assertEquals(value.re(), parsed.real(), 0d);
+                assertEquals(value.im(), parsed.imaginary(), 0d);
+            }
+        }
+    }
+
+    @Nested
+    public class ReaderTests {
+        private ComplexParser.Reader reader (String text, int bufferSize) {
+            return new ComplexParser.Reader(
+                    new ByteArrayInputStream(text.getBytes(StandardCharsets.US_ASCII)), bufferSize);
+        }
+        @Test
+        public void chunks() throws IOException {
+            ComplexParser.Reader reader = reader("1+2i, 3-4i;5i\r\n-i\n\n 2.0*e^(i*0.0) ,, 7", 16);
+            double[] re = new double[4], im = new double[4];
+            assertEquals(4, reader.read(re, im, 0, 4));
+            assertArrayEquals(new double[]{1d, 3d, 0d, 0d}, re, 0d);
+            assertArrayEquals(new double[]{2d, -4d, 5d, -1d}, im, 0d);
+            assertEquals(2, reader.read(re, im, 1, 3));
+            assertArrayEquals(new double[]{1d, 2d, 7d, 0d}, re, 0d);
+            assertEquals(-1, reader.read(re, im, 0, 4));
+        }
+        @Test
+        public void readAll() throws IOException {
+            Random random = new Random(23L);
+            StringBuilder text = new StringBuilder();
+            ComplexDoubleArray expected = new ComplexDoubleArray(5000);
+            for (int i = 0; i < expected.length(); i++) {
+                expected.re()[i] = random.nextGaussian();
+                expected.im()[i] = random.nextGaussian();
+                text.append(expected.re()[i]).append('+').append(expected.im()[i]).append(i % 3 == 0 ? "i\n" : "i,");
+            }
+            ComplexDoubleArray actual = reader(text.toString(), 64).readAll();
+            assertArrayEquals(expected.re(), actual.re(), 0d);
+            assertArrayEquals(expected.im(), actual.im(), 0d);
+        }
+        @Test
+        public void errors() {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                    () -> reader("1\n2\n3+x", 16).readAll());
+            assertEquals("Expected a number at position 2 of \"3+x\" on line 3", e.getMessage());
+            assertThrows(IllegalArgumentException.class, () -> reader("1.000000000000000000001", 8).readAll());
+            assertThrows(IllegalArgumentException.class, () -> reader("1", 0));
+            assertThrows(NullPointerException.class, () -> new ComplexParser.Reader(null));
+        }
+    }
+}
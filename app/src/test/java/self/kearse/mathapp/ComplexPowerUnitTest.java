@@ -0,0 +1,159 @@
+package self.kearse.mathapp;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit testing for the ComplexPower class
+ */
+public class ComplexPowerUnitTest {
+    /** The allowed tolerance for computational error (when checking equality). */
+    private static double TOLERANCE = 1E-12;
+
+    /** Computes the principal power as Complex.pow did before dispatching on the exponent. */
+    private static Complex<Double> expLog(Complex<Double> base, Complex<Double> exponent) {
+        return Complex.Exp(Complex.Log(base).multiply(exponent));
+    }
+
+    private static void assertClose(Complex<? extends Number> expected, Complex<Double> actual) {
+        double re = expected.real().doubleValue() - actual.real();
+        double im = expected.imaginary().doubleValue() - actual.imaginary();
+        double scale = Math.max(1d, expected.modulus().doubleValue());
+        assertTrue(Math.sqrt((re * re) + (im * im)) < TOLERANCE * scale,
+                String.format("Expected %s, was %s", expected, actual));
+    }
+
+    /**
+     * Tests that every kind of exponent agrees with the principal value e^(w Log z).
+     */
+    @ParameterizedTest
+    @ValueSource(doubles = {2d, 3d, 7d, -1d, -4d, 0.5d, -0.5d, 1.75d, -2.3d, 64d})
+    void MatchesPrincipalValue(double exponent) {
+        Complex<Double> w = new ComplexDoubleCartesian(exponent, 0d);
+        List<Complex<Double>> bases = Arrays.<Complex<Double>>asList(
+                new ComplexDoubleCartesian(1.25d, -0.5d),
+                new ComplexDoubleCartesian(-0.75d, 0.25d),
+                new ComplexDoublePolar(2.5d, 1.01d),
+                new ComplexDoubleCartesian(-3d, -1E-3));
+        for (Complex<Double> base : bases) {
+            assertClose(expLog(base, w), ComplexPower.pow(base, w));
+        }
+    }
+
+    @Nested
+    public class DispatchTests {
+        @Test
+        public void gaussianIntegersExact() {
+            assertEquals(new ComplexDouble(-1d, 0d),
+                    ComplexPower.pow(ComplexDouble.I, new ComplexDouble(2d, 0d)));
+            assertEquals(new ComplexDouble(-7d, 24d),
+                    ComplexPower.pow(new ComplexDouble(1d, -2d), new ComplexDouble(4d, 0d)));
+            assertEquals(new ComplexDouble(0d, -1d),
+                    ComplexPower.pow(ComplexDouble.I, new ComplexDouble(-1d, 0d)));
+        }
+        @Test
+        public void squareRootBranch() {
+            assertEquals(new ComplexDouble(0d, 1d),
+                    ComplexPower.pow(new ComplexDouble(-1d, 0d), new ComplexDouble(0.5d, 0d)));
+            assertEquals(new ComplexDouble(0d, 1d),
+                    ComplexPower.pow(new ComplexDouble(-1d, -0d), new ComplexDouble(0.5d, 0d)),
+                    "A negative zero imaginary part has Argument pi");
+            assertEquals(new ComplexDouble(2.5E-301, -2d),
+                    ComplexPower.pow(new ComplexDouble(-4d, -1E-300), new ComplexDouble(0.5d, 0d)));
+            assertEquals(new ComplexDouble(0.5d, 0d),
+                    ComplexPower.pow(new ComplexDouble(4d, 0d), new ComplexDouble(-0.5d, 0d)));
+        }
+        @Test
+        public void complexExponent() {
+            /* i^i = e^(-pi/2) */
+            Complex<Double> result = ComplexPower.pow(ComplexDouble.I, ComplexDouble.I);
+            assertEquals(Math.exp(-Math.PI / 2d), result.real(), TOLERANCE);
+            assertEquals(0d, result.imaginary(), TOLERANCE);
+        }
+        @Test
+        public void zeroBase() {
+            assertEquals(ComplexDouble.ONE, ComplexPower.pow(ComplexDouble.ZERO, ComplexDouble.ZERO));
+            assertEquals(ComplexDouble.ZERO,
+                    ComplexPower.pow(ComplexDouble.ZERO, new ComplexDouble(2.5d, 1d)));
+            assertThrows(ArithmeticException.class,
+                    () -> ComplexPower.pow(ComplexDouble.ZERO, new ComplexDouble(-2d, 0d)));
+            assertThrows(ArithmeticException.class,
+                    () -> ComplexPower.pow(ComplexDouble.ZERO, ComplexDouble.I));
+        }
+        @Test
+        public void extremeModuli() {
+            Complex<Double> large = ComplexPower.pow(new ComplexDoubleCartesian(1000d, 0d),
+                    new ComplexDoubleCartesian(-60d, 0d));
+            assertEquals(1E-180, large.real(), 1E-180 * TOLERANCE);
+            assertEquals(0d, large.imaginary());
+            Complex<Double> cube = ComplexPower.pow(new ComplexDoubleCartesian(0d, 1E100),
+                    new ComplexDoubleCartesian(-3d, 0d));
+            assertEquals(0d, cube.real(), 1E-312);
+            assertEquals(1E-300, cube.imaginary(), 1E-300 * TOLERANCE);
+            Complex<Double> small = ComplexPower.pow(new ComplexDoubleCartesian(1E-100, 1E-100),
+                    new ComplexDoubleCartesian(-2d, 0d));
+            assertEquals(0d, small.real(), 1E-188);
+            assertEquals(-0.5E200, small.imaginary(), 0.5E200 * TOLERANCE);
+        }
+        @Test
+        public void nullArguments() {
+            assertThrows(NullPointerException.class, () -> ComplexPower.pow(ComplexDouble.I, null));
+            assertThrows(NullPointerException.class, () -> ComplexPower.pow(null, ComplexDouble.I));
+        }
+    }
+
+    @Nested
+    public class BatchTests {
+        @Test
+        public void batchMatchesScalar() {
+            double[] re = {1.5d, -2d, 0d, 0.25d}, im = {0.5d, 1d, 0d, -3d};
+            double[][] exponents = {{3d, 0d}, {0.5d, 0d}, {2.2d, 0d}, {0.5d, -1.5d}};
+            for (double[] exponent : exponents) {
+                ComplexPower power = ComplexPower.of(exponent[0], exponent[1]);
+                ComplexDoubleArray results = power.apply(new ComplexDoubleArray(re.clone(), im.clone()));
+                for (int i = 0; i < re.length; i++) {
+                    Complex<Double> expected = power.apply(new ComplexDouble(re[i], im[i]));
+                    assertClose(expected, results.get(i));
+                }
+            }
+        }
+        @Test
+        public void batchInPlace() {
+            ComplexDoubleArray values = new ComplexDoubleArray(new double[] {0d, 2d}, new double[] {1d, 0d});
+            assertSame(values, ComplexPower.of(2d, 0d).apply(values, values));
+            assertEquals(new ComplexDouble(-1d, 0d), values.get(0));
+            assertEquals(new ComplexDouble(4d, 0d), values.get(1));
+        }
+        @Test
+        public void batchExtremeModuli() {
+            MutableComplexDouble result = new MutableComplexDouble();
+            ComplexPower.of(1.5d, 0d).apply(1E200, 0d, result);
+            assertEquals(1E300, result.re(), 1E300 * TOLERANCE);
+            assertEquals(0d, result.im());
+            ComplexPower.of(1.5d, 0d).apply(1E-160, 0d, result);
+            assertEquals(1E-240, result.re(), 1E-240 * TOLERANCE);
+            /* x^(1/2+i) = sqrt(x) e^(i log x) for positive x */
+            double log = Math.log(1E-170);
+            ComplexPower.of(0.5d, 1d).apply(1E-170, 0d, result);
+            assertEquals(1E-85 * Math.cos(log), result.re(), 1E-85 * TOLERANCE);
+            assertEquals(1E-85 * Math.sin(log), result.im(), 1E-85 * TOLERANCE);
+            ComplexPower.of(-0.5d, 0d).apply(1E-300, 0d, result);
+            assertEquals(1E150, result.re(), 1E150 * TOLERANCE);
+            ComplexPower.of(-60d, 0d).apply(1000d, 0d, result);
+            assertEquals(1E-180, result.re(), 1E-180 * TOLERANCE);
+        }
+        @Test
+        public void batchZeroBase() {
+            MutableComplexDouble result = new MutableComplexDouble();
+            ComplexPower.of(-1d, 0d).apply(0d, 0d, result);
+            assertTrue(Double.isNaN(result.re()) && Double.isNaN(result.im()));
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package self.kearse.mathapp;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit testing for the ComplexRootsView class
+ */
+public class ComplexRootsViewUnitTest {
+    /** The allowed tolerance for computational error (when checking equality). */
+    private static double TOLERANCE = 1E-12;
+
+    @Nested
+    public class IndexTests {
+        @Test
+        public void principalFirst() {
+            ComplexRootsView roots = new ComplexRootsView(new ComplexDoubleCartesian(-16d, 0d), 4);
+            assertEquals(4, roots.size());
+            assertEquals(new ComplexDoublePolar(Math.PI / 4d, 2d), roots.get(0));
+        }
+        @Test
+        public void rootsSatisfyPower() {
+            Complex<Double> value = new ComplexDoubleCartesian(-2d, 5d);
+            ComplexRootsView roots = new ComplexRootsView(value, 7);
+            for (Complex<Double> each : roots) {
+                Complex<Double> power = new ComplexDoublePolar(7 * each.Argument(),
+                        Math.pow(each.modulus(), 7));
+                assertTrue(Math.abs(power.real() + 2d) < TOLERANCE);
+                assertTrue(Math.abs(power.imaginary() - 5d) < TOLERANCE);
+            }
+        }
+        @Test
+        public void outOfRange() {
+            ComplexRootsView roots = new ComplexRootsView(new ComplexDoubleCartesian(1d, 1d), 3);
+            assertThrows(IndexOutOfBoundsException.class, () -> roots.get(3));
+            assertThrows(IndexOutOfBoundsException.class, () -> roots.get(-1));
+        }
+        @Test
+        public void nonPositiveDegree() {
+            assertThrows(IllegalArgumentException.class,
+                    () -> new ComplexRootsView(new ComplexDoubleCartesian(1d, 1d), 0));
+        }
+        @Test
+        public void unmodifiable() {
+            List<Complex<Double>> roots = Complex.roots(new ComplexDoubleCartesian(1d, 1d), 3);
+            assertThrows(UnsupportedOperationException.class,
+                    () -> roots.add(new ComplexDoubleCartesian(0d, 0d)));
+        }
+    }
+
+    @Nested
+    public class BulkTests {
+        @Test
+        public void fillMatchesGet() {
+            ComplexRootsView roots = new ComplexRootsView(new ComplexDoubleCartesian(-2d, 5d), 16);
+            ComplexDoubleArray filled = roots.fill(new ComplexDoubleArray(16));
+            for (int k = 0; k < 16; k++) {
+                assertTrue(Math.abs(roots.get(k).real() - filled.re()[k]) < TOLERANCE);
+                assertTrue(Math.abs(roots.get(k).imaginary() - filled.im()[k]) < TOLERANCE);
+            }
+        }
+        @Test
+        public void getMatchesArgument() {
+            ComplexRootsView roots = new ComplexRootsView(new ComplexDoubleCartesian(-2d, 5d), 24);
+            for (int k = 0; k < 24; k++) {
+                Complex<Double> root = roots.get(k);
+                assertEquals(roots.modulus() * Math.cos(roots.argument(k)), root.real(), TOLERANCE);
+                assertEquals(roots.modulus() * Math.sin(roots.argument(k)), root.imaginary(), TOLERANCE);
+            }
+        }
+        @Test
+        public void fillShortDestination() {
+            ComplexRootsView roots = new ComplexRootsView(new ComplexDoubleCartesian(-2d, 5d), 16);
+            assertThrows(IndexOutOfBoundsException.class, () -> roots.fill(new ComplexDoubleArray(15)));
+        }
+        @Test
+        public void parallelStreamInOrder() {
+            ComplexRootsView roots = new ComplexRootsView(new ComplexDoubleCartesian(1d, 0d), 10000);
+            List<Complex<Double>> collected = StreamSupport.stream(roots.spliterator(), true)
+                    .collect(Collectors.toList());
+            assertEquals(roots, collected);
+        }
+    }
+}
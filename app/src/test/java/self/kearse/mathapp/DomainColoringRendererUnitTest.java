@@ -0,0 +1,191 @@
+package self.kearse.mathapp;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit testing for the DomainColoringRenderer class, its ComplexFunction and its TileCache
+ */
+public class DomainColoringRendererUnitTest {
+    /** The function z^2 - 1, counting its evaluations */
+    private static final class Counting implements ComplexFunction {
+        final AtomicInteger evaluations = new AtomicInteger();
+
+        @Override
+        public MutableComplexDouble apply (double re, double im, MutableComplexDouble result) {
+            evaluations.incrementAndGet();
+            return result.set(re, im).squareAddAssign(-1d, 0d);
+        }
+    }
+
+    private static DomainColoringRenderer renderer (ComplexFunction function, TileCache cache) {
+        return new DomainColoringRenderer(function, DomainColoringRenderer.STANDARD, cache,
+                ForkJoinPool.commonPool(), PlaneRenderer.DEFAULT_TILE_SIZE);
+    }
+
+    @Nested
+    public class RenderTests {
+        @Test
+        public void samplesTheFunction() {
+            Counting function = new Counting();
+            /* Pixels fall exactly on the samples of level 5 */
+            Viewport viewport = new Viewport(0d, 0d, 1d / 32d, 65, 65);
+            int[] pixels = renderer(function, new TileCache(1L << 24)).render(viewport, new int[65 * 65]);
+            MutableComplexDouble value = new MutableComplexDouble();
+            for (int y = 0; y < 65; y += 4) {
+                for (int x = 0; x < 65; x += 4) {
+                    function.apply(viewport.re(x), viewport.im(y), value);
+                    assertEquals(DomainColoringRenderer.STANDARD.color(value.re(), value.im()),
+                            pixels[(y * 65) + x], String.format("Pixel (%d, %d)", x, y));
+                }
+            }
+            /* The zeros at 1 and -1 are black */
+            assertEquals(0xFF000000, pixels[(32 * 65) + 64]);
+            assertEquals(0xFF000000, pixels[(32 * 65)]);
+        }
+        @Test
+        public void panningReusesTiles() {
+            Counting function = new Counting();
+            DomainColoringRenderer renderer = renderer(function, new TileCache(1L << 24));
+            Viewport viewport = new Viewport(0.3d, -0.2d, 1d / 100d, 200, 150);
+            int[] pixels = renderer.render(viewport, new int[200 * 150]);
+            int first = function.evaluations.get();
+            int[] panned = renderer.render(viewport.pan(20d, 5d), new int[200 * 150]);
+            int second = function.evaluations.get() - first;
+            assertTrue(second < first / 4, second + " new evaluations after panning, " + first + " before");
+            /* The pan moves the samples with the pixels */
+            assertEquals(pixels[(75 * 200) + 100], panned[(70 * 200) + 80]);
+            renderer.render(viewport, pixels);
+            assertEquals(first + second, function.evaluations.get(), "Returning recomputes nothing");
+        }
+        @Test
+        public void progressiveRefinement() {
+            Counting progressive = new Counting(), direct = new Counting();
+            Viewport viewport = new Viewport(0d, 0.5d, 1d / 200d, 256, 256);
+            final List<Integer> levels = new ArrayList<>();
+            int[] pixels = new int[256 * 256];
+            assertTrue(renderer(progressive, new TileCache(1L << 26)).renderProgressively(
+                    viewport, pixels, 3, new DomainColoringRenderer.Progress() {
+                        @Override
+                        public boolean passRendered (int[] destination, int level, boolean last) {
+                            levels.add(level);
+                            assertEquals(level == 8, last);
+                            return true;
+                        }
+                    }));
+            assertEquals(Arrays.asList(5, 6, 7, 8), levels);
+            int[] expected = renderer(direct, new TileCache(1L << 26)).render(viewport, new int[256 * 256]);
+            assertArrayEquals(expected, pixels);
+            /* Without reuse, the fine pass alone would cost as much as the direct render */
+            assertTrue(progressive.evaluations.get() < 1.5d * direct.evaluations.get(),
+                    progressive.evaluations + " evaluations, against " + direct.evaluations + " direct");
+        }
+        @Test
+        public void progressiveStop() {
+            final AtomicInteger passes = new AtomicInteger();
+            assertFalse(renderer(new Counting(), new TileCache(1L << 24)).renderProgressively(
+                    new Viewport(0d, 0d, 0.01d, 50, 50), new int[2500], 4,
+                    new DomainColoringRenderer.Progress() {
+                        @Override
+                        public boolean passRendered (int[] destination, int level, boolean last) {
+                            passes.incrementAndGet();
+                            return false;
+                        }
+                    }));
+            assertEquals(1, passes.get());
+        }
+        @Test
+        public void level() {
+            assertEquals(0, DomainColoringRenderer.level(1d));
+            assertEquals(1, DomainColoringRenderer.level(0.75d));
+            assertEquals(7, DomainColoringRenderer.level(0.01d));
+            assertEquals(DomainColoringRenderer.MAX_LEVEL, DomainColoringRenderer.level(1E-30));
+            assertEquals(DomainColoringRenderer.MIN_LEVEL, DomainColoringRenderer.level(1E30));
+        }
+        @Test
+        public void invalidArguments() {
+            assertThrows(NullPointerException.class, () -> new DomainColoringRenderer(null));
+            DomainColoringRenderer renderer = new DomainColoringRenderer(new Counting());
+            assertThrows(IllegalArgumentException.class, () -> renderer.renderProgressively(
+                    new Viewport(0d, 0d, 1d, 2, 2), new int[4], -1, null));
+        }
+    }
+
+    @Nested
+    public class ColoringTests {
+        @Test
+        public void standardColors() {
+            DomainColoringRenderer.Coloring standard = DomainColoringRenderer.STANDARD;
+            assertEquals(0xFF990000, standard.color(1d, 0d), "Red at 60% on the unit circle");
+            assertEquals(0xFF000000, standard.color(0d, 0d));
+            assertEquals(0xFFFFFFFF, standard.color(Double.POSITIVE_INFINITY, 0d));
+            assertEquals(0xFF808080, standard.color(Double.NaN, 1d));
+            assertEquals(0xFF009999, standard.color(-1d, 0d), "Cyan opposite red");
+            assertEquals(standard.color(3d, 4d), standard.color(6d, 8d), "Contours repeat per doubling");
+            assertEquals(standard.color(1E200, 1E200), standard.color(Math.scalb(1E200, 1), Math.scalb(1E200, 1)));
+        }
+        @Test
+        public void adaptedFunction() {
+            ComplexFunction log = ComplexFunction.of(z -> Complex.Log(z));
+            MutableComplexDouble value = log.apply(-1d, 0d, new MutableComplexDouble());
+            assertEquals(0d, value.re());
+            assertEquals(Math.PI, value.im());
+            assertTrue(Double.isNaN(log.apply(0d, 0d, value).re()), "The pole gives NaN");
+            ComplexFunction cube = ComplexPower.of(3d, 0d)::apply;
+            assertEquals(-8d, cube.apply(-2d, 0d, value).re());
+        }
+    }
+
+    @Nested
+    public class CacheTests {
+        private final Object function = new Object();
+
+        private TileCache.Key key (int level, long column, long row) {
+            return new TileCache.Key(function, DomainColoringRenderer.STANDARD, level, column, row);
+        }
+
+        @Test
+        public void leastRecentlyUsedEvicted() {
+            /* Room for two tiles of 4 pixels, at 32 bytes each */
+            TileCache cache = new TileCache(64L);
+            cache.put(key(0, 0L, 0L), new int[4]);
+            cache.put(key(0, 1L, 0L), new int[4]);
+            assertNotNull(cache.get(key(0, 0L, 0L)));
+            cache.put(key(0, 2L, 0L), new int[4]);
+            assertTrue(cache.contains(key(0, 0L, 0L)));
+            assertFalse(cache.contains(key(0, 1L, 0L)));
+            assertEquals(64L, cache.usedBytes());
+            assertEquals(2, cache.size());
+            cache.clear();
+            assertEquals(0L, cache.usedBytes());
+        }
+        @Test
+        public void firstTileKept() {
+            TileCache cache = new TileCache(1024L);
+            int[] first = new int[4], second = new int[4];
+            assertSame(first, cache.put(key(3, -1L, 2L), first));
+            assertSame(first, cache.put(key(3, -1L, 2L), second));
+            int[] large = new int[1024];
+            assertSame(large, cache.put(key(0, 0L, 0L), large));
+            assertFalse(cache.contains(key(0, 0L, 0L)), "Tiles over the budget are not cached");
+        }
+        @Test
+        public void keys() {
+            assertEquals(key(2, -3L, 5L), key(2, -3L, 5L));
+            assertEquals(key(2, -3L, 5L).hashCode(), key(2, -3L, 5L).hashCode());
+            assertNotEquals(key(2, -3L, 5L), key(3, -3L, 5L));
+            assertNotEquals(key(2, -3L, 5L), new TileCache.Key(new Object(),
+                    DomainColoringRenderer.STANDARD, 2, -3L, 5L));
+            assertEquals(key(1, -2L, 2L), key(2, -3L, 5L).parent());
+            assertThrows(IllegalArgumentException.class, () -> new TileCache(-1L));
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package self.kearse.mathapp;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit testing for the EscapeTimeRenderer and PlaneRenderer classes
+ */
+public class EscapeTimeRendererUnitTest {
+
+    @Nested
+    public class IterationTests {
+        private final EscapeTimeRenderer mandelbrot = new EscapeTimeRenderer(1000);
+
+        private int iterate(EscapeTimeRenderer renderer, double re, double im) {
+            return renderer.iterate(re, im, new MutableComplexDouble());
+        }
+        @Test
+        public void escapingPoints() {
+            /* 1 -> 2 -> 5 escapes on the third iterate */
+            assertEquals(3, iterate(mandelbrot, 1d, 0d));
+            assertEquals(2, iterate(mandelbrot, 2d, 0d));
+            assertEquals(1, iterate(mandelbrot, 3d, 0d));
+        }
+        @Test
+        public void cardioidAndBulb() {
+            assertTrue(EscapeTimeRenderer.inCardioidOrBulb(0d, 0d));
+            assertTrue(EscapeTimeRenderer.inCardioidOrBulb(-1d, 0.1d));
+            assertFalse(EscapeTimeRenderer.inCardioidOrBulb(0.3d, 0d));
+            assertEquals(1000, iterate(mandelbrot, -1d, 0d));
+        }
+        @Test
+        public void periodicInterior() {
+            /* The centre of the period-3 bulb lies outside the cardioid and period-2 bulb */
+            assertFalse(EscapeTimeRenderer.inCardioidOrBulb(-0.1225d, 0.7449d));
+            assertEquals(1000, iterate(mandelbrot, -0.1225d, 0.7449d));
+            assertEquals(1000, iterate(mandelbrot, -1.7549d, 0d));
+        }
+        @Test
+        public void juliaSet() {
+            EscapeTimeRenderer disk = new EscapeTimeRenderer(200, ComplexDouble.ZERO, null,
+                    ForkJoinPool.commonPool(), 16);
+            assertTrue(disk.isJulia());
+            assertEquals(200, iterate(disk, 0.5d, 0.5d));
+            assertEquals(1, iterate(disk, 1.5d, 0d));
+        }
+        @Test
+        public void invalidArguments() {
+            assertThrows(IllegalArgumentException.class, () -> new EscapeTimeRenderer(0));
+            assertThrows(NullPointerException.class,
+                    () -> new EscapeTimeRenderer(10, null, null, null, 16));
+            assertThrows(IllegalArgumentException.class,
+                    () -> new EscapeTimeRenderer(10, null, null, ForkJoinPool.commonPool(), 0));
+        }
+    }
+
+    @Nested
+    public class RenderTests {
+        private final Viewport viewport = new Viewport(-0.5d, 0.1d, 0.07d, 37, 23);
+
+        @Test
+        public void tilesCoverEveryPixel() {
+            EscapeTimeRenderer renderer = new EscapeTimeRenderer(100, null, null, new ForkJoinPool(3), 8);
+            int[] pixels = renderer.render(viewport, new int[37 * 23]);
+            MutableComplexDouble z = new MutableComplexDouble();
+            for (int y = 0; y < 23; y++) {
+                for (int x = 0; x < 37; x++) {
+                    assertEquals(renderer.iterate(viewport.re(x), viewport.im(y), z), pixels[(y * 37) + x],
+                            String.format("Pixel (%d, %d)", x, y));
+                }
+            }
+        }
+        @Test
+        public void paletteColours() {
+            EscapeTimeRenderer.Palette palette = EscapeTimeRenderer.cyclicPalette(0xFFFF0000, 0xFF00FF00);
+            EscapeTimeRenderer renderer = new EscapeTimeRenderer(100, null, palette, ForkJoinPool.commonPool(), 8);
+            int[] counts = new EscapeTimeRenderer(100).render(viewport, new int[37 * 23]);
+            int[] colours = renderer.render(viewport, new int[37 * 23]);
+            for (int i = 0; i < counts.length; i++) {
+                assertEquals(palette.color(counts[i], 100), colours[i]);
+            }
+            assertEquals(0xFF000000, palette.color(100, 100));
+        }
+        @Test
+        public void cancellation() {
+            EscapeTimeRenderer renderer = new EscapeTimeRenderer(1000000,
+                    new ComplexDouble(-0.8d, 0.156d), null, new ForkJoinPool(1), 4);
+            PlaneRenderer.Render render = renderer.start(new Viewport(0d, 0d, 1E-3, 400, 400),
+                    new int[400 * 400]);
+            render.cancel();
+            assertFalse(render.await(), "A cancelled render does not complete");
+            assertTrue(render.isDone() && render.isCancelled());
+        }
+        @Test
+        public void shortDestination() {
+            assertThrows(IllegalArgumentException.class,
+                    () -> new EscapeTimeRenderer(10).render(viewport, new int[37]));
+        }
+        @Test
+        public void oversizedView() {
+            /* 65536*65536 wraps to zero pixels in int arithmetic */
+            assertThrows(IllegalArgumentException.class, () -> new EscapeTimeRenderer(10)
+                    .render(new Viewport(0d, 0d, 1d, 65536, 65536), new int[0]));
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package self.kearse.mathapp;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit testing for the ExpressionParser class and the ComplexProgram it compiles
+ */
+public class ExpressionParserUnitTest {
+    private static final double TOLERANCE = 1E-12;
+
+    private static MutableComplexDouble evaluate (ComplexProgram program, double re, double im) {
+        return program.apply(re, im, new MutableComplexDouble());
+    }
+
+    private static void assertValue (double re, double im, MutableComplexDouble value) {
+        assertEquals(re, value.re(), TOLERANCE, "Real component");
+        assertEquals(im, value.im(), TOLERANCE, "Imaginary component");
+    }
+
+    private static void assertValue (Complex<Double> expected, MutableComplexDouble value) {
+        assertValue(expected.real(), expected.imaginary(), value);
+    }
+
+    @Nested
+    public class SyntaxTests {
+        @Test
+        public void precedence() {
+            assertValue(7d, 0d, evaluate(ExpressionParser.parse("1 + 2 * 3"), 0d, 0d));
+            assertValue(1d, 0d, evaluate(ExpressionParser.parse("-z^2"), 0d, 1d));
+            assertValue(512d, 0d, evaluate(ExpressionParser.parse("2^3^2"), 0d, 0d));
+            assertValue(0.25d, 0d, evaluate(ExpressionParser.parse("z^-2"), 2d, 0d));
+            assertEquals(1E-180, evaluate(ExpressionParser.parse("z^-60"), 1000d, 0d).re(), 1E-180 * TOLERANCE);
+            assertEquals(1E300, evaluate(ExpressionParser.parse("z^1.5"), 1E200, 0d).re(), 1E300 * TOLERANCE);
+            assertValue(1d, 0d, evaluate(ExpressionParser.parse("8 / 4 / 2"), 0d, 0d));
+            assertValue(-1d, 0d, evaluate(ExpressionParser.parse("1 - 3 + 1"), 0d, 0d));
+        }
+        @Test
+        public void implicitProducts() {
+            assertValue(6d, 0d, evaluate(ExpressionParser.parse("2z"), 3d, 0d));
+            assertValue(0d, 3d, evaluate(ExpressionParser.parse("3i"), 0d, 0d));
+            assertValue(3d, 0d, evaluate(ExpressionParser.parse("(z+1)(z-1)"), 2d, 0d));
+            assertValue(2d * Math.E, 0d, evaluate(ExpressionParser.parse("2e"), 0d, 0d));
+            assertValue(8d, 0d, evaluate(ExpressionParser.parse("z^2z"), 2d, 0d));
+        }
+        @Test
+        public void numbers() {
+            assertValue(0.001d, 0d, evaluate(ExpressionParser.parse("1e-3"), 0d, 0d));
+            assertValue(2500d, 0d, evaluate(ExpressionParser.parse("2.5E+3"), 0d, 0d));
+            assertValue(0.5d, 0d, evaluate(ExpressionParser.parse(".5"), 0d, 0d));
+            assertValue(-1d, 0d, evaluate(ExpressionParser.parse("Exp(i pi)"), 0d, 0d));
+        }
+        @Test
+        public void malformed() {
+            String[] expressions = {"", "z +", "(z", "z)", "foo", "2 * * z", "root(z, 1.5)",
+                    "root(z, c)", "root(z, 0)", "Log z", ".", "3 $ 4"};
+            for (String expression : expressions) {
+                assertThrows(IllegalArgumentException.class,
+                        () -> ExpressionParser.parse(expression, "c"), expression);
+            }
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                    () -> ExpressionParser.parse("z + sin(z)"));
+            assertTrue(e.getMessage().contains("position 4"), e.getMessage());
+        }
+        @Test
+        public void parameterNames() {
+            assertThrows(IllegalArgumentException.class, () -> ExpressionParser.parse("z", "z"));
+            assertThrows(IllegalArgumentException.class, () -> ExpressionParser.parse("z", "Log"));
+            assertThrows(IllegalArgumentException.class, () -> ExpressionParser.parse("z", "1c"));
+            assertThrows(IllegalArgumentException.class, () -> ExpressionParser.parse("z", "c", "c"));
+            assertThrows(NullPointerException.class, () -> ExpressionParser.parse(null));
+        }
+    }
+
+    @Nested
+    public class EvaluationTests {
+        @Test
+        public void matchesComplex() {
+            Random random = new Random(18L);
+            ComplexProgram log = ExpressionParser.parse("LOG(z)"), exp = ExpressionParser.parse("exp(z)");
+            ComplexProgram conj = ExpressionParser.parse("conj(z)"), cube = ExpressionParser.parse("root(z, 3)");
+            ComplexProgram self = ExpressionParser.parse("z^z");
+            ComplexProgram mobius = ExpressionParser.parse("(z + 1) / (z - 1)");
+            for (int k = 0; k < 50; k++) {
+                ComplexDouble z = new ComplexDouble((random.nextDouble() * 4d) - 2d, (random.nextDouble() * 4d) - 2d);
+                assertValue(Complex.Log(z), evaluate(log, z.re(), z.im()));
+                assertValue(Complex.Exp(z), evaluate(exp, z.re(), z.im()));
+                assertValue(z.complement(), evaluate(conj, z.re(), z.im()));
+                assertValue(ComplexPower.pow(z, new ComplexDouble(1d / 3d, 0d)), evaluate(cube, z.re(), z.im()));
+                assertValue(ComplexPower.pow(z, z), evaluate(self, z.re(), z.im()));
+                assertValue(z.add(ComplexDouble.ONE).divide(z.subtract(ComplexDouble.ONE)),
+                        evaluate(mobius, z.re(), z.im()));
+            }
+        }
+        @Test
+        public void parameters() {
+            ComplexProgram program = ExpressionParser.parse("z^2 + c", "c");
+            assertValue(-1d, 0d, evaluate(program, 0d, 1d));
+            ComplexProgram shifted = program.withParameter("c", 0.5d, -1d);
+            assertValue(-0.5d, -1d, evaluate(shifted, 0d, 1d));
+            assertValue(-1d, 0d, evaluate(program, 0d, 1d));
+            assertEquals(new ComplexDouble(0.5d, -1d), shifted.parameter("c"));
+            ComplexProgram.Evaluator evaluator = program.evaluator();
+            evaluator.setParameter("c", 2d, 2d);
+            assertValue(1d, 2d, evaluator.apply(0d, 1d, new MutableComplexDouble()));
+            assertThrows(IllegalArgumentException.class, () -> program.withParameter("d", 0d, 0d));
+            assertEquals(shifted, ExpressionParser.parse("z^2 + c", "c").withParameter("c", 0.5d, -1d));
+            assertNotEquals(shifted, program);
+        }
+        @Test
+        public void outsideDomain() {
+            assertTrue(Double.isNaN(evaluate(ExpressionParser.parse("1/z"), 0d, 0d).re()));
+            assertTrue(Double.isNaN(evaluate(ExpressionParser.parse("Log(z)"), 0d, 0d).re()));
+            assertTrue(Double.isNaN(evaluate(ExpressionParser.parse("z^(-1+i)"), 0d, 0d).re()));
+            assertValue(1d, 0d, evaluate(ExpressionParser.parse("z^(c-c)", "c"), 0d, 0d));
+        }
+        @Test
+        public void blocksMatchPoints() {
+            ComplexProgram program = ExpressionParser.parse("Exp(z)/(z^3 - c) + conj(z) * Log(z + 2i)", "c")
+                    .withParameter("c", 1d, 0.5d);
+            Random random = new Random(99L);
+            int length = 1000;
+            ComplexDoubleArray points = new ComplexDoubleArray(length);
+            for (int k = 0; k < length; k++) {
+                points.set(k, (random.nextDouble() * 6d) - 3d, (random.nextDouble() * 6d) - 3d);
+            }
+            ComplexProgram.Evaluator evaluator = program.evaluator();
+            ComplexDoubleArray values = evaluator.apply(points, new ComplexDoubleArray(length));
+            MutableComplexDouble value = new MutableComplexDouble();
+            for (int k = 0; k < length; k++) {
+                evaluator.apply(points.re()[k], points.im()[k], value);
+                assertEquals(value.re(), values.re()[k]);
+                assertEquals(value.im(), values.im()[k]);
+            }
+            assertThrows(IllegalArgumentException.class,
+                    () -> evaluator.apply(points, new ComplexDoubleArray(length - 1)));
+        }
+    }
+
+    @Nested
+    public class CompilationTests {
+        @Test
+        public void constantsFolded() {
+            assertEquals(0, ExpressionParser.parse("2 * 3 + root(16, 2) - Log(Exp(1))").length());
+            assertValue(9d, 0d, evaluate(ExpressionParser.parse("2 * 3 + root(16, 2) - Log(Exp(1))"), 0d, 0d));
+            assertEquals(1, ExpressionParser.parse("z * (2 + 3)").length());
+            assertEquals(0, ExpressionParser.parse("(z + 0) * 1 / 1").length());
+            assertEquals(0, ExpressionParser.parse("conj(conj(--z))").length());
+        }
+        @Test
+        public void subexpressionsMerged() {
+            assertEquals(4, ExpressionParser.parse("(z^2+c)^2 + (z^2+c)", "c").length());
+            assertEquals(2, ExpressionParser.parse("z*c + c*z", "c").length());
+            assertEquals(2, ExpressionParser.parse("root(z, 2) * z^0.5").length());
+        }
+        @Test
+        public void registersReused() {
+            ComplexProgram horner = ExpressionParser.parse("((((z+1)*z+2)*z+3)*z+4)*z+5");
+            assertEquals(9, horner.length());
+            /* z, five constants and a single temporary */
+            assertTrue(horner.registers() <= 7, horner.listing());
+            assertValue(89d, 0d, evaluate(horner, 2d, 0d));
+        }
+    }
+}
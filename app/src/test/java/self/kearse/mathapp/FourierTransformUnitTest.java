@@ -0,0 +1,96 @@
+package self.kearse.mathapp;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit testing for the FourierTransform class
+ */
+public class FourierTransformUnitTest {
+    /** The allowed tolerance for computational error (when checking equality). */
+    private static double TOLERANCE = 1E-9;
+
+    /**
+     * Computes the transform directly from its definition, as the reference for comparison.
+     */
+    private static double[][] naive(double[] re, double[] im) {
+        int n = re.length;
+        double[][] result = new double[2][n];
+        for (int k = 0; k < n; k++) {
+            for (int j = 0; j < n; j++) {
+                double angle = (-2d * Math.PI * (((long) j * k) % n)) / n;
+                result[0][k] += (re[j] * Math.cos(angle)) - (im[j] * Math.sin(angle));
+                result[1][k] += (re[j] * Math.sin(angle)) + (im[j] * Math.cos(angle));
+            }
+        }
+        return result;
+    }
+
+    private static void assertClose(double[] expected, double[] actual) {
+        for (int i = 0; i < expected.length; i++) {
+            double error = Math.abs(expected[i] - actual[i]);
+            assertTrue(error < TOLERANCE,
+                    String.format("Index %d, maximum error: %s, actual: %s", i, TOLERANCE, error));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 8, 64, 3, 7, 12, 100})
+    void MatchesDefinition(int size) {
+        Random random = new Random(size);
+        double[] re = new double[size], im = new double[size];
+        for (int i = 0; i < size; i++) {
+            re[i] = random.nextGaussian();
+            im[i] = random.nextGaussian();
+        }
+        double[][] expected = naive(re, im);
+        FourierTransform.plan(size).forward(re, im);
+        assertClose(expected[0], re);
+        assertClose(expected[1], im);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {16, 15})
+    void InverseRoundTrip(int size) {
+        Random random = new Random(size);
+        ComplexDoubleArray values = new ComplexDoubleArray(size);
+        for (int i = 0; i < size; i++) {
+            values.set(i, random.nextDouble(), random.nextDouble());
+        }
+        ComplexDoubleArray original = values.copy();
+        FourierTransform plan = FourierTransform.plan(size);
+        plan.inverse(plan.forward(values));
+        assertClose(original.re(), values.re());
+        assertClose(original.im(), values.im());
+    }
+
+    @Nested
+    public class ApiTests {
+        @Test
+        public void impulseTransformsToConstant() {
+            List<Complex<Double>> impulse = Arrays.<Complex<Double>>asList(
+                    new ComplexDoubleCartesian(1d, 0d), new ComplexDoublePolar(0d, 0d),
+                    new ComplexDoubleCartesian(0d, 0d), new ComplexDoubleCartesian(0d, 0d));
+            for (Complex<Double> each : FourierTransform.plan(4).forward(impulse)) {
+                assertEquals(new ComplexDouble(1d, 0d), each);
+            }
+        }
+        @Test
+        public void sizeMismatch() {
+            assertThrows(IllegalArgumentException.class,
+                    () -> FourierTransform.plan(4).forward(new double[4], new double[3]));
+        }
+        @Test
+        public void nonPositiveSize() {
+            assertThrows(IllegalArgumentException.class, () -> FourierTransform.plan(0));
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package self.kearse.mathapp;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit testing for the KrylovSolver class
+ */
+public class KrylovSolverUnitTest {
+    /** The width of the grid of the test system */
+    private static final int GRID = 60;
+
+    /**
+     * A finite-difference convection-diffusion system with a complex shift on a square grid,
+     * which is neither Hermitian nor symmetric.
+     */
+    private static SparseComplexMatrix gridSystem () {
+        int n = GRID * GRID;
+        SparseComplexMatrix.Builder builder = new SparseComplexMatrix.Builder(n, n);
+        for (int y = 0; y < GRID; y++) {
+            for (int x = 0; x < GRID; x++) {
+                int row = (y * GRID) + x;
+                builder.add(row, row, 4.1d, 0.5d);
+                if (x > 0) builder.add(row, row - 1, -1.3d, 0d);
+                if (x < GRID - 1) builder.add(row, row + 1, -0.7d, 0d);
+                if (y > 0) builder.add(row, row - GRID, -1d, 0.1d);
+                if (y < GRID - 1) builder.add(row, row + GRID, -1d, -0.1d);
+            }
+        }
+        return builder.build();
+    }
+
+    /** A known solution, and the right hand side it gives */
+    private static ComplexDoubleArray solution () {
+        ComplexDoubleArray x = new ComplexDoubleArray(GRID * GRID);
+        for (int k = 0; k < x.length(); k++) x.set(k, Math.sin(k * 0.01d), Math.cos(k * 0.003d));
+        return x;
+    }
+
+    private static void assertSolved (ComplexDoubleArray expected, KrylovSolver.Result result) {
+        assertTrue(result.converged(), result.toString());
+        assertTrue(result.residual() <= KrylovSolver.DEFAULT_TOLERANCE, result.toString());
+        assertArrayEquals(expected.re(), result.solution().re(), 1E-8);
+        assertArrayEquals(expected.im(), result.solution().im(), 1E-8);
+    }
+
+    @Nested
+    public class GmresTests {
+        @Test
+        public void unpreconditioned() {
+            SparseComplexMatrix a = gridSystem();
+            ComplexDoubleArray x = solution(), b = a.multiply(x);
+            assertSolved(x, new KrylovSolver().gmres(a, b, KrylovSolver.DEFAULT_RESTART, KrylovSolver.IDENTITY));
+        }
+        @Test
+        public void preconditionersReduceIterations() {
+            SparseComplexMatrix a = gridSystem();
+            ComplexDoubleArray x = solution(), b = a.multiply(x);
+            KrylovSolver solver = new KrylovSolver();
+            KrylovSolver.Result plain = solver.gmres(a, b, 20, KrylovSolver.IDENTITY);
+            KrylovSolver.Result jacobi = solver.gmres(a, b, 20, KrylovSolver.jacobi(a));
+            KrylovSolver.Result ilu = solver.gmres(a, b, 20, KrylovSolver.ilu0(a));
+            assertSolved(x, jacobi);
+            assertSolved(x, ilu);
+            assertTrue(ilu.iterations() < jacobi.iterations(), ilu + " against " + jacobi);
+            assertTrue(ilu.iterations() < plain.iterations(), ilu + " against " + plain);
+        }
+        @Test
+        public void initialGuess() {
+            SparseComplexMatrix a = gridSystem();
+            ComplexDoubleArray x = solution(), b = a.multiply(x);
+            KrylovSolver.Result exact = new KrylovSolver().gmres(a, b, x, 10, KrylovSolver.IDENTITY);
+            assertEquals(0, exact.iterations());
+            assertTrue(exact.converged());
+        }
+        @Test
+        public void iterationLimit() {
+            SparseComplexMatrix a = gridSystem();
+            KrylovSolver.Result result = new KrylovSolver(5, 1E-12, ForkJoinPool.commonPool())
+                    .gmres(a, a.multiply(solution()), 3, KrylovSolver.IDENTITY);
+            assertFalse(result.converged());
+            assertEquals(5, result.iterations());
+            assertTrue(result.residual() < 1d);
+        }
+    }
+
+    @Nested
+    public class BicgstabTests {
+        @Test
+        public void unpreconditioned() {
+            SparseComplexMatrix a = gridSystem();
+            ComplexDoubleArray x = solution(), b = a.multiply(x);
+            assertSolved(x, new KrylovSolver().bicgstab(a, b, KrylovSolver.IDENTITY));
+        }
+        @Test
+        public void preconditioned() {
+            SparseComplexMatrix a = gridSystem();
+            ComplexDoubleArray x = solution(), b = a.multiply(x);
+            KrylovSolver solver = new KrylovSolver();
+            KrylovSolver.Result plain = solver.bicgstab(a, b, KrylovSolver.IDENTITY);
+            KrylovSolver.Result ilu = solver.bicgstab(a, b, KrylovSolver.ilu0(a));
+            assertSolved(x, solver.bicgstab(a, b, KrylovSolver.jacobi(a)));
+            assertSolved(x, ilu);
+            assertTrue(ilu.iterations() < plain.iterations(), ilu + " against " + plain);
+        }
+        @Test
+        public void zeroRightHandSide() {
+            KrylovSolver.Result result = new KrylovSolver().bicgstab(gridSystem(),
+                    new ComplexDoubleArray(GRID * GRID), KrylovSolver.IDENTITY);
+            assertTrue(result.converged());
+            assertEquals(0, result.iterations());
+            assertArrayEquals(new double[GRID * GRID], result.solution().re(), 0d);
+        }
+    }
+
+    @Nested
+    public class InvalidTests {
+        @Test
+        public void arguments() {
+            SparseComplexMatrix a = gridSystem();
+            KrylovSolver solver = new KrylovSolver();
+            assertThrows(IllegalArgumentException.class, () -> new KrylovSolver(0, 1E-10, ForkJoinPool.commonPool()));
+            assertThrows(IllegalArgumentException.class, () -> new KrylovSolver(10, 0d, ForkJoinPool.commonPool()));
+            assertThrows(NullPointerException.class, () -> new KrylovSolver(10, 1E-10, null));
+            assertThrows(IllegalArgumentException.class,
+                    () -> solver.gmres(a, new ComplexDoubleArray(3), 10, KrylovSolver.IDENTITY));
+            assertThrows(IllegalArgumentException.class,
+                    () -> solver.gmres(a, new ComplexDoubleArray(GRID * GRID), 0, KrylovSolver.IDENTITY));
+            assertThrows(NullPointerException.class,
+                    () -> solver.bicgstab(a, new ComplexDoubleArray(GRID * GRID), null));
+            SparseComplexMatrix rectangular = new SparseComplexMatrix.Builder(2, 3).build();
+            assertThrows(IllegalArgumentException.class,
+                    () -> solver.bicgstab(rectangular, new ComplexDoubleArray(2), KrylovSolver.IDENTITY));
+        }
+        @Test
+        public void preconditioners() {
+            SparseComplexMatrix missing = new SparseComplexMatrix.Builder(2, 2).add(0, 0, 1d, 0d).add(1, 0, 1d, 0d).build();
+            assertThrows(ArithmeticException.class, () -> KrylovSolver.jacobi(missing));
+            assertThrows(IllegalArgumentException.class, () -> KrylovSolver.ilu0(missing));
+            /* [[1, 1], [1, 1]] has a zero second pivot */
+            SparseComplexMatrix singular = new SparseComplexMatrix.Builder(2, 2)
+                    .add(0, 0, 1d, 0d).add(0, 1, 1d, 0d).add(1, 0, 1d, 0d).add(1, 1, 1d, 0d).build();
+            assertThrows(ArithmeticException.class, () -> KrylovSolver.ilu0(singular));
+        }
+        @Test
+        public void preconditionersAtExtremeScales() {
+            /* Squaring these diagonals would underflow or overflow */
+            SparseComplexMatrix a = new SparseComplexMatrix.Builder(2, 2)
+                    .add(0, 0, 1e-170, 1e-170).add(0, 1, 1e-170, 0d).add(1, 1, 0d, 1e200).build();
+            ComplexDoubleArray x = new ComplexDoubleArray(new double[] {1d, -2d}, new double[] {0.5d, 3d});
+            ComplexDoubleArray b = a.multiply(x), z = new ComplexDoubleArray(2);
+            KrylovSolver.ilu0(a).apply(b.re(), b.im(), z.re(), z.im());
+            assertArrayEquals(x.re(), z.re(), 1E-14);
+            assertArrayEquals(x.im(), z.im(), 1E-14);
+            SparseComplexMatrix diagonal = new SparseComplexMatrix.Builder(2, 2)
+                    .add(0, 0, 1e-170, 1e-170).add(1, 1, 0d, 1e200).build();
+            b = diagonal.multiply(x);
+            KrylovSolver.jacobi(diagonal).apply(b.re(), b.im(), z.re(), z.im());
+            assertArrayEquals(x.re(), z.re(), 1E-14);
+            assertArrayEquals(x.im(), z.im(), 1E-14);
+        }
+        @Test
+        public void iluIsExactForTridiagonal() {
+            /* A tridiagonal matrix has no fill, so ILU(0) is its LU decomposition */
+            int n = 50;
+            SparseComplexMatrix.Builder builder = new SparseComplexMatrix.Builder(n, n);
+            for (int i = 0; i < n; i++) {
+                builder.add(i, i, 2d, 1d);
+                if (i > 0) builder.add(i, i - 1, -1d, 0.3d);
+                if (i < n - 1) builder.add(i, i + 1, -0.5d, 0d);
+            }
+            SparseComplexMatrix a = builder.build();
+            ComplexDoubleArray x = new ComplexDoubleArray(n);
+            for (int k = 0; k < n; k++) x.set(k, k, -k * 0.5d);
+            ComplexDoubleArray b = a.multiply(x), z = new ComplexDoubleArray(n);
+            KrylovSolver.ilu0(a).apply(b.re(), b.im(), z.re(), z.im());
+            assertArrayEquals(x.re(), z.re(), 1E-10);
+            assertArrayEquals(x.im(), z.im(), 1E-10);
+        }
+    }
+}
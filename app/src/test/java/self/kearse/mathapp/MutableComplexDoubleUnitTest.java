@@ -0,0 +1,85 @@
+package self.kearse.mathapp;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit testing for the MutableComplexDouble class
+ */
+public class MutableComplexDoubleUnitTest {
+
+    @Nested
+    public class AssignmentTests {
+        @Test
+        public void setFromComplex() {
+            MutableComplexDouble z = new MutableComplexDouble().set(new ComplexDoubleCartesian(1d, -2d));
+            assertEquals(1d, z.re());
+            assertEquals(-2d, z.im());
+        }
+        @Test
+        public void addAndSubtract() {
+            MutableComplexDouble z = new MutableComplexDouble(1d, 2d);
+            z.addAssign(3d, -1d).subAssign(new ComplexDouble(0.5d, 0.5d));
+            assertEquals(new ComplexDouble(3.5d, 0.5d), z.snapshot());
+        }
+        @Test
+        public void multiplyAndDivide() {
+            MutableComplexDouble z = new MutableComplexDouble(1d, 2d);
+            z.mulAssign(3d, -1d);
+            assertEquals(new ComplexDouble(5d, 5d), z.snapshot());
+            z.divAssign(new ComplexDoubleCartesian(3d, -1d));
+            assertEquals(new ComplexDouble(1d, 2d), z.snapshot());
+        }
+        @Test
+        public void multiplyBySelf() {
+            MutableComplexDouble z = new MutableComplexDouble(0d, 1d);
+            assertEquals(new ComplexDouble(-1d, 0d), z.mulAssign(z).snapshot());
+        }
+        @Test
+        public void divideByZero() {
+            assertThrows(ArithmeticException.class,
+                    () -> new MutableComplexDouble(1d, 0d).divAssign(0d, 0d));
+        }
+        @Test
+        public void nullOperands() {
+            final MutableComplexDouble z = new MutableComplexDouble(1d, 2d);
+            final Complex<Double> none = null;
+            assertEquals("Cannot assign a null reference",
+                    assertThrows(NullPointerException.class, () -> z.set(none)).getMessage());
+            assertEquals("Cannot add a null reference",
+                    assertThrows(NullPointerException.class, () -> z.addAssign(none)).getMessage());
+            assertEquals("Cannot subtract a null reference",
+                    assertThrows(NullPointerException.class, () -> z.subAssign(none)).getMessage());
+            assertEquals("Cannot multiply a null reference",
+                    assertThrows(NullPointerException.class, () -> z.mulAssign(none)).getMessage());
+            assertEquals("Cannot divide by a null reference",
+                    assertThrows(NullPointerException.class, () -> z.divAssign(none)).getMessage());
+        }
+    }
+
+    @Nested
+    public class FusedTests {
+        @Test
+        public void mulAddHorner() {
+            /* p(z) = z^2 + 2z + 3 at z = i, evaluated as (1*z + 2)*z + 3 */
+            MutableComplexDouble p = new MutableComplexDouble(1d, 0d);
+            p.mulAddAssign(0d, 1d, 2d, 0d).mulAddAssign(0d, 1d, 3d, 0d);
+            assertEquals(new ComplexDouble(2d, 2d), p.snapshot());
+        }
+        @Test
+        public void squareAdd() {
+            MutableComplexDouble z = new MutableComplexDouble(1d, 1d);
+            assertEquals(new ComplexDouble(-1d, 3d), z.squareAddAssign(-1d, 1d).snapshot());
+        }
+        @Test
+        public void snapshotIsIndependent() {
+            MutableComplexDouble z = new MutableComplexDouble(1d, 1d);
+            ComplexDouble before = z.snapshot();
+            z.conjugate().negate();
+            assertEquals(new ComplexDouble(1d, 1d), before);
+            assertEquals(new ComplexDouble(-1d, 1d), z.snapshot());
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package self.kearse.mathapp;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit testing for the NthRoot class
+ */
+public class NthRootUnitTest {
+
+    @Nested
+    public class ExactTests {
+        @Test
+        public void fastPaths() {
+            assertEquals(Math.sqrt(2d), NthRoot.root(2d, 2));
+            assertEquals(Math.cbrt(2d), NthRoot.root(2d, 3));
+            assertEquals(2d, NthRoot.root(2d, 1));
+        }
+        @Test
+        public void integerCoercion() {
+            assertEquals(2d, NthRoot.root(16d, 4));
+            assertEquals(10d, NthRoot.root(1E10, 10));
+            assertEquals(3d, NthRoot.root(2187d, 7));
+        }
+        @Test
+        public void specialValues() {
+            assertEquals(0d, NthRoot.root(0d, 5));
+            assertEquals(1d, NthRoot.root(1d, 5));
+            assertEquals(Double.POSITIVE_INFINITY, NthRoot.root(Double.POSITIVE_INFINITY, 5));
+            assertTrue(Double.isNaN(NthRoot.root(Double.NaN, 5)));
+        }
+        @Test
+        public void negativeValues() {
+            assertEquals(-3d, NthRoot.root(-243d, 5));
+            assertTrue(Double.isNaN(NthRoot.root(-16d, 4)));
+        }
+        @Test
+        public void negativeDegree() {
+            assertEquals(0.5d, NthRoot.root(16d, -4));
+        }
+        @Test
+        public void zeroDegree() {
+            assertThrows(IllegalArgumentException.class, () -> NthRoot.root(2d, 0));
+        }
+    }
+
+    /**
+     * Tests that roots of every magnitude terminate within one ulp of the true root, by checking
+     * exactly that the true root lies between the neighbours of the result.
+     */
+    @ParameterizedTest
+    @ValueSource(doubles = {12.5d, 1E-300, 3.7E-12, 0.75d, 42d, 1E15, 1E300, Double.MAX_VALUE})
+    void WithinOneUlp(double value) {
+        BigDecimal exact = new BigDecimal(value);
+        for (int degree = 4; degree <= 40; degree += 3) {
+            double root = NthRoot.root(value, degree);
+            BigDecimal below = new BigDecimal(Math.nextDown(root)).pow(degree);
+            BigDecimal above = new BigDecimal(Math.nextUp(root)).pow(degree);
+            assertTrue( (below.compareTo(exact) < 0) && (above.compareTo(exact) > 0),
+                    String.format("Value %s, degree %d, root %s", value, degree, root));
+        }
+    }
+
+    @Test
+    void BatchMatchesScalar() {
+        double[] values = {12.5d, 0.001d, 81d, 7d};
+        double[] roots = NthRoot.root(values, 4);
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(NthRoot.root(values[i], 4), roots[i]);
+        }
+        assertSame(values, NthRoot.root(values, 4, values), "Batch may work in place");
+    }
+}
@@ -0,0 +1,201 @@
+package self.kearse.mathapp;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit testing for the OdeEnsemble class
+ */
+public class OdeEnsembleUnitTest {
+    /** z' = lambda z, with the coefficient set per run */
+    private static final class Linear implements ComplexOdeSystem {
+        double lambdaRe, lambdaIm;
+
+        @Override
+        public int dimension () {
+            return 1;
+        }
+
+        @Override
+        public void derivative (double t, double[] re, double[] im, double[] dRe, double[] dIm) {
+            dRe[0] = (lambdaRe * re[0]) - (lambdaIm * im[0]);
+            dIm[0] = (lambdaRe * im[0]) + (lambdaIm * re[0]);
+        }
+    }
+
+    /** y' = rate * y, with the rate set per run */
+    private static final class Growth implements OdeSystem {
+        double rate;
+
+        @Override
+        public int dimension () {
+            return 1;
+        }
+
+        @Override
+        public void derivative (double t, double[] y, double[] dydt) {
+            dydt[0] = rate * y[0];
+        }
+    }
+
+    /** A sweep of growth rates 0.01k, ending when y reaches 2, counting the systems created */
+    private static class Doubling implements OdeEnsemble.RealModel<Growth> {
+        final AtomicInteger created = new AtomicInteger();
+
+        @Override
+        public Growth createSystem () {
+            created.incrementAndGet();
+            return new Growth();
+        }
+
+        @Override
+        public void configure (int run, Growth system, double[] initial) {
+            system.rate = 0.01d * run;
+            initial[0] = 1d;
+        }
+
+        @Override
+        public boolean event (int run, AdamsIntegrator integrator) {
+            return integrator.state()[0] >= 2d;
+        }
+    }
+
+    private static double[] doublingTimes (OdeEnsemble ensemble, Doubling model, int runs) {
+        final double[] times = new double[runs];
+        ensemble.run(runs, model, 0d, 0.01d, 5000L, new OdeEnsemble.Sink() {
+            @Override
+            public void accept (int run, AdamsIntegrator integrator, boolean ended) {
+                times[run] = ended ? integrator.time() : Double.POSITIVE_INFINITY;
+            }
+        });
+        return times;
+    }
+
+    private static boolean released (List<WeakReference<Growth>> systems) {
+        for (WeakReference<Growth> system : systems) {
+            if (system.get() != null) return false;
+        }
+        return true;
+    }
+
+    @Nested
+    public class SweepTests {
+        @Test
+        public void complexCoefficients() {
+            final List<Complex<Double>> coefficients = new ArrayList<>();
+            for (int k = 0; k < 200; k++) coefficients.add(new ComplexDouble(-0.01d * k, 0.05d * k));
+            final ComplexDoubleArray finals = new ComplexDoubleArray(coefficients.size());
+            int ended = new OdeEnsemble(4).sweep(coefficients, new OdeEnsemble.CoefficientModel<Linear>() {
+                @Override
+                public Linear createSystem () {
+                    return new Linear();
+                }
+
+                @Override
+                public void configure (int run, ComplexDouble lambda, Linear system, double[] re, double[] im) {
+                    system.lambdaRe = lambda.re();
+                    system.lambdaIm = lambda.im();
+                    re[0] = 1d;
+                    im[0] = 0d;
+                }
+
+                @Override
+                public boolean event (int run, AdamsIntegrator integrator) {
+                    return false;
+                }
+            }, 0d, 0.001d, 1000L, new OdeEnsemble.Sink() {
+                @Override
+                public void accept (int run, AdamsIntegrator integrator, boolean early) {
+                    finals.set(run, integrator.state()[0], integrator.imaginary()[0]);
+                }
+            });
+            assertEquals(0, ended);
+            for (int k = 0; k < coefficients.size(); k++) {
+                Complex<Double> exact = Complex.Exp(coefficients.get(k));
+                assertEquals(exact.real(), finals.re()[k], 1E-9, "Run " + k);
+                assertEquals(exact.imaginary(), finals.im()[k], 1E-9, "Run " + k);
+            }
+        }
+        @Test
+        public void eventsEndRuns() {
+            Doubling model = new Doubling();
+            double[] times = doublingTimes(new OdeEnsemble(4), model, 100);
+            assertEquals(Double.POSITIVE_INFINITY, times[0], "A zero rate never doubles");
+            assertEquals(Double.POSITIVE_INFINITY, times[1], "Doubling at rate 0.01 takes longer than 50");
+            for (int k = 2; k < 100; k++) {
+                double exact = Math.log(2d) / (0.01d * k);
+                assertTrue( (times[k] >= exact) && (times[k] < exact + 0.01d + 1E-9), "Run " + k);
+            }
+        }
+        @Test
+        public void workersReused() {
+            ForkJoinPool pool = new ForkJoinPool(2);
+            try {
+                Doubling model = new Doubling();
+                double[] parallel = doublingTimes(new OdeEnsemble(3, pool), model, 500);
+                assertTrue(model.created.get() <= 3, model.created + " systems created");
+                double[] sequential = doublingTimes(new OdeEnsemble(3, new ForkJoinPool(1)), new Doubling(), 500);
+                assertArrayEquals(sequential, parallel);
+            } finally {
+                pool.shutdown();
+            }
+        }
+        @Test
+        public void workersReleased() throws InterruptedException {
+            ForkJoinPool pool = new ForkJoinPool(2);
+            try {
+                final List<WeakReference<Growth>> systems = new CopyOnWriteArrayList<>();
+                Doubling model = new Doubling() {
+                    @Override
+                    public Growth createSystem () {
+                        Growth system = super.createSystem();
+                        systems.add(new WeakReference<>(system));
+                        return system;
+                    }
+                };
+                doublingTimes(new OdeEnsemble(3, pool), model, 200);
+                assertFalse(systems.isEmpty());
+                /* The threads of the pool live on, but must not keep the systems of the ensemble */
+                for (int attempt = 0; (attempt < 50) && !released(systems); attempt++) {
+                    System.gc();
+                    Thread.sleep(10L);
+                }
+                assertTrue(released(systems), "Systems still reachable after the ensemble returned");
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    @Nested
+    public class ArgumentTests {
+        @Test
+        public void invalidArguments() {
+            assertThrows(IllegalArgumentException.class, () -> new OdeEnsemble(0));
+            assertThrows(NullPointerException.class, () -> new OdeEnsemble(2, null));
+            final OdeEnsemble ensemble = new OdeEnsemble(2);
+            final OdeEnsemble.Sink sink = new OdeEnsemble.Sink() {
+                @Override
+                public void accept (int run, AdamsIntegrator integrator, boolean ended) {
+                }
+            };
+            assertThrows(NullPointerException.class,
+                    () -> ensemble.run(1, (OdeEnsemble.RealModel<Growth>) null, 0d, 0.1d, 10L, sink));
+            assertThrows(NullPointerException.class, () -> ensemble.run(1, new Doubling(), 0d, 0.1d, 10L, null));
+            assertThrows(IllegalArgumentException.class, () -> ensemble.run(-1, new Doubling(), 0d, 0.1d, 10L, sink));
+            assertThrows(IllegalArgumentException.class, () -> ensemble.run(1, new Doubling(), 0d, 0d, 10L, sink));
+            assertEquals(0, ensemble.run(0, new Doubling(), 0d, 0.1d, 10L, sink));
+            assertThrows(NullPointerException.class, () -> ensemble.sweep(null,
+                    (OdeEnsemble.CoefficientModel<ComplexOdeSystem>) null, 0d, 0.1d, 10L, sink));
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package self.kearse.mathapp;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit testing for the PerturbationRenderer class
+ */
+public class PerturbationRendererUnitTest {
+    /** A point on the boundary of the Mandelbrot set, in the seahorse valley */
+    private static final BigDecimal SEAHORSE_RE = new BigDecimal("-0.743643887037158704752191506114774");
+    private static final BigDecimal SEAHORSE_IM = new BigDecimal("0.131825904205311970493132056385139");
+
+    /** Counts escape iterations directly at arbitrary precision, as the slow reference. */
+    private static int iterateExactly(BigDecimal re, BigDecimal im, int maxIterations, MathContext context) {
+        ComplexBigDecimal c = new ComplexBigDecimal(re, im, context);
+        ComplexBigDecimal z = c;
+        for (int n = 1; n < maxIterations; n++) {
+            if (z.abs2().doubleValue() > EscapeTimeRenderer.ESCAPE_RADIUS_SQUARED) return n;
+            z = z.squareAdd(c);
+        }
+        return maxIterations;
+    }
+
+    private static int distinct(int[] pixels) {
+        Set<Integer> values = new HashSet<>();
+        for (int pixel : pixels) values.add(pixel);
+        return values.size();
+    }
+
+    @Test
+    void MatchesDoublePrecisionWhenShallow() {
+        ComplexBigDecimal reference = new ComplexBigDecimal(new BigDecimal("-0.5"), BigDecimal.ZERO,
+                PerturbationRenderer.contextFor(0.05d));
+        PerturbationRenderer perturbation = new PerturbationRenderer(reference, 200);
+        int[] deltas = perturbation.render(new Viewport(0d, 0d, 0.05d, 40, 30), new int[40 * 30]);
+        int[] direct = new EscapeTimeRenderer(200).render(new Viewport(-0.5d, 0d, 0.05d, 40, 30),
+                new int[40 * 30]);
+        int same = 0;
+        for (int i = 0; i < direct.length; i++) {
+            if (direct[i] == deltas[i]) same++;
+        }
+        assertTrue(same >= 0.98d * direct.length, same + " of " + direct.length + " pixels agree");
+    }
+
+    @Test
+    void DeepZoomMatchesArbitraryPrecision() {
+        double pixelSize = 1E-20;
+        int maxIterations = 12000;
+        MathContext context = PerturbationRenderer.contextFor(pixelSize);
+        PerturbationRenderer renderer = new PerturbationRenderer(
+                new ComplexBigDecimal(SEAHORSE_RE, SEAHORSE_IM, context), maxIterations);
+        Viewport viewport = new Viewport(0d, 0d, pixelSize, 24, 24);
+        int[] pixels = renderer.render(viewport, new int[24 * 24]);
+        assertTrue(distinct(pixels) > 100, "The deep zoom resolves detail");
+        int[] doubles = new EscapeTimeRenderer(maxIterations).render(new Viewport(
+                SEAHORSE_RE.doubleValue(), SEAHORSE_IM.doubleValue(), pixelSize, 24, 24), new int[24 * 24]);
+        assertEquals(1, distinct(doubles), "Double precision cannot tell the pixels apart");
+        for (int k = 0; k < pixels.length; k += 97) {
+            int x = k % 24, y = k / 24;
+            int exact = iterateExactly(SEAHORSE_RE.add(new BigDecimal(viewport.re(x)), context),
+                    SEAHORSE_IM.add(new BigDecimal(viewport.im(y)), context), maxIterations, context);
+            assertEquals(exact, pixels[k], String.format("Pixel (%d, %d)", x, y));
+        }
+    }
+
+    @Nested
+    public class ReferenceTests {
+        @Test
+        public void escapingReferenceRebased() {
+            /* The reference escapes at once, so every pixel is carried by rebasing */
+            ComplexBigDecimal reference = new ComplexBigDecimal(new BigDecimal("3"), BigDecimal.ZERO);
+            PerturbationRenderer renderer = new PerturbationRenderer(reference, 100);
+            assertEquals(1, renderer.referenceIterations());
+            EscapeTimeRenderer direct = new EscapeTimeRenderer(100);
+            MutableComplexDouble z = new MutableComplexDouble();
+            assertEquals(direct.iterate(0.25d, 0.1d, z), renderer.iterate(0.25d - 3d, 0.1d));
+            assertEquals(100, renderer.iterate(-3d, 0d));
+        }
+        @Test
+        public void precisionForZoom() {
+            assertEquals(17, PerturbationRenderer.contextFor(1E-3).getPrecision());
+            assertEquals(40, PerturbationRenderer.contextFor(1E-30).getPrecision());
+        }
+        @Test
+        public void invalidArguments() {
+            assertThrows(NullPointerException.class, () -> new PerturbationRenderer(null, 10));
+            assertThrows(IllegalArgumentException.class,
+                    () -> new PerturbationRenderer(new ComplexBigDecimal(BigDecimal.ZERO, BigDecimal.ZERO), 0));
+            assertThrows(NullPointerException.class, () -> new PerturbationRenderer(
+                    new ComplexBigDecimal(BigDecimal.ZERO, BigDecimal.ZERO), 10, null, null, 8));
+        }
+    }
+}
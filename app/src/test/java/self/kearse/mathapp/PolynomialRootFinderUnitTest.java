@@ -0,0 +1,89 @@
+package self.kearse.mathapp;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit testing for the PolynomialRootFinder class
+ */
+public class PolynomialRootFinderUnitTest {
+    /** The allowed tolerance for computational error (when checking equality). */
+    private static double TOLERANCE = 1E-10;
+
+    /** Asserts that every expected root appears among the actual roots. */
+    private static void assertContainsRoots(ComplexDoubleArray expected, ComplexDoubleArray actual) {
+        assertEquals(expected.length(), actual.length());
+        for (int i = 0; i < expected.length(); i++) {
+            double closest = Double.POSITIVE_INFINITY;
+            for (int j = 0; j < actual.length(); j++) {
+                closest = Math.min(closest, Math.hypot(expected.re()[i] - actual.re()[j],
+                        expected.im()[i] - actual.im()[j]));
+            }
+            assertTrue(closest < TOLERANCE,
+                    String.format("Root %s, maximum error: %s, actual: %s",
+                            expected.get(i), TOLERANCE, closest));
+        }
+    }
+
+    @Nested
+    public class SmallDegreeTests {
+        @Test
+        public void quadraticRealRoots() {
+            /* z^2 - 3z + 2 = (z - 1)(z - 2) */
+            ComplexDoubleArray roots = new PolynomialRootFinder().solve(new ComplexDoubleArray(
+                    new double[] {2d, -3d, 1d}, new double[3]));
+            assertContainsRoots(new ComplexDoubleArray(new double[] {1d, 2d}, new double[2]), roots);
+        }
+        @Test
+        public void quadraticComplexRoots() {
+            /* z^2 + 1 has roots i and -i */
+            List<Complex<Double>> roots = new PolynomialRootFinder().solve(Arrays.<Complex<Double>>asList(
+                    new ComplexDoubleCartesian(1d, 0d), new ComplexDoubleCartesian(0d, 0d),
+                    new ComplexDoublePolar(0d, 1d)));
+            assertContainsRoots(new ComplexDoubleArray(new double[2], new double[] {1d, -1d}),
+                    ComplexDoubleArray.fromList(roots));
+        }
+        @Test
+        public void leadingZerosIgnored() {
+            ComplexDoubleArray roots = new PolynomialRootFinder().solve(new ComplexDoubleArray(
+                    new double[] {-2d, 1d, 0d, 0d}, new double[4]));
+            assertContainsRoots(new ComplexDoubleArray(new double[] {2d}, new double[1]), roots);
+        }
+        @Test
+        public void zeroRoot() {
+            /* z^3 - z = z(z - 1)(z + 1) */
+            ComplexDoubleArray roots = new PolynomialRootFinder().solve(new ComplexDoubleArray(
+                    new double[] {0d, -1d, 0d, 1d}, new double[4]));
+            assertContainsRoots(new ComplexDoubleArray(new double[] {0d, 1d, -1d}, new double[3]), roots);
+        }
+        @Test
+        public void allZero() {
+            assertThrows(IllegalArgumentException.class,
+                    () -> new PolynomialRootFinder().solve(new ComplexDoubleArray(3)));
+        }
+    }
+
+    @Nested
+    public class LargeDegreeTests {
+        @Test
+        public void rootsOfUnityInParallel() {
+            /* z^n - c, with roots matching Complex.roots */
+            int degree = 500;
+            Complex<Double> c = new ComplexDoubleCartesian(0.5d, -2d);
+            ComplexDoubleArray coefficients = new ComplexDoubleArray(degree + 1);
+            coefficients.set(0, -0.5d, 2d);
+            coefficients.set(degree, 1d, 0d);
+            PolynomialRootFinder finder = new PolynomialRootFinder(
+                    PolynomialRootFinder.DEFAULT_MAX_ITERATIONS, PolynomialRootFinder.DEFAULT_TOLERANCE,
+                    new ForkJoinPool(4));
+            assertContainsRoots(ComplexDoubleArray.fromList(Complex.roots(c, degree)),
+                    finder.solve(coefficients));
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package self.kearse.mathapp;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit testing for the RootsOfUnity and RootsOfUnityCache classes
+ */
+public class RootsOfUnityUnitTest {
+    /** The allowed tolerance for computational error (when checking equality). */
+    private static double TOLERANCE = 1E-15;
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 3, 4, 6, 7, 8, 12, 16, 30, 64, 1000})
+    void MatchesTrigonometry(int degree) {
+        RootsOfUnity unity = new RootsOfUnity(degree);
+        for (int k = -degree; k < 2 * degree; k++) {
+            double angle = (2d * Math.PI * Math.floorMod(k, degree)) / degree;
+            double cosError = Math.abs(Math.cos(angle) - unity.cos(k));
+            double sinError = Math.abs(Math.sin(angle) - unity.sin(k));
+            assertTrue( (cosError < TOLERANCE) && (sinError < TOLERANCE),
+                    String.format("Degree %d, index %d, cos error: %s, sin error: %s",
+                            degree, k, cosError, sinError));
+        }
+    }
+
+    @Nested
+    public class StorageTests {
+        @Test
+        public void octantSymmetry() {
+            assertEquals(16L * ((1024 / 8) + 1), new RootsOfUnity(1024).memoryBytes());
+        }
+        @Test
+        public void exactAxes() {
+            RootsOfUnity unity = new RootsOfUnity(8);
+            assertEquals(0d, unity.cos(2));
+            assertEquals(1d, unity.sin(2));
+            assertEquals(-1d, unity.cos(4));
+            assertEquals(-1d, unity.sin(6));
+        }
+        @Test
+        public void fillTables() {
+            RootsOfUnity unity = new RootsOfUnity(12);
+            double[] cos = new double[12], sin = new double[12];
+            unity.fill(cos, sin);
+            for (int k = 0; k < 12; k++) {
+                assertEquals(unity.cos(k), cos[k]);
+                assertEquals(unity.sin(k), sin[k]);
+            }
+        }
+        @Test
+        public void nonPositiveDegree() {
+            assertThrows(IllegalArgumentException.class, () -> new RootsOfUnity(0));
+        }
+    }
+
+    @Nested
+    public class CacheTests {
+        @Test
+        public void repeatedLookupShared() {
+            RootsOfUnityCache cache = new RootsOfUnityCache(1024L * 1024L);
+            assertSame(cache.get(360), cache.get(360));
+        }
+        @Test
+        public void leastRecentlyUsedEvicted() {
+            long tableBytes = new RootsOfUnity(800).memoryBytes();
+            RootsOfUnityCache cache = new RootsOfUnityCache(2L * tableBytes);
+            cache.get(800);
+            cache.get(792);
+            cache.get(800);
+            cache.get(784);
+            assertTrue(cache.contains(800), "Recently used table retained");
+            assertFalse(cache.contains(792), "Least recently used table evicted");
+            assertTrue(cache.contains(784), "Newest table cached");
+            assertTrue(cache.usedBytes() <= 2L * tableBytes);
+        }
+        @Test
+        public void oversizedNotCached() {
+            RootsOfUnityCache cache = new RootsOfUnityCache(64L);
+            assertEquals(1d, cache.get(4096).cos(0));
+            assertFalse(cache.contains(4096));
+            assertEquals(0L, cache.usedBytes());
+        }
+    }
+}
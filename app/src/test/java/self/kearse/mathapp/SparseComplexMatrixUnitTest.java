@@ -0,0 +1,114 @@
+package self.kearse.mathapp;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit testing for the SparseComplexMatrix class
+ */
+public class SparseComplexMatrixUnitTest {
+    /** A random matrix with about the given number of elements per row, added in random order */
+    private static SparseComplexMatrix random (int rows, int columns, int perRow, long seed) {
+        Random random = new Random(seed);
+        SparseComplexMatrix.Builder builder = new SparseComplexMatrix.Builder(rows, columns);
+        for (int k = 0; k < rows * perRow; k++) {
+            builder.add(random.nextInt(rows), random.nextInt(columns), random.nextGaussian(), random.nextGaussian());
+        }
+        return builder.build();
+    }
+
+    @Nested
+    public class BuilderTests {
+        @Test
+        public void repeatedElementsSummed() {
+            SparseComplexMatrix matrix = new SparseComplexMatrix.Builder(3, 4)
+                    .add(2, 3, 1d, 1d)
+                    .add(0, 1, new ComplexDouble(2d, 0d))
+                    .add(2, 3, 0.5d, -2d)
+                    .add(2, 0, 0d, 0d)
+                    .build();
+            assertEquals(3, matrix.nonZeros());
+            assertEquals(new ComplexDouble(1.5d, -1d), matrix.get(2, 3));
+            assertEquals(new ComplexDouble(2d, 0d), matrix.get(0, 1));
+            assertEquals(ComplexDouble.ZERO, matrix.get(1, 1));
+            assertEquals(ComplexDouble.ZERO, matrix.get(2, 0));
+        }
+        @Test
+        public void denseEquivalent() {
+            Random random = new Random(1L);
+            SparseComplexMatrix.Builder builder = new SparseComplexMatrix.Builder(20, 30);
+            ComplexMatrix dense = new ComplexMatrix(20, 30);
+            for (int k = 0; k < 200; k++) {
+                int r = random.nextInt(20), c = random.nextInt(30);
+                double re = random.nextGaussian(), im = random.nextGaussian();
+                builder.add(r, c, re, im);
+                dense.set(r, c, dense.get(r, c).add(re, im));
+            }
+            assertEquals(dense, builder.build().toDense());
+        }
+        @Test
+        public void invalid() {
+            assertThrows(IllegalArgumentException.class, () -> new SparseComplexMatrix.Builder(-1, 2));
+            assertThrows(IndexOutOfBoundsException.class, () -> new SparseComplexMatrix.Builder(2, 2).add(2, 0, 1d, 0d));
+            assertThrows(NullPointerException.class, () -> new SparseComplexMatrix.Builder(2, 2).add(0, 0, null));
+            assertThrows(IndexOutOfBoundsException.class, () -> new SparseComplexMatrix.Builder(2, 2).build().get(0, -1));
+        }
+    }
+
+    @Nested
+    public class ProductTests {
+        @Test
+        public void matchesDense() {
+            SparseComplexMatrix matrix = random(40, 25, 3, 2L);
+            ComplexDoubleArray vector = new ComplexDoubleArray(25);
+            for (int k = 0; k < 25; k++) vector.set(k, k * 0.5d, 1d - k);
+            ComplexDoubleArray expected = matrix.toDense().multiply(vector);
+            ComplexDoubleArray actual = matrix.multiply(vector);
+            assertArrayEquals(expected.re(), actual.re(), 1E-12);
+            assertArrayEquals(expected.im(), actual.im(), 1E-12);
+        }
+        @Test
+        public void parallelMatchesSequential() {
+            /* Enough elements to be split between the threads, with some rows far longer than others */
+            int n = 20000;
+            SparseComplexMatrix.Builder builder = new SparseComplexMatrix.Builder(n, n);
+            Random random = new Random(3L);
+            ComplexDoubleArray vector = new ComplexDoubleArray(n);
+            for (int k = 0; k < n; k++) vector.set(k, random.nextGaussian(), random.nextGaussian());
+            ComplexDoubleArray expected = new ComplexDoubleArray(n);
+            for (int k = 0; k < 100000; k++) {
+                int r = (k % 5 == 0) ? random.nextInt(10) : random.nextInt(n), c = random.nextInt(n);
+                ComplexDouble element = new ComplexDouble(random.nextGaussian(), random.nextGaussian());
+                builder.add(r, c, element);
+                expected.set(r, expected.get(r).add(element.multiply(vector.get(c))));
+            }
+            SparseComplexMatrix matrix = builder.build();
+            ForkJoinPool pool = new ForkJoinPool(4);
+            try {
+                ComplexDoubleArray actual = matrix.multiply(vector, new ComplexDoubleArray(n), pool);
+                assertArrayEquals(expected.re(), actual.re(), 1E-10);
+                assertArrayEquals(expected.im(), actual.im(), 1E-10);
+            } finally {
+                pool.shutdown();
+            }
+        }
+        @Test
+        public void invalid() {
+            SparseComplexMatrix matrix = random(4, 3, 2, 4L);
+            assertThrows(IllegalArgumentException.class, () -> matrix.multiply(new ComplexDoubleArray(4)));
+            assertThrows(IllegalArgumentException.class, () -> matrix.multiply(new ComplexDoubleArray(3),
+                    new ComplexDoubleArray(3), ForkJoinPool.commonPool()));
+            ComplexDoubleArray square = new ComplexDoubleArray(3);
+            SparseComplexMatrix squareMatrix = random(3, 3, 2, 5L);
+            assertThrows(IllegalArgumentException.class,
+                    () -> squareMatrix.multiply(square, square, ForkJoinPool.commonPool()));
+            assertThrows(NullPointerException.class,
+                    () -> squareMatrix.multiply(square, new ComplexDoubleArray(3), null));
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package self.kearse.mathapp;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit testing for the Transcendental backends
+ */
+public class TranscendentalUnitTest {
+    private static final Transcendental FAST = Transcendental.FAST;
+
+    /** Measures the distance between a result and a reference, in ulps of the reference. */
+    private static double ulps(double result, double reference) {
+        return (result == reference) ? 0d : Math.abs(result - reference) / Math.ulp(reference);
+    }
+
+    /**
+     * Tests the documented error bounds of the fast backend against StrictMath.
+     */
+    @Nested
+    public class ErrorBoundTests {
+        private final Random random = new Random(20201017L);
+
+        @Test
+        public void sinCos() {
+            MutableComplexDouble unit = new MutableComplexDouble();
+            for (int i = 0; i < 100000; i++) {
+                double angle = (random.nextDouble() - 0.5d) * Math.pow(10d, random.nextInt(9) - 3);
+                assertTrue(ulps(FAST.sin(angle), StrictMath.sin(angle)) <= 2d, "sin " + angle);
+                assertTrue(ulps(FAST.cos(angle), StrictMath.cos(angle)) <= 2d, "cos " + angle);
+                FAST.sincos(angle, unit);
+                assertEquals(FAST.cos(angle), unit.re(), "sincos " + angle);
+                assertEquals(FAST.sin(angle), unit.im(), "sincos " + angle);
+            }
+        }
+        @Test
+        public void atan2() {
+            for (int i = 0; i < 100000; i++) {
+                double y = random.nextGaussian() * Math.pow(10d, random.nextInt(11) - 5);
+                double x = random.nextGaussian() * Math.pow(10d, random.nextInt(11) - 5);
+                assertTrue(ulps(FAST.atan2(y, x), StrictMath.atan2(y, x)) <= 2d,
+                        String.format("atan2(%s, %s)", y, x));
+            }
+        }
+        @Test
+        public void logAndExp() {
+            for (int i = 0; i < 100000; i++) {
+                double value = Math.exp((random.nextDouble() - 0.5d) * 1400d);
+                assertTrue(ulps(FAST.log(value), StrictMath.log(value)) <= 1d, "log " + value);
+                double exponent = (random.nextDouble() - 0.5d) * 1400d;
+                assertTrue(ulps(FAST.exp(exponent), StrictMath.exp(exponent)) <= 1d, "exp " + exponent);
+            }
+        }
+    }
+
+    @Nested
+    public class SpecialValueTests {
+        @Test
+        public void argumentRange() {
+            for (Transcendental backend : new Transcendental[] {Transcendental.STRICT, FAST}) {
+                assertEquals(Math.PI, backend.argument(-1d, -0d), "-pi maps to pi");
+                assertEquals(-Math.PI / 2d, backend.argument(0d, -3d));
+                assertEquals(0d, backend.argument(0d, 0d));
+            }
+        }
+        @Test
+        public void delegatedValues() {
+            assertEquals(Double.NEGATIVE_INFINITY, FAST.log(0d));
+            assertTrue(Double.isNaN(FAST.log(-1d)));
+            assertEquals(Math.log(Double.MIN_VALUE), FAST.log(Double.MIN_VALUE));
+            assertEquals(Double.POSITIVE_INFINITY, FAST.exp(1000d));
+            assertEquals(0d, FAST.exp(-1000d));
+            assertEquals(Math.sin(1E9), FAST.sin(1E9));
+            assertEquals(Math.atan2(1d, Double.NEGATIVE_INFINITY), FAST.atan2(1d, Double.NEGATIVE_INFINITY));
+        }
+        @Test
+        public void exactValues() {
+            assertEquals(0d, FAST.log(1d));
+            assertEquals(1d, FAST.exp(0d));
+            assertEquals(1d, FAST.cos(0d));
+            assertEquals(Double.doubleToLongBits(-0d), Double.doubleToLongBits(FAST.sin(-0d)));
+        }
+    }
+
+    @Nested
+    public class BatchTests {
+        @Test
+        public void batchMatchesScalar() {
+            double[] angles = {0.1d, -2.5d, 7d, 1E3, 3E6};
+            for (Transcendental backend : new Transcendental[] {Transcendental.STRICT, FAST}) {
+                double[] cos = new double[angles.length], sin = new double[angles.length];
+                backend.sincos(angles, cos, sin);
+                double[] exp = backend.exp(angles, new double[angles.length]);
+                for (int i = 0; i < angles.length; i++) {
+                    assertEquals(backend.cos(angles[i]), cos[i]);
+                    assertEquals(backend.sin(angles[i]), sin[i]);
+                    assertEquals(backend.exp(angles[i]), exp[i]);
+                }
+            }
+        }
+        @Test
+        public void shortDestination() {
+            assertThrows(IllegalArgumentException.class,
+                    () -> FAST.sincos(new double[3], new double[3], new double[2]));
+            assertThrows(IllegalArgumentException.class,
+                    () -> FAST.log(new double[3], new double[2]));
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package self.kearse.mathapp;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit testing for the Viewport class
+ */
+public class ViewportUnitTest {
+    /** The allowed tolerance for computational error (when checking equality). */
+    private static double TOLERANCE = 1E-15;
+
+    @Test
+    void PixelCentres() {
+        Viewport viewport = new Viewport(1d, -1d, 0.5d, 5, 3);
+        assertEquals(0d, viewport.re(0));
+        assertEquals(2d, viewport.re(4));
+        assertEquals(-0.5d, viewport.im(0), "Rows run down the imaginary axis");
+        assertEquals(-1.5d, viewport.im(2));
+    }
+
+    @Test
+    void FitShorterSide() {
+        Viewport viewport = Viewport.fit(0d, 0d, 4d, 200, 100);
+        assertEquals(0.04d, viewport.pixelSize(), TOLERANCE);
+    }
+
+    @Test
+    void PanAndZoom() {
+        Viewport viewport = new Viewport(0d, 0d, 0.1d, 11, 11);
+        Viewport panned = viewport.pan(10d, 10d);
+        assertEquals(1d, panned.centerRe(), TOLERANCE);
+        assertEquals(-1d, panned.centerIm(), TOLERANCE);
+        Viewport zoomed = viewport.zoom(4d, 0d, 0d);
+        assertEquals(viewport.re(0), zoomed.re(0), TOLERANCE);
+        assertEquals(viewport.im(0), zoomed.im(0), TOLERANCE);
+        assertEquals(0.025d, zoomed.pixelSize(), TOLERANCE);
+        Viewport restored = viewport.zoom(4d, 3d, 7d).zoom(0.25d, 3d, 7d);
+        assertEquals(viewport.centerRe(), restored.centerRe(), TOLERANCE);
+        assertEquals(viewport.centerIm(), restored.centerIm(), TOLERANCE);
+        assertEquals(viewport, new Viewport(0d, 0d, 0.1d, 11, 11));
+    }
+
+    @Test
+    void InvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new Viewport(0d, 0d, 0d, 10, 10));
+        assertThrows(IllegalArgumentException.class, () -> new Viewport(0d, 0d, 1d, 0, 10));
+        assertThrows(IllegalArgumentException.class, () -> new Viewport(Double.NaN, 0d, 1d, 10, 10));
+        assertThrows(IllegalArgumentException.class, () -> new Viewport(0d, 0d, 1d, 10, 10).zoom(-1d, 0d, 0d));
+    }
+}
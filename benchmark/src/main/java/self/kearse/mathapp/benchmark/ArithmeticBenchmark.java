@@ -0,0 +1,97 @@
+package self.kearse.mathapp.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import self.kearse.mathapp.Complex;
+
+/**
+ * Throughput of the basic Complex arithmetic, over every pairing of operand representations.
+ * The operands are built once, so that the benchmarks reading derived components, such as the
+ * Argument, measure the cached value; the cold benchmarks build a fresh operand each time, and
+ * so measure the computation itself.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ArithmeticBenchmark {
+    @Param({"CARTESIAN", "POLAR"})
+    public Representation left;
+    @Param({"CARTESIAN", "POLAR"})
+    public Representation right;
+
+    private Complex<Double> a;
+    private Complex<Double> b;
+    private Complex<Double> aCopy;
+
+    @Setup
+    public void setup() {
+        a = left.of(1.25d, -0.75d);
+        b = right.of(-0.5d, 2d);
+        aCopy = right.of(1.25d, -0.75d);
+    }
+
+    @Benchmark
+    public Complex<Double> add() {
+        return a.add(b);
+    }
+
+    @Benchmark
+    public Complex<Double> multiply() {
+        return a.multiply(b);
+    }
+
+    @Benchmark
+    public Complex<Double> divide() {
+        return a.divide(b);
+    }
+
+    @Benchmark
+    public Complex<Double> multInverse() {
+        return b.multInverse();
+    }
+
+    @Benchmark
+    public Double Argument() {
+        return b.Argument();
+    }
+
+    @Benchmark
+    public boolean equalsDifferent() {
+        return a.equals(b);
+    }
+
+    @Benchmark
+    public boolean equalsSameValue() {
+        return a.equals(aCopy);
+    }
+
+    @Benchmark
+    public Double ArgumentCold() {
+        return right.copy(b).Argument();
+    }
+
+    @Benchmark
+    public boolean equalsDifferentCold() {
+        return left.copy(a).equals(right.copy(b));
+    }
+
+    @Benchmark
+    public boolean equalsSameValueCold() {
+        return left.copy(a).equals(right.copy(aCopy));
+    }
+}
@@ -0,0 +1,78 @@
+package self.kearse.mathapp.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import self.kearse.mathapp.Transcendental;
+
+/**
+ * Throughput of the batch transcendental kernels, comparing the strict and fast backends.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BackendBenchmark {
+    @Param({"STRICT", "FAST"})
+    public String mode;
+    @Param({"1024"})
+    public int size;
+
+    private Transcendental backend;
+    private double[] x;
+    private double[] y;
+    private double[] first;
+    private double[] second;
+
+    @Setup
+    public void setup() {
+        backend = "FAST".equals(mode) ? Transcendental.FAST : Transcendental.STRICT;
+        Random random = new Random(42L);
+        x = new double[size];
+        y = new double[size];
+        for (int i = 0; i < size; i++) {
+            x[i] = (random.nextDouble() - 0.5d) * 20d;
+            y[i] = (random.nextDouble() - 0.5d) * 20d;
+        }
+        first = new double[size];
+        second = new double[size];
+    }
+
+    @Benchmark
+    public double[] sincos() {
+        backend.sincos(x, first, second);
+        return second;
+    }
+
+    @Benchmark
+    public double[] argument() {
+        return backend.argument(x, y, first);
+    }
+
+    @Benchmark
+    public double[] exp() {
+        return backend.exp(x, first);
+    }
+
+    @Benchmark
+    public double[] log() {
+        for (int i = 0; i < size; i++) {
+            second[i] = Math.abs(y[i]);
+        }
+        return backend.log(second, first);
+    }
+}
@@ -0,0 +1,52 @@
+package self.kearse.mathapp.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import self.kearse.mathapp.ComplexDoubleArray;
+import self.kearse.mathapp.FourierTransform;
+
+/**
+ * Throughput of forward transforms on primitive buffers, for power of two sizes (radix-2) and
+ * other sizes (Bluestein).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FourierTransformBenchmark {
+    @Param({"1024", "1000", "65536", "65537"})
+    public int size;
+
+    private FourierTransform plan;
+    private ComplexDoubleArray values;
+
+    @Setup
+    public void setup() {
+        plan = FourierTransform.plan(size);
+        values = new ComplexDoubleArray(size);
+        Random random = new Random(size);
+        for (int i = 0; i < size; i++) {
+            values.set(i, random.nextGaussian(), random.nextGaussian());
+        }
+    }
+
+    @Benchmark
+    public ComplexDoubleArray forward() {
+        return plan.forward(values);
+    }
+}
@@ -0,0 +1,51 @@
+package self.kearse.mathapp.benchmark;
+
+import self.kearse.mathapp.Complex;
+import self.kearse.mathapp.ComplexDoubleCartesian;
+import self.kearse.mathapp.ComplexDoublePolar;
+
+/**
+ * The concrete Complex implementations a benchmark operand may be constructed with, so that
+ * benchmarks can be parameterized over same and mixed representation operands.
+ */
+public enum Representation {
+    CARTESIAN {
+        @Override
+        public Complex<Double> of (double real, double imaginary) {
+            return new ComplexDoubleCartesian(real, imaginary);
+        }
+
+        @Override
+        public Complex<Double> copy (Complex<Double> value) {
+            return new ComplexDoubleCartesian(value.real(), value.imaginary());
+        }
+    },
+    POLAR {
+        @Override
+        public Complex<Double> of (double real, double imaginary) {
+            return new ComplexDoublePolar(Math.atan2(imaginary, real),
+                    Math.sqrt((real * real) + (imaginary * imaginary)));
+        }
+
+        @Override
+        public Complex<Double> copy (Complex<Double> value) {
+            return new ComplexDoublePolar(value.Argument(), value.modulus());
+        }
+    };
+
+    /**
+     * Constructs an operand in this representation.
+     * @param real the real component of the operand
+     * @param imaginary the imaginary component of the operand
+     * @return a new Complex number of this representation with the given value
+     */
+    public abstract Complex<Double> of (double real, double imaginary);
+
+    /**
+     * Constructs a fresh operand equal to one of this representation, from its native
+     * components alone, so that none of the components derived from them are cached yet.
+     * @param value an operand of this representation
+     * @return a new Complex number of this representation with the same value
+     */
+    public abstract Complex<Double> copy (Complex<Double> value);
+}
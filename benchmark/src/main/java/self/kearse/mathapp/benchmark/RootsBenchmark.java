@@ -0,0 +1,56 @@
+package self.kearse.mathapp.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import self.kearse.mathapp.Complex;
+
+/**
+ * Throughput of the principal root and of the full list of roots, over a range of degrees.  The
+ * full list is consumed element by element, so lazily computed lists are measured fairly.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RootsBenchmark {
+    @Param({"CARTESIAN", "POLAR"})
+    public Representation representation;
+    @Param({"2", "3", "7", "64", "4096"})
+    public int degree;
+
+    private Complex<Double> value;
+
+    @Setup
+    public void setup() {
+        value = representation.of(-3.5d, 12d);
+    }
+
+    @Benchmark
+    public Complex<Double> root() {
+        return Complex.root(value, degree);
+    }
+
+    @Benchmark
+    public void roots(Blackhole blackhole) {
+        List<Complex<Double>> roots = Complex.roots(value, degree);
+        for (Complex<Double> each : roots) {
+            blackhole.consume(each.real());
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package self.kearse.mathapp.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import self.kearse.mathapp.Complex;
+
+/**
+ * Throughput of the Complex logarithm, exponential and power functions, over every pairing of
+ * base and exponent representations.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TranscendentalBenchmark {
+    @Param({"CARTESIAN", "POLAR"})
+    public Representation base;
+    @Param({"CARTESIAN", "POLAR"})
+    public Representation exponent;
+
+    private Complex<Double> z;
+    private Complex<Double> integerExponent;
+    private Complex<Double> complexExponent;
+
+    @Setup
+    public void setup() {
+        z = base.of(0.8d, 1.1d);
+        integerExponent = exponent.of(2d, 0d);
+        complexExponent = exponent.of(0.5d, -1.5d);
+    }
+
+    @Benchmark
+    public Complex<Double> Log() {
+        return Complex.Log(z);
+    }
+
+    @Benchmark
+    public Complex<Double> Exp() {
+        return Complex.Exp(z);
+    }
+
+    @Benchmark
+    public Complex<Double> powInteger() {
+        return z.pow(integerExponent);
+    }
+
+    @Benchmark
+    public Complex<Double> powComplex() {
+        return z.pow(complexExponent);
+    }
+}